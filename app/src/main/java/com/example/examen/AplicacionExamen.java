@@ -0,0 +1,61 @@
+/**
+ * CLASE: AplicacionExamen.java
+ *
+ * PROPÓSITO:
+ * Punto de arranque del proceso (antes que cualquier Activity). Prepara lo que
+ * el módulo core necesita de Android y no puede conocer por sí mismo.
+ *
+ * RESPONSABILIDADES:
+ * 1. Registra el PaqueteIconosBasico (drawables de android.R) en RegistroIconos,
+ *    así que su primer icono pasa a ser el icono por defecto
+ * 2. En las builds depurables activa Metricas y le da un Trazador con
+ *    android.os.Trace (las secciones se ven en Perfetto). En release quedan
+ *    desactivadas: cada punto medido solo lee un volatile
+ *
+ * USO:
+ * Declarada en AndroidManifest.xml (android:name del elemento application).
+ */
+package com.example.examen;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+import android.os.Trace;
+
+/**
+ * Application de la app: registra los iconos básicos y prepara las métricas al crear el proceso.
+ */
+public class AplicacionExamen extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        RegistroIconos.registrarPaquete(new PaqueteIconosBasico());
+
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            Metricas.setTrazador(new TrazadorAndroid());
+            // Lo medido en el hilo principal puede ser la causa de un fotograma lento
+            Metricas.setHiloPrincipal(Looper.getMainLooper().getThread());
+            Metricas.setActivas(true);
+        }
+    }
+
+    /**
+     * Secciones de Metricas como secciones de android.os.Trace.
+     */
+    private static final class TrazadorAndroid implements Metricas.Trazador {
+
+        /** Trace no admite nombres de sección más largos */
+        private static final int MAX_NOMBRE = 127;
+
+        @Override
+        public void comenzar(String seccion) {
+            Trace.beginSection(seccion.length() > MAX_NOMBRE ? seccion.substring(0, MAX_NOMBRE) : seccion);
+        }
+
+        @Override
+        public void terminar() {
+            Trace.endSection();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * CLASE: CacheIconos.java
+ *
+ * PROPÓSITO:
+ * Caché COMPARTIDA de iconos ya rasterizados (Bitmap) para la lista, la
+ * cuadrícula del selector y el detalle. Con setImageResource() cada fila que
+ * aparecía al hacer scroll volvía a cargar y a dibujar el mismo drawable;
+ * ahora cada icono se dibuja UNA vez por tamaño y las vistas reciben el Bitmap.
+ *
+ * CLAVE: (iconoResId, tamaño en píxeles redondeado a una "cubeta")
+ * ┌────────────────────┬──────────────────────────┐
+ * │ 32 bits: resId     │ 32 bits: lado en px      │
+ * └────────────────────┴──────────────────────────┘
+ * Los lados se redondean hacia arriba (múltiplos de 16 px hasta 128, de 32 hasta
+ * 256, de 64 después) para que vistas de tamaño parecido compartan el Bitmap;
+ * el ImageView lo escala un poco hacia abajo al pintarlo.
+ *
+ * MEMORIA:
+ * - LruCache medida en BYTES (getAllocationByteCount), no en número de iconos:
+ *   un icono de 120dp del detalle ocupa como ~6 de la lista
+ * - Límite: 1/32 de la memoria de la app (entre 1 y 8 MB)
+ * - onTrimMemory(): con la app en segundo plano se recorta a la mitad; con poca
+ *   memoria se vacía (los iconos se vuelven a dibujar al verse)
+ * - Un cambio de configuración (densidad de pantalla) la vacía: los tamaños cambian
+ *
+ * USO (solo desde el hilo principal):
+ * CacheIconos.getInstancia(context).mostrar(imageView, entrenamiento.getIconoResId());
+ */
+package com.example.examen;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+
+/**
+ * LRU de Bitmaps de iconos por (recurso, tamaño), compartida por todas las pantallas.
+ */
+public final class CacheIconos implements ComponentCallbacks2 {
+
+    // ==================== CONSTANTES ====================
+
+    /** Límites del tamaño de la caché */
+    private static final int MINIMO_BYTES = 1024 * 1024;
+    private static final int MAXIMO_BYTES = 8 * 1024 * 1024;
+
+    /** Lado que se usa si la vista no tiene un tamaño fijo en el layout */
+    private static final int LADO_POR_DEFECTO_DP = 48;
+
+    /** Contadores y tiempo en Metricas */
+    private static final String METRICA_ACIERTO = "iconos.acierto";
+    private static final String METRICA_FALLO = "iconos.fallo";
+    private static final String METRICA_RASTERIZAR = "iconos.rasterizar";
+
+    // ==================== INSTANCIA ÚNICA ====================
+
+    private static CacheIconos instancia;
+
+    /**
+     * @param context Cualquier Context (se guarda el de la aplicación)
+     * @return La caché compartida
+     */
+    public static synchronized CacheIconos getInstancia(Context context) {
+        if (instancia == null) {
+            instancia = new CacheIconos(context.getApplicationContext());
+        }
+        return instancia;
+    }
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Context context;
+
+    /** (resId, lado) → Bitmap, limitada en bytes */
+    private final LruCache<Long, Bitmap> bitmaps;
+
+    /** Píxeles por dp de la pantalla actual */
+    private float densidad;
+
+    private int aciertos;
+    private int rasterizados;
+
+    private CacheIconos(Context context) {
+        this.context = context;
+        this.densidad = context.getResources().getDisplayMetrics().density;
+        long limite = Math.max(MINIMO_BYTES, Math.min(MAXIMO_BYTES, Runtime.getRuntime().maxMemory() / 32));
+        this.bitmaps = new LruCache<Long, Bitmap>((int) limite) {
+            @Override
+            protected int sizeOf(Long clave, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+        context.registerComponentCallbacks(this);
+    }
+
+    // ==================== ICONOS ====================
+
+    /**
+     * Pone el icono en la vista, al tamaño que tiene la vista en el layout.
+     *
+     * @param vista ImageView de destino
+     * @param iconoResId Recurso drawable del icono
+     */
+    public void mostrar(ImageView vista, int iconoResId) {
+        ViewGroup.LayoutParams parametros = vista.getLayoutParams();
+        int lado = parametros != null ? Math.max(parametros.width, parametros.height) : 0;
+        if (lado <= 0) {
+            lado = Math.round(LADO_POR_DEFECTO_DP * densidad);
+        }
+        vista.setImageBitmap(obtener(iconoResId, lado));
+    }
+
+    /**
+     * @param iconoResId Recurso drawable del icono
+     * @param ladoPx Lado deseado en píxeles (se redondea a su cubeta)
+     * @return Bitmap del icono (dibujado ahora solo si no estaba en caché), o null si el recurso no existe
+     */
+    public Bitmap obtener(int iconoResId, int ladoPx) {
+        int cubeta = cubeta(ladoPx);
+        long clave = clave(iconoResId, cubeta);
+        Bitmap bitmap = bitmaps.get(clave);
+        if (bitmap != null) {
+            aciertos++;
+            Metricas.contar(METRICA_ACIERTO);
+            return bitmap;
+        }
+        Metricas.contar(METRICA_FALLO);
+        long inicio = Metricas.iniciar(METRICA_RASTERIZAR);
+        try {
+            bitmap = rasterizar(iconoResId, cubeta);
+        } finally {
+            Metricas.terminar(METRICA_RASTERIZAR, inicio);
+        }
+        if (bitmap != null) {
+            rasterizados++;
+            bitmaps.put(clave, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Dibuja el drawable en un Bitmap cuadrado de ese lado, centrado y sin deformar.
+     */
+    private Bitmap rasterizar(int iconoResId, int lado) {
+        Drawable drawable = context.getDrawable(iconoResId);
+        if (drawable == null) {
+            return null;
+        }
+        int ancho = drawable.getIntrinsicWidth();
+        int alto = drawable.getIntrinsicHeight();
+        int anchoFinal = lado;
+        int altoFinal = lado;
+        if (ancho > 0 && alto > 0 && ancho != alto) {
+            if (ancho > alto) {
+                altoFinal = Math.max(1, lado * alto / ancho);
+            } else {
+                anchoFinal = Math.max(1, lado * ancho / alto);
+            }
+        }
+        Bitmap bitmap = Bitmap.createBitmap(lado, lado, Bitmap.Config.ARGB_8888);
+        int x = (lado - anchoFinal) / 2;
+        int y = (lado - altoFinal) / 2;
+        drawable.setBounds(x, y, x + anchoFinal, y + altoFinal);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /**
+     * @return Lado redondeado hacia arriba a su cubeta
+     */
+    static int cubeta(int ladoPx) {
+        int paso = ladoPx <= 128 ? 16 : ladoPx <= 256 ? 32 : 64;
+        return Math.max(paso, (ladoPx + paso - 1) / paso * paso);
+    }
+
+    static long clave(int iconoResId, int lado) {
+        return ((long) iconoResId << 32) | (lado & 0xFFFFFFFFL);
+    }
+
+    // ==================== ESTADÍSTICAS ====================
+
+    /**
+     * @return Veces que un icono se sirvió de la caché
+     */
+    public int getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * @return Veces que hubo que dibujar un icono (fallos de caché)
+     */
+    public int getRasterizados() {
+        return rasterizados;
+    }
+
+    /**
+     * @return Bytes ocupados ahora por los Bitmaps en caché
+     */
+    public int getBytes() {
+        return bitmaps.size();
+    }
+
+    // ==================== MEMORIA ====================
+
+    @Override
+    public void onTrimMemory(int nivel) {
+        if (nivel >= TRIM_MEMORY_MODERATE || nivel == TRIM_MEMORY_RUNNING_CRITICAL) {
+            bitmaps.evictAll();
+        } else if (nivel >= TRIM_MEMORY_UI_HIDDEN || nivel == TRIM_MEMORY_RUNNING_LOW) {
+            // La UI no se ve (o la memoria empieza a escasear): basta con la mitad
+            bitmaps.trimToSize(bitmaps.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        bitmaps.evictAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration configuracion) {
+        float nuevaDensidad = context.getResources().getDisplayMetrics().density;
+        if (nuevaDensidad != densidad) {
+            densidad = nuevaDensidad;
+            bitmaps.evictAll();
+        }
+    }
+}
@@ -0,0 +1,1226 @@
+/**
+ * CLASE: CatalogoEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Punto de acceso ÚNICO de la interfaz a los entrenamientos.
+ * Envuelve al RepositorioEntrenamientos y se encarga de que el disco
+ * nunca se toque desde el hilo principal (UI).
+ *
+ * RESPONSABILIDADES:
+ * 1. Abrir el almacén (y rellenarlo la primera vez) en segundo plano
+ * 2. Ejecutar todas las lecturas y escrituras en un ejecutor con un solo hilo
+ *    y una cola ACOTADA (si se llena, se rechaza la operación en vez de crecer sin límite)
+ * 3. Publicar una InstantaneaCatalogo INMUTABLE tras cada cambio
+ * 4. Avisar a los observadores en el hilo principal, como mucho una vez por frame
+ * 5. Servir páginas de entrenamientos (cargarPagina) y entrenamientos sueltos
+ *    (buscarPorId, leerPorIds) leyendo la vista de una instantánea en el hilo catalogo-lectura
+ * 6. Buscar por texto y filtrar por dificultad/icono (buscar) o por rango de duración
+ *    (buscarPorDuracion) con índices secundarios (IndiceBusqueda, MotorFiltros,
+ *    IndiceDuracion) que se mantienen al día en cada escritura
+ * 7. Importar ficheros CSV/JSON grandes por lotes (importar), con progreso y cancelación
+ * 8. Exportar el catálogo completo a CSV, JSON o formato nativo (exportar) en streaming,
+ *    con progreso
+ * 9. Servir estadísticas del catálogo (leerEstadisticas) desde AgregadosCatalogo,
+ *    que se corrige en cada escritura en vez de recorrer el catálogo cada vez
+ * 10. Guardar las sesiones realizadas (registrarSesion) y consultarlas por fechas
+ *     (leerSesiones) en el HistorialSesiones, particionado por meses
+ *
+ * PATRÓN DE DISEÑO:
+ * - Singleton: Una sola instancia por proceso (getInstancia)
+ * - Observer: Los fragments se suscriben con observar() en vez de llamarse entre ellos
+ *
+ * AGRUPACIÓN POR FRAME:
+ * Si llegan 50 cambios seguidos (por ejemplo, una importación), los observadores
+ * NO se llaman 50 veces: se programa un único aviso con Choreographer para el
+ * siguiente frame, y ese aviso entrega la instantánea más reciente.
+ *
+ * FLUJO DE UNA ESCRITURA:
+ * UI → agregar() → [hilo catalogo-io] escribir en el registro (sin esperar al disco)
+ *    → [catalogo-io, tras las escrituras que ya estaban en cola] confirmar TODAS
+ *      con un solo fsync → índices, estadísticas y UNA instantánea nueva
+ *    → [siguiente frame, hilo principal] onCatalogoCambiado(instantánea)
+ * Nada llega a la UI (ni a los índices) antes de estar en disco: si el fsync falla,
+ * esas escrituras no se publican y se avisa con un Toast. El hilo principal nunca
+ * espera; catalogo-io espera una vez por tanda de escrituras, no una por escritura.
+ *
+ * FLUJO DE UNA IMPORTACIÓN:
+ * UI → importar(uri) → [hilo catalogo-importacion] leer y validar el fichero
+ *    → cada TAMANO_LOTE entrenamientos: [hilo catalogo-io] guardarLote + UNA instantánea
+ *    → [hilo principal] OnImportacionListener.onProgreso()
+ * La lectura del fichero no ocupa el hilo catalogo-io: la lista puede seguir
+ * cargando páginas entre lote y lote.
+ *
+ * ¿POR QUÉ LA INSTANTÁNEA NO LLEVA LA LISTA?
+ * Con catálogos de 100.000+ entrenamientos, decodificarlos todos antes de pintar
+ * la primera pantalla sería lento y ocuparía mucha memoria. La lista pide solo
+ * las páginas visibles con cargarPagina().
+ *
+ * MÉTRICAS:
+ * Cada lectura y escritura del repositorio se mide en Metricas ("repositorio.*"),
+ * en el hilo que la hace (las secciones de traza salen en catalogo-lectura/catalogo-io).
+ *
+ * LECTURAS SIN ESPERAR A LAS ESCRITURAS:
+ * Cada instantánea lleva la VistaEntrenamientos (índice persistente e inmutable)
+ * de su versión. Las páginas y los detalles se leen de esa vista en un hilo propio
+ * (catalogo-lectura), sin candados: no esperan detrás de un lote de importación o
+ * de una exportación en catalogo-io, y la página N siempre es coherente con el
+ * total de la misma instantánea.
+ */
+package com.example.examen;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.os.Process;
+import android.provider.OpenableColumns;
+import android.util.Log;
+import android.view.Choreographer;
+import android.widget.Toast;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Repositorio asíncrono y observable de entrenamientos para la capa de UI.
+ */
+public class CatalogoEntrenamientos {
+
+    // ==================== INTERFACES ====================
+
+    /**
+     * Recibe la instantánea del catálogo cada vez que cambia.
+     * Siempre se llama en el hilo principal.
+     */
+    public interface Observador {
+        /**
+         * @param instantanea Versión y tamaño actuales del catálogo
+         */
+        void onCatalogoCambiado(InstantaneaCatalogo instantanea);
+    }
+
+    /**
+     * Recibe el resultado de una consulta asíncrona en el hilo principal.
+     *
+     * @param <T> Tipo del resultado
+     */
+    public interface OnResultadoListener<T> {
+        void onResultado(T resultado);
+    }
+
+    /**
+     * Sigue una importación en curso. Siempre se llama en el hilo principal.
+     */
+    public interface OnImportacionListener {
+        /**
+         * @param progreso Estado tras el último lote guardado
+         */
+        void onProgreso(ImportadorEntrenamientos.Progreso progreso);
+
+        /**
+         * @param resultado Resumen de la importación, o null si falló
+         */
+        void onTerminada(ImportadorEntrenamientos.Resultado resultado);
+    }
+
+    /**
+     * Sigue una exportación en curso. Siempre se llama en el hilo principal.
+     */
+    public interface OnExportacionListener {
+        /**
+         * @param exportados Entrenamientos escritos hasta ahora
+         * @param total Entrenamientos del catálogo al empezar
+         */
+        void onProgreso(int exportados, int total);
+
+        /**
+         * @param exportados Entrenamientos exportados, o -1 si falló
+         */
+        void onTerminada(int exportados);
+    }
+
+    // ==================== CONSTANTES ====================
+
+    private static final String TAG = "CatalogoEntrenamientos";
+
+    /** Nombre del fichero del almacén dentro de getFilesDir() */
+    private static final String FICHERO_ALMACEN = "entrenamientos.db";
+
+    /** Carpeta del historial de sesiones dentro de getFilesDir() */
+    private static final String CARPETA_SESIONES = "sesiones";
+
+    /** Operaciones de disco que pueden esperar en cola como máximo */
+    private static final int CAPACIDAD_COLA = 256;
+
+    /** Entrenamientos que se leen de golpe al construir los índices secundarios */
+    private static final int LOTE_INDEXADO = 1000;
+
+    /** Tiempos en Metricas de las lecturas y escrituras del repositorio */
+    private static final String METRICA_LEER_PAGINA = "repositorio.leerPagina";
+    private static final String METRICA_LEER_ID = "repositorio.leerId";
+    private static final String METRICA_LEER_IDS = "repositorio.leerIds";
+    private static final String METRICA_LEER_RESULTADOS = "repositorio.leerResultados";
+    private static final String METRICA_GUARDAR = "repositorio.guardar";
+    private static final String METRICA_GUARDAR_LOTE = "repositorio.guardarLote";
+    private static final String METRICA_ELIMINAR = "repositorio.eliminar";
+    private static final String METRICA_CONFIRMAR = "repositorio.confirmar";
+    private static final String METRICA_REGISTRAR_SESION = "historial.registrar";
+    private static final String METRICA_LEER_SESIONES = "historial.consultar";
+
+    /** Espera antes de reintentar un lote de importación si la cola de disco está llena */
+    private static final long ESPERA_COLA_LLENA_MS = 50;
+
+    // ==================== SINGLETON ====================
+
+    private static CatalogoEntrenamientos instancia;
+
+    /**
+     * Retorna el catálogo compartido, creándolo la primera vez.
+     * Crear el catálogo NO bloquea: el almacén se abre en segundo plano.
+     *
+     * @param context Cualquier Context (se guarda el de la aplicación)
+     * @return Catálogo de entrenamientos
+     */
+    public static synchronized CatalogoEntrenamientos getInstancia(Context context) {
+        if (instancia == null) {
+            instancia = new CatalogoEntrenamientos(context.getApplicationContext());
+        }
+        return instancia;
+    }
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Context context;
+
+    /** Hilo de disco: un único hilo, cola acotada */
+    private final ExecutorService ejecutor;
+
+    /** Hilo de lectura de vistas (nunca escribe ni toca los índices secundarios) */
+    private final ExecutorService lector;
+
+    /** Handler del hilo principal para entregar resultados */
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    /** Observadores suscritos (se pueden dar de baja mientras se les notifica) */
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
+
+    /** true si ya hay un aviso programado para el siguiente frame */
+    private final AtomicBoolean avisoPendiente = new AtomicBoolean();
+
+    /** Almacén en disco (solo se usa desde el hilo catalogo-io) */
+    private RepositorioEntrenamientos repositorio;
+
+    /** true si ya hay una confirmación en cola detrás de las escrituras */
+    private final AtomicBoolean confirmacionPendiente = new AtomicBoolean();
+
+    /**
+     * Escrituras aún sin confirmar (solo desde el hilo catalogo-io): la marca de la
+     * última, lo que hay que hacer en índices y estadísticas cuando sean durables y
+     * la última versión escrita de cada ID (null = eliminado).
+     */
+    private long marcaPendiente = RepositorioEntrenamientos.SIN_CAMBIOS;
+    private final List<Runnable> alConfirmar = new ArrayList<>();
+    private final Map<Integer, Entrenamiento> sinConfirmar = new HashMap<>();
+
+    /** Última instantánea publicada (null hasta que termina la carga inicial) */
+    private volatile InstantaneaCatalogo instantanea;
+
+    /**
+     * Índices secundarios (solo se usan desde el hilo catalogo-io).
+     * Se construyen la primera vez que se consulta uno; después solo se actualizan.
+     */
+    private IndiceBusqueda indice;
+    private IndiceDuracion indiceDuracion;
+    private MotorFiltros filtros;
+
+    /**
+     * Estadísticas materializadas (solo desde el hilo catalogo-io). Como los índices:
+     * se calculan la primera vez que se piden y después solo se corrigen.
+     */
+    private AgregadosCatalogo agregados;
+
+    /**
+     * Historial de sesiones (solo desde el hilo catalogo-io). Se abre la primera
+     * vez que se usa: el arranque no toca la carpeta de sesiones.
+     */
+    private HistorialSesiones historial;
+
+    /** Número de la última búsqueda pedida; las anteriores aún en cola se descartan */
+    private final AtomicInteger ultimaBusqueda = new AtomicInteger();
+
+    /** Importación en curso (null si no hay ninguna) */
+    private volatile ImportadorEntrenamientos importador;
+
+    /** Último progreso de la importación en curso (para quien se suscriba a mitad) */
+    private volatile ImportadorEntrenamientos.Progreso progresoImportacion;
+
+    /** Quien sigue la importación (solo se usa en el hilo principal) */
+    private OnImportacionListener listenerImportacion;
+
+    /** true mientras hay una exportación en cola o en curso (solo en el hilo principal) */
+    private boolean exportando;
+
+    /** Último progreso de la exportación en curso: {exportados, total}, o null */
+    private int[] progresoExportacion;
+
+    /** Quien sigue la exportación (solo se usa en el hilo principal) */
+    private OnExportacionListener listenerExportacion;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    private CatalogoEntrenamientos(Context context) {
+        this.context = context;
+        this.ejecutor = crearEjecutor("catalogo-io");
+        this.lector = crearEjecutor("catalogo-lectura");
+
+        ejecutar(this::cargar);
+    }
+
+    /** Un único hilo de baja prioridad con cola acotada */
+    private static ExecutorService crearEjecutor(String nombreHilo) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPACIDAD_COLA),
+                tarea -> new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    tarea.run();
+                }, nombreHilo));
+    }
+
+    /**
+     * Abre el almacén, lo rellena si está vacío y publica la primera instantánea.
+     * Abrir solo recorre las cabeceras de los registros: no se decodifica ningún
+     * entrenamiento hasta que la lista pide su primera página.
+     * Se ejecuta en el hilo catalogo-io.
+     */
+    private void cargar() throws IOException {
+        File fichero = new File(context.getFilesDir(), FICHERO_ALMACEN);
+        repositorio = AlmacenEntrenamientos.abrir(fichero);
+        if (repositorio.contar() == 0) {
+            inicializarEntrenamientos(repositorio);
+        }
+        publicar();
+    }
+
+    /**
+     * Guarda los 4 entrenamientos predefinidos la primera vez que se abre el almacén.
+     *
+     * ENTRENAMIENTOS INCLUIDOS:
+     * 1. Cardio Intenso - Alta dificultad, 45 minutos
+     * 2. Fuerza Total - Media dificultad, 60 minutos
+     * 3. Yoga Relajante - Baja dificultad, 30 minutos
+     * 4. HIIT Extremo - Alta dificultad, 25 minutos
+     */
+    private static void inicializarEntrenamientos(RepositorioEntrenamientos repositorio) throws IOException {
+        // Icono: ic_menu_directions (flecha/dirección) para representar movimiento
+        repositorio.guardar(new Entrenamiento(repositorio.generarNuevoId(), "Cardio Intenso",
+            "Ejercicios cardiovasculares de alta intensidad para mejorar la resistencia",
+            "45 minutos", "Alta", android.R.drawable.ic_menu_directions));
+
+        // Icono: ic_menu_manage (gestión/configuración) para representar estructura
+        repositorio.guardar(new Entrenamiento(repositorio.generarNuevoId(), "Fuerza Total",
+            "Entrenamiento de fuerza para todos los grupos musculares",
+            "60 minutos", "Media", android.R.drawable.ic_menu_manage));
+
+        // Icono: ic_menu_gallery (galería) para representar variedad/flexibilidad
+        repositorio.guardar(new Entrenamiento(repositorio.generarNuevoId(), "Yoga Relajante",
+            "Sesión de yoga para flexibilidad y relajación mental",
+            "30 minutos", "Baja", android.R.drawable.ic_menu_gallery));
+
+        // Icono: ic_menu_rotate (rotación) para representar circuito/repetición
+        repositorio.guardar(new Entrenamiento(repositorio.generarNuevoId(), "HIIT Extremo",
+            "Entrenamiento de intervalos de alta intensidad para quemar calorías",
+            "25 minutos", "Alta", android.R.drawable.ic_menu_rotate));
+    }
+
+    // ==================== OBSERVADORES ====================
+
+    /**
+     * Suscribe un observador. Si el catálogo ya está cargado, recibe la
+     * instantánea actual en el siguiente frame.
+     * Llamar desde el hilo principal.
+     *
+     * @param observador Observador a suscribir
+     */
+    public void observar(Observador observador) {
+        observadores.add(observador);
+        if (instantanea != null) {
+            programarAviso();
+        }
+    }
+
+    /**
+     * Da de baja un observador (por ejemplo en onDestroyView).
+     *
+     * @param observador Observador a dar de baja
+     */
+    public void dejarDeObservar(Observador observador) {
+        observadores.remove(observador);
+    }
+
+    /**
+     * @return Última instantánea publicada, o null si todavía se está cargando
+     */
+    public InstantaneaCatalogo getInstantanea() {
+        return instantanea;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Lee una página de entrenamientos de una instantánea concreta en segundo plano.
+     * No espera a las escrituras en curso: lee la vista inmutable de esa versión.
+     *
+     * @param instantanea Versión del catálogo de la que se lee la página
+     * @param desde Posición del primer entrenamiento de la página
+     * @param cantidad Tamaño de la página
+     * @param listener Recibe los entrenamientos leídos en el hilo principal
+     */
+    public void cargarPagina(InstantaneaCatalogo instantanea, int desde, int cantidad,
+                             OnResultadoListener<List<Entrenamiento>> listener) {
+        ejecutarEn(lector, () -> {
+            long inicio = Metricas.iniciar(METRICA_LEER_PAGINA);
+            List<Entrenamiento> pagina;
+            try {
+                pagina = instantanea.getVista().obtenerRango(desde, cantidad);
+            } finally {
+                Metricas.terminar(METRICA_LEER_PAGINA, inicio);
+            }
+            hiloPrincipal.post(() -> listener.onResultado(pagina));
+        });
+    }
+
+    /**
+     * Busca un entrenamiento por ID en la última versión del catálogo, en segundo plano.
+     *
+     * @param id ID del entrenamiento
+     * @param listener Recibe el entrenamiento (o null si no existe o el catálogo no se
+     *                 pudo cargar) en el hilo principal
+     */
+    public void buscarPorId(int id, OnResultadoListener<Entrenamiento> listener) {
+        // Mientras se abre el almacén no hay vista: se espera detrás de la carga en catalogo-io
+        ejecutarEn(instantanea != null ? lector : ejecutor, () -> {
+            VistaEntrenamientos vista = vistaCargada();
+            long inicio = Metricas.iniciar(METRICA_LEER_ID);
+            Entrenamiento entrenamiento;
+            try {
+                entrenamiento = vista != null ? vista.obtenerPorId(id) : null;
+            } finally {
+                Metricas.terminar(METRICA_LEER_ID, inicio);
+            }
+            hiloPrincipal.post(() -> listener.onResultado(entrenamiento));
+        });
+    }
+
+    /**
+     * Lee varios entrenamientos por ID y los transforma, todo en segundo plano
+     * (por ejemplo, para dejar preparado lo que mostrará una pantalla).
+     *
+     * @param ids IDs a leer
+     * @param convertir Se aplica a cada entrenamiento (o a null si no existe o el
+     *                  catálogo no se pudo cargar) en el hilo lector
+     * @param listener Recibe los resultados, en el mismo orden que ids, en el hilo principal
+     */
+    public <T> void leerPorIds(int[] ids, Function<Entrenamiento, T> convertir,
+                               OnResultadoListener<List<T>> listener) {
+        ejecutarEn(instantanea != null ? lector : ejecutor, () -> {
+            VistaEntrenamientos vista = vistaCargada();
+            long inicio = Metricas.iniciar(METRICA_LEER_IDS);
+            List<T> resultados = new ArrayList<>(ids.length);
+            try {
+                for (int id : ids) {
+                    resultados.add(convertir.apply(vista != null ? vista.obtenerPorId(id) : null));
+                }
+            } finally {
+                Metricas.terminar(METRICA_LEER_IDS, inicio);
+            }
+            hiloPrincipal.post(() -> listener.onResultado(resultados));
+        });
+    }
+
+    /**
+     * Vista de la última instantánea. Las lecturas por ID que llegan antes de la carga
+     * esperan detrás de ella en catalogo-io: si aun así no hay instantánea, la carga
+     * falló (ya se avisó con un Toast) y se responde como si ningún ID existiera,
+     * para que quien espera la respuesta no se quede esperando para siempre.
+     *
+     * @return Vista actual, o null si el catálogo no se pudo cargar
+     */
+    private VistaEntrenamientos vistaCargada() {
+        InstantaneaCatalogo actual = instantanea;
+        if (actual == null) {
+            Log.w(TAG, "Lectura por ID sin catálogo cargado: se responde vacío");
+            return null;
+        }
+        return actual.getVista();
+    }
+
+    /**
+     * Busca entrenamientos por nombre y descripción en segundo plano.
+     * Pensado para llamarse en cada pulsación: si llega una búsqueda nueva
+     * antes de que empiece esta, esta se descarta sin tocar el índice.
+     *
+     * @param texto Texto escrito por el usuario (sin importar mayúsculas ni acentos)
+     * @param limite Número máximo de resultados
+     * @param listener Recibe los entrenamientos, del más relevante al menos, en el hilo principal
+     */
+    public void buscar(String texto, int limite, OnResultadoListener<List<Entrenamiento>> listener) {
+        buscar(texto, null, null, limite, listener);
+    }
+
+    /**
+     * Busca por texto y filtra por dificultad y categoría de icono en segundo plano.
+     * Los filtros se resuelven con MotorFiltros (AND/OR de bitsets), sin recorrer el catálogo.
+     *
+     * @param texto Texto a buscar; vacío = sin búsqueda de texto (solo filtros, por orden de ID)
+     * @param dificultades Dificultades aceptadas (null o vacío = todas)
+     * @param iconosResId Iconos aceptados (null o vacío = todos)
+     * @param limite Número máximo de resultados
+     * @param listener Recibe los entrenamientos en el hilo principal
+     */
+    public void buscar(String texto, Collection<String> dificultades, int[] iconosResId, int limite,
+                       OnResultadoListener<List<Entrenamiento>> listener) {
+        int numero = ultimaBusqueda.incrementAndGet();
+        ejecutar(() -> {
+            if (numero != ultimaBusqueda.get()) {
+                return;
+            }
+            asegurarIndices();
+            boolean hayFiltro = dificultades != null && !dificultades.isEmpty()
+                    || iconosResId != null && iconosResId.length > 0;
+            BitsetComprimido permitidos = hayFiltro ? filtros.filtrar(dificultades, iconosResId) : null;
+
+            int[] ids;
+            if (texto != null && !texto.trim().isEmpty()) {
+                ids = indice.buscar(texto, limite, permitidos);
+            } else if (permitidos != null) {
+                ids = permitidos.aArray(limite);
+            } else {
+                ids = new int[0];
+            }
+            entregar(ids, limite, listener);
+        });
+    }
+
+    /**
+     * Busca los entrenamientos con duración entre minimo y maximo minutos (ambos incluidos),
+     * ordenados de menor a mayor duración. Usa búsqueda binaria sobre IndiceDuracion,
+     * sin analizar ningún texto.
+     *
+     * @param minimo Minutos mínimos
+     * @param maximo Minutos máximos
+     * @param limite Número máximo de resultados
+     * @param listener Recibe los entrenamientos en el hilo principal
+     */
+    public void buscarPorDuracion(int minimo, int maximo, int limite,
+                                  OnResultadoListener<List<Entrenamiento>> listener) {
+        ejecutar(() -> {
+            asegurarIndices();
+            entregar(indiceDuracion.rango(minimo, maximo), limite, listener);
+        });
+    }
+
+    /**
+     * Lee del almacén los primeros "limite" entrenamientos de una lista de IDs
+     * y los entrega en el hilo principal.
+     */
+    private void entregar(int[] ids, int limite, OnResultadoListener<List<Entrenamiento>> listener) {
+        int cantidad = Math.min(ids.length, limite);
+        List<Entrenamiento> resultados = new ArrayList<>(cantidad);
+        long inicio = Metricas.iniciar(METRICA_LEER_RESULTADOS);
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                Entrenamiento entrenamiento = repositorio.obtenerPorId(ids[i]);
+                if (entrenamiento != null) {
+                    resultados.add(entrenamiento);
+                }
+            }
+        } finally {
+            Metricas.terminar(METRICA_LEER_RESULTADOS, inicio);
+        }
+        hiloPrincipal.post(() -> listener.onResultado(resultados));
+    }
+
+    /**
+     * Descarta las búsquedas que aún esperan en cola (por ejemplo, al vaciar el campo).
+     */
+    public void cancelarBusquedas() {
+        ultimaBusqueda.incrementAndGet();
+    }
+
+    /**
+     * Construye los índices secundarios la primera vez, en una sola pasada por el almacén
+     * (por lotes, para no tener todo el catálogo decodificado a la vez).
+     */
+    private void asegurarIndices() {
+        if (indice != null) {
+            return;
+        }
+        indice = new IndiceBusqueda();
+        indiceDuracion = new IndiceDuracion();
+        filtros = new MotorFiltros();
+        int total = repositorio.contar();
+        for (int desde = 0; desde < total; desde += LOTE_INDEXADO) {
+            List<Entrenamiento> lote = repositorio.obtenerRango(desde, LOTE_INDEXADO);
+            for (Entrenamiento entrenamiento : lote) {
+                indice.anadir(entrenamiento);
+                filtros.anadir(entrenamiento);
+            }
+            indiceDuracion.anadirLote(lote);
+        }
+    }
+
+    /** Añade o reemplaza un entrenamiento en todos los índices secundarios (si ya existen) */
+    private void indexar(Entrenamiento entrenamiento) {
+        if (indice != null) {
+            indice.anadir(entrenamiento);
+            indiceDuracion.anadir(entrenamiento);
+            filtros.anadir(entrenamiento);
+        }
+    }
+
+    /** Quita un entrenamiento de todos los índices secundarios (si ya existen) */
+    private void desindexar(int id) {
+        if (indice != null) {
+            indice.eliminar(id);
+            indiceDuracion.eliminar(id);
+            filtros.eliminar(id);
+        }
+    }
+
+    // ==================== ESTADÍSTICAS ====================
+
+    /**
+     * Estadísticas del catálogo en segundo plano: totales y media de minutos por
+     * dificultad, entrenamientos por icono y el más corto y el más largo.
+     * Solo la primera vez se recorre el catálogo; después es copiar unos totales.
+     *
+     * @param listener Recibe las estadísticas en el hilo principal
+     */
+    public void leerEstadisticas(OnResultadoListener<EstadisticasCatalogo> listener) {
+        ejecutar(() -> {
+            asegurarAgregados();
+            EstadisticasCatalogo estadisticas = agregados.instantanea(repositorio::obtenerPorId);
+            hiloPrincipal.post(() -> listener.onResultado(estadisticas));
+        });
+    }
+
+    private void asegurarAgregados() {
+        if (agregados != null) {
+            return;
+        }
+        agregados = new AgregadosCatalogo();
+        int total = repositorio.contar();
+        for (int desde = 0; desde < total; desde += LOTE_INDEXADO) {
+            for (Entrenamiento entrenamiento : repositorio.obtenerRango(desde, LOTE_INDEXADO)) {
+                agregados.anadir(entrenamiento);
+            }
+        }
+    }
+
+    // ==================== SESIONES ====================
+
+    /**
+     * Añade una sesión terminada al historial en segundo plano.
+     *
+     * @param sesion Sesión realizada
+     */
+    public void registrarSesion(Sesion sesion) {
+        ejecutar(() -> {
+            long inicio = Metricas.iniciar(METRICA_REGISTRAR_SESION);
+            try {
+                asegurarHistorial().anadir(sesion);
+            } finally {
+                Metricas.terminar(METRICA_REGISTRAR_SESION, inicio);
+            }
+        });
+    }
+
+    /**
+     * Sesiones que empezaron en [desde, hasta), ordenadas por inicio. Solo se leen
+     * las particiones (meses) de ese intervalo.
+     *
+     * @param desde Milisegundos desde 1970, incluido
+     * @param hasta Milisegundos desde 1970, excluido
+     * @param listener Recibe las sesiones en el hilo principal
+     */
+    public void leerSesiones(long desde, long hasta, OnResultadoListener<List<Sesion>> listener) {
+        ejecutar(() -> {
+            List<Sesion> sesiones;
+            long inicio = Metricas.iniciar(METRICA_LEER_SESIONES);
+            try {
+                sesiones = asegurarHistorial().consultar(desde, hasta);
+            } finally {
+                Metricas.terminar(METRICA_LEER_SESIONES, inicio);
+            }
+            hiloPrincipal.post(() -> listener.onResultado(sesiones));
+        });
+    }
+
+    private HistorialSesiones asegurarHistorial() throws IOException {
+        if (historial == null) {
+            historial = HistorialSesiones.abrir(new File(context.getFilesDir(), CARPETA_SESIONES));
+        }
+        return historial;
+    }
+
+    // ==================== ESCRITURAS ====================
+
+    /**
+     * Crea un entrenamiento con un ID nuevo y lo guarda en segundo plano.
+     *
+     * @param nombre Nombre del entrenamiento
+     * @param descripcion Descripción
+     * @param duracion Duración en texto (ej: "30 minutos")
+     * @param dificultad "Baja", "Media" o "Alta"
+     * @param iconoResId ID del recurso del icono
+     */
+    public void crear(String nombre, String descripcion, String duracion, String dificultad, int iconoResId) {
+        ejecutarEscritura(() -> {
+            Entrenamiento entrenamiento = new Entrenamiento(repositorio.generarNuevoId(),
+                    nombre, descripcion, duracion, dificultad, iconoResId);
+            escribir(entrenamiento);
+        });
+    }
+
+    /**
+     * Guarda un entrenamiento (nuevo o editado) en segundo plano.
+     *
+     * @param entrenamiento Entrenamiento a guardar
+     */
+    public void agregar(Entrenamiento entrenamiento) {
+        ejecutarEscritura(() -> escribir(entrenamiento));
+    }
+
+    /**
+     * Elimina un entrenamiento en segundo plano.
+     *
+     * @param id ID del entrenamiento a eliminar
+     */
+    public void eliminar(int id) {
+        ejecutarEscritura(() -> {
+            // La versión guardada hace falta para descontarla de las estadísticas
+            Entrenamiento anterior = agregados != null ? ultimaVersion(id) : null;
+            long inicio = Metricas.iniciar(METRICA_ELIMINAR);
+            long marca;
+            try {
+                marca = repositorio.eliminarSinConfirmar(id);
+            } finally {
+                Metricas.terminar(METRICA_ELIMINAR, inicio);
+            }
+            if (marca != RepositorioEntrenamientos.SIN_CAMBIOS) {
+                sinConfirmar.put(id, null);
+                pendiente(marca, () -> {
+                    desindexar(id);
+                    if (anterior != null) {
+                        agregados.eliminar(anterior);
+                    }
+                });
+            }
+        });
+    }
+
+    /** Escribe sin esperar al disco; índices y estadísticas se actualizan al confirmar */
+    private void escribir(Entrenamiento entrenamiento) throws IOException {
+        // Si es una edición, las estadísticas cambian la versión anterior por esta
+        Entrenamiento anterior = agregados != null ? ultimaVersion(entrenamiento.getId()) : null;
+        long inicio = Metricas.iniciar(METRICA_GUARDAR);
+        long marca;
+        try {
+            marca = repositorio.guardarSinConfirmar(entrenamiento);
+        } finally {
+            Metricas.terminar(METRICA_GUARDAR, inicio);
+        }
+        sinConfirmar.put(entrenamiento.getId(), entrenamiento);
+        pendiente(marca, () -> {
+            // Solo se reindexa este entrenamiento, nunca el catálogo entero
+            indexar(entrenamiento);
+            if (agregados != null) {
+                agregados.reemplazar(anterior, entrenamiento);
+            }
+        });
+    }
+
+    /** Última versión escrita de un ID, confirmada o no (null si no existe o se eliminó) */
+    private Entrenamiento ultimaVersion(int id) {
+        if (sinConfirmar.containsKey(id)) {
+            return sinConfirmar.get(id);
+        }
+        return repositorio.obtenerPorId(id);
+    }
+
+    private void pendiente(long marca, Runnable alSerDurable) {
+        marcaPendiente = marca;
+        alConfirmar.add(alSerDurable);
+    }
+
+    /**
+     * Espera a que todas las escrituras pendientes sean durables y solo entonces
+     * actualiza índices y estadísticas y publica UNA instantánea.
+     * Se ejecuta en el hilo catalogo-io.
+     *
+     * @throws IOException Si el disco falla: esas escrituras se descartan sin publicarse
+     */
+    private void confirmarEscrituras() throws IOException {
+        if (marcaPendiente == RepositorioEntrenamientos.SIN_CAMBIOS) {
+            return;
+        }
+        long marca = marcaPendiente;
+        List<Runnable> acciones = new ArrayList<>(alConfirmar);
+        marcaPendiente = RepositorioEntrenamientos.SIN_CAMBIOS;
+        alConfirmar.clear();
+        sinConfirmar.clear();
+
+        long inicio = Metricas.iniciar(METRICA_CONFIRMAR);
+        try {
+            repositorio.confirmar(marca);
+        } finally {
+            Metricas.terminar(METRICA_CONFIRMAR, inicio);
+        }
+        for (Runnable accion : acciones) {
+            accion.run();
+        }
+        publicar();
+    }
+
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Importa los entrenamientos de un fichero CSV o JSON en segundo plano.
+     * El fichero se lee en streaming y se guarda por lotes de
+     * ImportadorEntrenamientos.TAMANO_LOTE: cada lote es una sola escritura
+     * en disco y un solo aviso a los observadores.
+     * Al terminar se muestra un Toast con el resumen.
+     * Llamar desde el hilo principal.
+     *
+     * @param uri Fichero elegido por el usuario (ACTION_OPEN_DOCUMENT)
+     * @return false si ya había una importación en curso
+     */
+    public boolean importar(Uri uri) {
+        if (importador != null) {
+            return false;
+        }
+        ImportadorEntrenamientos nuevo = new ImportadorEntrenamientos(nombresIconos(),
+                RegistroIconos.getIconoPorDefecto().getIconoResId());
+        importador = nuevo;
+        progresoImportacion = null;
+
+        Thread hilo = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            ImportadorEntrenamientos.Resultado resultado = null;
+            try {
+                resultado = importarFichero(nuevo, uri);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Error importando entrenamientos", e);
+                String motivo = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                hiloPrincipal.post(() -> Toast.makeText(context,
+                        "No se pudo importar: " + motivo, Toast.LENGTH_LONG).show());
+            }
+            ImportadorEntrenamientos.Resultado resumen = resultado;
+            hiloPrincipal.post(() -> terminarImportacion(resumen));
+        }, "catalogo-importacion");
+        hilo.start();
+        return true;
+    }
+
+    /**
+     * Pide que la importación en curso pare antes del siguiente lote.
+     * Los lotes ya guardados se conservan.
+     */
+    public void cancelarImportacion() {
+        ImportadorEntrenamientos actual = importador;
+        if (actual != null) {
+            actual.cancelar();
+        }
+    }
+
+    /**
+     * @return true si hay una importación en curso
+     */
+    public boolean isImportando() {
+        return importador != null;
+    }
+
+    /**
+     * Suscribe (o da de baja, con null) a quien muestra el progreso de la importación.
+     * Si ya hay progreso, se entrega enseguida. Llamar desde el hilo principal.
+     *
+     * @param listener Listener de la importación, o null
+     */
+    public void setOnImportacionListener(OnImportacionListener listener) {
+        listenerImportacion = listener;
+        ImportadorEntrenamientos.Progreso progreso = progresoImportacion;
+        if (listener != null && progreso != null) {
+            listener.onProgreso(progreso);
+        }
+    }
+
+    /** Se ejecuta en el hilo catalogo-importacion */
+    private ImportadorEntrenamientos.Resultado importarFichero(ImportadorEntrenamientos importador, Uri uri)
+            throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+        String nombre = null;
+        long tamano = -1;
+        try (Cursor cursor = resolver.query(uri, null, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                int columnaNombre = cursor.getColumnIndex(OpenableColumns.DISPLAY_NAME);
+                int columnaTamano = cursor.getColumnIndex(OpenableColumns.SIZE);
+                if (columnaNombre >= 0) {
+                    nombre = cursor.getString(columnaNombre);
+                }
+                if (columnaTamano >= 0 && !cursor.isNull(columnaTamano)) {
+                    tamano = cursor.getLong(columnaTamano);
+                }
+            }
+        }
+        ImportadorEntrenamientos.Formato formato =
+                ImportadorEntrenamientos.Formato.detectar(nombre, resolver.getType(uri));
+
+        try (InputStream entrada = resolver.openInputStream(uri)) {
+            if (entrada == null) {
+                throw new IOException("No se pudo abrir el fichero");
+            }
+            return importador.importar(entrada, formato, tamano, this::guardarLoteImportado, progreso -> {
+                progresoImportacion = progreso;
+                hiloPrincipal.post(() -> {
+                    if (listenerImportacion != null) {
+                        listenerImportacion.onProgreso(progreso);
+                    }
+                });
+            });
+        }
+    }
+
+    /**
+     * Guarda un lote importado en el hilo catalogo-io y espera a que termine,
+     * así la lectura del fichero nunca va más de un lote por delante del disco.
+     * Se ejecuta en el hilo catalogo-importacion.
+     */
+    private void guardarLoteImportado(List<Entrenamiento> lote) throws IOException {
+        ejecutarYEsperar(() -> {
+            confirmarEscrituras();
+            // Los importados llegan con ID 0: se crea cada uno de nuevo con su ID definitivo
+            List<Entrenamiento> conId = new ArrayList<>(lote.size());
+            for (Entrenamiento entrenamiento : lote) {
+                conId.add(entrenamiento.editar().setId(repositorio.generarNuevoId()).construir());
+            }
+            long inicio = Metricas.iniciar(METRICA_GUARDAR_LOTE);
+            try {
+                repositorio.guardarLote(conId);
+            } finally {
+                Metricas.terminar(METRICA_GUARDAR_LOTE, inicio);
+            }
+            if (indice != null) {
+                for (Entrenamiento entrenamiento : conId) {
+                    indice.anadir(entrenamiento);
+                    filtros.anadir(entrenamiento);
+                }
+                indiceDuracion.anadirLote(conId);
+            }
+            if (agregados != null) {
+                for (Entrenamiento entrenamiento : conId) {
+                    agregados.anadir(entrenamiento);
+                }
+            }
+            // Una instantánea por lote, no por entrenamiento
+            publicar();
+        });
+    }
+
+    private void terminarImportacion(ImportadorEntrenamientos.Resultado resultado) {
+        importador = null;
+        progresoImportacion = null;
+        if (resultado != null) {
+            String resumen = resultado.getImportadas() + " entrenamientos importados";
+            if (resultado.getRechazadas() > 0) {
+                resumen += ", " + resultado.getRechazadas() + " filas no válidas";
+                if (!resultado.getErrores().isEmpty()) {
+                    resumen += " (" + resultado.getErrores().get(0) + ")";
+                }
+            }
+            if (resultado.isCancelada()) {
+                resumen = "Importación cancelada: " + resumen;
+            }
+            Toast.makeText(context, resumen, Toast.LENGTH_LONG).show();
+            for (String error : resultado.getErrores()) {
+                Log.w(TAG, "Importación: " + error);
+            }
+        }
+        if (listenerImportacion != null) {
+            listenerImportacion.onTerminada(resultado);
+        }
+    }
+
+    /** Nombre de cada icono disponible → iconoResId, para reconocer la columna "icono" */
+    private static Map<String, Integer> nombresIconos() {
+        Map<String, Integer> iconos = new LinkedHashMap<>();
+        for (IconoEntrenamiento icono : IconoEntrenamiento.getIconosDisponibles()) {
+            iconos.put(icono.getNombre(), icono.getIconoResId());
+        }
+        return iconos;
+    }
+
+    // ==================== EXPORTACIÓN ====================
+
+    /**
+     * Exporta el catálogo completo al fichero elegido, en el hilo catalogo-io.
+     * Se escribe directamente en el FileChannel del fichero con un buffer directo
+     * reutilizado (PoolBuffers): la memoria no depende del tamaño del catálogo.
+     * Como ninguna escritura se cuela a mitad, el fichero es una foto coherente.
+     * El progreso llega tras cada página al OnExportacionListener suscrito y al
+     * terminar se muestra un Toast con el número de entrenamientos exportados.
+     * Llamar desde el hilo principal.
+     *
+     * @param uri Fichero creado por el usuario (ACTION_CREATE_DOCUMENT)
+     * @param formato CSV, JSON o NATIVO (copia de seguridad)
+     * @return false si ya había una exportación en curso o la cola de disco está llena
+     */
+    public boolean exportar(Uri uri, ExportadorEntrenamientos.Formato formato) {
+        if (exportando) {
+            return false;
+        }
+        exportando = true;
+        progresoExportacion = null;
+        boolean encolada = ejecutar(() -> {
+            int exportados = -1;
+            try {
+                exportados = exportarFichero(uri, formato);
+            } finally {
+                int resumen = exportados;
+                hiloPrincipal.post(() -> terminarExportacion(resumen));
+            }
+        });
+        if (!encolada) {
+            exportando = false;
+        }
+        return encolada;
+    }
+
+    /**
+     * @return true si hay una exportación en cola o en curso
+     */
+    public boolean isExportando() {
+        return exportando;
+    }
+
+    /**
+     * Suscribe (o da de baja, con null) a quien muestra el progreso de la exportación.
+     * Si ya hay progreso, se entrega enseguida. Llamar desde el hilo principal.
+     *
+     * @param listener Listener de la exportación, o null
+     */
+    public void setOnExportacionListener(OnExportacionListener listener) {
+        listenerExportacion = listener;
+        int[] progreso = progresoExportacion;
+        if (listener != null && progreso != null) {
+            listener.onProgreso(progreso[0], progreso[1]);
+        }
+    }
+
+    /** Se ejecuta en el hilo catalogo-io */
+    private int exportarFichero(Uri uri, ExportadorEntrenamientos.Formato formato) throws IOException {
+        ExportadorEntrenamientos exportador =
+                new ExportadorEntrenamientos(iconosPorId(), PoolBuffers.compartido());
+        ParcelFileDescriptor descriptor = context.getContentResolver().openFileDescriptor(uri, "wt");
+        if (descriptor == null) {
+            throw new IOException("No se pudo abrir el fichero de destino");
+        }
+        try (descriptor;
+             FileOutputStream salida = new FileOutputStream(descriptor.getFileDescriptor());
+             FileChannel canal = salida.getChannel()) {
+            int exportados = exportador.exportar(repositorio, formato, canal, (hechos, total) ->
+                    hiloPrincipal.post(() -> {
+                        progresoExportacion = new int[]{hechos, total};
+                        if (listenerExportacion != null) {
+                            listenerExportacion.onProgreso(hechos, total);
+                        }
+                    }));
+            // Una copia de seguridad no sirve si se queda en la caché del sistema
+            canal.force(true);
+            return exportados;
+        }
+    }
+
+    private void terminarExportacion(int exportados) {
+        exportando = false;
+        progresoExportacion = null;
+        if (exportados >= 0) {
+            // Si falló, el Toast del error ya lo ha puesto protegida()
+            Toast.makeText(context, exportados + " entrenamientos exportados", Toast.LENGTH_SHORT).show();
+        }
+        if (listenerExportacion != null) {
+            listenerExportacion.onTerminada(exportados);
+        }
+    }
+
+    /** iconoResId → nombre del icono, para la columna "icono" de CSV/JSON */
+    private static Map<Integer, String> iconosPorId() {
+        Map<Integer, String> nombres = new HashMap<>();
+        for (IconoEntrenamiento icono : IconoEntrenamiento.getIconosDisponibles()) {
+            nombres.put(icono.getIconoResId(), icono.getNombre());
+        }
+        return nombres;
+    }
+
+    // ==================== PUBLICACIÓN ====================
+
+    /**
+     * Crea una instantánea nueva y programa UN aviso para el siguiente frame.
+     * Si ya había un aviso pendiente, no hace falta otro: entregará esta instantánea.
+     * Se ejecuta en el hilo catalogo-io.
+     */
+    private void publicar() {
+        InstantaneaCatalogo anterior = instantanea;
+        long version = anterior != null ? anterior.getVersion() + 1 : 1;
+        instantanea = new InstantaneaCatalogo(version, repositorio.getVista());
+        programarAviso();
+    }
+
+    private void programarAviso() {
+        if (avisoPendiente.compareAndSet(false, true)) {
+            // Choreographer solo puede usarse desde el hilo principal
+            hiloPrincipal.post(() -> Choreographer.getInstance().postFrameCallback(tiempoFrame -> avisar()));
+        }
+    }
+
+    private void avisar() {
+        avisoPendiente.set(false);
+        InstantaneaCatalogo actual = instantanea;
+        for (Observador observador : observadores) {
+            observador.onCatalogoCambiado(actual);
+        }
+    }
+
+    // ==================== EJECUCIÓN EN SEGUNDO PLANO ====================
+
+    /** Operación de disco que puede fallar con IOException */
+    private interface TareaDisco {
+        void ejecutar() throws IOException;
+    }
+
+    /**
+     * Encola una operación en el hilo catalogo-io. Antes de empezar confirma las
+     * escrituras pendientes: la operación nunca ve una escritura a medias.
+     * Los errores se registran en Logcat y se avisa al usuario con un Toast.
+     *
+     * @return false si la cola estaba llena y la operación se descartó
+     */
+    private boolean ejecutar(TareaDisco tarea) {
+        return ejecutarEn(ejecutor, () -> {
+            confirmarEscrituras();
+            tarea.ejecutar();
+        });
+    }
+
+    /**
+     * Encola una escritura en el hilo catalogo-io y, detrás, una confirmación que
+     * comparten todas las escrituras encoladas hasta entonces (un fsync para todas).
+     */
+    private void ejecutarEscritura(TareaDisco escritura) {
+        ejecutarEn(ejecutor, () -> {
+            escritura.ejecutar();
+            programarConfirmacion();
+        });
+    }
+
+    /** Se ejecuta en el hilo catalogo-io, justo después de una escritura */
+    private void programarConfirmacion() throws IOException {
+        if (!confirmacionPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ejecutor.execute(protegida(() -> {
+                confirmacionPendiente.set(false);
+                confirmarEscrituras();
+            }));
+        } catch (RejectedExecutionException e) {
+            // Cola llena: se confirma ya, sin esperar a más escrituras
+            confirmacionPendiente.set(false);
+            confirmarEscrituras();
+        }
+    }
+
+    private boolean ejecutarEn(ExecutorService hilo, TareaDisco tarea) {
+        try {
+            hilo.execute(protegida(tarea));
+            return true;
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cola de disco llena, operación descartada", e);
+            hiloPrincipal.post(() -> Toast.makeText(context,
+                    "Demasiadas operaciones pendientes, inténtalo de nuevo", Toast.LENGTH_SHORT).show());
+            return false;
+        }
+    }
+
+    /** La tarea con sus errores registrados en Logcat y avisados con un Toast */
+    private Runnable protegida(TareaDisco tarea) {
+        return () -> {
+            try {
+                tarea.ejecutar();
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Error accediendo al almacén de entrenamientos", e);
+                hiloPrincipal.post(() -> Toast.makeText(context,
+                        "No se pudo acceder a los entrenamientos guardados", Toast.LENGTH_SHORT).show());
+            }
+        };
+    }
+
+    /**
+     * Ejecuta una operación en el hilo catalogo-io y espera a que termine.
+     * Si la cola está llena, reintenta en vez de descartar la operación.
+     * NO llamar desde el hilo principal ni desde catalogo-io.
+     *
+     * @throws IOException El error de la operación, si falla
+     */
+    private void ejecutarYEsperar(TareaDisco tarea) throws IOException {
+        Future<?> futuro = null;
+        try {
+            while (futuro == null) {
+                try {
+                    futuro = ejecutor.submit(() -> {
+                        tarea.ejecutar();
+                        return null;
+                    });
+                } catch (RejectedExecutionException e) {
+                    Thread.sleep(ESPERA_COLA_LLENA_MS);
+                }
+            }
+            futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importación interrumpida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IOException(causa);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * CLASE: DetalleEntrenamiento.java
+ *
+ * PROPÓSITO:
+ * Lo que muestra el panel de detalle, YA PREPARADO: los textos con su formato
+ * ("Duración: 30 minutos", "Dificultad: Media") se construyen en segundo plano,
+ * así que el hilo principal solo tiene que asignarlos a las vistas.
+ *
+ * ¿POR QUÉ?
+ * Antes el fragment pedía el entrenamiento al catálogo cada vez que se creaba su
+ * vista y concatenaba los textos al pintarlo. EstadoMaestroDetalle guarda estos
+ * objetos (el elegido y sus vecinos de la lista): pasar de un entrenamiento al
+ * siguiente en landscape no busca ni formatea nada en el hilo principal.
+ *
+ * PATRÓN DE DISEÑO:
+ * Objeto de valor inmutable (se puede compartir entre hilos sin sincronizar)
+ */
+package com.example.examen;
+
+/**
+ * Datos del panel de detalle listos para asignar a las vistas.
+ */
+public final class DetalleEntrenamiento {
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Entrenamiento entrenamiento;
+    private final String textoDuracion;
+    private final String textoDificultad;
+
+    private DetalleEntrenamiento(Entrenamiento entrenamiento) {
+        this.entrenamiento = entrenamiento;
+        this.textoDuracion = "Duración: " + entrenamiento.getDuracion();
+        this.textoDificultad = "Dificultad: " + entrenamiento.getDificultad();
+    }
+
+    /**
+     * Formatea un entrenamiento para el panel de detalle (llamar en segundo plano).
+     *
+     * @param entrenamiento Entrenamiento leído del catálogo (puede ser null)
+     * @return Detalle preparado, o null si el entrenamiento es null
+     */
+    public static DetalleEntrenamiento de(Entrenamiento entrenamiento) {
+        return entrenamiento != null ? new DetalleEntrenamiento(entrenamiento) : null;
+    }
+
+    // ==================== GETTERS ====================
+
+    public int getId() {
+        return entrenamiento.getId();
+    }
+
+    public int getIconoResId() {
+        return entrenamiento.getIconoResId();
+    }
+
+    public String getNombre() {
+        return entrenamiento.getNombre();
+    }
+
+    public String getDescripcion() {
+        return entrenamiento.getDescripcion();
+    }
+
+    /**
+     * @return "Duración: ..." tal cual se muestra
+     */
+    public String getTextoDuracion() {
+        return textoDuracion;
+    }
+
+    /**
+     * @return "Dificultad: ..." tal cual se muestra
+     */
+    public String getTextoDificultad() {
+        return textoDificultad;
+    }
+
+    /**
+     * @return Entrenamiento del que sale el detalle
+     */
+    public Entrenamiento getEntrenamiento() {
+        return entrenamiento;
+    }
+}
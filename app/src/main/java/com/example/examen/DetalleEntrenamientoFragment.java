@@ -1,40 +1,49 @@
 package com.example.examen;
 
+import android.Manifest;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 
 public class DetalleEntrenamientoFragment extends Fragment {
-    private static final String ARG_ID_ENTRENAMIENTO = "id_entrenamiento";
+    /** Permisos que se piden antes de una sesión al aire libre (Android 12+ exige pedir los dos) */
+    private static final String[] PERMISOS_UBICACION = {
+        Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.ACCESS_COARSE_LOCATION
+    };
+
+    /** Entrenamiento elegido en la lista (sobrevive a las rotaciones) */
+    private EstadoMaestroDetalle estado;
 
-    private int idEntrenamiento;
     private ImageView iconoDetalle;
     private TextView nombreDetalle;
     private TextView descripcionDetalle;
     private TextView duracionDetalle;
     private TextView dificultadDetalle;
+    private VistaRuta rutaDetalle;
+    private Button botonSesion;
+    private EditText notasSesion;
 
-    public static DetalleEntrenamientoFragment newInstance(int idEntrenamiento) {
-        DetalleEntrenamientoFragment fragment = new DetalleEntrenamientoFragment();
-        Bundle args = new Bundle();
-        args.putInt(ARG_ID_ENTRENAMIENTO, idEntrenamiento);
-        fragment.setArguments(args);
-        return fragment;
-    }
+    /** Pide la ubicación y, con o sin ella, empieza la sesión (sin permiso no se graba la ruta) */
+    private final ActivityResultLauncher<String[]> pedirUbicacion =
+            registerForActivityResult(new ActivityResultContracts.RequestMultiplePermissions(),
+                    concedidos -> estado.empezarSesion());
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        if (getArguments() != null) {
-            idEntrenamiento = getArguments().getInt(ARG_ID_ENTRENAMIENTO);
-        }
+        estado = new ViewModelProvider(requireActivity()).get(EstadoMaestroDetalle.class);
     }
 
     @Nullable
@@ -47,22 +56,91 @@ public class DetalleEntrenamientoFragment extends Fragment {
         descripcionDetalle = view.findViewById(R.id.descripcion_detalle);
         duracionDetalle = view.findViewById(R.id.duracion_detalle);
         dificultadDetalle = view.findViewById(R.id.dificultad_detalle);
+        rutaDetalle = view.findViewById(R.id.ruta_detalle);
+        botonSesion = view.findViewById(R.id.boton_sesion);
+        notasSesion = view.findViewById(R.id.notas_sesion);
 
-        cargarDatos();
+        botonSesion.setOnClickListener(v -> {
+            if (estado.getSesionEnCurso().getValue() == null) {
+                empezarSesion();
+            } else {
+                estado.terminarSesion(notasSesion.getText().toString().trim());
+                notasSesion.setText("");
+            }
+        });
 
         return view;
     }
 
-    private void cargarDatos() {
-        Entrenamiento entrenamiento = ListaEntrenamientosFragment.getEntrenamientoPorId(idEntrenamiento);
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // El detalle llega ya leído y formateado (y al rotar, el actual se pinta al momento)
+        estado.getDetalle().observe(getViewLifecycleOwner(), this::mostrarDetalle);
+        // La sesión en curso vive en el ViewModel: rotar no la interrumpe
+        estado.getSesionEnCurso().observe(getViewLifecycleOwner(), this::mostrarSesion);
+        // Ya simplificada y en caché: la vista solo dibuja un número acotado de puntos
+        estado.getRuta().observe(getViewLifecycleOwner(), this::mostrarRuta);
+    }
 
-        if (entrenamiento != null) {
-            iconoDetalle.setImageResource(entrenamiento.getIconoResId());
-            nombreDetalle.setText(entrenamiento.getNombre());
-            descripcionDetalle.setText(entrenamiento.getDescripcion());
-            duracionDetalle.setText("Duración: " + entrenamiento.getDuracion());
-            dificultadDetalle.setText("Dificultad: " + entrenamiento.getDificultad());
+    private void empezarSesion() {
+        DetalleEntrenamiento actual = estado.getDetalle().getValue();
+        if (actual != null && GrabadorRecorrido.grabaRecorrido(actual.getIconoResId())
+                && !GrabadorRecorrido.tienePermiso(requireContext())) {
+            pedirUbicacion.launch(PERMISOS_UBICACION);
+        } else {
+            estado.empezarSesion();
         }
     }
-}
 
+    private void mostrarRuta(RutaSimplificada ruta) {
+        boolean hayRuta = ruta != null && !ruta.isVacia();
+        rutaDetalle.setVisibility(hayRuta ? View.VISIBLE : View.GONE);
+        rutaDetalle.setRuta(hayRuta ? ruta : null);
+    }
+
+    private void mostrarSesion(DetalleEntrenamiento enCurso) {
+        if (enCurso == null) {
+            botonSesion.setText("Empezar sesión");
+            notasSesion.setVisibility(View.GONE);
+        } else {
+            botonSesion.setText("Terminar sesión de " + enCurso.getNombre());
+            notasSesion.setVisibility(View.VISIBLE);
+        }
+        actualizarBotonSesion();
+    }
+
+    private void mostrarDetalle(DetalleEntrenamiento detalle) {
+        if (detalle != null) {
+            CacheIconos.getInstancia(requireContext()).mostrar(iconoDetalle, detalle.getIconoResId());
+            nombreDetalle.setText(detalle.getNombre());
+            descripcionDetalle.setText(detalle.getDescripcion());
+            duracionDetalle.setText(detalle.getTextoDuracion());
+            dificultadDetalle.setText(detalle.getTextoDificultad());
+        } else if (!estado.haySeleccion()) {
+            mostrarSinSeleccion();
+        }
+        // Elegido pero aún leyéndose: se sigue viendo lo anterior hasta que llegue,
+        // pero sin poder empezar una sesión (no se sabe si aún existe)
+        actualizarBotonSesion();
+    }
+
+    /**
+     * Empezar solo con un detalle publicado; una sesión en curso se puede terminar siempre.
+     */
+    private void actualizarBotonSesion() {
+        botonSesion.setEnabled(estado.getDetalle().getValue() != null
+                || estado.getSesionEnCurso().getValue() != null);
+    }
+
+    /**
+     * Landscape sin nada elegido todavía: el panel invita a elegir uno.
+     */
+    private void mostrarSinSeleccion() {
+        iconoDetalle.setImageDrawable(null);
+        nombreDetalle.setText("Elige un entrenamiento de la lista");
+        descripcionDetalle.setText("");
+        duracionDetalle.setText("");
+        dificultadDetalle.setText("");
+    }
+}
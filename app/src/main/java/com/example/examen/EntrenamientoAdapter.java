@@ -2,133 +2,328 @@
  * CLASE: EntrenamientoAdapter.java
  *
  * PROPÓSITO:
- * Adapter que conecta una lista de objetos Entrenamiento con un ListView.
+ * Adapter que conecta los entrenamientos del catálogo con un RecyclerView.
  * Es el PUENTE entre los datos y la vista visual.
  *
  * PATRÓN DE DISEÑO:
  * Adapter Pattern - Convierte datos en vistas
+ * ViewHolder Pattern - Cada fila guarda sus vistas ya buscadas (sin findViewById al pintar)
  *
  * RESPONSABILIDADES:
- * 1. Recibe una lista de objetos Entrenamiento
- * 2. Para cada entrenamiento, crea (o reutiliza) una vista
- * 3. Rellena la vista con los datos del entrenamiento (icono + nombre)
+ * 1. Obtiene los entrenamientos de una FuentePaginadaEntrenamientos
+ * 2. Para cada fila visible, reutiliza un ViewHolder y lo rellena (icono + nombre)
+ * 3. Si la página de un entrenamiento aún no ha llegado, pinta un hueco "Cargando..."
+ * 4. Mientras hay una búsqueda activa, muestra sus resultados en lugar del catálogo
  *
- * CÓMO FUNCIONA:
- * - Android llama a getView() por cada item visible
- * - getView() infla el layout item_entrenamiento.xml si es necesario
- * - Busca las vistas (ImageView, TextView) en el layout
- * - Establece los valores (icono, nombre) del entrenamiento actual
- * - Retorna la vista completa para que se muestre
+ * ¿POR QUÉ ListAdapter (AsyncListDiffer)?
+ * Con notifyDataSetChanged() cada cambio (un entrenamiento nuevo, una búsqueda
+ * más) repintaba TODAS las filas visibles. Ahora cada versión de la lista se
+ * compara con la anterior en un hilo de fondo (DiffUtil) y solo se avisa de
+ * lo que cambió: insertar un entrenamiento en una lista de 10.000 pinta UNA fila.
+ * - La lista que se compara son claves long (FilasEntrenamientos): ID + versión
+ *   de sus datos, sacadas de la vista inmutable sin leer el disco
+ * - Los IDs son estables (hasStableIds): el RecyclerView reconoce cada fila
+ *   aunque cambie de posición
  *
- * OPTIMIZACIÓN:
- * - Usa convertView para reutilizar vistas (no crea nuevas cada vez)
- * - Solo infla layout si convertView es null (primera vez)
+ * CÓMO FUNCIONA:
+ * - setInstantanea() manda las filas de la versión nueva al diff
+ * - Cuando el diff se aplica, la fuente pasa a leer páginas de esa misma versión
+ *   (así las posiciones del adapter y de la fuente siempre coinciden)
+ * - Cuando llega una página, solo se repintan las filas cuyo entrenamiento es
+ *   distinto del que ya muestran (Entrenamiento.equals)
  *
  * USO:
  * ListaEntrenamientosFragment usa este adapter para mostrar la lista
  */
 package com.example.examen;
 
-import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Adapter personalizado para mostrar entrenamientos en un ListView.
+ * Adapter de RecyclerView para mostrar entrenamientos con diff en segundo plano.
  * Cada item muestra un icono y el nombre del entrenamiento.
  */
-public class EntrenamientoAdapter extends ArrayAdapter<Entrenamiento> {
+public class EntrenamientoAdapter extends ListAdapter<Long, EntrenamientoAdapter.EntrenamientoViewHolder> {
+
+    // ==================== CONSTANTES ====================
+
+    /** Tiempos en Metricas: inflar una fila nueva y rellenar una fila */
+    private static final String METRICA_CREAR = "lista.crearFila";
+    private static final String METRICA_BIND = "lista.bind";
+
+    // ==================== INTERFACES ====================
+
+    /**
+     * Avisa de que se ha pulsado una fila ya cargada.
+     */
+    public interface OnEntrenamientoClickListener {
+        /**
+         * @param entrenamiento Entrenamiento de la fila
+         * @param posicion Posición de la fila en el adapter (para buscar sus vecinas)
+         */
+        void onEntrenamientoClick(Entrenamiento entrenamiento, int posicion);
+    }
 
     // ==================== ATRIBUTOS ====================
 
-    /** Context de la aplicación (necesario para inflar layouts) */
-    private Context context;
+    /** Fuente paginada de la que se leen los entrenamientos */
+    private final FuentePaginadaEntrenamientos fuente;
+
+    /** A quién avisar cuando se pulsa una fila */
+    private final OnEntrenamientoClickListener listener;
 
-    /** Lista de entrenamientos a mostrar */
-    private List<Entrenamiento> entrenamientos;
+    /** Última instantánea recibida del catálogo (null hasta la primera) */
+    private InstantaneaCatalogo instantanea;
+
+    /** Resultados de búsqueda que se están mostrando (null = se muestra el catálogo) */
+    private List<Entrenamiento> resultados;
+
+    /** true desde que se piden resultados hasta que se vuelve a pedir el catálogo */
+    private boolean buscando;
+
+    /** RecyclerView al que está conectado (para ver qué muestra cada fila visible) */
+    private RecyclerView recyclerView;
 
     // ==================== CONSTRUCTOR ====================
 
     /**
      * Constructor del adapter.
      *
-     * @param context Context de la aplicación
-     * @param entrenamientos Lista de entrenamientos a mostrar
+     * @param fuente Fuente paginada con los entrenamientos a mostrar
+     * @param listener Se llama al pulsar una fila cargada
      */
-    public EntrenamientoAdapter(@NonNull Context context, List<Entrenamiento> entrenamientos) {
-        // Llamar al constructor padre
-        // Parámetros: context, resource (0 porque usamos layout custom), objects
-        super(context, 0, entrenamientos);
+    public EntrenamientoAdapter(FuentePaginadaEntrenamientos fuente, OnEntrenamientoClickListener listener) {
+        super(FilasEntrenamientos.DIFERENCIAS);
+        this.fuente = fuente;
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    // ==================== DATOS ====================
 
-        this.context = context;
-        this.entrenamientos = entrenamientos;
+    /**
+     * Muestra una versión nueva del catálogo. El diff se calcula en segundo plano;
+     * la fuente cambia de versión en el mismo momento en que se aplica.
+     *
+     * @param instantanea Nueva versión del catálogo
+     */
+    public void setInstantanea(InstantaneaCatalogo instantanea) {
+        if (instantanea == this.instantanea && !buscando) {
+            return; // Ya se muestra (p. ej. el primer aviso del catálogo después de rotar)
+        }
+        mostrarCatalogo(instantanea);
     }
 
-    // ==================== MÉTODOS DEL ADAPTER ====================
+    private void mostrarCatalogo(InstantaneaCatalogo instantanea) {
+        this.instantanea = instantanea;
+        if (buscando) {
+            // Las filas en pantalla son resultados: la fuente se puede adelantar
+            fuente.setInstantanea(instantanea);
+            return;
+        }
+        submitList(FilasEntrenamientos.deVista(instantanea.getVista()), () -> {
+            resultados = null;
+            fuente.setInstantanea(instantanea);
+        });
+    }
 
     /**
-     * Método CLAVE del adapter: Crea/actualiza la vista para un item específico.
+     * Muestra los resultados de una búsqueda en lugar del catálogo completo.
      *
-     * FLUJO:
-     * 1. Verifica si puede reutilizar una vista existente (convertView)
-     * 2. Si no existe, infla el layout item_entrenamiento.xml
-     * 3. Obtiene el entrenamiento de la posición actual
-     * 4. Busca las vistas (ImageView, TextView) en el layout
-     * 5. Establece los valores del entrenamiento en las vistas
-     * 6. Retorna la vista completa
+     * @param resultados Entrenamientos encontrados, o null para volver al catálogo
+     */
+    public void setResultados(List<Entrenamiento> resultados) {
+        if (resultados == null) {
+            if (!buscando) {
+                return; // Ya se muestra (o se está pidiendo) el catálogo
+            }
+            buscando = false;
+            if (instantanea != null) {
+                mostrarCatalogo(instantanea);
+            }
+            return;
+        }
+        buscando = true;
+        submitList(FilasEntrenamientos.deResultados(resultados), () -> this.resultados = resultados);
+    }
+
+    /**
+     * @return true si se están mostrando (o pidiendo) resultados de búsqueda
+     */
+    public boolean isBuscando() {
+        return buscando;
+    }
+
+    /**
+     * Entrenamiento de la posición, o null si su página todavía no ha llegado.
+     */
+    public Entrenamiento getEntrenamiento(int posicion) {
+        return resultados != null ? resultados.get(posicion) : fuente.getItem(posicion);
+    }
+
+    /**
+     * IDs de las filas alrededor de una posición, de la más cercana a la más lejana
+     * (abajo antes que arriba). Salen de las claves de las filas: no hace falta que
+     * sus páginas hayan llegado.
      *
-     * OPTIMIZACIÓN IMPORTANTE:
-     * - convertView es una vista reciclada que Android puede reutilizar
-     * - Si no es null, NO necesitamos inflar el layout de nuevo
-     * - Esto hace que el scroll sea mucho más fluido
+     * @param posicion Posición de la fila central (no se incluye)
+     * @param distancia Cuántas filas mirar a cada lado
+     * @return IDs de las vecinas que existen
+     */
+    public int[] idsVecinos(int posicion, int distancia) {
+        int total = getItemCount();
+        int[] ids = new int[2 * distancia];
+        int cantidad = 0;
+        for (int d = 1; d <= distancia; d++) {
+            if (posicion + d < total) {
+                ids[cantidad++] = (int) getItemId(posicion + d);
+            }
+            if (posicion - d >= 0 && posicion - d < total) {
+                ids[cantidad++] = (int) getItemId(posicion - d);
+            }
+        }
+        return Arrays.copyOf(ids, cantidad);
+    }
+
+    /**
+     * ID estable: sale de la clave de la fila, así que se conoce aunque la página no haya llegado.
+     */
+    @Override
+    public long getItemId(int position) {
+        return FilasEntrenamientos.id(getItem(position));
+    }
+
+    // ==================== PÁGINAS ====================
+
+    /**
+     * Ha llegado una página de la fuente: repinta solo las filas que muestran otra cosa.
+     * Las filas sin ViewHolder visible se marcan como cambiadas (no cuesta nada: se
+     * pintarán al aparecer) para que ninguna vista en caché conserve datos antiguos.
      *
-     * @param position Posición del item en la lista (0, 1, 2, ...)
-     * @param convertView Vista reciclada (puede ser null)
-     * @param parent ViewGroup padre (el ListView)
-     * @return Vista configurada para mostrar el item
+     * @param desde Posición de la primera fila de la página
+     * @param cantidad Número de filas de la página
+     */
+    public void onPaginaCargada(int desde, int cantidad) {
+        if (resultados != null) {
+            return;
+        }
+        int hasta = Math.min(getItemCount(), desde + cantidad);
+        int inicioCambio = -1;
+        for (int posicion = desde; posicion < hasta; posicion++) {
+            RecyclerView.ViewHolder holder = recyclerView != null
+                    ? recyclerView.findViewHolderForAdapterPosition(posicion) : null;
+            boolean cambia = !(holder instanceof EntrenamientoViewHolder)
+                    || !((EntrenamientoViewHolder) holder).muestra(fuente.getItem(posicion));
+            if (cambia && inicioCambio < 0) {
+                inicioCambio = posicion;
+            } else if (!cambia && inicioCambio >= 0) {
+                notifyItemRangeChanged(inicioCambio, posicion - inicioCambio);
+                inicioCambio = -1;
+            }
+        }
+        if (inicioCambio >= 0) {
+            notifyItemRangeChanged(inicioCambio, hasta - inicioCambio);
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        this.recyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        this.recyclerView = null;
+    }
+
+    // ==================== VIEWHOLDERS ====================
+
+    /**
+     * Infla item_entrenamiento.xml. Solo se llama cuando no hay un ViewHolder que reciclar.
      */
     @NonNull
     @Override
-    public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
-        // Intentar reutilizar la vista existente
-        View listItem = convertView;
-
-        // Si no hay vista para reutilizar, crear una nueva
-        if (listItem == null) {
-            // LayoutInflater convierte XML en objetos View
-            // inflate() parámetros:
-            // - R.layout.item_entrenamiento: layout a inflar
-            // - parent: ViewGroup padre
-            // - false: no adjuntar al padre aún (lo hace Android)
-            listItem = LayoutInflater.from(context).inflate(R.layout.item_entrenamiento, parent, false);
+    public EntrenamientoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        long inicio = Metricas.iniciar(METRICA_CREAR);
+        View vista;
+        try {
+            vista = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_entrenamiento, parent, false);
+        } finally {
+            Metricas.terminar(METRICA_CREAR, inicio);
+        }
+        EntrenamientoViewHolder holder = new EntrenamientoViewHolder(vista);
+        vista.setOnClickListener(v -> {
+            // Fila "Cargando...": su página todavía no ha llegado
+            int posicion = holder.getBindingAdapterPosition();
+            if (holder.entrenamiento != null && posicion != RecyclerView.NO_POSITION) {
+                listener.onEntrenamientoClick(holder.entrenamiento, posicion);
+            }
+        });
+        return holder;
+    }
+
+    /**
+     * Rellena un ViewHolder (nuevo o reciclado) con el entrenamiento de la posición.
+     * (null si su página todavía se está leyendo del disco)
+     */
+    @Override
+    public void onBindViewHolder(@NonNull EntrenamientoViewHolder holder, int position) {
+        long inicio = Metricas.iniciar(METRICA_BIND);
+        try {
+            holder.mostrar(getEntrenamiento(position));
+        } finally {
+            Metricas.terminar(METRICA_BIND, inicio);
         }
+    }
 
-        // Obtener el entrenamiento actual según la posición
-        Entrenamiento entrenamiento = entrenamientos.get(position);
+    /**
+     * Vistas de una fila, buscadas una sola vez al crearla.
+     */
+    static class EntrenamientoViewHolder extends RecyclerView.ViewHolder {
 
-        // Buscar las vistas dentro del layout inflado
-        // findViewById() busca vistas por su ID definido en el XML
-        ImageView imageView = listItem.findViewById(R.id.icono_entrenamiento);
-        TextView textViewNombre = listItem.findViewById(R.id.nombre_entrenamiento);
+        private final ImageView icono;
+        private final TextView nombre;
 
-        // Establecer los valores del entrenamiento en las vistas
-        // setImageResource() establece la imagen desde un resource ID
-        imageView.setImageResource(entrenamiento.getIconoResId());
+        /** Entrenamiento que muestra la fila (null = hueco "Cargando...") */
+        private Entrenamiento entrenamiento;
 
-        // setText() establece el texto del TextView
-        textViewNombre.setText(entrenamiento.getNombre());
+        EntrenamientoViewHolder(View vista) {
+            super(vista);
+            icono = vista.findViewById(R.id.icono_entrenamiento);
+            nombre = vista.findViewById(R.id.nombre_entrenamiento);
+        }
 
-        // Retornar la vista configurada
-        return listItem;
+        void mostrar(Entrenamiento entrenamiento) {
+            this.entrenamiento = entrenamiento;
+            if (entrenamiento == null) {
+                // Hueco provisional hasta que llegue la página
+                icono.setImageDrawable(null);
+                nombre.setText("Cargando...");
+                return;
+            }
+            // Bitmap compartido: el mismo icono no se vuelve a dibujar al hacer scroll
+            CacheIconos.getInstancia(itemView.getContext()).mostrar(icono, entrenamiento.getIconoResId());
+            nombre.setText(entrenamiento.getNombre());
+        }
+
+        /**
+         * @return true si la fila ya muestra exactamente ese entrenamiento
+         */
+        boolean muestra(Entrenamiento otro) {
+            return entrenamiento != null && entrenamiento.equals(otro);
+        }
     }
 }
-
@@ -0,0 +1,412 @@
+/**
+ * CLASE: EstadoMaestroDetalle.java
+ *
+ * PROPÓSITO:
+ * Estado de la pantalla lista + detalle que sobrevive a las rotaciones
+ * (ViewModel de MainActivity, compartido por sus dos fragments).
+ *
+ * ¿POR QUÉ?
+ * Antes cada rotación quitaba todos los fragments con commitNow() y creaba otros
+ * nuevos: el detalle volvía siempre al entrenamiento 1, la lista volvía arriba y
+ * las páginas ya leídas del disco se tiraban. Ahora no hay transacciones al rotar:
+ * el FragmentManager destruye los fragments y los restaura desde su estado guardado
+ * en los mismos contenedores (existen en los dos layouts), y lo que muestran vive
+ * aquí, así que las instancias y vistas nuevas no vuelven a leer nada del disco.
+ *
+ * ESTADO:
+ * - seleccion: ID del entrenamiento elegido (null = ninguno). En portrait decide
+ *   qué panel se ve; en landscape, qué muestra el panel de detalle
+ * - fuente: páginas ya cargadas de la lista (no se vuelven a leer al rotar)
+ * - scroll: primera fila visible y su desplazamiento en píxeles
+ * - detalle: DetalleEntrenamiento del elegido, ya leído y formateado
+ * - sesión en curso: qué entrenamiento se empezó y cuándo (Empezar/Terminar del
+ *   detalle). Al terminar se guarda en el historial de sesiones del catálogo.
+ *   En los entrenamientos al aire libre, además, se graba la ruta GPS (GrabadorRecorrido)
+ * - ruta: ruta simplificada de la última sesión del elegido, si es al aire libre
+ *   (RutasEntrenamientos). Al terminar de grabar otra, se vuelve a leer
+ *
+ * PRECARGA DE VECINOS:
+ * Al elegir un entrenamiento, la lista pasa también los IDs de las filas de al
+ * lado. Los que no están ya preparados se leen y formatean en UNA tarea del hilo
+ * lector del catálogo y se guardan en una LruCache pequeña: al pulsar la fila
+ * siguiente (landscape) el detalle se publica al momento, sin tocar el disco ni
+ * construir textos en el hilo principal.
+ * - Si el catálogo cambia, lo preparado se descarta y se vuelve a leer el elegido
+ *   y sus vecinos (un entrenamiento editado o eliminado no se muestra caducado)
+ * - Si el elegido ya no existe (se eliminó, o se eligió un ID que no está), se
+ *   quita la selección: en portrait se vuelve a la lista; en landscape el detalle
+ *   invita a elegir otro
+ *
+ * USO:
+ * new ViewModelProvider(activity).get(EstadoMaestroDetalle.class)
+ * (desde un fragment: requireActivity(), para compartir la misma instancia)
+ */
+package com.example.examen;
+
+import android.app.Application;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ViewModel con la selección, su detalle preparado, las páginas cargadas y el scroll de la lista.
+ */
+public class EstadoMaestroDetalle extends AndroidViewModel implements CatalogoEntrenamientos.Observador {
+
+    // ==================== CONSTANTES ====================
+
+    /** Detalles preparados que se conservan (elegido + vecinos + los últimos vistos) */
+    private static final int MAX_DETALLES = 32;
+
+    private static final int[] SIN_VECINOS = new int[0];
+
+    // ==================== ATRIBUTOS ====================
+
+    private final CatalogoEntrenamientos catalogo;
+
+    private final RutasEntrenamientos rutas;
+
+    /** ID del entrenamiento elegido, o null si no hay ninguno */
+    private final MutableLiveData<Integer> seleccion = new MutableLiveData<>();
+
+    /** Detalle del elegido (null = ninguno elegido, o todavía leyéndose) */
+    private final MutableLiveData<DetalleEntrenamiento> detalle = new MutableLiveData<>();
+
+    /** Ruta de la última sesión del elegido (null = no es al aire libre, o aún leyéndose) */
+    private final MutableLiveData<RutaSimplificada> ruta = new MutableLiveData<>();
+
+    /** Entrenamiento de la ruta publicada (-1 = ninguna) */
+    private int idRuta = -1;
+
+    /** ID → detalle ya leído y formateado */
+    private final LruCache<Integer, DetalleEntrenamiento> detalles = new LruCache<>(MAX_DETALLES);
+
+    /** IDs pedidos al catálogo y sin respuesta todavía (valor: generación en que se pidieron) */
+    private final MapaEnteros pedidos = new MapaEnteros();
+
+    /** IDs de las filas vecinas de la última selección */
+    private int[] vecinos = SIN_VECINOS;
+
+    /** Versión del catálogo de la que salen los detalles guardados (-1 = aún no cargado) */
+    private long versionCatalogo = -1;
+
+    /** Cambia cada vez que se descartan los detalles: las respuestas anteriores se ignoran */
+    private int generacion;
+
+    /** Páginas de la lista: se conservan mientras viva la Activity (rotaciones incluidas) */
+    private final FuentePaginadaEntrenamientos fuente;
+
+    /** Entrenamiento de la sesión en curso (null = ninguna) */
+    private final MutableLiveData<DetalleEntrenamiento> sesionEnCurso = new MutableLiveData<>();
+
+    /** Hora de inicio de la sesión en curso, en milisegundos desde 1970 */
+    private long inicioSesion;
+
+    /** Ruta GPS de la sesión en curso (null = no se graba) */
+    private GrabadorRecorrido grabador;
+
+    /** Posición de la lista al destruirse su última vista */
+    private int posicionScroll;
+    private int desplazamientoScroll;
+
+    // ==================== CONSTRUCTOR ====================
+
+    public EstadoMaestroDetalle(@NonNull Application aplicacion) {
+        super(aplicacion);
+        catalogo = CatalogoEntrenamientos.getInstancia(aplicacion);
+        rutas = RutasEntrenamientos.getInstancia(aplicacion);
+        fuente = new FuentePaginadaEntrenamientos(catalogo);
+        catalogo.observar(this);
+    }
+
+    // ==================== SELECCIÓN ====================
+
+    /**
+     * @return ID del entrenamiento elegido (null = ninguno), observable
+     */
+    public LiveData<Integer> getSeleccion() {
+        return seleccion;
+    }
+
+    /**
+     * @return true si hay un entrenamiento elegido
+     */
+    public boolean haySeleccion() {
+        return seleccion.getValue() != null;
+    }
+
+    /**
+     * @return Detalle preparado del entrenamiento elegido, observable
+     *         (null si no hay ninguno elegido o si aún se está leyendo)
+     */
+    public LiveData<DetalleEntrenamiento> getDetalle() {
+        return detalle;
+    }
+
+    /**
+     * @return Ruta simplificada de la última sesión del elegido, observable
+     *         (null si no es al aire libre o si aún se está leyendo)
+     */
+    public LiveData<RutaSimplificada> getRuta() {
+        return ruta;
+    }
+
+    /**
+     * Elige un entrenamiento sin precargar vecinos.
+     */
+    public void seleccionar(int idEntrenamiento) {
+        seleccionar(idEntrenamiento, SIN_VECINOS);
+    }
+
+    /**
+     * Elige un entrenamiento (llamar desde el hilo principal). Si su detalle ya
+     * estaba preparado se publica ahora mismo; los que falten (él y sus vecinos)
+     * se piden en segundo plano.
+     *
+     * @param idEntrenamiento ID del entrenamiento
+     * @param vecinos IDs de las filas de al lado, de la más cercana a la más lejana
+     */
+    public void seleccionar(int idEntrenamiento, int[] vecinos) {
+        this.vecinos = vecinos;
+        Integer actual = seleccion.getValue();
+        if (actual == null || actual != idEntrenamiento) {
+            seleccion.setValue(idEntrenamiento);
+            DetalleEntrenamiento preparado = detalles.get(idEntrenamiento);
+            Metricas.contar(preparado != null ? "detalle.precargado" : "detalle.sinPrecargar");
+            publicarDetalle(preparado);
+        }
+        precargar();
+    }
+
+    /**
+     * Quita la selección (en portrait: vuelve a la lista).
+     */
+    public void deseleccionar() {
+        vecinos = SIN_VECINOS;
+        if (seleccion.getValue() != null) {
+            seleccion.setValue(null);
+            publicarDetalle(null);
+        }
+    }
+
+    // ==================== PRECARGA ====================
+
+    /**
+     * Pide en una sola tarea los detalles que falten del elegido y de sus vecinos.
+     */
+    private void precargar() {
+        Integer elegido = seleccion.getValue();
+        int[] faltan = new int[vecinos.length + 1];
+        int cantidad = 0;
+        if (elegido != null && necesita(elegido)) {
+            faltan[cantidad++] = elegido;
+        }
+        for (int vecino : vecinos) {
+            if (necesita(vecino)) {
+                faltan[cantidad++] = vecino;
+            }
+        }
+        if (cantidad == 0) {
+            return;
+        }
+
+        int[] ids = Arrays.copyOf(faltan, cantidad);
+        int generacionPedida = generacion;
+        for (int id : ids) {
+            pedidos.poner(id, generacionPedida);
+        }
+        // Lectura y formato en el hilo lector; aquí solo se guardan los resultados
+        catalogo.leerPorIds(ids, DetalleEntrenamiento::de, leidos -> recibir(ids, leidos, generacionPedida));
+    }
+
+    /**
+     * @return true si el ID no está preparado ni pedido en la generación actual
+     */
+    private boolean necesita(int id) {
+        return detalles.get(id) == null && pedidos.obtener(id) != generacion;
+    }
+
+    private void recibir(int[] ids, List<DetalleEntrenamiento> leidos, int generacionPedida) {
+        if (generacionPedida != generacion) {
+            return; // El catálogo cambió mientras se leían: ya se pidieron otra vez
+        }
+        Integer elegido = seleccion.getValue();
+        boolean incluyeElegido = false;
+        for (int i = 0; i < ids.length; i++) {
+            pedidos.eliminar(ids[i]);
+            DetalleEntrenamiento leido = leidos.get(i);
+            if (leido != null) {
+                detalles.put(ids[i], leido);
+            }
+            incluyeElegido |= elegido != null && elegido == ids[i];
+        }
+        if (incluyeElegido) {
+            DetalleEntrenamiento actual = detalles.get(elegido);
+            if (actual != null) {
+                publicarDetalle(actual);
+            } else {
+                deseleccionar(); // Ya no existe: nada de seguir mostrando su detalle caducado
+            }
+        }
+    }
+
+    /**
+     * Publica el detalle del elegido y pide su ruta si es un entrenamiento al aire libre.
+     */
+    private void publicarDetalle(DetalleEntrenamiento publicado) {
+        detalle.setValue(publicado);
+        if (publicado == null || !GrabadorRecorrido.grabaRecorrido(publicado.getIconoResId())) {
+            publicarRuta(-1, null);
+            return;
+        }
+        int id = publicado.getId();
+        if (id != idRuta) {
+            publicarRuta(-1, null); // La de otro entrenamiento no se deja ver mientras se lee esta
+        }
+        cargarRuta(id);
+    }
+
+    /**
+     * Pide la ruta (al momento si ya está en la caché) y la publica si sigue elegido.
+     */
+    private void cargarRuta(int id) {
+        rutas.leer(id, leida -> {
+            if (esElegido(id)) {
+                publicarRuta(id, leida);
+            }
+        });
+    }
+
+    private void publicarRuta(int id, RutaSimplificada publicada) {
+        idRuta = id;
+        ruta.setValue(publicada);
+    }
+
+    private boolean esElegido(int id) {
+        Integer elegido = seleccion.getValue();
+        return elegido != null && elegido == id;
+    }
+
+    /**
+     * Una versión nueva del catálogo puede traer entrenamientos editados o
+     * eliminados: se descartan los detalles preparados y se vuelven a pedir.
+     */
+    @Override
+    public void onCatalogoCambiado(InstantaneaCatalogo instantanea) {
+        long anterior = versionCatalogo;
+        versionCatalogo = instantanea.getVersion();
+        if (anterior < 0 || anterior == versionCatalogo) {
+            return; // Primera carga: lo pedido hasta ahora ya se leyó de esta versión
+        }
+        generacion++;
+        detalles.evictAll();
+        pedidos.limpiar();
+        // El detalle en pantalla se sigue viendo hasta que llegue el nuevo (o se sepa
+        // que el elegido ya no existe: entonces recibir() quita la selección)
+        precargar();
+    }
+
+    // ==================== SESIÓN ====================
+
+    /**
+     * @return Entrenamiento de la sesión en curso (null = ninguna), observable
+     */
+    public LiveData<DetalleEntrenamiento> getSesionEnCurso() {
+        return sesionEnCurso;
+    }
+
+    /**
+     * Empieza una sesión del entrenamiento que se está mostrando.
+     *
+     * @return false si no hay detalle que empezar o ya hay una sesión en curso
+     */
+    public boolean empezarSesion() {
+        DetalleEntrenamiento actual = detalle.getValue();
+        if (actual == null || sesionEnCurso.getValue() != null) {
+            return false;
+        }
+        inicioSesion = System.currentTimeMillis();
+        if (GrabadorRecorrido.grabaRecorrido(actual.getIconoResId())) {
+            // Sin permiso de ubicación la sesión se guarda igual, sin ruta
+            grabador = GrabadorRecorrido.empezar(getApplication(),
+                    GrabadorRecorrido.fichero(getApplication(), actual.getId(), inicioSesion));
+        }
+        sesionEnCurso.setValue(actual);
+        return true;
+    }
+
+    /**
+     * Termina la sesión en curso y la guarda en el historial (en segundo plano).
+     *
+     * @param notas Notas del usuario (puede estar vacío)
+     */
+    public void terminarSesion(String notas) {
+        DetalleEntrenamiento entrenamiento = sesionEnCurso.getValue();
+        if (entrenamiento == null) {
+            return;
+        }
+        // Si el reloj del sistema retrocede, la sesión cuenta como de 0 segundos
+        int segundos = (int) Math.max(0, (System.currentTimeMillis() - inicioSesion) / 1000);
+        int id = entrenamiento.getId();
+        detenerGrabador(() -> {
+            // Fichero cerrado: la ruta nueva sustituye a la de la sesión anterior
+            rutas.invalidar(id);
+            if (esElegido(id) && idRuta == id) {
+                cargarRuta(id);
+            }
+        });
+        catalogo.registrarSesion(new Sesion(entrenamiento.getId(), entrenamiento.getNombre(),
+                inicioSesion, segundos, notas));
+        sesionEnCurso.setValue(null);
+    }
+
+    private void detenerGrabador(Runnable alCerrar) {
+        if (grabador != null) {
+            grabador.terminar(alCerrar);
+            grabador = null;
+        }
+    }
+
+    // ==================== LISTA ====================
+
+    /**
+     * @return Fuente paginada compartida por todas las vistas de la lista
+     */
+    public FuentePaginadaEntrenamientos getFuente() {
+        return fuente;
+    }
+
+    /**
+     * Guarda dónde estaba la lista (al destruirse su vista).
+     *
+     * @param posicion Primera posición visible
+     * @param desplazamiento Píxeles que esa fila asomaba por encima del borde (≤ 0)
+     */
+    public void guardarScroll(int posicion, int desplazamiento) {
+        posicionScroll = posicion;
+        desplazamientoScroll = desplazamiento;
+    }
+
+    public int getPosicionScroll() {
+        return posicionScroll;
+    }
+
+    public int getDesplazamientoScroll() {
+        return desplazamientoScroll;
+    }
+
+    @Override
+    protected void onCleared() {
+        catalogo.dejarDeObservar(this);
+        // Sin pantalla no se puede terminar la sesión: la ruta grabada hasta aquí se conserva
+        detenerGrabador(null);
+        // Las páginas que lleguen después ya no tienen a quién avisar
+        fuente.setOnPaginaCargadaListener(null);
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * CLASE: ExportacionDialogFragment.java
+ *
+ * PROPÓSITO:
+ * Diálogo con el progreso de la exportación en curso.
+ *
+ * FUNCIONAMIENTO:
+ * - La exportación la lleva CatalogoEntrenamientos, no este diálogo: si se gira la
+ *   pantalla, el diálogo se recrea y vuelve a suscribirse con setOnExportacionListener()
+ * - Al terminar la exportación se cierra solo (el resumen lo muestra el catálogo en un Toast)
+ * - No se puede cerrar tocando fuera ni cancelar: el fichero quedaría a medias
+ */
+package com.example.examen;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.DialogFragment;
+
+/**
+ * Diálogo de progreso de la exportación de entrenamientos.
+ */
+public class ExportacionDialogFragment extends DialogFragment
+        implements CatalogoEntrenamientos.OnExportacionListener {
+
+    /** Tiempo en Metricas de inflar el layout del diálogo */
+    private static final String METRICA_INFLAR = "dialogo.exportacion.inflar";
+
+    /** Fotogramas de la ventana del diálogo, mientras se ve */
+    private MonitorFotogramas monitorFotogramas;
+
+    private TextView textoEstado;
+    private ProgressBar barraProgreso;
+
+    private CatalogoEntrenamientos catalogo;
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        long inicio = Metricas.iniciar(METRICA_INFLAR);
+        View view;
+        try {
+            view = inflater.inflate(R.layout.dialog_exportacion, container, false);
+        } finally {
+            Metricas.terminar(METRICA_INFLAR, inicio);
+        }
+
+        textoEstado = view.findViewById(R.id.texto_exportacion);
+        barraProgreso = view.findViewById(R.id.progreso_exportacion);
+
+        catalogo = CatalogoEntrenamientos.getInstancia(requireContext());
+        setCancelable(false);
+        return view;
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        if (!catalogo.isExportando()) {
+            // La exportación terminó mientras el diálogo no estaba visible
+            dismissAllowingStateLoss();
+            return;
+        }
+        catalogo.setOnExportacionListener(this);
+        if (getDialog() != null) {
+            monitorFotogramas = MonitorFotogramas.vigilar(getDialog().getWindow(), "dialogo.exportacion");
+        }
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        catalogo.setOnExportacionListener(null);
+        if (monitorFotogramas != null) {
+            monitorFotogramas.detener();
+            monitorFotogramas = null;
+        }
+    }
+
+    // ==================== OnExportacionListener ====================
+
+    @Override
+    public void onProgreso(int exportados, int total) {
+        textoEstado.setText(exportados + " de " + total + " exportados");
+        barraProgreso.setIndeterminate(total <= 0);
+        if (total > 0) {
+            barraProgreso.setProgress((int) (100L * exportados / total));
+        }
+    }
+
+    @Override
+    public void onTerminada(int exportados) {
+        dismissAllowingStateLoss();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * CLASE: FilasEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Lo que ve el diff de la lista (AsyncListDiffer) en cada fila: una CLAVE long,
+ * no el Entrenamiento. Así se pueden comparar dos versiones del catálogo de
+ * 100.000 entrenamientos sin leer ni decodificar ningún registro del disco.
+ *
+ * FORMATO DE LA CLAVE:
+ * ┌────────────────────┬──────────────────────────┐
+ * │ 32 bits: ID        │ 32 bits: versión         │
+ * └────────────────────┴──────────────────────────┘
+ * - Catálogo: versión = posición en el fichero del registro vigente. El almacén
+ *   es append-only, así que editar un entrenamiento cambia su posición y la
+ *   misma posición significa siempre los mismos datos.
+ * - Resultados de búsqueda (ya en memoria): versión = hashCode() del entrenamiento.
+ *
+ * Dos filas son "el mismo item" si tienen el mismo ID (DiffUtil detecta altas,
+ * bajas y movimientos) y "el mismo contenido" si la clave entera coincide.
+ */
+package com.example.examen;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Claves de fila para diferenciar versiones de la lista sin decodificar entrenamientos.
+ */
+public final class FilasEntrenamientos {
+
+    /** Comparación de filas para ListAdapter / AsyncListDiffer */
+    public static final DiffUtil.ItemCallback<Long> DIFERENCIAS = new DiffUtil.ItemCallback<Long>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Long anterior, @NonNull Long nueva) {
+            return id(anterior) == id(nueva);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Long anterior, @NonNull Long nueva) {
+            return anterior.longValue() == nueva.longValue();
+        }
+    };
+
+    private FilasEntrenamientos() {
+        // Solo métodos estáticos
+    }
+
+    // ==================== CLAVES ====================
+
+    /**
+     * @return Clave de una fila con ese ID y esa versión de sus datos
+     */
+    public static long clave(int id, int version) {
+        return ((long) id << 32) | (version & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return ID del entrenamiento de la fila
+     */
+    public static int id(long clave) {
+        return (int) (clave >>> 32);
+    }
+
+    // ==================== LISTAS ====================
+
+    /**
+     * Filas de una versión del catálogo. No copia nada: cada get() consulta la vista
+     * inmutable (dos búsquedas en sus tries), así que se puede crear en cada instantánea.
+     *
+     * @param vista Versión del catálogo
+     * @return Lista de claves en el orden de la lista
+     */
+    public static List<Long> deVista(VistaEntrenamientos vista) {
+        return new AbstractList<Long>() {
+            @Override
+            public Long get(int ranura) {
+                return clave(vista.idEn(ranura), vista.posicionEn(ranura));
+            }
+
+            @Override
+            public int size() {
+                return vista.contar();
+            }
+        };
+    }
+
+    /**
+     * @param resultados Entrenamientos de una búsqueda
+     * @return Lista de claves de esos entrenamientos
+     */
+    public static List<Long> deResultados(List<Entrenamiento> resultados) {
+        return new AbstractList<Long>() {
+            @Override
+            public Long get(int indice) {
+                Entrenamiento entrenamiento = resultados.get(indice);
+                return clave(entrenamiento.getId(), entrenamiento.hashCode());
+            }
+
+            @Override
+            public int size() {
+                return resultados.size();
+            }
+        };
+    }
+}
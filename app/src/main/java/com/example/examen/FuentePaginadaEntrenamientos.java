@@ -0,0 +1,268 @@
+/**
+ * CLASE: FuentePaginadaEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Fuente de datos paginada para la lista de entrenamientos.
+ * En lugar de tener TODO el catálogo en memoria, mantiene solo las páginas
+ * cercanas a lo que se ve en pantalla.
+ *
+ * FUNCIONAMIENTO:
+ * ┌──────────────┐
+ * │ página 0     │ ← descartada (lejos de la pantalla)
+ * │ página 1     │ ← en memoria (una por detrás)
+ * │ página 2     │ ← VISIBLE
+ * │ página 3     │ ← precargada (dirección del scroll)
+ * │ página 4     │ ← precargada (dirección del scroll)
+ * │ página 5...  │ ← no cargada todavía
+ * └──────────────┘
+ *
+ * - Cada página tiene TAMANO_PAGINA entrenamientos y se lee en segundo plano
+ * - Al hacer scroll hacia abajo se precargan PAGINAS_PRECARGA páginas por debajo
+ *   (y al revés si se sube)
+ * - Las páginas a más de DISTANCIA_DESCARTE páginas de la zona visible se liberan
+ * - Mientras una página no ha llegado, getItem() retorna null (el adapter pinta un hueco)
+ *
+ * RESULTADO:
+ * La memoria es constante aunque haya 100.000+ entrenamientos, y la primera
+ * pantalla aparece en cuanto se lee la primera página.
+ *
+ * CAMBIOS EN EL CATÁLOGO:
+ * Con cada instantánea nueva las páginas cargadas pasan a estar "caducadas":
+ * se siguen mostrando (para que no parpadee la lista) pero se vuelven a pedir.
+ * Las páginas se piden a la instantánea vigente, así que todas las de una versión
+ * son coherentes con su total (ninguna escritura posterior se cuela a medias).
+ * Qué filas cambian de sitio lo decide el diff del adapter; la fuente solo avisa
+ * de qué rango de posiciones tiene datos nuevos cuando llega cada página.
+ *
+ * ROTACIONES:
+ * La fuente es de EstadoMaestroDetalle (ViewModel), no de la vista: al rotar, la
+ * lista nueva se conecta con setOnPaginaCargadaListener() y pinta en su primer
+ * layout las páginas que ya estaban en memoria, sin volver a leerlas.
+ */
+package com.example.examen;
+
+import android.util.SparseArray;
+import android.util.SparseLongArray;
+
+import java.util.List;
+
+/**
+ * Mantiene en memoria una ventana de páginas de entrenamientos alrededor de la zona visible.
+ */
+public class FuentePaginadaEntrenamientos {
+
+    // ==================== INTERFACES ====================
+
+    /**
+     * Avisa de que ha llegado una página y sus filas pueden tener datos nuevos.
+     */
+    public interface OnPaginaCargadaListener {
+        /**
+         * @param desde Posición de la primera fila de la página
+         * @param cantidad Número de filas de la página
+         */
+        void onPaginaCargada(int desde, int cantidad);
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Entrenamientos por página */
+    public static final int TAMANO_PAGINA = 50;
+
+    /** Páginas que se precargan por delante en la dirección del scroll */
+    private static final int PAGINAS_PRECARGA = 2;
+
+    /** Páginas que se conservan por detrás de la dirección del scroll */
+    private static final int PAGINAS_DETRAS = 1;
+
+    /** Páginas más lejanas que esta distancia se liberan */
+    private static final int DISTANCIA_DESCARTE = 4;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final CatalogoEntrenamientos catalogo;
+    /** Lista conectada ahora mismo (null entre la destrucción de una vista y la creación de otra) */
+    private OnPaginaCargadaListener listener;
+
+    /** Páginas en memoria: número de página → entrenamientos */
+    private final SparseArray<List<Entrenamiento>> paginas = new SparseArray<>();
+
+    /** Versión del catálogo con la que se cargó cada página en memoria */
+    private final SparseLongArray versionPagina = new SparseLongArray();
+
+    /** Páginas pedidas y todavía no recibidas → versión con la que se pidieron */
+    private final SparseLongArray pendientes = new SparseLongArray();
+
+    /** Instantánea actual del catálogo (null hasta la primera) */
+    private InstantaneaCatalogo instantanea;
+
+    /** Versión actual del catálogo */
+    private long version;
+
+    /** Número total de entrenamientos en el catálogo */
+    private int total;
+
+    /** Primera posición visible en la última llamada a onRangoVisible() */
+    private int primeraVisible;
+
+    /** Número de filas visibles en la última llamada a onRangoVisible() */
+    private int visibles = 1;
+
+    /** true si el último scroll fue hacia abajo */
+    private boolean haciaAbajo = true;
+
+    // ==================== CONSTRUCTOR ====================
+
+    /**
+     * @param catalogo Catálogo del que se leen las páginas
+     */
+    public FuentePaginadaEntrenamientos(CatalogoEntrenamientos catalogo) {
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * La fuente vive en EstadoMaestroDetalle y sobrevive a las rotaciones: cada
+     * vista nueva de la lista se conecta aquí y la anterior se desconecta (null).
+     *
+     * @param listener Se llama (en el hilo principal) cuando llega una página
+     */
+    public void setOnPaginaCargadaListener(OnPaginaCargadaListener listener) {
+        this.listener = listener;
+    }
+
+    // ==================== DATOS ====================
+
+    /**
+     * @return Número total de entrenamientos (cargados o no)
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Retorna el entrenamiento de una posición si su página está en memoria.
+     * Si no lo está, la pide y retorna null.
+     *
+     * @param posicion Posición en la lista
+     * @return Entrenamiento, o null si su página todavía no ha llegado
+     */
+    public Entrenamiento getItem(int posicion) {
+        int numeroPagina = posicion / TAMANO_PAGINA;
+        List<Entrenamiento> pagina = paginas.get(numeroPagina);
+        if (pagina == null || versionPagina.get(numeroPagina) != version) {
+            pedirPagina(numeroPagina);
+        }
+        int indice = posicion % TAMANO_PAGINA;
+        return pagina != null && indice < pagina.size() ? pagina.get(indice) : null;
+    }
+
+    /**
+     * Recibe una instantánea nueva del catálogo (cuando el adapter ya muestra sus filas).
+     * Las páginas en memoria se conservan para mostrarlas, pero se vuelven a pedir.
+     *
+     * @param instantanea Nueva versión del catálogo
+     */
+    public void setInstantanea(InstantaneaCatalogo instantanea) {
+        this.instantanea = instantanea;
+        version = instantanea.getVersion();
+        total = instantanea.getTotal();
+        actualizarVentana();
+    }
+
+    // ==================== VENTANA VISIBLE ====================
+
+    /**
+     * Informa de qué filas se ven en pantalla. Se llama desde el listener de scroll.
+     *
+     * @param primera Primera posición visible
+     * @param cantidad Número de filas visibles
+     */
+    public void onRangoVisible(int primera, int cantidad) {
+        if (primera == primeraVisible && cantidad == visibles) {
+            return;
+        }
+        if (primera != primeraVisible) {
+            haciaAbajo = primera > primeraVisible;
+        }
+        primeraVisible = primera;
+        visibles = Math.max(1, cantidad);
+        actualizarVentana();
+    }
+
+    /**
+     * Pide las páginas de la ventana (visibles + precarga) y libera las lejanas.
+     */
+    private void actualizarVentana() {
+        if (total == 0) {
+            paginas.clear();
+            versionPagina.clear();
+            return;
+        }
+
+        int ultimaPagina = (total - 1) / TAMANO_PAGINA;
+        int primeraPaginaVisible = primeraVisible / TAMANO_PAGINA;
+        int ultimaPaginaVisible = (primeraVisible + visibles - 1) / TAMANO_PAGINA;
+
+        int desde = primeraPaginaVisible - (haciaAbajo ? PAGINAS_DETRAS : PAGINAS_PRECARGA);
+        int hasta = ultimaPaginaVisible + (haciaAbajo ? PAGINAS_PRECARGA : PAGINAS_DETRAS);
+        desde = Math.max(0, desde);
+        hasta = Math.min(ultimaPagina, hasta);
+
+        // Primero las visibles, luego la precarga (el ejecutor atiende en orden)
+        for (int p = primeraPaginaVisible; p <= Math.min(ultimaPaginaVisible, hasta); p++) {
+            asegurarPagina(p);
+        }
+        for (int p = desde; p <= hasta; p++) {
+            asegurarPagina(p);
+        }
+
+        // Liberar páginas lejanas (o que ya no existen porque el catálogo encogió)
+        for (int i = paginas.size() - 1; i >= 0; i--) {
+            int p = paginas.keyAt(i);
+            if (p > ultimaPagina || p < primeraPaginaVisible - DISTANCIA_DESCARTE
+                    || p > ultimaPaginaVisible + DISTANCIA_DESCARTE) {
+                paginas.removeAt(i);
+                versionPagina.delete(p);
+            }
+        }
+    }
+
+    private void asegurarPagina(int numeroPagina) {
+        if (paginas.get(numeroPagina) == null || versionPagina.get(numeroPagina) != version) {
+            pedirPagina(numeroPagina);
+        }
+    }
+
+    /**
+     * Pide una página al catálogo si no está ya pedida para la versión actual.
+     */
+    private void pedirPagina(int numeroPagina) {
+        if (instantanea == null || pendientes.get(numeroPagina, -1) == version) {
+            return;
+        }
+        long versionPedida = version;
+        pendientes.put(numeroPagina, versionPedida);
+
+        catalogo.cargarPagina(instantanea, numeroPagina * TAMANO_PAGINA, TAMANO_PAGINA, pagina -> {
+            if (pendientes.get(numeroPagina, -1) == versionPedida) {
+                pendientes.delete(numeroPagina);
+            }
+            // Descartar respuestas de versiones antiguas o de páginas que ya no interesan
+            if (versionPedida != version || !estaEnVentana(numeroPagina)) {
+                return;
+            }
+            paginas.put(numeroPagina, pagina);
+            versionPagina.put(numeroPagina, versionPedida);
+            if (listener != null) {
+                listener.onPaginaCargada(numeroPagina * TAMANO_PAGINA, pagina.size());
+            }
+        });
+    }
+
+    private boolean estaEnVentana(int numeroPagina) {
+        int primeraPaginaVisible = primeraVisible / TAMANO_PAGINA;
+        int ultimaPaginaVisible = (primeraVisible + visibles - 1) / TAMANO_PAGINA;
+        return numeroPagina >= primeraPaginaVisible - DISTANCIA_DESCARTE
+                && numeroPagina <= ultimaPaginaVisible + DISTANCIA_DESCARTE;
+    }
+}
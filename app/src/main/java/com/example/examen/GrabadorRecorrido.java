@@ -0,0 +1,261 @@
+/**
+ * CLASE: GrabadorRecorrido.java
+ *
+ * PROPÓSITO:
+ * Graba la ruta GPS de una sesión de un entrenamiento al aire libre (iconos
+ * "Navegación/Outdoor" y "Localización/GPS") en un FicheroRecorrido.
+ *
+ * DOS HILOS, SIN CANDADOS:
+ * - "recorrido-gps" (productor): recibe cada Location y la copia como números
+ *   en un BufferMuestras. No toca el disco ni crea objetos por muestra
+ * - "recorrido-escritura" (consumidor): cada INTERVALO_VOLCADO_MS vacía el
+ *   buffer en el fichero (un bloque comprimido) y lo sincroniza con el disco
+ * Si el disco se atasca, el buffer aguanta más de una hora de muestras a 1 Hz.
+ *
+ * ¿POR QUÉ CADA 30 SEGUNDOS?
+ * Cada bloque empieza con una muestra entera (≈ 30 bytes frente a los ≈ 7 de
+ * una diferencia): volcando cada 2 s la ruta ocuparía más del doble. Si la app
+ * muere, se pierden como mucho los últimos 30 s de ruta.
+ *
+ * AL TERMINAR:
+ * El aviso de "ya no se graba" se encola en el propio hilo del GPS, detrás de
+ * las posiciones que hubieran llegado: el último volcado las incluye todas.
+ *
+ * LÍMITES:
+ * Solo graba mientras la app está en marcha (no hay servicio en primer plano):
+ * con la app en segundo plano el sistema espacia mucho las posiciones.
+ *
+ * USO:
+ * grabador = GrabadorRecorrido.empezar(context, GrabadorRecorrido.fichero(context, id, inicio));
+ * grabador.terminar(() -> ...);   // el aviso llega al hilo principal con el fichero ya cerrado
+ */
+package com.example.examen;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Grabación de una ruta GPS: productor en el hilo del GPS, escritor en segundo plano.
+ */
+public final class GrabadorRecorrido {
+
+    // ==================== CONSTANTES ====================
+
+    private static final String TAG = "GrabadorRecorrido";
+
+    /** Carpeta de los recorridos dentro de getFilesDir() */
+    private static final String CARPETA = "recorridos";
+
+    private static final String EXTENSION = ".trk";
+
+    /** Una posición por segundo */
+    private static final long INTERVALO_GPS_MS = 1000;
+
+    /** Cada cuánto vacía el escritor el buffer (≈ 30 muestras por bloque) */
+    private static final long INTERVALO_VOLCADO_MS = 30_000;
+
+    /** Tiempo en Metricas de cada volcado y posiciones perdidas con el buffer lleno */
+    private static final String METRICA_VOLCAR = "recorrido.volcar";
+    private static final String METRICA_DESCARTADAS = "recorrido.descartadas";
+
+    // ==================== ATRIBUTOS ====================
+
+    private final LocationManager gps;
+    private final File destino;
+    private final BufferMuestras buffer = new BufferMuestras();
+    private final HandlerThread hiloGps = new HandlerThread("recorrido-gps", Process.THREAD_PRIORITY_BACKGROUND);
+    private final Thread escritor = new Thread(this::escribirEnBucle, "recorrido-escritura");
+
+    /** false cuando ya no llegan más posiciones (lo pone el hilo del GPS) */
+    private volatile boolean grabando = true;
+
+    /** Se avisa en el hilo principal cuando el fichero queda cerrado (null = nadie) */
+    private volatile Runnable alCerrar;
+
+    /** Productor: copia cada posición en el buffer (solo en el hilo recorrido-gps) */
+    private final LocationListener escucha = new LocationListener() {
+        @Override
+        public void onLocationChanged(Location posicion) {
+            buffer.ofrecer(posicion.getTime(), posicion.getLatitude(), posicion.getLongitude(),
+                    posicion.hasAltitude() ? posicion.getAltitude() : 0,
+                    posicion.hasAccuracy() ? posicion.getAccuracy() : 0);
+        }
+    };
+
+    // ==================== FICHEROS ====================
+
+    /**
+     * @param iconoResId Icono del entrenamiento
+     * @return true si sus sesiones graban la ruta (entrenamientos al aire libre)
+     */
+    public static boolean grabaRecorrido(int iconoResId) {
+        return iconoResId == android.R.drawable.ic_menu_compass
+                || iconoResId == android.R.drawable.ic_menu_mylocation;
+    }
+
+    /**
+     * @return true si la app puede pedir posiciones GPS
+     */
+    public static boolean tienePermiso(Context context) {
+        return ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /**
+     * @param idEntrenamiento Entrenamiento de la sesión
+     * @param inicio Hora de inicio de la sesión (milisegundos desde 1970)
+     * @return Fichero del recorrido de esa sesión
+     */
+    public static File fichero(Context context, int idEntrenamiento, long inicio) {
+        File carpeta = new File(context.getFilesDir(), CARPETA);
+        return new File(carpeta, String.format(Locale.ROOT, "%d-%d%s", idEntrenamiento, inicio, EXTENSION));
+    }
+
+    /**
+     * @param idEntrenamiento Entrenamiento
+     * @return Recorrido de su sesión más reciente, o null si nunca se grabó ninguno
+     */
+    public static File ultimo(Context context, int idEntrenamiento) {
+        File[] ficheros = new File(context.getFilesDir(), CARPETA).listFiles();
+        if (ficheros == null) {
+            return null;
+        }
+        String prefijo = idEntrenamiento + "-";
+        File ultimo = null;
+        long inicioUltimo = Long.MIN_VALUE;
+        for (File fichero : ficheros) {
+            String nombre = fichero.getName();
+            if (!nombre.startsWith(prefijo) || !nombre.endsWith(EXTENSION)) {
+                continue;
+            }
+            try {
+                long inicio = Long.parseLong(nombre.substring(prefijo.length(), nombre.length() - EXTENSION.length()));
+                if (inicio > inicioUltimo) {
+                    inicioUltimo = inicio;
+                    ultimo = fichero;
+                }
+            } catch (NumberFormatException e) {
+                // No es un fichero de fichero(): se ignora
+            }
+        }
+        return ultimo;
+    }
+
+    // ==================== GRABACIÓN ====================
+
+    private GrabadorRecorrido(LocationManager gps, File destino) {
+        this.gps = gps;
+        this.destino = destino;
+    }
+
+    /**
+     * Empieza a grabar (llamar desde el hilo principal).
+     *
+     * @param context Cualquier Context
+     * @param destino Fichero del recorrido (fichero())
+     * @return Grabador en marcha, o null si no hay permiso de ubicación
+     */
+    public static GrabadorRecorrido empezar(Context context, File destino) {
+        if (!tienePermiso(context)) {
+            return null;
+        }
+        LocationManager gps = (LocationManager) context.getSystemService(Context.LOCATION_SERVICE);
+        GrabadorRecorrido grabador = new GrabadorRecorrido(gps, destino);
+        grabador.hiloGps.start();
+        grabador.escritor.start();
+        try {
+            gps.requestLocationUpdates(LocationManager.GPS_PROVIDER, INTERVALO_GPS_MS, 0,
+                    grabador.escucha, grabador.hiloGps.getLooper());
+        } catch (SecurityException | IllegalArgumentException e) {
+            Log.w(TAG, "No se pueden pedir posiciones GPS", e);
+            grabador.terminar();
+            return null;
+        }
+        return grabador;
+    }
+
+    /**
+     * Deja de pedir posiciones; el escritor vuelca las que falten y cierra el fichero.
+     */
+    public void terminar() {
+        terminar(null);
+    }
+
+    /**
+     * Como terminar(), avisando cuando el fichero ya está completo y cerrado.
+     *
+     * @param alCerrar Se ejecuta en el hilo principal (null = sin aviso)
+     */
+    public void terminar(Runnable alCerrar) {
+        this.alCerrar = alCerrar;
+        gps.removeUpdates(escucha);
+        // Detrás de las posiciones ya encoladas en el hilo del GPS
+        new Handler(hiloGps.getLooper()).post(() -> {
+            grabando = false;
+            LockSupport.unpark(escritor);
+        });
+        hiloGps.quitSafely();
+    }
+
+    /**
+     * @return Fichero en el que se graba
+     */
+    public File getDestino() {
+        return destino;
+    }
+
+    // ==================== ESCRITOR ====================
+
+    private void escribirEnBucle() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        File carpeta = destino.getParentFile();
+        if (carpeta != null && !carpeta.isDirectory() && !carpeta.mkdirs()) {
+            Log.e(TAG, "No se puede crear la carpeta de recorridos: " + carpeta);
+            return;
+        }
+        try (FicheroRecorrido fichero = FicheroRecorrido.abrir(destino)) {
+            while (grabando) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(INTERVALO_VOLCADO_MS));
+                if (volcar(fichero) > 0) {
+                    fichero.sincronizar();
+                }
+            }
+            volcar(fichero); // Las que llegaron justo antes de terminar (close() sincroniza)
+            for (long i = buffer.getDescartadas(); i > 0; i--) {
+                Metricas.contar(METRICA_DESCARTADAS);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error grabando el recorrido " + destino, e);
+        }
+        Runnable aviso = alCerrar;
+        if (aviso != null) {
+            new Handler(Looper.getMainLooper()).post(aviso);
+        }
+    }
+
+    private int volcar(FicheroRecorrido fichero) throws IOException {
+        long inicio = Metricas.iniciar(METRICA_VOLCAR);
+        try {
+            return fichero.volcar(buffer);
+        } finally {
+            Metricas.terminar(METRICA_VOLCAR, inicio);
+        }
+    }
+}
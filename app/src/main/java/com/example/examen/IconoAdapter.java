@@ -3,14 +3,14 @@
  *
  * PROPÓSITO:
  * Adapter para mostrar los iconos disponibles en un GridView dentro del diálogo
- * de crear entrenamiento. Similar a EntrenamientoAdapter pero con funcionalidad
- * adicional para manejar selección de iconos.
+ * de crear entrenamiento. Con pocos iconos fijos basta un BaseAdapter (no hace
+ * falta RecyclerView ni diff), con funcionalidad adicional para manejar selección.
  *
  * DIFERENCIAS CON EntrenamientoAdapter:
- * - Usa BaseAdapter (más flexible) en lugar de ArrayAdapter
+ * - Usa BaseAdapter en lugar de ListAdapter de RecyclerView (la lista no cambia)
  * - Maneja SELECCIÓN de items (cuál icono está seleccionado)
  * - Cambia la apariencia visual según si está seleccionado o no
- * - Se usa con GridView (cuadrícula) en lugar de ListView
+ * - Se usa con GridView (cuadrícula) en lugar de RecyclerView
  *
  * FUNCIONALIDADES ESPECIALES:
  * - Destacado visual del icono seleccionado (opacidad 100%)
@@ -39,6 +39,11 @@ import java.util.List;
  */
 public class IconoAdapter extends BaseAdapter {
 
+    // ==================== CONSTANTES ====================
+
+    /** Tiempo en Metricas de cada getView() (inflado incluido cuando no hay vista que reciclar) */
+    private static final String METRICA_GET_VIEW = "selectorIconos.getView";
+
     // ==================== ATRIBUTOS ====================
 
     /** Context de la aplicación */
@@ -102,7 +107,7 @@ public class IconoAdapter extends BaseAdapter {
 
     /**
      * Crea/actualiza la vista para un icono específico.
-     * Similar a getView de EntrenamientoAdapter pero con lógica de selección.
+     * Reutiliza convertView y aplica la lógica de selección.
      *
      * FLUJO:
      * 1. Reutiliza vista existente o infla nueva
@@ -111,6 +116,7 @@ public class IconoAdapter extends BaseAdapter {
      * 4. Establece la imagen y el nombre
      * 5. Aplica estilos según si está seleccionado o no
      * 6. Retorna la vista configurada
+     * (todo ello medido en Metricas como "selectorIconos.getView")
      *
      * ESTILOS DE SELECCIÓN:
      * - Seleccionado: Opacidad 100%, fondo destacado
@@ -123,6 +129,15 @@ public class IconoAdapter extends BaseAdapter {
      */
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
+        long inicio = Metricas.iniciar(METRICA_GET_VIEW);
+        try {
+            return rellenar(position, convertView, parent);
+        } finally {
+            Metricas.terminar(METRICA_GET_VIEW, inicio);
+        }
+    }
+
+    private View rellenar(int position, View convertView, ViewGroup parent) {
         View view = convertView;
 
         // Si no hay vista para reutilizar, crear una nueva
@@ -140,8 +155,8 @@ public class IconoAdapter extends BaseAdapter {
         TextView textView = view.findViewById(R.id.nombre_icono);
         View containerView = view.findViewById(R.id.icono_container);
 
-        // Establecer la imagen del icono
-        imageView.setImageResource(icono.getIconoResId());
+        // Establecer la imagen del icono (Bitmap compartido con la lista y el detalle)
+        CacheIconos.getInstancia(context).mostrar(imageView, icono.getIconoResId());
 
         // Establecer el nombre del icono
         textView.setText(icono.getNombre());
@@ -0,0 +1,119 @@
+/**
+ * CLASE: ImportacionDialogFragment.java
+ *
+ * PROPÓSITO:
+ * Diálogo con el progreso de la importación en curso y un botón para cancelarla.
+ *
+ * FUNCIONAMIENTO:
+ * - La importación la lleva CatalogoEntrenamientos, no este diálogo: si se gira la
+ *   pantalla, el diálogo se recrea y vuelve a suscribirse con setOnImportacionListener()
+ * - Al terminar la importación se cierra solo (el resumen lo muestra el catálogo en un Toast)
+ * - No se puede cerrar tocando fuera: solo con Cancelar o al terminar
+ */
+package com.example.examen;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.DialogFragment;
+
+/**
+ * Diálogo de progreso de la importación de entrenamientos.
+ */
+public class ImportacionDialogFragment extends DialogFragment
+        implements CatalogoEntrenamientos.OnImportacionListener {
+
+    /** Tiempo en Metricas de inflar el layout del diálogo */
+    private static final String METRICA_INFLAR = "dialogo.importacion.inflar";
+
+    /** Fotogramas de la ventana del diálogo, mientras se ve */
+    private MonitorFotogramas monitorFotogramas;
+
+    private TextView textoEstado;
+    private ProgressBar barraProgreso;
+    private Button btnCancelar;
+
+    private CatalogoEntrenamientos catalogo;
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        long inicio = Metricas.iniciar(METRICA_INFLAR);
+        View view;
+        try {
+            view = inflater.inflate(R.layout.dialog_importacion, container, false);
+        } finally {
+            Metricas.terminar(METRICA_INFLAR, inicio);
+        }
+
+        textoEstado = view.findViewById(R.id.texto_importacion);
+        barraProgreso = view.findViewById(R.id.progreso_importacion);
+        btnCancelar = view.findViewById(R.id.btn_cancelar_importacion);
+
+        catalogo = CatalogoEntrenamientos.getInstancia(requireContext());
+        setCancelable(false);
+
+        btnCancelar.setOnClickListener(v -> {
+            catalogo.cancelarImportacion();
+            btnCancelar.setEnabled(false);
+            textoEstado.setText("Cancelando...");
+        });
+
+        return view;
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        if (!catalogo.isImportando()) {
+            // La importación terminó mientras el diálogo no estaba visible
+            dismissAllowingStateLoss();
+            return;
+        }
+        catalogo.setOnImportacionListener(this);
+        if (getDialog() != null) {
+            monitorFotogramas = MonitorFotogramas.vigilar(getDialog().getWindow(), "dialogo.importacion");
+        }
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        catalogo.setOnImportacionListener(null);
+        if (monitorFotogramas != null) {
+            monitorFotogramas.detener();
+            monitorFotogramas = null;
+        }
+    }
+
+    // ==================== OnImportacionListener ====================
+
+    @Override
+    public void onProgreso(ImportadorEntrenamientos.Progreso progreso) {
+        String estado = progreso.getImportadas() + " importados";
+        if (progreso.getRechazadas() > 0) {
+            estado += ", " + progreso.getRechazadas() + " no válidos";
+        }
+        if (btnCancelar.isEnabled()) {
+            textoEstado.setText(estado);
+        }
+
+        int porcentaje = progreso.getPorcentaje();
+        barraProgreso.setIndeterminate(porcentaje < 0);
+        if (porcentaje >= 0) {
+            barraProgreso.setProgress(porcentaje);
+        }
+    }
+
+    @Override
+    public void onTerminada(ImportadorEntrenamientos.Resultado resultado) {
+        dismissAllowingStateLoss();
+    }
+}
@@ -2,76 +2,108 @@
  * FRAGMENT: ListaEntrenamientosFragment.java
  *
  * PROPÓSITO:
- * Fragment que muestra la lista de entrenamientos disponibles en un ListView.
+ * Fragment que muestra la lista de entrenamientos disponibles en un RecyclerView.
  * Es el "Master" del patrón Master-Detail.
  *
  * RESPONSABILIDADES:
- * 1. Mantener la lista de entrenamientos (variable estática compartida)
- * 2. Mostrar los entrenamientos en un ListView usando EntrenamientoAdapter
- * 3. Manejar clicks en items de la lista
- * 4. Decidir cómo mostrar detalles según orientación (portrait/landscape)
- * 5. Permitir agregar nuevos entrenamientos
- * 6. Proporcionar métodos para buscar y generar IDs
+ * 1. Suscribirse a CatalogoEntrenamientos para saber cuándo cambia el catálogo
+ * 2. Mostrar los entrenamientos en un RecyclerView usando EntrenamientoAdapter,
+ *    cargándolos por páginas alrededor de la zona visible (FuentePaginadaEntrenamientos)
+ * 3. Buscar por texto mientras se escribe y filtrar por dificultad / tipo de icono
+ * 4. Manejar clicks en items de la lista (eligen el entrenamiento en EstadoMaestroDetalle)
+ * 5. Guardar y recuperar el scroll al rotar (las páginas ya cargadas también se conservan)
  *
  * PATRÓN DE DISEÑO:
  * - Master-Detail: Este es el "Master" (lista maestra)
- * - Observer: El adapter se actualiza automáticamente con notifyDataSetChanged()
+ * - Observer: Este fragment observa el catálogo; cada instantánea nueva se pasa a la fuente paginada
  *
  * FLUJO DE NAVEGACIÓN:
- * Portrait: Click en item → Reemplaza este fragment con DetalleFragment
- * Landscape: Click en item → Actualiza el panel derecho (fragment_detalle)
+ * Click en item → EstadoMaestroDetalle.seleccionar(id, vecinos), sin transacciones
+ * (los vecinos son las filas de al lado, cuyo detalle se prepara por adelantado):
+ * - Portrait: MainActivity oculta este panel y muestra el de detalle
+ * - Landscape: el panel derecho (ya visible) muestra el nuevo entrenamiento
  *
  * USADO EN:
- * - MainActivity (portrait): En fragment_container
- * - MainActivity (landscape): En fragment_lista (panel izquierdo)
+ * - MainActivity: en fragment_lista (existe en los dos layouts, así que después
+ *   de rotar el FragmentManager lo restaura en el mismo contenedor)
  */
 package com.example.examen;
 
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ListView;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.EditText;
+import android.widget.Spinner;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
-import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SimpleItemAnimator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-public class ListaEntrenamientosFragment extends Fragment {
+public class ListaEntrenamientosFragment extends Fragment implements CatalogoEntrenamientos.Observador {
+
+    // ==================== CONSTANTES ====================
+
+    /** Número máximo de resultados que se muestran al buscar */
+    private static final int MAX_RESULTADOS = 200;
+
+    /** Filas a cada lado de la pulsada cuyo detalle se precarga */
+    private static final int VECINOS_PRECARGA = 2;
 
     // ==================== ATRIBUTOS ====================
 
     /**
-     * ListView que muestra la lista de entrenamientos.
+     * RecyclerView que muestra la lista de entrenamientos.
      * Se conecta con el EntrenamientoAdapter para mostrar los datos.
      */
-    private ListView listView;
+    private RecyclerView recyclerView;
+
+    /** Coloca las filas en vertical y dice cuáles se ven */
+    private LinearLayoutManager layoutManager;
 
     /**
-     * Adapter que conecta los datos (entrenamientos) con la vista (ListView).
+     * Adapter que conecta los datos (entrenamientos) con la vista (RecyclerView).
      * Responsable de crear y actualizar cada fila de la lista.
      */
     private EntrenamientoAdapter adapter;
 
     /**
-     * Lista ESTÁTICA de entrenamientos.
-     *
-     * ¿POR QUÉ ESTÁTICA?
-     * - Se comparte entre todas las instancias del fragment
-     * - Persiste cuando el fragment se recrea (rotación, navegación)
-     * - Permite que otros fragments/activities accedan a los datos
-     * - Se mantiene mientras la app esté en memoria
-     *
-     * IMPORTANTE:
-     * Al ser estática, los datos NO se pierden al rotar el dispositivo
-     * o al navegar entre fragments.
+     * Páginas de entrenamientos cercanas a la zona visible.
+     * Solo esta ventana está en memoria, no el catálogo completo.
+     * Es de EstadoMaestroDetalle: sobrevive a las rotaciones con sus páginas.
      */
-    private static List<Entrenamiento> entrenamientos;
+    private FuentePaginadaEntrenamientos fuente;
+
+    /** Selección y scroll compartidos con MainActivity y el detalle */
+    private EstadoMaestroDetalle estado;
+
+    /** Catálogo compartido del que se reciben los datos */
+    private CatalogoEntrenamientos catalogo;
+
+    /** Campo de búsqueda encima de la lista */
+    private EditText campoBusqueda;
+
+    /** Filtros: posición 0 = "todas/todos", el resto son valores concretos */
+    private Spinner filtroDificultad;
+    private Spinner filtroIcono;
+
+    /** Iconos en el mismo orden que el spinner de filtro (desplazados en 1 por "Todos") */
+    private final List<IconoEntrenamiento> iconos = IconoEntrenamiento.getIconosDisponibles();
 
     // ==================== CICLO DE VIDA DEL FRAGMENT ====================
 
@@ -80,10 +112,11 @@ public class ListaEntrenamientosFragment extends Fragment {
      *
      * FLUJO:
      * 1. Infla el layout XML (fragment_lista_entrenamientos.xml)
-     * 2. Busca el ListView en el layout
-     * 3. Inicializa la lista de entrenamientos (solo la primera vez)
-     * 4. Crea y asigna el adapter al ListView
-     * 5. Configura el listener para clicks en items
+     * 2. Busca el RecyclerView en el layout
+     * 3. Conecta la fuente paginada (del ViewModel) a un adapter nuevo y lo asigna al RecyclerView
+     * 4. Si el catálogo ya está cargado (rotación) muestra sus filas y el scroll de
+     *    antes en este mismo layout; después se suscribe a los cambios
+     * 5. Configura los listeners de scroll (qué páginas cargar), búsqueda y clicks en items
      * 6. Retorna la vista completa
      *
      * ¿CUÁNDO SE LLAMA?
@@ -103,258 +136,184 @@ public class ListaEntrenamientosFragment extends Fragment {
         // Convierte fragment_lista_entrenamientos.xml en objetos View
         View view = inflater.inflate(R.layout.fragment_lista_entrenamientos, container, false);
 
-        // PASO 2: Buscar el ListView en el layout inflado
-        listView = view.findViewById(R.id.lista_entrenamientos);
-
-        // PASO 3: Inicializar lista de entrenamientos solo si está vacía
-        // Al ser estática, se verifica si ya fue inicializada antes
-        // Esto previene duplicar entrenamientos al rotar o recrear el fragment
-        if (entrenamientos == null) {
-            entrenamientos = new ArrayList<>();
-            inicializarEntrenamientos();  // Carga los 4 entrenamientos iniciales
+        // PASO 2: Buscar el RecyclerView en el layout inflado
+        recyclerView = view.findViewById(R.id.lista_entrenamientos);
+
+        // PASO 3: Conectar la fuente paginada (con las páginas que ya tuviera) a un adapter nuevo
+        // Cuando llega una página solo se repintan las filas que cambian
+        // Al pulsar una fila ya cargada se muestran sus detalles
+        catalogo = CatalogoEntrenamientos.getInstancia(requireContext());
+        estado = new ViewModelProvider(requireActivity()).get(EstadoMaestroDetalle.class);
+        fuente = estado.getFuente();
+        fuente.setOnPaginaCargadaListener((desde, cantidad) -> adapter.onPaginaCargada(desde, cantidad));
+        adapter = new EntrenamientoAdapter(fuente, (entrenamiento, posicion) ->
+                estado.seleccionar(entrenamiento.getId(), adapter.idsVecinos(posicion, VECINOS_PRECARGA)));
+
+        // Prefetch: el RecyclerView prepara en los huecos entre frames las filas
+        // que van a entrar en pantalla con el scroll
+        layoutManager = new LinearLayoutManager(requireContext());
+        layoutManager.setItemPrefetchEnabled(true);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setHasFixedSize(true);
+        recyclerView.addItemDecoration(new DividerItemDecoration(requireContext(), DividerItemDecoration.VERTICAL));
+        // Sin animación de "cambio": al llegar una página el texto se sustituye sin fundido
+        ((SimpleItemAnimator) recyclerView.getItemAnimator()).setSupportsChangeAnimations(false);
+        recyclerView.setAdapter(adapter);
+
+        // PASO 4: Tras una rotación el catálogo ya está en memoria: las filas (y las
+        // páginas de la fuente) se muestran en el primer layout, en la misma posición
+        InstantaneaCatalogo actual = catalogo.getInstantanea();
+        if (actual != null) {
+            adapter.setInstantanea(actual);
+            layoutManager.scrollToPositionWithOffset(estado.getPosicionScroll(), estado.getDesplazamientoScroll());
         }
+        // El disco se lee en segundo plano; los cambios llegan en onCatalogoCambiado()
+        catalogo.observar(this);
+
+        // PASO 5: Informar a la fuente de qué filas se ven al hacer scroll
+        // (onScrolled también se llama tras cada layout, no solo al arrastrar)
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                int primera = layoutManager.findFirstVisibleItemPosition();
+                // Con resultados de búsqueda en pantalla las posiciones no son del catálogo
+                if (primera != RecyclerView.NO_POSITION && !adapter.isBuscando()) {
+                    fuente.onRangoVisible(primera, layoutManager.findLastVisibleItemPosition() - primera + 1);
+                }
+            }
+        });
 
-        // PASO 4: Crear el adapter y conectarlo al ListView
-        // El adapter será el "traductor" entre los datos y las vistas
-        adapter = new EntrenamientoAdapter(getContext(), entrenamientos);
-        listView.setAdapter(adapter);
+        // Buscar en cada pulsación (las búsquedas anteriores aún en cola se descartan)
+        campoBusqueda = view.findViewById(R.id.buscar_entrenamientos);
+        campoBusqueda.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
 
-        // PASO 5: Configurar listener para clicks en items de la lista
-        // Lambda: (parámetros) -> { código a ejecutar }
-        listView.setOnItemClickListener((parent, view1, position, id) -> {
-            // Obtener el entrenamiento clickeado según su posición
-            Entrenamiento entrenamiento = entrenamientos.get(position);
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
 
-            // Mostrar los detalles del entrenamiento
-            mostrarDetalle(entrenamiento.getId());
+            @Override
+            public void afterTextChanged(Editable s) {
+                buscar();
+            }
         });
 
+        // Filtros por dificultad y por tipo de icono
+        List<String> dificultades = new ArrayList<>();
+        dificultades.add("Todas las dificultades");
+        dificultades.addAll(Arrays.asList(getResources().getStringArray(R.array.dificultades)));
+        filtroDificultad = view.findViewById(R.id.filtro_dificultad);
+        configurarFiltro(filtroDificultad, dificultades);
+
+        List<String> tipos = new ArrayList<>();
+        tipos.add("Todos los tipos");
+        for (IconoEntrenamiento icono : iconos) {
+            tipos.add(icono.getNombre());
+        }
+        filtroIcono = view.findViewById(R.id.filtro_icono);
+        configurarFiltro(filtroIcono, tipos);
+
         // PASO 6: Retornar la vista completa
         return view;
     }
 
-    // ==================== INICIALIZACIÓN DE DATOS ====================
-
     /**
-     * Inicializa la lista con 4 entrenamientos predefinidos.
-     *
-     * ENTRENAMIENTOS INCLUIDOS:
-     * 1. Cardio Intenso - Alta dificultad, 45 minutos
-     * 2. Fuerza Total - Media dificultad, 60 minutos
-     * 3. Yoga Relajante - Baja dificultad, 30 minutos
-     * 4. HIIT Extremo - Alta dificultad, 25 minutos
-     *
-     * CUÁNDO SE LLAMA:
-     * Solo la primera vez, cuando entrenamientos es null.
-     * No se vuelve a llamar en rotaciones o navegación.
-     *
-     * IMPORTANTE:
-     * Cada Entrenamiento tiene:
-     * - ID único (1, 2, 3, 4)
-     * - Nombre descriptivo
-     * - Descripción detallada
-     * - Duración en texto
-     * - Nivel de dificultad
-     * - Icono temático de Android (ic_menu_directions, ic_menu_manage, etc.)
+     * Se da de baja del catálogo cuando la vista se destruye,
+     * para no recibir avisos sobre un RecyclerView que ya no existe.
+     * Antes guarda el scroll en EstadoMaestroDetalle para la vista siguiente (rotación).
      */
-    private void inicializarEntrenamientos() {
-        // Entrenamiento 1: CARDIO INTENSO
-        // Icono: ic_menu_directions (flecha/dirección) para representar movimiento
-        entrenamientos.add(new Entrenamiento(1, "Cardio Intenso",
-            "Ejercicios cardiovasculares de alta intensidad para mejorar la resistencia",
-            "45 minutos", "Alta", android.R.drawable.ic_menu_directions));
-
-        // Entrenamiento 2: FUERZA TOTAL
-        // Icono: ic_menu_manage (gestión/configuración) para representar estructura
-        entrenamientos.add(new Entrenamiento(2, "Fuerza Total",
-            "Entrenamiento de fuerza para todos los grupos musculares",
-            "60 minutos", "Media", android.R.drawable.ic_menu_manage));
-
-        // Entrenamiento 3: YOGA RELAJANTE
-        // Icono: ic_menu_gallery (galería) para representar variedad/flexibilidad
-        entrenamientos.add(new Entrenamiento(3, "Yoga Relajante",
-            "Sesión de yoga para flexibilidad y relajación mental",
-            "30 minutos", "Baja", android.R.drawable.ic_menu_gallery));
-
-        // Entrenamiento 4: HIIT EXTREMO
-        // Icono: ic_menu_rotate (rotación) para representar circuito/repetición
-        entrenamientos.add(new Entrenamiento(4, "HIIT Extremo",
-            "Entrenamiento de intervalos de alta intensidad para quemar calorías",
-            "25 minutos", "Alta", android.R.drawable.ic_menu_rotate));
+    @Override
+    public void onDestroyView() {
+        catalogo.dejarDeObservar(this);
+        fuente.setOnPaginaCargadaListener(null);
+        // Con resultados de búsqueda en pantalla las posiciones no son del catálogo
+        int primera = layoutManager.findFirstVisibleItemPosition();
+        if (primera != RecyclerView.NO_POSITION && !adapter.isBuscando()) {
+            View fila = layoutManager.findViewByPosition(primera);
+            estado.guardarScroll(primera, fila != null ? fila.getTop() - recyclerView.getPaddingTop() : 0);
+        }
+        super.onDestroyView();
     }
 
-    // ==================== NAVEGACIÓN Y GESTIÓN DE VISTAS ====================
+    // ==================== DATOS ====================
 
     /**
-     * Muestra los detalles de un entrenamiento.
-     * El comportamiento cambia según la orientación del dispositivo.
-     *
-     * FLUJO:
-     * 1. Crea un DetalleEntrenamientoFragment con el ID del entrenamiento
-     * 2. Detecta si estamos en landscape (modo dual pane)
-     * 3. Decide cómo mostrar el fragment:
-     *    - Landscape: Actualiza el panel derecho (fragment_detalle)
-     *    - Portrait: Reemplaza el fragment actual (fragment_container)
-     *
-     * PORTRAIT (Vertical):
-     * ┌────────────────┐
-     * │ Lista          │ ← Este fragment
-     * └────────────────┘
-     *        ↓ Click
-     * ┌────────────────┐
-     * │ Detalle        │ ← Se reemplaza con DetalleFragment
-     * └────────────────┘
+     * Recibe la nueva instantánea del catálogo (en el hilo principal, como mucho una vez por frame).
+     * El adapter calcula en segundo plano qué filas cambian; al aplicarlo, la fuente
+     * pasa a esa versión y vuelve a pedir las páginas visibles.
      *
-     * LANDSCAPE (Horizontal):
-     * ┌──────────┬─────────────┐
-     * │ Lista    │ Detalle     │ ← Panel derecho se actualiza
-     * │ (este)   │ (actualiza) │
-     * └──────────┴─────────────┘
-     *
-     * @param idEntrenamiento ID único del entrenamiento a mostrar
+     * @param instantanea Versión y tamaño actuales del catálogo
      */
-    private void mostrarDetalle(int idEntrenamiento) {
-        // PASO 1: Crear el fragment de detalle usando el Factory Method
-        // newInstance() crea el fragment y le pasa el ID mediante Bundle
-        DetalleEntrenamientoFragment detalleFragment = DetalleEntrenamientoFragment.newInstance(idEntrenamiento);
-
-        // PASO 2: Detectar si estamos en landscape (modo dual pane)
-        // En landscape, existe el contenedor fragment_detalle
-        // En portrait, solo existe fragment_container
-        boolean isDualPane = getActivity().findViewById(R.id.fragment_detalle) != null;
-
-        if (isDualPane) {
-            // ======== MODO LANDSCAPE (Horizontal) ========
-            // Dos paneles visibles simultáneamente
-            // Solo se actualiza el panel derecho, el izquierdo (lista) permanece
-
-            getActivity().getSupportFragmentManager()
-                .beginTransaction()
-                .replace(R.id.fragment_detalle, detalleFragment)  // Reemplaza el panel derecho
-                .commit();  // No añade a back stack (no hay navegación atrás)
-
-        } else {
-            // ======== MODO PORTRAIT (Vertical) ========
-            // Un solo panel visible
-            // Se reemplaza completamente la vista (lista → detalle)
-
-            getActivity().getSupportFragmentManager()
-                .beginTransaction()
-                .replace(R.id.fragment_container, detalleFragment)  // Reemplaza el contenedor único
-                .addToBackStack(null)  // Añade a back stack: botón atrás vuelve a la lista
-                .commit();
+    @Override
+    public void onCatalogoCambiado(InstantaneaCatalogo instantanea) {
+        adapter.setInstantanea(instantanea);
+        // Los resultados pueden haber cambiado (nuevo entrenamiento que coincide, uno eliminado...)
+        if (adapter.isBuscando()) {
+            buscar();
         }
     }
 
-    // ==================== MÉTODOS PÚBLICOS - GESTIÓN DE DATOS ====================
-
     /**
-     * Añade un nuevo entrenamiento a la lista y actualiza la vista.
-
-     * FLUJO:
-     * 1. Añade el entrenamiento a la lista estática
-     * 2. Notifica al adapter que los datos han cambiado
-     * 3. El adapter redibuja el ListView automáticamente
+     * Lanza la búsqueda con el texto del campo y los filtros elegidos.
+     * Sin texto ni filtros se vuelve a mostrar el catálogo completo.
+     */
+    private void buscar() {
+        if (!hayConsulta()) {
+            catalogo.cancelarBusquedas();
+            adapter.setResultados(null);
+            return;
+        }
 
-     * USADO POR:
-     * - NuevoEntrenamientoDialogFragment: Cuando el usuario crea un entrenamiento
+        int posicionDificultad = filtroDificultad.getSelectedItemPosition();
+        List<String> dificultades = posicionDificultad > 0
+                ? Collections.singletonList(filtroDificultad.getSelectedItem().toString())
+                : null;
 
-     * ¿QUÉ ES notifyDataSetChanged()?
-     * Le dice al adapter: "Los datos cambiaron, redibuja todas las vistas"
-     * El adapter llama a getView() para cada item visible
+        int posicionIcono = filtroIcono.getSelectedItemPosition();
+        int[] iconosResId = posicionIcono > 0
+                ? new int[]{iconos.get(posicionIcono - 1).getIconoResId()}
+                : null;
 
-     * IMPORTANTE:
-     * Como la lista es estática, el nuevo entrenamiento se mantiene
-     * incluso después de rotaciones o navegación.
-     *
-     * @param entrenamiento Objeto Entrenamiento a añadir a la lista
-     */
-    public void agregarEntrenamiento(Entrenamiento entrenamiento) {
-        // Añadir a la lista
-        entrenamientos.add(entrenamiento);
-
-        // Notificar al adapter que debe actualizarse
-        // Esto hace que el ListView muestre el nuevo item
-        adapter.notifyDataSetChanged();
+        catalogo.buscar(campoBusqueda.getText().toString().trim(), dificultades, iconosResId,
+                MAX_RESULTADOS, this::mostrarResultados);
     }
 
     /**
-     * Busca y retorna un entrenamiento por su ID.
-     * Método ESTÁTICO para acceso desde cualquier parte de la app.
-
-     * FLUJO:
-     * 1. Verifica que la lista no sea null
-     * 2. Itera por todos los entrenamientos
-     * 3. Compara el ID de cada uno con el ID buscado
-     * 4. Retorna el primero que coincida
-     * 5. Si no encuentra ninguno, retorna null
-
-     * USADO POR:
-     * - DetalleEntrenamientoFragment: Para obtener los datos del entrenamiento a mostrar
-
-     * ¿POR QUÉ ESTÁTICO?
-     * - Puede llamarse sin instancia del fragment: ListaEntrenamientosFragment.getEntrenamientoPorId(1)
-     * - Útil cuando el fragment no está activo pero necesitas los datos
-     * - Acceso directo a la lista estática
-     *
-     * @param id ID único del entrenamiento a buscar
-     * @return Objeto Entrenamiento si lo encuentra, null si no existe
+     * @return true si hay texto de búsqueda o algún filtro elegido
      */
-    public static Entrenamiento getEntrenamientoPorId(int id) {
-        // Verificar que la lista esté inicializada
-        if (entrenamientos != null) {
-            // Iterar por todos los entrenamientos
-            for (Entrenamiento e : entrenamientos) {
-                // Comparar ID
-                if (e.getId() == id) {
-                    return e;  // Encontrado, retornar
-                }
-            }
-        }
+    private boolean hayConsulta() {
+        return !campoBusqueda.getText().toString().trim().isEmpty()
+                || filtroDificultad.getSelectedItemPosition() > 0
+                || filtroIcono.getSelectedItemPosition() > 0;
+    }
 
-        // No encontrado o lista null
-        return null;
+    private void mostrarResultados(List<Entrenamiento> resultados) {
+        // La vista puede haberse destruido mientras se buscaba
+        if (getView() == null || !hayConsulta()) {
+            return;
+        }
+        adapter.setResultados(resultados);
     }
 
     /**
-     * Genera un nuevo ID único para un entrenamiento.
-
-     * ALGORITMO:
-     * 1. Busca el ID más alto en la lista actual
-     * 2. Le suma 1
-     * 3. Retorna ese valor como nuevo ID único
-
-     * EJEMPLO:
-     * Lista actual: [ID:1, ID:2, ID:3, ID:4]
-     * maxId = 4
-     * nuevo ID = 5
-
-     * USADO POR:
-     * - NuevoEntrenamientoDialogFragment: Al crear un entrenamiento nuevo
-
-     * ¿POR QUÉ ESTE MÉTODO?
-     * - Garantiza que cada entrenamiento tenga un ID único
-     * - Previene conflictos de IDs duplicados
-     * - Simple de implementar y mantener
-
-     * NOTA:
-     * En una app real con base de datos, el ID lo genera la BD automáticamente.
-     * Aquí lo hacemos manualmente porque usamos una lista en memoria.
-     *
-     * @return Nuevo ID único (máximo actual + 1)
+     * Rellena un spinner de filtro y relanza la búsqueda cada vez que cambia.
      */
-    public int generarNuevoId() {
-        int maxId = 0;
-
-        // Buscar el ID más alto
-        for (Entrenamiento e : entrenamientos) {
-            if (e.getId() > maxId) {
-                maxId = e.getId();  // Actualizar el máximo
+    private void configurarFiltro(Spinner spinner, List<String> opciones) {
+        ArrayAdapter<String> opcionesAdapter = new ArrayAdapter<>(requireContext(),
+                android.R.layout.simple_spinner_item, opciones);
+        opcionesAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinner.setAdapter(opcionesAdapter);
+        spinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                buscar();
             }
-        }
 
-        // Retornar el siguiente ID disponible
-        return maxId + 1;
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        });
     }
 }
-
@@ -7,31 +7,52 @@
  *
  * FUNCIONALIDADES PRINCIPALES:
  * 1. Detecta la orientación del dispositivo (portrait/landscape)
- * 2. Carga los fragments apropiados según la orientación
- * 3. Maneja la rotación de pantalla correctamente
+ * 2. Muestra uno o dos paneles según la orientación
+ * 3. Rota sin quitar ni crear fragments (estado en EstadoMaestroDetalle)
  * 4. Gestiona el menú de opciones (botón añadir entrenamiento)
  * 5. Muestra el diálogo para crear nuevos entrenamientos
+ * 6. Importa entrenamientos desde un fichero CSV/JSON elegido por el usuario
+ * 7. Exporta el catálogo a CSV, JSON o copia de seguridad (con diálogo de progreso)
+ * 8. Muestra las estadísticas del catálogo (totales por dificultad, por icono y extremos)
+ * 9. Abre la pantalla de métricas (item oculto si las métricas están desactivadas)
+ * 10. Mide sus fotogramas (MonitorFotogramas) como "lista", "detalle" o
+ *     "lista+detalle" según lo que se ve
  *
  * MODOS DE VISUALIZACIÓN:
- * - PORTRAIT (Vertical): Muestra solo la lista de entrenamientos
+ * - PORTRAIT (Vertical): Muestra la lista, o el detalle del entrenamiento elegido
  * - LANDSCAPE (Horizontal): Muestra lista + detalles en dos paneles
  *
  * PATRÓN DE DISEÑO:
  * Master-Detail Pattern: Lista maestra y panel de detalles
  *
  * CICLO DE VIDA:
- * onCreate() → Detecta orientación → Carga fragments → Gestiona rotaciones
+ * onCreate() → Detecta orientación → (solo la primera vez) Carga fragments
+ *            → Muestra los paneles según la selección
  */
 package com.example.examen;
 
+import android.content.Intent;
 import android.content.res.Configuration;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.Toast;
 
+import androidx.activity.OnBackPressedCallback;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.ViewModelProvider;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Actividad principal que gestiona la interfaz de usuario y los fragments.
@@ -43,6 +64,58 @@ public class MainActivity extends AppCompatActivity {
     /** Tag para logs de debugging - útil para filtrar en Logcat */
     private static final String TAG = "MainActivity";
 
+    /** Tiempo en Metricas de la transacción que añade la lista y el detalle */
+    private static final String METRICA_TRANSACCION = "main.cargarFragments";
+
+    /** Pantallas con las que se registran los fotogramas de esta ventana */
+    private static final String PANTALLA_LISTA = "lista";
+    private static final String PANTALLA_DETALLE = "detalle";
+    private static final String PANTALLA_DOS_PANELES = "lista+detalle";
+
+    /** Días de historial de sesiones que se resumen en las estadísticas */
+    private static final int DIAS_SESIONES = 90;
+
+    /** Tipos de fichero que se ofrecen al importar */
+    private static final String[] TIPOS_IMPORTACION = {
+        "text/csv", "text/comma-separated-values", "text/plain", "application/json"
+    };
+
+    // ==================== ATRIBUTOS ====================
+
+    /**
+     * Selector de documentos del sistema para importar.
+     * Se registra al crear la Activity (obligatorio antes de onStart).
+     */
+    private final ActivityResultLauncher<String[]> selectorImportacion =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importar);
+
+    /** Selector "Guardar como" de cada formato de exportación (cada uno con su tipo MIME) */
+    private final Map<ExportadorEntrenamientos.Formato, ActivityResultLauncher<String>> selectoresExportacion =
+            new EnumMap<>(ExportadorEntrenamientos.Formato.class);
+
+    /**
+     * Estado de la lista y el detalle (selección, páginas, scroll).
+     * Es el mismo objeto antes y después de cada rotación.
+     */
+    private EstadoMaestroDetalle estado;
+
+    /** true en landscape: lista y detalle a la vez */
+    private boolean isDualPane;
+
+    /** Duración de los fotogramas de esta ventana (no hace nada si las métricas están desactivadas) */
+    private MonitorFotogramas monitorFotogramas;
+
+    /**
+     * Botón Atrás en portrait con un detalle abierto: vuelve a la lista.
+     * Solo está activo mientras hay algo que cerrar.
+     */
+    private final OnBackPressedCallback volverALista = new OnBackPressedCallback(false) {
+        @Override
+        public void handleOnBackPressed() {
+            estado.deseleccionar();
+        }
+    };
+
     // ==================== CICLO DE VIDA ====================
 
     /**
@@ -52,8 +125,10 @@ public class MainActivity extends AppCompatActivity {
      * FLUJO:
      * 1. Establece el layout correspondiente a la orientación
      * 2. Detecta si estamos en portrait o landscape
-     * 3. Carga los fragments necesarios
-     * 4. Maneja la rotación si es necesario
+     * 3. Primera carga: añade los dos fragments (lista y detalle) en UNA transacción
+     * 4. Rotación: ninguna transacción (el FragmentManager restaura los fragments
+     *    desde su estado guardado en los mismos contenedores, que existen en los dos layouts)
+     * 5. Muestra los paneles que tocan según la selección guardada en EstadoMaestroDetalle
      *
      * @param savedInstanceState Bundle con datos guardados (null en primera carga)
      */
@@ -61,208 +136,95 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        // Los selectores tienen que registrarse antes de onStart
+        for (ExportadorEntrenamientos.Formato formato : ExportadorEntrenamientos.Formato.values()) {
+            selectoresExportacion.put(formato, registerForActivityResult(
+                    new ActivityResultContracts.CreateDocument(formato.getTipoMime()),
+                    uri -> exportar(uri, formato)));
+        }
+
         // Establece el layout principal
         // Android selecciona automáticamente entre layout/ y layout-land/
         setContentView(R.layout.activity_main);
 
-        // Verificar orientación usando Configuration
-        int orientation = getResources().getConfiguration().orientation;
-        boolean isLandscape = (orientation == Configuration.ORIENTATION_LANDSCAPE);
-
-        // Verificar si estamos en landscape buscando el contenedor de detalles
-        // Si existe fragment_detalle, estamos en modo dual pane (landscape)
-        boolean isDualPane = findViewById(R.id.fragment_detalle) != null;
+        // layout-land/ se elige justo cuando el dispositivo está en horizontal:
+        // es el único layout con los dos paneles visibles a la vez
+        isDualPane = getResources().getConfiguration().orientation == Configuration.ORIENTATION_LANDSCAPE;
 
         // Logs para debugging - Útiles para ver qué está pasando
-        Log.d(TAG, "onCreate - Orientación: " + (isLandscape ? "LANDSCAPE" : "PORTRAIT"));
         Log.d(TAG, "onCreate - isDualPane: " + isDualPane);
         Log.d(TAG, "onCreate - savedInstanceState: " + (savedInstanceState != null ? "NOT NULL" : "NULL"));
 
-        // Decidir qué hacer según si es primera carga o rotación
+        estado = new ViewModelProvider(this).get(EstadoMaestroDetalle.class);
+        monitorFotogramas = MonitorFotogramas.vigilar(getWindow(), pantallaVisible());
+
         if (savedInstanceState == null) {
-            // PRIMERA CARGA: La app se está iniciando por primera vez
+            // PRIMERA CARGA: los dos fragments, una sola vez en toda la vida de la pantalla
             Log.d(TAG, "Primera carga, cargando fragments...");
-            cargarFragments(isDualPane);
-        } else {
-            // ROTACIÓN DETECTADA: La app se está recreando después de rotar
-            if (isDualPane) {
-                // Rotación a landscape: necesitamos dos fragments (lista + detalle)
-                Log.d(TAG, "Rotación a landscape detectada");
-                manejarLandscape();
-            } else {
-                // Rotación a portrait: necesitamos solo un fragment (lista)
-                Log.d(TAG, "Rotación a portrait detectada");
-                manejarPortrait();
-            }
+            cargarFragments();
         }
-    }
+        // ROTACIÓN: los fragments ya vuelven solos a fragment_lista y fragment_detalle
 
-    // ==================== GESTIÓN DE ORIENTACIÓN ====================
-
-    /**
-     * Maneja el modo landscape (horizontal) con dos paneles.
-     *
-     * PROBLEMA QUE RESUELVE:
-     * Al rotar de portrait a landscape, Android intenta restaurar el fragment
-     * que estaba en fragment_container, pero ese ID no existe en landscape.
-     *
-     * SOLUCIÓN:
-     * 1. Ejecuta transacciones pendientes
-     * 2. Remueve TODOS los fragments existentes (limpieza)
-     * 3. Carga nuevos fragments en los contenedores correctos:
-     *    - fragment_lista: Lista de entrenamientos
-     *    - fragment_detalle: Detalles del primer entrenamiento
-     *
-     * IMPORTANTE: Usa commitNow() en lugar de commit() para aplicar cambios
-     * inmediatamente (síncrono) antes de continuar.
-     */
-    private void manejarLandscape() {
-        Log.d(TAG, "Manejando landscape - preparando fragments");
-
-        // Ejecutar transacciones pendientes del FragmentManager
-        getSupportFragmentManager().executePendingTransactions();
-
-        // PASO CRÍTICO: Remover todos los fragments existentes
-        // Esto previene conflictos con fragments "huérfanos" de portrait
-        for (androidx.fragment.app.Fragment fragment : getSupportFragmentManager().getFragments()) {
-            if (fragment != null) {
-                Log.d(TAG, "Removiendo fragment existente: " + fragment.getClass().getSimpleName());
-                getSupportFragmentManager()
-                    .beginTransaction()
-                    .remove(fragment)
-                    .commitNow(); // Síncrono - espera a que termine
-            }
-        }
+        getOnBackPressedDispatcher().addCallback(this, volverALista);
+        estado.getSeleccion().observe(this, id -> actualizarPaneles());
+    }
 
-        // Cargar fragment de LISTA en el panel izquierdo
-        Log.d(TAG, "Cargando fragment de lista en landscape");
-        ListaEntrenamientosFragment listaFragment = new ListaEntrenamientosFragment();
-        getSupportFragmentManager()
-            .beginTransaction()
-            .replace(R.id.fragment_lista, listaFragment, "lista") // Tag "lista" para identificarlo
-            .commitNow();
-
-        // Cargar fragment de DETALLE en el panel derecho
-        Log.d(TAG, "Cargando fragment de detalle en landscape");
-        DetalleEntrenamientoFragment detalleFragment = DetalleEntrenamientoFragment.newInstance(1);
-        getSupportFragmentManager()
-            .beginTransaction()
-            .replace(R.id.fragment_detalle, detalleFragment, "detalle") // Tag "detalle"
-            .commitNow();
-
-        Log.d(TAG, "Fragments en landscape cargados correctamente");
+    @Override
+    protected void onDestroy() {
+        monitorFotogramas.detener();
+        super.onDestroy();
     }
 
+    // ==================== GESTIÓN DE ORIENTACIÓN ====================
+
     /**
-     * Maneja el modo portrait (vertical) con un solo panel.
+     * Añade la lista y el detalle a sus contenedores en la primera carga.
      *
-     * FLUJO:
-     * 1. Ejecuta transacciones pendientes
-     * 2. Identifica qué tipo de fragment debería mostrarse
-     * 3. Limpia todos los fragments
-     * 4. Crea un nuevo fragment del tipo apropiado
+     * Los dos layouts (portrait y landscape) tienen los mismos contenedores, así que
+     * esta es la ÚNICA transacción de fragments: al rotar, el FragmentManager los
+     * destruye y los restaura desde su estado guardado donde estaban, y sus vistas
+     * nuevas leen el estado de EstadoMaestroDetalle.
      *
-     * IMPORTANTE: No podemos "mover" fragments entre contenedores.
-     * Debemos crear nuevos fragments con los datos apropiados.
+     * Se ejecuta con commitNow() para que Metricas mida la transacción entera
+     * (creación de los fragments y de sus vistas), no solo el momento de encolarla.
      */
-    private void manejarPortrait() {
-        Log.d(TAG, "Manejando portrait - preparando fragments");
-
-        // Ejecutar transacciones pendientes
-        getSupportFragmentManager().executePendingTransactions();
-
-        // PASO 1: Identificar qué había en landscape para decidir qué mostrar
-        androidx.fragment.app.Fragment fragmentDetalle =
-            getSupportFragmentManager().findFragmentById(R.id.fragment_detalle);
-        androidx.fragment.app.Fragment fragmentContainer =
-            getSupportFragmentManager().findFragmentById(R.id.fragment_container);
-
-        Log.d(TAG, "Fragments encontrados:");
-        Log.d(TAG, "  - fragment_detalle: " + (fragmentDetalle != null ? fragmentDetalle.getClass().getSimpleName() : "null"));
-        Log.d(TAG, "  - fragment_container: " + (fragmentContainer != null ? fragmentContainer.getClass().getSimpleName() : "null"));
-
-        // PASO 2: Determinar qué fragment crear
-        androidx.fragment.app.Fragment nuevoFragment = null;
-
-        // Si había un detalle en landscape, obtener su ID para recrearlo
-        if (fragmentDetalle instanceof DetalleEntrenamientoFragment) {
-            Log.d(TAG, "Había DetalleFragment en landscape, recreándolo para portrait");
-            // Obtener el ID del entrenamiento del fragment de detalle
-            Bundle args = fragmentDetalle.getArguments();
-            if (args != null) {
-                int idEntrenamiento = args.getInt("id_entrenamiento", 1);
-                nuevoFragment = DetalleEntrenamientoFragment.newInstance(idEntrenamiento);
-            }
-        }
-        // Si ya había algo en container y NO viene de landscape, mantenerlo
-        else if (fragmentContainer != null) {
-            Log.d(TAG, "Ya hay fragment en container, lo mantenemos");
-            // En este caso no hacemos nada, el fragment ya está donde debe
-            return;
-        }
-
-        // PASO 3: Limpiar TODOS los fragments
-        Log.d(TAG, "Limpiando todos los fragments...");
-        for (androidx.fragment.app.Fragment fragment : getSupportFragmentManager().getFragments()) {
-            if (fragment != null) {
-                Log.d(TAG, "Removiendo fragment: " + fragment.getClass().getSimpleName());
-                getSupportFragmentManager()
-                    .beginTransaction()
-                    .remove(fragment)
-                    .commitNow();
-            }
-        }
-
-        // PASO 4: Cargar el fragment apropiado en fragment_container
-        if (nuevoFragment != null) {
-            Log.d(TAG, "Cargando " + nuevoFragment.getClass().getSimpleName() + " en portrait");
-            getSupportFragmentManager()
-                .beginTransaction()
-                .replace(R.id.fragment_container, nuevoFragment)
-                .commitNow();
-        } else {
-            // Por defecto, cargar la lista
-            Log.d(TAG, "Cargando lista por defecto en portrait");
-            ListaEntrenamientosFragment listaFragment = new ListaEntrenamientosFragment();
+    private void cargarFragments() {
+        long inicio = Metricas.iniciar(METRICA_TRANSACCION);
+        try {
             getSupportFragmentManager()
                 .beginTransaction()
-                .replace(R.id.fragment_container, listaFragment)
+                .setReorderingAllowed(true)
+                .add(R.id.fragment_lista, new ListaEntrenamientosFragment(), "lista")
+                .add(R.id.fragment_detalle, new DetalleEntrenamientoFragment(), "detalle")
                 .commitNow();
+        } finally {
+            Metricas.terminar(METRICA_TRANSACCION, inicio);
         }
-
-        Log.d(TAG, "manejarPortrait completado");
     }
 
     /**
-     * Carga los fragments apropiados en la primera ejecución.
+     * Decide qué paneles se ven (sin tocar los fragments, solo la visibilidad).
      *
-     * @param isDualPane true si estamos en landscape (dos paneles), false si portrait
+     * PORTRAIT:  sin selección → lista; con selección → detalle (Atrás vuelve)
+     * LANDSCAPE: siempre los dos
      */
-    private void cargarFragments(boolean isDualPane) {
-        ListaEntrenamientosFragment listaFragment = new ListaEntrenamientosFragment();
+    private void actualizarPaneles() {
+        boolean verDetalle = isDualPane || estado.haySeleccion();
+        boolean verLista = isDualPane || !estado.haySeleccion();
+        findViewById(R.id.fragment_lista).setVisibility(verLista ? View.VISIBLE : View.GONE);
+        findViewById(R.id.fragment_detalle).setVisibility(verDetalle ? View.VISIBLE : View.GONE);
+        volverALista.setEnabled(!isDualPane && estado.haySeleccion());
+        monitorFotogramas.setPantalla(pantallaVisible());
+    }
 
+    /**
+     * @return Nombre de lo que se ve ahora, para los fotogramas
+     */
+    private String pantallaVisible() {
         if (isDualPane) {
-            // LANDSCAPE: Cargar dos fragments lado a lado
-
-            // Fragment de lista en panel izquierdo
-            getSupportFragmentManager()
-                .beginTransaction()
-                .replace(R.id.fragment_lista, listaFragment)
-                .commit(); // Asíncrono está bien aquí (primera carga)
-
-            // Fragment de detalle en panel derecho (muestra el primer entrenamiento)
-            DetalleEntrenamientoFragment detalleFragment = DetalleEntrenamientoFragment.newInstance(1);
-            getSupportFragmentManager()
-                .beginTransaction()
-                .replace(R.id.fragment_detalle, detalleFragment)
-                .commit();
-        } else {
-            // PORTRAIT: Cargar solo la lista
-            getSupportFragmentManager()
-                .beginTransaction()
-                .replace(R.id.fragment_container, listaFragment)
-                .commit();
+            return PANTALLA_DOS_PANELES;
         }
+        return estado.haySeleccion() ? PANTALLA_DETALLE : PANTALLA_LISTA;
     }
 
     // ==================== MENÚ DE OPCIONES ====================
@@ -278,6 +240,7 @@ public class MainActivity extends AppCompatActivity {
     public boolean onCreateOptionsMenu(Menu menu) {
         // Infla el menú desde res/menu/main_menu.xml
         getMenuInflater().inflate(R.menu.main_menu, menu);
+        menu.findItem(R.id.menu_metricas).setVisible(Metricas.isActivas());
         return true;
     }
 
@@ -295,6 +258,23 @@ public class MainActivity extends AppCompatActivity {
             mostrarDialogoNuevoEntrenamiento();
             return true; // Evento manejado
         }
+        if (item.getItemId() == R.id.menu_estadisticas) {
+            mostrarEstadisticas();
+            return true;
+        }
+        if (item.getItemId() == R.id.menu_metricas) {
+            startActivity(new Intent(this, MetricasActivity.class));
+            return true;
+        }
+        if (item.getItemId() == R.id.menu_importar) {
+            selectorImportacion.launch(TIPOS_IMPORTACION);
+            return true;
+        }
+        ExportadorEntrenamientos.Formato formato = formatoExportacion(item.getItemId());
+        if (formato != null) {
+            selectoresExportacion.get(formato).launch(formato.getNombrePorDefecto());
+            return true;
+        }
         return super.onOptionsItemSelected(item);
     }
 
@@ -317,4 +297,124 @@ public class MainActivity extends AppCompatActivity {
         // - "NuevoEntrenamientoDialog": Tag para identificar el diálogo
         dialog.show(getSupportFragmentManager(), "NuevoEntrenamientoDialog");
     }
-}
\ No newline at end of file
+
+    // ==================== ESTADÍSTICAS ====================
+
+    /**
+     * Pide las estadísticas al catálogo (ya calculadas) y las muestra en un diálogo.
+     */
+    private void mostrarEstadisticas() {
+        CatalogoEntrenamientos catalogo = CatalogoEntrenamientos.getInstancia(this);
+        long ahora = System.currentTimeMillis();
+        long desde = ahora - TimeUnit.DAYS.toMillis(DIAS_SESIONES);
+        // Solo se leen los meses del historial que caen en esos días
+        catalogo.leerEstadisticas(estadisticas -> catalogo.leerSesiones(desde, ahora + 1, sesiones -> {
+            if (isFinishing() || isDestroyed()) {
+                return; // Se cerró la Activity mientras llegaban
+            }
+            new AlertDialog.Builder(this)
+                    .setTitle("Estadísticas")
+                    .setMessage(textoEstadisticas(estadisticas) + textoSesiones(sesiones))
+                    .setPositiveButton("Cerrar", null)
+                    .show();
+        }));
+    }
+
+    private static String textoSesiones(List<Sesion> sesiones) {
+        long segundos = 0;
+        for (Sesion sesion : sesiones) {
+            segundos += sesion.getSegundos();
+        }
+        return "\n\nÚltimos " + DIAS_SESIONES + " días: " + sesiones.size() + " sesiones · "
+                + TimeUnit.SECONDS.toMinutes(segundos) + " min";
+    }
+
+    private static String textoEstadisticas(EstadisticasCatalogo estadisticas) {
+        StringBuilder texto = new StringBuilder();
+        texto.append("Entrenamientos: ").append(estadisticas.getTotal());
+        if (estadisticas.getSinDuracion() > 0) {
+            texto.append(" (").append(estadisticas.getSinDuracion()).append(" sin duración reconocible)");
+        }
+
+        texto.append("\n\nPor dificultad:");
+        for (Map.Entry<String, EstadisticasCatalogo.Dificultad> entrada : estadisticas.getPorDificultad().entrySet()) {
+            EstadisticasCatalogo.Dificultad dificultad = entrada.getValue();
+            texto.append("\n  ").append(entrada.getKey()).append(": ").append(dificultad.getCantidad())
+                    .append(" · ").append(dificultad.getMinutos()).append(" min")
+                    .append(String.format(Locale.getDefault(), " · media %.1f min", dificultad.getMedia()));
+        }
+
+        texto.append("\n\nPor icono:");
+        for (Map.Entry<Integer, Integer> entrada : estadisticas.getPorIcono().entrySet()) {
+            IconoEntrenamiento icono = RegistroIconos.getIcono(entrada.getKey());
+            texto.append("\n  ").append(icono != null ? icono.getNombre() : "Icono " + entrada.getKey())
+                    .append(": ").append(entrada.getValue());
+        }
+
+        if (estadisticas.getMasCorto() != null) {
+            texto.append("\n\nMás corto: ").append(estadisticas.getMasCorto().getNombre())
+                    .append(" (").append(estadisticas.getMasCorto().getMinutos()).append(" min)");
+            texto.append("\nMás largo: ").append(estadisticas.getMasLargo().getNombre())
+                    .append(" (").append(estadisticas.getMasLargo().getMinutos()).append(" min)");
+        }
+        return texto.toString();
+    }
+
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Empieza a importar el fichero elegido y muestra el diálogo de progreso.
+     *
+     * @param uri Fichero elegido, o null si el usuario cerró el selector
+     */
+    private void importar(Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        if (!CatalogoEntrenamientos.getInstancia(this).importar(uri)) {
+            Toast.makeText(this, "Ya hay una importación en curso", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        new ImportacionDialogFragment().show(getSupportFragmentManager(), "ImportacionDialog");
+    }
+
+    // ==================== EXPORTACIÓN ====================
+
+    /**
+     * @param itemId ID del item del submenú "Exportar entrenamientos"
+     * @return Formato de ese item, o null si no es un item de exportación
+     */
+    private static ExportadorEntrenamientos.Formato formatoExportacion(int itemId) {
+        if (itemId == R.id.menu_exportar_csv) {
+            return ExportadorEntrenamientos.Formato.CSV;
+        }
+        if (itemId == R.id.menu_exportar_json) {
+            return ExportadorEntrenamientos.Formato.JSON;
+        }
+        if (itemId == R.id.menu_exportar_copia) {
+            return ExportadorEntrenamientos.Formato.NATIVO;
+        }
+        return null;
+    }
+
+    /**
+     * Empieza a exportar el catálogo al fichero elegido y muestra el diálogo de progreso.
+     * El catálogo avisa con un Toast al terminar.
+     *
+     * @param uri Fichero creado por el usuario, o null si cerró el selector
+     * @param formato Formato elegido en el submenú
+     */
+    private void exportar(Uri uri, ExportadorEntrenamientos.Formato formato) {
+        if (uri == null) {
+            return;
+        }
+        CatalogoEntrenamientos catalogo = CatalogoEntrenamientos.getInstancia(this);
+        if (catalogo.isExportando()) {
+            Toast.makeText(this, "Ya hay una exportación en curso", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (catalogo.exportar(uri, formato)) {
+            new ExportacionDialogFragment().show(getSupportFragmentManager(), "ExportacionDialog");
+        }
+    }
+}
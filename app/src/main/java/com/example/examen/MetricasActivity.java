@@ -0,0 +1,104 @@
+/**
+ * CLASE: MetricasActivity.java
+ *
+ * PROPÓSITO:
+ * Pantalla de depuración con el informe de Metricas: contadores y p50/p90/p99
+ * de cada tiempo medido (binds de la lista, lecturas y escrituras del
+ * repositorio, transacciones de fragments, inflado de diálogos...) y los
+ * fotogramas de cada pantalla con sus tirones (RegistroFotogramas).
+ *
+ * ACCESO:
+ * Oculta: el item "Métricas" del menú de MainActivity solo se ve cuando las
+ * métricas están activas (builds depurables, ver AplicacionExamen).
+ *
+ * FUNCIONALIDADES:
+ * 1. Actualizar: vuelve a leer el informe (las medidas siguen llegando mientras está abierta)
+ * 2. Guardar: escribe el informe en un fichero de getExternalFilesDir() para
+ *    sacarlo con adb pull sin permisos (en un hilo aparte, nunca en el principal)
+ * 3. Reiniciar: borra las medidas para repetir una prueba desde cero
+ */
+package com.example.examen;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Muestra, guarda y reinicia las métricas de rendimiento.
+ */
+public class MetricasActivity extends AppCompatActivity {
+
+    // ==================== CONSTANTES ====================
+
+    private static final String TAG = "MetricasActivity";
+
+    // ==================== ATRIBUTOS ====================
+
+    private TextView textoInforme;
+
+    // ==================== CICLO DE VIDA ====================
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metricas);
+
+        textoInforme = findViewById(R.id.texto_metricas);
+        findViewById(R.id.btn_actualizar_metricas).setOnClickListener(v -> mostrarInforme());
+        findViewById(R.id.btn_guardar_metricas).setOnClickListener(v -> guardarInforme());
+        findViewById(R.id.btn_reiniciar_metricas).setOnClickListener(v -> {
+            Metricas.reiniciar();
+            mostrarInforme();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mostrarInforme();
+    }
+
+    // ==================== INFORME ====================
+
+    private void mostrarInforme() {
+        textoInforme.setText(Metricas.informe());
+    }
+
+    /**
+     * Vuelca el informe a metricas-AAAAMMDD-HHMMSS.txt en segundo plano.
+     */
+    private void guardarInforme() {
+        File carpeta = getExternalFilesDir(null);
+        if (carpeta == null) {
+            carpeta = getFilesDir(); // Sin almacenamiento externo montado
+        }
+        String sello = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        File fichero = new File(carpeta, "metricas-" + sello + ".txt");
+
+        new Thread(() -> {
+            String mensaje;
+            try (Writer salida = new OutputStreamWriter(new FileOutputStream(fichero), StandardCharsets.UTF_8)) {
+                Metricas.volcar(salida);
+                mensaje = "Guardado en " + fichero.getAbsolutePath();
+            } catch (IOException e) {
+                Log.e(TAG, "No se pudo guardar el informe de métricas", e);
+                mensaje = "No se pudo guardar el informe";
+            }
+            String aviso = mensaje;
+            runOnUiThread(() -> Toast.makeText(this, aviso, Toast.LENGTH_LONG).show());
+        }, "metricas-volcado").start();
+    }
+}
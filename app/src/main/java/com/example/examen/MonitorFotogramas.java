@@ -0,0 +1,165 @@
+/**
+ * CLASE: MonitorFotogramas.java
+ *
+ * PROPÓSITO:
+ * Mide lo que tarda cada fotograma de una ventana (la de MainActivity o la de un
+ * diálogo) y lo registra en RegistroFotogramas con el nombre de la pantalla que
+ * se está viendo. Así se puede cuantificar "el scroll de la lista va a tirones"
+ * o "abrir el diálogo de nuevo entrenamiento se atasca" en un móvil lento.
+ *
+ * FUENTES DE DATOS:
+ * - FrameMetrics (Window.addOnFrameMetricsAvailableListener): duración real de
+ *   cada fotograma, de la entrada al intercambio de buffers. Es la normal
+ * - Choreographer: si la ventana no admite FrameMetrics (sin aceleración por
+ *   hardware), se mide el intervalo entre vsyncs; un vsync perdido se ve como
+ *   un intervalo de 2 o más presupuestos
+ *
+ * COSTE:
+ * Solo se engancha a la ventana si Metricas está activa (builds depurables).
+ * Los avisos de FrameMetrics llegan en un hilo propio ("fotogramas"), no en el
+ * principal, así que medir no añade trabajo a los fotogramas medidos.
+ *
+ * USO:
+ * monitor = MonitorFotogramas.vigilar(getWindow(), "lista");
+ * monitor.setPantalla("detalle");   // al cambiar lo que se ve en la ventana
+ * monitor.detener();                // al destruir la Activity o cerrar el diálogo
+ */
+package com.example.examen;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+/**
+ * Registro de la duración de los fotogramas de una ventana.
+ */
+public final class MonitorFotogramas {
+
+    // ==================== CONSTANTES ====================
+
+    /** Fotogramas que FrameMetrics no llegó a entregar (el hilo de avisos iba con retraso) */
+    private static final String METRICA_SIN_MEDIR = "fotogramas.sinMedir";
+
+    // ==================== HILO DE AVISOS ====================
+
+    /** Hilo compartido por todos los monitores para recibir FrameMetrics */
+    private static Handler avisos;
+
+    private static synchronized Handler avisos() {
+        if (avisos == null) {
+            HandlerThread hilo = new HandlerThread("fotogramas");
+            hilo.start();
+            avisos = new Handler(hilo.getLooper());
+        }
+        return avisos;
+    }
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Window ventana;
+    private final RegistroFotogramas registro = Metricas.getFotogramas();
+
+    /** Pantalla a la que se apuntan los fotogramas (se lee desde el hilo de avisos) */
+    private volatile String pantalla;
+
+    private Window.OnFrameMetricsAvailableListener escucha;
+    private Choreographer.FrameCallback latido;
+
+    // ==================== CREACIÓN ====================
+
+    private MonitorFotogramas(Window ventana, String pantalla) {
+        this.ventana = ventana;
+        this.pantalla = pantalla;
+    }
+
+    /**
+     * Empieza a medir los fotogramas de una ventana (llamar desde el hilo principal).
+     * Con las métricas desactivadas retorna un monitor que no hace nada.
+     *
+     * @param ventana Ventana de la Activity o del diálogo
+     * @param pantalla Nombre con el que se registran sus fotogramas
+     * @return Monitor para cambiar de pantalla o detenerlo
+     */
+    public static MonitorFotogramas vigilar(Window ventana, String pantalla) {
+        MonitorFotogramas monitor = new MonitorFotogramas(ventana, pantalla);
+        if (Metricas.isActivas() && ventana != null) {
+            monitor.empezar();
+        }
+        return monitor;
+    }
+
+    private void empezar() {
+        // El presupuesto depende de la pantalla: 16,7 ms a 60 Hz, 8,3 ms a 120 Hz
+        float hercios = ventana.getWindowManager().getDefaultDisplay().getRefreshRate();
+        if (hercios > 0) {
+            registro.setPresupuesto((long) (1e9 / hercios));
+        }
+
+        escucha = (ventanaMedida, metricas, descartados) -> {
+            long duracion = metricas.getMetric(FrameMetrics.TOTAL_DURATION);
+            long inicio = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                    ? metricas.getMetric(FrameMetrics.INTENDED_VSYNC_TIMESTAMP)
+                    : System.nanoTime() - duracion;
+            registro.registrar(pantalla, inicio, duracion);
+            for (int i = 0; i < descartados; i++) {
+                Metricas.contar(METRICA_SIN_MEDIR);
+            }
+        };
+        try {
+            ventana.addOnFrameMetricsAvailableListener(escucha, avisos());
+        } catch (IllegalStateException sinAceleracion) {
+            escucha = null;
+            medirConChoreographer();
+        }
+    }
+
+    /**
+     * Alternativa sin FrameMetrics: intervalo entre vsyncs consecutivos.
+     * Un intervalo de un presupuesto (con su pequeño desfase) es un fotograma a tiempo.
+     */
+    private void medirConChoreographer() {
+        latido = new Choreographer.FrameCallback() {
+            private long anterior;
+
+            @Override
+            public void doFrame(long vsync) {
+                if (anterior != 0) {
+                    long intervalo = vsync - anterior;
+                    long presupuesto = registro.getPresupuesto();
+                    boolean perdido = Math.round((double) intervalo / presupuesto) >= 2;
+                    registro.registrar(pantalla, anterior, perdido ? intervalo : Math.min(intervalo, presupuesto));
+                }
+                anterior = vsync;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        };
+        Choreographer.getInstance().postFrameCallback(latido);
+    }
+
+    // ==================== CONTROL ====================
+
+    /**
+     * @param pantalla Nombre para los fotogramas a partir de ahora (p. ej. "detalle"
+     *                 cuando en portrait se pasa de la lista al detalle)
+     */
+    public void setPantalla(String pantalla) {
+        this.pantalla = pantalla;
+    }
+
+    /**
+     * Deja de medir (llamar desde el hilo principal).
+     */
+    public void detener() {
+        if (escucha != null) {
+            ventana.removeOnFrameMetricsAvailableListener(escucha);
+            escucha = null;
+        }
+        if (latido != null) {
+            Choreographer.getInstance().removeFrameCallback(latido);
+            latido = null;
+        }
+    }
+}
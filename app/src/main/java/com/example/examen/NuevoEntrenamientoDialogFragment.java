@@ -37,10 +37,22 @@ public class NuevoEntrenamientoDialogFragment extends DialogFragment {
 
     private OnEntrenamientoAddedListener listener;
 
+    /** Tiempo en Metricas de inflar el layout del diálogo */
+    private static final String METRICA_INFLAR = "dialogo.nuevo.inflar";
+
+    /** Fotogramas de la ventana del diálogo, mientras se ve */
+    private MonitorFotogramas monitorFotogramas;
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-        View view = inflater.inflate(R.layout.dialog_nuevo_entrenamiento, container, false);
+        long inicio = Metricas.iniciar(METRICA_INFLAR);
+        View view;
+        try {
+            view = inflater.inflate(R.layout.dialog_nuevo_entrenamiento, container, false);
+        } finally {
+            Metricas.terminar(METRICA_INFLAR, inicio);
+        }
 
         editNombre = view.findViewById(R.id.edit_nombre);
         editDescripcion = view.findViewById(R.id.edit_descripcion);
@@ -88,22 +100,30 @@ public class NuevoEntrenamientoDialogFragment extends DialogFragment {
                 ViewGroup.LayoutParams.MATCH_PARENT,
                 ViewGroup.LayoutParams.WRAP_CONTENT
             );
+            // Desde el primer fotograma: ahí se nota si abrir el diálogo se atasca
+            monitorFotogramas = MonitorFotogramas.vigilar(getDialog().getWindow(), "dialogo.nuevo");
         }
     }
 
-    private boolean validarCampos() {
-        if (editNombre.getText().toString().trim().isEmpty()) {
-            Toast.makeText(getContext(), "El nombre es obligatorio", Toast.LENGTH_SHORT).show();
-            return false;
-        }
-
-        if (editDescripcion.getText().toString().trim().isEmpty()) {
-            Toast.makeText(getContext(), "La descripción es obligatoria", Toast.LENGTH_SHORT).show();
-            return false;
+    @Override
+    public void onStop() {
+        super.onStop();
+        if (monitorFotogramas != null) {
+            monitorFotogramas.detener();
+            monitorFotogramas = null;
         }
+    }
 
-        if (editDuracion.getText().toString().trim().isEmpty()) {
-            Toast.makeText(getContext(), "La duración es obligatoria", Toast.LENGTH_SHORT).show();
+    private boolean validarCampos() {
+        // Mismas reglas que la importación masiva (ValidadorEntrenamiento)
+        String error = ValidadorEntrenamiento.validar(
+            editNombre.getText().toString(),
+            editDescripcion.getText().toString(),
+            editDuracion.getText().toString()
+        );
+
+        if (error != null) {
+            Toast.makeText(getContext(), error, Toast.LENGTH_SHORT).show();
             return false;
         }
 
@@ -120,33 +140,13 @@ public class NuevoEntrenamientoDialogFragment extends DialogFragment {
         IconoEntrenamiento iconoSeleccionado = iconoAdapter.getIconoSeleccionadoItem();
         int iconoResId = iconoSeleccionado.getIconoResId();
 
-        // Obtener el fragment de lista para generar un nuevo ID
-        ListaEntrenamientosFragment listaFragment =
-            (ListaEntrenamientosFragment) getActivity().getSupportFragmentManager()
-                .findFragmentById(R.id.fragment_container);
-
-        if (listaFragment == null) {
-            listaFragment = (ListaEntrenamientosFragment) getActivity().getSupportFragmentManager()
-                .findFragmentById(R.id.fragment_lista);
-        }
-
-        if (listaFragment != null) {
-            int nuevoId = listaFragment.generarNuevoId();
+        // El catálogo asigna el ID y guarda en segundo plano;
+        // la lista se actualiza sola porque está suscrita al catálogo
+        CatalogoEntrenamientos.getInstancia(requireContext())
+            .crear(nombre, descripcion, duracion, dificultad, iconoResId);
 
-            Entrenamiento nuevoEntrenamiento = new Entrenamiento(
-                nuevoId,
-                nombre,
-                descripcion,
-                duracion,
-                dificultad,
-                iconoResId
-            );
-
-            listaFragment.agregarEntrenamiento(nuevoEntrenamiento);
-
-            Toast.makeText(getContext(), "Entrenamiento añadido correctamente", Toast.LENGTH_SHORT).show();
-            dismiss();
-        }
+        Toast.makeText(getContext(), "Entrenamiento añadido correctamente", Toast.LENGTH_SHORT).show();
+        dismiss();
     }
 
     public void setOnEntrenamientoAddedListener(OnEntrenamientoAddedListener listener) {
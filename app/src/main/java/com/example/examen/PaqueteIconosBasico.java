@@ -1,23 +1,11 @@
 /**
- * CLASE: IconoEntrenamiento.java
+ * CLASE: PaqueteIconosBasico.java
  *
  * PROPÓSITO:
- * Gestiona los iconos disponibles para asociar a los entrenamientos.
- * Proporciona una lista de iconos temáticos de gimnasio y ejercicio.
- *
- * FUNCIONALIDAD:
- * - Define 12 iconos relacionados con fitness disponibles para seleccionar
- * - Cada icono tiene un nombre descriptivo y una descripción de uso
- * - Método estático para obtener todos los iconos disponibles
- * - Método estático para buscar un icono por su ID de recurso
- *
- * PATRÓN DE DISEÑO:
- * Clase de utilidad con métodos estáticos (Factory Pattern)
- * Proporciona datos predefinidos para el selector de iconos
- *
- * USO:
- * - El diálogo de nuevo entrenamiento usa getIconosDisponibles() para mostrar opciones
- * - El usuario selecciona un icono al crear un entrenamiento
+ * Paquete de iconos que trae la app: 12 iconos temáticos de gimnasio y ejercicio
+ * tomados de los drawables del sistema (android.R.drawable).
+ * AplicacionExamen lo registra al arrancar: es el primer paquete de RegistroIconos,
+ * así que su primer icono (Cardio/Running) es el icono por defecto.
  */
 package com.example.examen;
 
@@ -25,68 +13,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Clase que gestiona los iconos disponibles para los entrenamientos.
- * Proporciona 12 iconos temáticos de gimnasio y ejercicio.
+ * Paquete con los 12 iconos básicos de entrenamiento.
  */
-public class IconoEntrenamiento {
-
-    // ==================== ATRIBUTOS ====================
-
-    /** ID del recurso drawable del icono */
-    private int iconoResId;
-
-    /** Nombre descriptivo corto del icono (ej: "Cardio/Running") */
-    private String nombre;
-
-    /** Descripción del uso recomendado del icono */
-    private String descripcion;
-
-    // ==================== CONSTRUCTOR ====================
+public class PaqueteIconosBasico implements PaqueteIconos {
 
-    /**
-     * Constructor que inicializa un icono de entrenamiento.
-     *
-     * @param iconoResId ID del recurso drawable del icono
-     * @param nombre Nombre descriptivo corto del icono
-     * @param descripcion Descripción del uso recomendado
-     */
-    public IconoEntrenamiento(int iconoResId, String nombre, String descripcion) {
-        this.iconoResId = iconoResId;
-        this.nombre = nombre;
-        this.descripcion = descripcion;
-    }
-
-    // ==================== GETTERS ====================
-
-    /**
-     * Obtiene el ID del recurso drawable del icono.
-     * @return ID del recurso (ej: android.R.drawable.ic_menu_directions)
-     */
-    public int getIconoResId() {
-        return iconoResId;
-    }
-
-    /**
-     * Obtiene el nombre descriptivo del icono.
-     * @return Nombre corto del icono (ej: "Cardio/Running")
-     */
+    @Override
     public String getNombre() {
-        return nombre;
+        return "basico";
     }
 
     /**
-     * Obtiene la descripción de uso del icono.
-     * @return Descripción de cuándo usar este icono
-     */
-    public String getDescripcion() {
-        return descripcion;
-    }
-
-    // ==================== MÉTODOS ESTÁTICOS (FACTORY) ====================
-
-    /**
-     * Retorna la lista completa de iconos disponibles para entrenamientos.
-     * Esta lista incluye 12 iconos temáticos relacionados con fitness y ejercicio.
+     * Retorna los 12 iconos temáticos relacionados con fitness y ejercicio.
+     * RegistroIconos lo llama una sola vez, al registrar el paquete.
      *
      * ICONOS INCLUIDOS:
      * 1. Cardio/Running - Para ejercicios cardiovasculares
@@ -102,9 +40,10 @@ public class IconoEntrenamiento {
      * 11. Crecimiento/Progreso - Para medir mejoras
      * 12. Objetivo/Meta - Para entrenamientos con metas
      *
-     * @return Lista de IconoEntrenamiento con todos los iconos disponibles
+     * @return Lista nueva con los iconos del paquete
      */
-    public static List<IconoEntrenamiento> getIconosDisponibles() {
+    @Override
+    public List<IconoEntrenamiento> getIconos() {
         List<IconoEntrenamiento> iconos = new ArrayList<>();
 
         // Icono 1: Cardio/Running
@@ -205,25 +144,4 @@ public class IconoEntrenamiento {
 
         return iconos;
     }
-
-    /**
-     * Busca y retorna un icono específico por su ID de recurso.
-     * Si no se encuentra el icono, retorna el primero por defecto.
-     *
-     * @param iconoResId ID del recurso drawable a buscar
-     * @return IconoEntrenamiento encontrado, o el primero si no existe
-     */
-    public static IconoEntrenamiento getIconoPorId(int iconoResId) {
-        // Iterar por todos los iconos disponibles
-        for (IconoEntrenamiento icono : getIconosDisponibles()) {
-            // Si encontramos el icono buscado, lo retornamos
-            if (icono.getIconoResId() == iconoResId) {
-                return icono;
-            }
-        }
-
-        // Si no se encuentra, retornar el primer icono por defecto
-        return getIconosDisponibles().get(0);
-    }
 }
-
@@ -0,0 +1,195 @@
+/**
+ * CLASE: RutasEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Rutas GPS ya simplificadas (RutaSimplificada) de los entrenamientos al aire
+ * libre, para que el detalle las dibuje sin leer ni recorrer el recorrido
+ * original: una sesión de varias horas son decenas de miles de puntos.
+ *
+ * FUNCIONAMIENTO:
+ * - Se muestra la ruta de la sesión MÁS RECIENTE del entrenamiento
+ *   (GrabadorRecorrido.ultimo)
+ * - El fichero se lee en streaming directamente en el SimplificadorRuta, en un
+ *   hilo propio ("rutas"): nunca se tiene el recorrido entero en memoria y no
+ *   se hace esperar a las lecturas del catálogo
+ * - El resultado se guarda en una LruCache por entrenamiento: volver a un
+ *   entrenamiento (o rotar) no vuelve a tocar el disco
+ * - Un entrenamiento sin recorrido también se guarda (ruta vacía): no se busca
+ *   otra vez su fichero en cada selección
+ * - Al terminar de grabar una sesión, invalidar() descarta la ruta anterior
+ *
+ * PETICIONES REPETIDAS:
+ * Si se pide una ruta que ya se está leyendo, no se lee otra vez: el listener
+ * espera a la lectura en curso. Si se invalida mientras se lee, el resultado
+ * no se guarda y se vuelve a leer.
+ *
+ * USO (solo desde el hilo principal):
+ * RutasEntrenamientos.getInstancia(context).leer(id, ruta -> ...);
+ */
+package com.example.examen;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.util.LruCache;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de rutas simplificadas por entrenamiento, leídas en segundo plano.
+ */
+public final class RutasEntrenamientos {
+
+    // ==================== CONSTANTES ====================
+
+    private static final String TAG = "RutasEntrenamientos";
+
+    /** Rutas que se conservan (cada una ocupa unos pocos cientos de KB como mucho) */
+    private static final int MAX_RUTAS = 8;
+
+    /** Contadores y tiempo en Metricas */
+    private static final String METRICA_ACIERTO = "rutas.acierto";
+    private static final String METRICA_FALLO = "rutas.fallo";
+    private static final String METRICA_SIMPLIFICAR = "rutas.simplificar";
+
+    // ==================== INSTANCIA ÚNICA ====================
+
+    private static RutasEntrenamientos instancia;
+
+    /**
+     * @param context Cualquier Context (se guarda el de la aplicación)
+     * @return La caché compartida
+     */
+    public static synchronized RutasEntrenamientos getInstancia(Context context) {
+        if (instancia == null) {
+            instancia = new RutasEntrenamientos(context.getApplicationContext());
+        }
+        return instancia;
+    }
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Context context;
+
+    /** Hilo de lectura y simplificación de recorridos */
+    private final ExecutorService ejecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            tarea -> new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                tarea.run();
+            }, "rutas"));
+
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    /** ID del entrenamiento → ruta simplificada (vacía si no tiene recorrido) */
+    private final LruCache<Integer, RutaSimplificada> rutas = new LruCache<>(MAX_RUTAS);
+
+    /** ID → quienes esperan la lectura en curso de ese entrenamiento */
+    private final SparseArray<List<CatalogoEntrenamientos.OnResultadoListener<RutaSimplificada>>> esperando =
+            new SparseArray<>();
+
+    /** ID → invalidado mientras se leía (su lectura en curso ya no vale) */
+    private final SparseBooleanArray caducadas = new SparseBooleanArray();
+
+    private RutasEntrenamientos(Context context) {
+        this.context = context;
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Ruta simplificada de la última sesión grabada del entrenamiento. Si ya está
+     * en la caché, el listener se llama ahora mismo.
+     *
+     * @param idEntrenamiento Entrenamiento
+     * @param listener Recibe la ruta en el hilo principal (vacía si no hay recorrido)
+     */
+    public void leer(int idEntrenamiento, CatalogoEntrenamientos.OnResultadoListener<RutaSimplificada> listener) {
+        RutaSimplificada guardada = rutas.get(idEntrenamiento);
+        if (guardada != null) {
+            Metricas.contar(METRICA_ACIERTO);
+            listener.onResultado(guardada);
+            return;
+        }
+        List<CatalogoEntrenamientos.OnResultadoListener<RutaSimplificada>> listeners = esperando.get(idEntrenamiento);
+        if (listeners != null) {
+            listeners.add(listener); // Ya se está leyendo
+            return;
+        }
+        Metricas.contar(METRICA_FALLO);
+        listeners = new ArrayList<>();
+        listeners.add(listener);
+        esperando.put(idEntrenamiento, listeners);
+        pedir(idEntrenamiento);
+    }
+
+    /**
+     * Descarta la ruta guardada (se acaba de grabar otra sesión).
+     */
+    public void invalidar(int idEntrenamiento) {
+        rutas.remove(idEntrenamiento);
+        if (esperando.get(idEntrenamiento) != null) {
+            caducadas.put(idEntrenamiento, true);
+        }
+    }
+
+    private void pedir(int idEntrenamiento) {
+        ejecutor.execute(() -> {
+            RutaSimplificada ruta = simplificar(idEntrenamiento);
+            hiloPrincipal.post(() -> recibir(idEntrenamiento, ruta));
+        });
+    }
+
+    /**
+     * Lee y simplifica el recorrido (hilo "rutas").
+     *
+     * @return La ruta, o null si el fichero no se pudo leer
+     */
+    private RutaSimplificada simplificar(int idEntrenamiento) {
+        SimplificadorRuta simplificador = new SimplificadorRuta();
+        File fichero = GrabadorRecorrido.ultimo(context, idEntrenamiento);
+        if (fichero == null) {
+            return simplificador.terminar();
+        }
+        long inicio = Metricas.iniciar(METRICA_SIMPLIFICAR);
+        try {
+            FicheroRecorrido.leer(fichero, simplificador);
+            return simplificador.terminar();
+        } catch (IOException e) {
+            Log.e(TAG, "No se puede leer el recorrido " + fichero, e);
+            return null;
+        } finally {
+            Metricas.terminar(METRICA_SIMPLIFICAR, inicio);
+        }
+    }
+
+    private void recibir(int idEntrenamiento, RutaSimplificada ruta) {
+        if (caducadas.get(idEntrenamiento)) {
+            caducadas.delete(idEntrenamiento);
+            pedir(idEntrenamiento); // Los listeners siguen esperando la nueva lectura
+            return;
+        }
+        List<CatalogoEntrenamientos.OnResultadoListener<RutaSimplificada>> listeners = esperando.get(idEntrenamiento);
+        esperando.remove(idEntrenamiento);
+        if (ruta == null) {
+            // Error de lectura: no se guarda (se reintenta en la próxima selección)
+            ruta = new SimplificadorRuta().terminar();
+        } else {
+            rutas.put(idEntrenamiento, ruta);
+        }
+        for (CatalogoEntrenamientos.OnResultadoListener<RutaSimplificada> listener : listeners) {
+            listener.onResultado(ruta);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * CLASE: VistaRuta.java
+ *
+ * PROPÓSITO:
+ * Dibuja la ruta GPS (RutaSimplificada) de un entrenamiento al aire libre en el
+ * detalle, ajustada al tamaño de la vista y con el norte arriba.
+ *
+ * PUNTOS ACOTADOS:
+ * Nunca se dibujan más de MAX_PUNTOS puntos, por larga que sea la ruta:
+ * - Se elige el nivel de detalle por la escala (metros por píxel): el más
+ *   detallado cuyo error no se vea y que no pase de MAX_PUNTOS
+ * - Si ni el nivel más simple cabe (rutas enormes), se toma uno de cada N
+ * El Path se construye solo al cambiar la ruta o el tamaño; onDraw() solo lo pinta.
+ *
+ * PROYECCIÓN:
+ * Equirectangular centrada en la ruta (la longitud se escala por el coseno de
+ * la latitud media): a la escala de un entrenamiento no se nota la diferencia
+ * con un mapa.
+ *
+ * USO:
+ * <com.example.examen.VistaRuta ... /> en el layout, y setRuta(ruta)
+ */
+package com.example.examen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Vista que pinta una ruta simplificada con un número acotado de puntos.
+ */
+public class VistaRuta extends View {
+
+    // ==================== CONSTANTES ====================
+
+    /** Puntos que se dibujan como mucho */
+    static final int MAX_PUNTOS = 1000;
+
+    /** Grosor de la línea */
+    private static final float GROSOR_DP = 3;
+
+    private static final int COLOR_RUTA = 0xFF1E88E5;
+
+    /** Metros por unidad de grado × 10^7 (en un meridiano) */
+    private static final double METROS_POR_E7 = 111_319.49 / 1e7;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Paint pincel = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path camino = new Path();
+
+    private RutaSimplificada ruta;
+
+    /** Nivel y puntos del Path actual */
+    private int nivel;
+    private int dibujados;
+
+    public VistaRuta(Context context) {
+        this(context, null);
+    }
+
+    public VistaRuta(Context context, @Nullable AttributeSet atributos) {
+        super(context, atributos);
+        pincel.setStyle(Paint.Style.STROKE);
+        pincel.setStrokeWidth(GROSOR_DP * getResources().getDisplayMetrics().density);
+        pincel.setStrokeCap(Paint.Cap.ROUND);
+        pincel.setStrokeJoin(Paint.Join.ROUND);
+        pincel.setColor(COLOR_RUTA);
+    }
+
+    /**
+     * @param ruta Ruta a dibujar (null o vacía = nada)
+     */
+    public void setRuta(@Nullable RutaSimplificada ruta) {
+        if (ruta != this.ruta) {
+            this.ruta = ruta;
+            construir(getWidth(), getHeight());
+            invalidate();
+        }
+    }
+
+    /**
+     * @return Puntos del Path actual (como mucho MAX_PUNTOS)
+     */
+    public int getDibujados() {
+        return dibujados;
+    }
+
+    // ==================== DIBUJO ====================
+
+    @Override
+    protected void onSizeChanged(int ancho, int alto, int anchoAnterior, int altoAnterior) {
+        super.onSizeChanged(ancho, alto, anchoAnterior, altoAnterior);
+        construir(ancho, alto);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (dibujados > 1) {
+            canvas.drawPath(camino, pincel);
+        }
+    }
+
+    /**
+     * Elige el nivel para la escala actual y construye el Path.
+     */
+    private void construir(int ancho, int alto) {
+        camino.reset();
+        dibujados = 0;
+        float margen = pincel.getStrokeWidth();
+        float anchoUtil = ancho - getPaddingLeft() - getPaddingRight() - 2 * margen;
+        float altoUtil = alto - getPaddingTop() - getPaddingBottom() - 2 * margen;
+        if (ruta == null || ruta.isVacia() || anchoUtil <= 0 || altoUtil <= 0) {
+            return;
+        }
+
+        double latitudCentro = ((long) ruta.getLatitudMinimaE7() + ruta.getLatitudMaximaE7()) / 2.0;
+        double longitudCentro = ((long) ruta.getLongitudMinimaE7() + ruta.getLongitudMaximaE7()) / 2.0;
+        double metrosPorE7Longitud = METROS_POR_E7 * Math.cos(Math.toRadians(latitudCentro / 1e7));
+        double anchoMetros = ((long) ruta.getLongitudMaximaE7() - ruta.getLongitudMinimaE7()) * metrosPorE7Longitud;
+        double altoMetros = ((long) ruta.getLatitudMaximaE7() - ruta.getLatitudMinimaE7()) * METROS_POR_E7;
+        // Una ruta sin extensión (un solo punto) no debe dividir por cero
+        double metrosPorPixel = Math.max(Math.max(anchoMetros / anchoUtil, altoMetros / altoUtil), 1e-3);
+
+        nivel = ruta.nivelPara(metrosPorPixel, MAX_PUNTOS);
+        int puntos = ruta.getPuntos(nivel);
+        // Uno de cada 'paso' más el último: como mucho MAX_PUNTOS en total
+        int paso = Math.max(1, (puntos - 2 + MAX_PUNTOS - 1) / (MAX_PUNTOS - 1));
+
+        float centroX = getPaddingLeft() + margen + anchoUtil / 2;
+        float centroY = getPaddingTop() + margen + altoUtil / 2;
+        camino.incReserve(Math.min(puntos, MAX_PUNTOS));
+        for (int i = 0; i < puntos; i += paso) {
+            anadirPunto(i, centroX, centroY, latitudCentro, longitudCentro, metrosPorE7Longitud, metrosPorPixel);
+        }
+        if ((puntos - 1) % paso != 0) {
+            // Con paso > 1 el final de la ruta se dibuja siempre
+            anadirPunto(puntos - 1, centroX, centroY, latitudCentro, longitudCentro, metrosPorE7Longitud, metrosPorPixel);
+        }
+    }
+
+    private void anadirPunto(int i, float centroX, float centroY, double latitudCentro, double longitudCentro,
+                             double metrosPorE7Longitud, double metrosPorPixel) {
+        float x = centroX + (float) ((ruta.getLongitudE7(nivel, i) - longitudCentro) * metrosPorE7Longitud / metrosPorPixel);
+        float y = centroY - (float) ((ruta.getLatitudE7(nivel, i) - latitudCentro) * METROS_POR_E7 / metrosPorPixel);
+        if (dibujados == 0) {
+            camino.moveTo(x, y);
+        } else {
+            camino.lineTo(x, y);
+        }
+        dibujados++;
+    }
+}
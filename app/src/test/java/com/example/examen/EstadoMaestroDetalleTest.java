@@ -0,0 +1,214 @@
+package com.example.examen;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.lifecycle.ViewModelStore;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Selección y detalle de EstadoMaestroDetalle con el catálogo de verdad: el vecino
+ * precargado se publica al momento, una respuesta pedida antes de un cambio del
+ * catálogo (otra generación) se descarta, un elegido editado se vuelve a leer y un
+ * elegido eliminado (o que nunca existió) deja de estar seleccionado.
+ *
+ * El catálogo es un singleton del proceso: cada test usa sus propios IDs.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class EstadoMaestroDetalleTest {
+
+    private static final long ESPERA_MS = 5000;
+
+    /** Un fotograma a 60 Hz: lo que tarda en llegar el aviso del catálogo (Choreographer) */
+    private static final long FOTOGRAMA_MS = 17;
+
+    /** ic_menu_manage: no es al aire libre, no se lee ninguna ruta */
+    private static final int ICONO = android.R.drawable.ic_menu_manage;
+
+    private final ViewModelStore tienda = new ViewModelStore();
+    private CatalogoEntrenamientos catalogo;
+    private EstadoMaestroDetalle estado;
+
+    @Before
+    public void crearEstado() throws InterruptedException {
+        Application aplicacion = ApplicationProvider.getApplicationContext();
+        catalogo = CatalogoEntrenamientos.getInstancia(aplicacion);
+        estado = new ViewModelProvider(tienda, ViewModelProvider.AndroidViewModelFactory.getInstance(aplicacion))
+                .get(EstadoMaestroDetalle.class);
+        esperar("la carga del catálogo", () -> catalogo.getInstantanea() != null);
+        // El primer aviso del catálogo fija la versión de la que salen los detalles
+        dejarPasarAvisos();
+    }
+
+    @After
+    public void limpiar() {
+        tienda.clear();
+    }
+
+    @Test
+    public void seleccionar_vecinoPrecargadoSePublicaAlMomento() throws InterruptedException {
+        guardar(entrenamiento(9101, "Uno"), entrenamiento(9102, "Dos"), entrenamiento(9103, "Tres"));
+
+        estado.seleccionar(9101, new int[]{9102, 9103});
+        assertNull("Sin precargar: se lee en segundo plano", estado.getDetalle().getValue());
+        esperar("el detalle de 9101", () -> idDetalle() == 9101);
+
+        // Sin dejar correr el hilo principal: ya estaba preparado
+        estado.seleccionar(9102, new int[]{9101, 9103});
+        assertEquals(9102, idDetalle());
+        estado.seleccionar(9103);
+        assertEquals(9103, idDetalle());
+    }
+
+    @Test
+    public void respuestaDeOtraGeneracion_seDescarta() throws InterruptedException {
+        guardar(entrenamiento(9201, "Antes"));
+        List<String> publicados = new ArrayList<>();
+        Observer<DetalleEntrenamiento> registrar = detalle -> {
+            if (detalle != null) {
+                publicados.add(detalle.getNombre());
+            }
+        };
+        estado.getDetalle().observeForever(registrar);
+        try {
+            estado.seleccionar(9201);
+            // El hilo lector es FIFO: cuando corre esta lectura, la de seleccionar() ya
+            // terminó y su respuesta ("Antes") espera en la cola del hilo principal
+            CountDownLatch leido = new CountDownLatch(1);
+            catalogo.leerPorIds(new int[]{9201}, entrenamiento -> {
+                leido.countDown();
+                return entrenamiento;
+            }, resultado -> { });
+            assertTrue(leido.await(ESPERA_MS, TimeUnit.MILLISECONDS));
+
+            catalogo.agregar(entrenamiento(9201, "Después"));
+            esperarCatalogo(() -> "Después".equals(nombreEnCatalogo(9201)));
+            // Aviso del catálogo ANTES de que el hilo principal procese la respuesta vieja
+            estado.onCatalogoCambiado(catalogo.getInstantanea());
+
+            esperar("el detalle releído", () -> idDetalle() == 9201);
+            assertEquals("Después", estado.getDetalle().getValue().getNombre());
+            assertFalse("La respuesta de la generación anterior no se publica", publicados.contains("Antes"));
+        } finally {
+            estado.getDetalle().removeObserver(registrar);
+        }
+    }
+
+    @Test
+    public void catalogoCambiado_releeElElegidoYSusVecinos() throws InterruptedException {
+        guardar(entrenamiento(9301, "Elegido"), entrenamiento(9302, "Vecino"));
+        List<Integer> publicados = new ArrayList<>();
+        Observer<DetalleEntrenamiento> registrar = detalle -> {
+            if (detalle != null) {
+                publicados.add(detalle.getId());
+            }
+        };
+        estado.getDetalle().observeForever(registrar);
+        try {
+            estado.seleccionar(9301, new int[]{9302});
+            esperar("el detalle de 9301", () -> publicados.size() == 1);
+
+            // Solo cambia el vecino, pero todo lo preparado se descarta y se relee
+            catalogo.agregar(entrenamiento(9302, "Vecino editado"));
+            esperar("el elegido releído", () -> publicados.size() == 2);
+            assertEquals(Integer.valueOf(9301), publicados.get(1));
+
+            // El vecino se releyó en la misma tarea que el elegido: se publica ya el editado
+            estado.seleccionar(9302, new int[]{9301});
+            assertEquals("Vecino editado", estado.getDetalle().getValue().getNombre());
+        } finally {
+            estado.getDetalle().removeObserver(registrar);
+        }
+    }
+
+    @Test
+    public void elegidoEliminado_quitaLaSeleccion() throws InterruptedException {
+        guardar(entrenamiento(9401, "Se eliminará"));
+        estado.seleccionar(9401);
+        esperar("el detalle de 9401", () -> idDetalle() == 9401);
+
+        catalogo.eliminar(9401);
+        esperar("que se quite la selección", () -> !estado.haySeleccion());
+        assertNull(estado.getSeleccion().getValue());
+        assertNull("No se sigue mostrando el detalle eliminado", estado.getDetalle().getValue());
+        assertFalse("Sin detalle no se puede empezar una sesión", estado.empezarSesion());
+    }
+
+    @Test
+    public void idQueNoExiste_quitaLaSeleccion() throws InterruptedException {
+        estado.seleccionar(9999);
+        assertTrue(estado.haySeleccion());
+        esperar("que se quite la selección", () -> !estado.haySeleccion());
+        assertNull(estado.getDetalle().getValue());
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static Entrenamiento entrenamiento(int id, String nombre) {
+        return EntrenamientosPrueba.entrenamiento(id).setNombre(nombre).setIconoResId(ICONO).construir();
+    }
+
+    /** Guarda y espera a que el catálogo los publique (y a que el aviso llegue a los observadores) */
+    private void guardar(Entrenamiento... entrenamientos) throws InterruptedException {
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            catalogo.agregar(entrenamiento);
+        }
+        int ultimo = entrenamientos[entrenamientos.length - 1].getId();
+        esperar("el guardado de " + ultimo, () -> nombreEnCatalogo(ultimo) != null);
+        dejarPasarAvisos();
+    }
+
+    /** El aviso del catálogo se programa con un post y llega en el fotograma siguiente */
+    private static void dejarPasarAvisos() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(2 * FOTOGRAMA_MS));
+    }
+
+    private String nombreEnCatalogo(int id) {
+        Entrenamiento entrenamiento = catalogo.getInstantanea().getVista().obtenerPorId(id);
+        return entrenamiento != null ? entrenamiento.getNombre() : null;
+    }
+
+    private int idDetalle() {
+        DetalleEntrenamiento detalle = estado.getDetalle().getValue();
+        return detalle != null ? detalle.getId() : -1;
+    }
+
+    /** Deja correr el hilo principal (y sus fotogramas) hasta que se cumpla la condición */
+    private static void esperar(String que, BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Esperando " + que, System.currentTimeMillis() < limite);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(FOTOGRAMA_MS));
+            Thread.sleep(5);
+        }
+    }
+
+    /** Espera a los hilos del catálogo SIN dejar correr el hilo principal */
+    private static void esperarCatalogo(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicion.getAsBoolean()) {
+            assertTrue("Esperando al catálogo", System.currentTimeMillis() < limite);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.examen;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Diff de dos versiones del catálogo con las claves de FilasEntrenamientos (lo mismo
+ * que calcula el AsyncListDiffer del adapter): un alta, una baja o una edición en una
+ * lista de 10.000 se traducen en UNA fila avisada, no en toda la pantalla.
+ */
+public class FilasEntrenamientosTest {
+
+    @Test
+    public void alta_bajaYEdicion_avisanUnaSolaFila() throws IOException {
+        File fichero = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            almacen.guardarLote(catalogo(10_000));
+
+            VistaEntrenamientos antes = almacen.getVista();
+            almacen.guardar(entrenamiento(almacen.generarNuevoId()));
+            Cambios alta = diff(antes, almacen.getVista());
+            assertEquals(1, alta.insertadas);
+            assertEquals(0, alta.cambiadas + alta.eliminadas + alta.movidas);
+
+            antes = almacen.getVista();
+            almacen.eliminar(5000);
+            Cambios baja = diff(antes, almacen.getVista());
+            assertEquals(1, baja.eliminadas);
+            assertEquals(0, baja.cambiadas + baja.insertadas + baja.movidas);
+
+            antes = almacen.getVista();
+            almacen.guardar(almacen.obtenerPorId(7).editar().setNombre("Editado").construir());
+            Cambios edicion = diff(antes, almacen.getVista());
+            assertEquals(1, edicion.cambiadas);
+            assertEquals(0, edicion.insertadas + edicion.eliminadas + edicion.movidas);
+        } finally {
+            borrar(fichero);
+        }
+    }
+
+    @Test
+    public void diff_100k_unaAlta() throws IOException {
+        File fichero = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            almacen.guardarLote(catalogo(100_000));
+            VistaEntrenamientos antes = almacen.getVista();
+            almacen.guardar(entrenamiento(almacen.generarNuevoId()));
+            VistaEntrenamientos despues = almacen.getVista();
+
+            Cambios cambios = diff(antes, despues);
+            assertEquals(1, cambios.insertadas);
+            assertEquals(0, cambios.cambiadas + cambios.eliminadas + cambios.movidas);
+        } finally {
+            borrar(fichero);
+        }
+    }
+
+    @Test
+    public void resultados_mismoIdConOtrosDatosEsUnCambio() {
+        Entrenamiento original = entrenamiento(3);
+        List<Entrenamiento> antes = new ArrayList<>();
+        antes.add(entrenamiento(1));
+        antes.add(original);
+        List<Entrenamiento> despues = new ArrayList<>(antes);
+        despues.set(1, original.editar().setDuracion("2h").construir());
+
+        Cambios cambios = diff(FilasEntrenamientos.deResultados(antes), FilasEntrenamientos.deResultados(despues));
+        assertEquals(1, cambios.cambiadas);
+        assertEquals(3, FilasEntrenamientos.id(FilasEntrenamientos.clave(3, -7)));
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /** Cuenta los avisos que recibiría el adapter */
+    private static final class Cambios implements ListUpdateCallback {
+        int insertadas;
+        int eliminadas;
+        int movidas;
+        int cambiadas;
+
+        @Override
+        public void onInserted(int posicion, int cantidad) {
+            insertadas += cantidad;
+        }
+
+        @Override
+        public void onRemoved(int posicion, int cantidad) {
+            eliminadas += cantidad;
+        }
+
+        @Override
+        public void onMoved(int desde, int hasta) {
+            movidas++;
+        }
+
+        @Override
+        public void onChanged(int posicion, int cantidad, Object payload) {
+            cambiadas += cantidad;
+        }
+    }
+
+    private static Cambios diff(VistaEntrenamientos antes, VistaEntrenamientos despues) {
+        return diff(FilasEntrenamientos.deVista(antes), FilasEntrenamientos.deVista(despues));
+    }
+
+    private static Cambios diff(List<Long> antes, List<Long> despues) {
+        DiffUtil.DiffResult resultado = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return antes.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return despues.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int anterior, int nueva) {
+                return FilasEntrenamientos.DIFERENCIAS.areItemsTheSame(antes.get(anterior), despues.get(nueva));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int anterior, int nueva) {
+                return FilasEntrenamientos.DIFERENCIAS.areContentsTheSame(antes.get(anterior), despues.get(nueva));
+            }
+        });
+        Cambios cambios = new Cambios();
+        resultado.dispatchUpdatesTo(cambios);
+        return cambios;
+    }
+
+    private static List<Entrenamiento> catalogo(int n) {
+        List<Entrenamiento> lote = new ArrayList<>(n);
+        for (int id = 1; id <= n; id++) {
+            lote.add(entrenamiento(id));
+        }
+        return lote;
+    }
+
+    private static Entrenamiento entrenamiento(int id) {
+        return EntrenamientosPrueba.entrenamiento(id)
+                .setDuracion((10 + id % 50) + " minutos")
+                .setDificultad(EntrenamientosPrueba.DIFICULTADES[id % 3])
+                .setIconoResId(EntrenamientosPrueba.ICONOS[id % 3])
+                .construir();
+    }
+
+    private static File temporal() throws IOException {
+        File fichero = File.createTempFile("filas", ".tmp");
+        fichero.delete();
+        return fichero;
+    }
+
+    private static void borrar(File fichero) {
+        fichero.delete();
+        new File(fichero.getPath() + ".seq").delete();
+        new File(fichero.getPath() + ".wal").delete();
+    }
+}
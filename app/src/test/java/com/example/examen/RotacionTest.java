@@ -0,0 +1,208 @@
+package com.example.examen;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentFactory;
+import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Rotar MainActivity no hace ninguna transacción de fragments ni toca la pila de
+ * Atrás: el FragmentManager destruye la lista y el detalle y los vuelve a crear
+ * desde su estado guardado en los mismos contenedores (los dos layouts los tienen),
+ * y la selección sigue en EstadoMaestroDetalle.
+ *
+ * El FragmentManager de cada Activity lleva una FragmentFactory que cuenta los
+ * fragments que restaura: cualquier otro fragment creado salió de una transacción
+ * (add/replace con "new"). Antes cada rotación quitaba 2 y añadía 2 nuevos.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class RotacionTest {
+
+    private static final int ROTACIONES = 10;
+
+    private final ContadorFragments contador = new ContadorFragments();
+    private Application aplicacion;
+
+    @Before
+    public void registrarContador() {
+        aplicacion = ApplicationProvider.getApplicationContext();
+        aplicacion.registerActivityLifecycleCallbacks(contador);
+    }
+
+    @After
+    public void quitarContador() {
+        aplicacion.unregisterActivityLifecycleCallbacks(contador);
+        RuntimeEnvironment.setQualifiers("+port");
+    }
+
+    @Test
+    public void rotar_noHaceTransaccionesYConservaLaSeleccion() {
+        RuntimeEnvironment.setQualifiers("+port");
+        try (ActivityScenario<MainActivity> escenario = ActivityScenario.launch(MainActivity.class)) {
+            shadowOf(Looper.getMainLooper()).idle();
+            // Primera carga: lista + detalle, una sola transacción
+            assertEquals(2, contador.deTransaccion());
+
+            escenario.onActivity(actividad -> estado(actividad).seleccionar(7));
+            contador.reiniciar();
+
+            for (int i = 0; i < ROTACIONES; i++) {
+                RuntimeEnvironment.setQualifiers(i % 2 == 0 ? "+land" : "+port");
+                escenario.recreate();
+                shadowOf(Looper.getMainLooper()).idle();
+                escenario.onActivity(actividad ->
+                        assertEquals(0, actividad.getSupportFragmentManager().getBackStackEntryCount()));
+            }
+
+            assertEquals("Ninguna transacción de fragments al rotar", 0, contador.deTransaccion());
+            assertEquals("Ningún cambio en la pila de Atrás", 0, contador.cambiosPila);
+            // Rotar NO conserva las instancias: cada rotación destruye y restaura las dos
+            assertEquals(2 * ROTACIONES, contador.restaurados);
+            assertEquals(2 * ROTACIONES, contador.destruidos);
+
+            // Última rotación a portrait con un entrenamiento elegido: se ve el detalle
+            escenario.onActivity(actividad -> {
+                assertEquals(Integer.valueOf(7), estado(actividad).getSeleccion().getValue());
+                FragmentManager fragments = actividad.getSupportFragmentManager();
+                assertEquals(2, fragments.getFragments().size());
+                assertTrue(fragments.findFragmentById(R.id.fragment_lista) instanceof ListaEntrenamientosFragment);
+                assertTrue(fragments.findFragmentById(R.id.fragment_detalle) instanceof DetalleEntrenamientoFragment);
+                assertEquals(View.GONE, actividad.findViewById(R.id.fragment_lista).getVisibility());
+                assertEquals(View.VISIBLE, actividad.findViewById(R.id.fragment_detalle).getVisibility());
+            });
+        }
+    }
+
+    @Test
+    public void atrasEnPortrait_vuelveALaListaSinTransacciones() {
+        RuntimeEnvironment.setQualifiers("+port");
+        try (ActivityScenario<MainActivity> escenario = ActivityScenario.launch(MainActivity.class)) {
+            shadowOf(Looper.getMainLooper()).idle();
+            contador.reiniciar();
+
+            escenario.onActivity(actividad -> {
+                estado(actividad).seleccionar(3);
+                assertEquals(View.VISIBLE, actividad.findViewById(R.id.fragment_detalle).getVisibility());
+
+                actividad.getOnBackPressedDispatcher().onBackPressed();
+                assertFalse(estado(actividad).haySeleccion());
+                assertEquals(View.VISIBLE, actividad.findViewById(R.id.fragment_lista).getVisibility());
+                assertEquals(View.GONE, actividad.findViewById(R.id.fragment_detalle).getVisibility());
+            });
+            assertEquals(0, contador.deTransaccion());
+            assertEquals("Atrás quita la selección, no desapila nada", 0, contador.cambiosPila);
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static EstadoMaestroDetalle estado(MainActivity actividad) {
+        return new ViewModelProvider(actividad).get(EstadoMaestroDetalle.class);
+    }
+
+    /**
+     * Se engancha al FragmentManager de cada Activity antes de que restaure sus
+     * fragments: cuenta los creados, los restaurados (los que instancia su
+     * FragmentFactory), los destruidos y los cambios en la pila de Atrás.
+     */
+    private static final class ContadorFragments extends FragmentManager.FragmentLifecycleCallbacks
+            implements Application.ActivityLifecycleCallbacks {
+
+        int creados;
+        int restaurados;
+        int destruidos;
+        int cambiosPila;
+
+        /** Fragments que no restauró el FragmentManager: salieron de una transacción */
+        int deTransaccion() {
+            return creados - restaurados;
+        }
+
+        void reiniciar() {
+            creados = 0;
+            restaurados = 0;
+            destruidos = 0;
+            cambiosPila = 0;
+        }
+
+        @Override
+        public void onActivityPreCreated(@NonNull Activity actividad, @Nullable Bundle estado) {
+            FragmentManager fragments = ((FragmentActivity) actividad).getSupportFragmentManager();
+            fragments.setFragmentFactory(new FabricaContada());
+            fragments.registerFragmentLifecycleCallbacks(this, false);
+            fragments.addOnBackStackChangedListener(() -> cambiosPila++);
+        }
+
+        @Override
+        public void onFragmentPreCreated(@NonNull FragmentManager fm, @NonNull Fragment fragment,
+                                         @Nullable Bundle estado) {
+            creados++;
+        }
+
+        @Override
+        public void onFragmentDestroyed(@NonNull FragmentManager fm, @NonNull Fragment fragment) {
+            destruidos++;
+        }
+
+        /** El FragmentManager solo la usa para volver a crear fragments desde su estado guardado */
+        private final class FabricaContada extends FragmentFactory {
+            @NonNull
+            @Override
+            public Fragment instantiate(@NonNull ClassLoader cargador, @NonNull String clase) {
+                restaurados++;
+                return super.instantiate(cargador, clase);
+            }
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity actividad, @Nullable Bundle estado) {
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity actividad) {
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity actividad) {
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity actividad) {
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity actividad) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity actividad, @NonNull Bundle estado) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity actividad) {
+        }
+    }
+}
@@ -0,0 +1,143 @@
+// Benchmarks JMH del módulo core (JVM, sin dispositivo).
+//
+//   ./gradlew :benchmarks:jmh                    → ejecuta la suite (results/jmh/results.json)
+//   ./gradlew :benchmarks:verificarRegresiones   → compara con linea-base.json y falla si algo empeora
+//                                                  (o si no hay linea-base.json)
+//   ./gradlew :benchmarks:actualizarLineaBase    → guarda los resultados actuales como línea base
+//
+// Todas las medidas son tiempo medio (avgt): más bajo = mejor.
+//
+// LÍNEA BASE:
+// Se graba SIEMPRE en la máquina de referencia de CI (la misma en la que corre
+// verificarRegresiones), nunca en un portátil o una VM compartida, y con más forks
+// e iteraciones que una ejecución normal para que su error sea pequeño:
+//
+//   ./gradlew :benchmarks:actualizarLineaBase -Pjmh.forks=5 -Pjmh.iteraciones=10
+//
+// actualizarLineaBase se niega a guardar resultados con menos de FORKS_LINEA_BASE
+// forks. Hay que regrabarla al cambiar de máquina, de JDK o al añadir benchmarks
+// (los que no tienen línea base no se comparan).
+import groovy.json.JsonSlurper
+
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    // jmh-core y el generador de anotaciones los añade el plugin (versión: jmhVersion)
+    implementation(project(":core"))
+    // Tamaño retenido de los objetos (MemoriaEntrenamientoBenchmark)
+    implementation(libs.jol.core)
+}
+
+val resultadosJmh = layout.buildDirectory.file("results/jmh/results.json")
+val lineaBase = layout.projectDirectory.file("linea-base.json")
+
+/** Forks mínimos para grabar la línea base (cada fork es una JVM nueva: JIT y memoria distintos) */
+val FORKS_LINEA_BASE = 5
+
+fun propiedadEntera(nombre: String, porDefecto: Int): Int =
+    (findProperty(nombre) as String?)?.toInt() ?: porDefecto
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // -Pjmh.calentamiento / -Pjmh.iteraciones / -Pjmh.forks (la línea base usa más)
+    warmupIterations.set(propiedadEntera("jmh.calentamiento", 3))
+    iterations.set(propiedadEntera("jmh.iteraciones", 5))
+    fork.set(propiedadEntera("jmh.forks", 1))
+    resultFormat.set("JSON")
+    resultsFile.set(resultadosJmh)
+    // -Pjmh.incluir=Serializacion para ejecutar solo una parte de la suite
+    providers.gradleProperty("jmh.incluir").orNull?.let { includes.set(listOf(it)) }
+}
+
+/** Clave de un resultado: benchmark + parámetros (ej: BusquedaPorIdBenchmark.obtenerPorId{tamano=1000}) */
+fun claveResultado(resultado: Map<*, *>): String {
+    val parametros = (resultado["params"] as Map<*, *>?)?.entries
+        ?.sortedBy { it.key.toString() }
+        ?.joinToString(",") { "${it.key}=${it.value}" }
+        ?: ""
+    return "${resultado["benchmark"]}{$parametros}"
+}
+
+/** Tiempo medio de un benchmark y su error (media ± error: intervalo de confianza del 99,9% de JMH) */
+data class Medida(val tiempo: Double, val error: Double, val forks: Int) {
+    val minimo get() = tiempo - error
+    val maximo get() = tiempo + error
+}
+
+fun leerResultados(fichero: File): Map<String, Medida> =
+    (JsonSlurper().parse(fichero) as List<*>).associate { entrada ->
+        val resultado = entrada as Map<*, *>
+        val metrica = resultado["primaryMetric"] as Map<*, *>
+        // Con una sola iteración JMH no calcula el error ("NaN")
+        val error = (metrica["scoreError"] as? Number)?.toDouble()?.takeUnless { it.isNaN() } ?: 0.0
+        claveResultado(resultado) to
+            Medida((metrica["score"] as Number).toDouble(), error, (resultado["forks"] as Number).toInt())
+    }
+
+tasks.register("verificarRegresiones") {
+    group = "verification"
+    description = "Falla si no hay línea base o si algún benchmark es más lento que ella " +
+        "más allá del error de ambas medidas y la tolerancia (por defecto: 15%)."
+    dependsOn("jmh")
+    doLast {
+        val base = lineaBase.asFile
+        if (!base.exists()) {
+            // Sin línea base no se compara nada: pasar en verde escondería cualquier regresión
+            throw GradleException("No hay linea-base.json: ejecuta actualizarLineaBase en la máquina de referencia.")
+        }
+        val tolerancia = (findProperty("tolerancia") as String?)?.toDouble() ?: 0.15
+        val anteriores = leerResultados(base)
+        val actuales = leerResultados(resultadosJmh.get().asFile)
+        val sinBase = actuales.keys - anteriores.keys
+        if (sinBase.isNotEmpty()) {
+            logger.warn("Sin línea base (no se comparan; ejecuta actualizarLineaBase):\n" + sinBase.joinToString("\n"))
+        }
+        // Una línea base con más error que la tolerancia no puede detectar esa regresión:
+        // el intervalo la absorbe. Se avisa para regrabarla, no se compara con otro umbral
+        val ruidosas = anteriores.filterValues { it.forks < FORKS_LINEA_BASE || it.error > it.tiempo * tolerancia }.keys
+        if (ruidosas.isNotEmpty()) {
+            logger.warn("Línea base con menos de $FORKS_LINEA_BASE forks o error mayor que la tolerancia " +
+                "(regrábala en la máquina de referencia):\n" + ruidosas.joinToString("\n"))
+        }
+        // Regresión = incluso en el mejor caso de la medida actual es más lento que el peor
+        // caso de la línea base más la tolerancia. Comparar solo las medias haría fallar
+        // (o pasar) el gate por puro ruido
+        val regresiones = actuales.mapNotNull { (clave, actual) ->
+            val anterior = anteriores[clave] ?: return@mapNotNull null
+            if (actual.minimo > anterior.maximo * (1 + tolerancia)) {
+                String.format("%s: %.3f ± %.3f → %.3f ± %.3f (%+.0f%%)", clave, anterior.tiempo, anterior.error,
+                    actual.tiempo, actual.error, (actual.tiempo / anterior.tiempo - 1) * 100)
+            } else null
+        }
+        if (regresiones.isNotEmpty()) {
+            throw GradleException("Regresiones de rendimiento:\n" + regresiones.joinToString("\n"))
+        }
+        logger.lifecycle("${actuales.size} benchmarks dentro de la tolerancia (${(tolerancia * 100).toInt()}%).")
+    }
+}
+
+tasks.register<Copy>("actualizarLineaBase") {
+    group = "benchmark"
+    description = "Copia los últimos resultados JMH a linea-base.json " +
+        "(en la máquina de referencia, con -Pjmh.forks=$FORKS_LINEA_BASE o más)."
+    dependsOn("jmh")
+    doFirst {
+        val pocos = leerResultados(resultadosJmh.get().asFile).filterValues { it.forks < FORKS_LINEA_BASE }
+        if (pocos.isNotEmpty()) {
+            throw GradleException("La línea base necesita al menos $FORKS_LINEA_BASE forks " +
+                "(hay ${pocos.values.minOf { it.forks }}): ./gradlew :benchmarks:actualizarLineaBase " +
+                "-Pjmh.forks=$FORKS_LINEA_BASE -Pjmh.iteraciones=10")
+        }
+    }
+    from(resultadosJmh)
+    into(layout.projectDirectory)
+    rename { lineaBase.asFile.name }
+}
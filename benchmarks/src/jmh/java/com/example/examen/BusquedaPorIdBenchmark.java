@@ -0,0 +1,72 @@
+/**
+ * CLASE: BusquedaPorIdBenchmark.java
+ *
+ * PROPÓSITO:
+ * Buscar un entrenamiento por su ID con 1k, 100k y 1M en el catálogo: en la
+ * vista del almacén (índice persistente + lectura del fichero mapeado) y la
+ * duración indexada (MapaEnteros). Los IDs se recorren en orden aleatorio.
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BusquedaPorIdBenchmark {
+
+    /** IDs distintos que se consultan en bucle (potencia de 2: el cursor se enmascara) */
+    private static final int CONSULTAS = 1 << 16;
+
+    @Param({DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private File directorio;
+    private AlmacenEntrenamientos almacen;
+    private IndiceDuracion duracion;
+    private int[] ids;
+    private int cursor;
+
+    @Setup
+    public void preparar() throws IOException {
+        List<Entrenamiento> entrenamientos = DatosBenchmark.generar(tamano);
+        directorio = DatosBenchmark.crearDirectorio();
+        almacen = DatosBenchmark.crearAlmacen(directorio, entrenamientos);
+        duracion = new IndiceDuracion();
+        duracion.anadirLote(entrenamientos);
+        ids = DatosBenchmark.idsAleatorios(tamano, CONSULTAS);
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        almacen.close();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    private int siguienteId() {
+        return ids[cursor++ & (CONSULTAS - 1)];
+    }
+
+    @Benchmark
+    public Entrenamiento obtenerPorId() {
+        return almacen.obtenerPorId(siguienteId());
+    }
+
+    @Benchmark
+    public int minutosPorId() {
+        return duracion.minutosDe(siguienteId());
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * CLASE: DatosBenchmark.java
+ *
+ * PROPÓSITO:
+ * Catálogos sintéticos para los benchmarks JMH: mismos datos en cada ejecución
+ * (semilla fija) para que los resultados se puedan comparar con la línea base.
+ *
+ * DATOS:
+ * - Nombres de una lista corta de actividades + número (la búsqueda por texto
+ *   encuentra muchos candidatos, como en un catálogo real)
+ * - Duraciones "N minutos" entre 5 y 120, algunas con texto libre
+ * - 3 dificultades y 5 iconos (IDs fijos: no hace falta ningún paquete registrado)
+ */
+package com.example.examen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generación de entrenamientos y almacenes temporales para los benchmarks.
+ */
+final class DatosBenchmark {
+
+    // ==================== CONSTANTES ====================
+
+    /** Tamaños de catálogo que se miden (valores de @Param) */
+    static final String TAMANO_1K = "1000";
+    static final String TAMANO_100K = "100000";
+    static final String TAMANO_1M = "1000000";
+
+    static final String[] DIFICULTADES = {"Baja", "Media", "Alta"};
+    static final int[] ICONOS = {17301575, 17301577, 17301585, 17301562, 17301567};
+
+    private static final String[] ACTIVIDADES = {
+        "Carrera", "Ciclismo", "Natación", "Fuerza", "Yoga", "Pilates",
+        "Circuito HIIT", "Remo", "Escalada", "Estiramientos", "Sprint", "Caminata"
+    };
+
+    private static final long SEMILLA = 42;
+
+    /** Entrenamientos que se escriben en el almacén en cada guardarLote() */
+    private static final int LOTE = 10_000;
+
+    private DatosBenchmark() {
+        // Solo métodos estáticos
+    }
+
+    // ==================== ENTRENAMIENTOS ====================
+
+    /**
+     * @param cantidad Número de entrenamientos
+     * @return Entrenamientos con IDs 1..cantidad, siempre los mismos
+     */
+    static List<Entrenamiento> generar(int cantidad) {
+        Random random = new Random(SEMILLA);
+        List<Entrenamiento> lista = new ArrayList<>(cantidad);
+        for (int id = 1; id <= cantidad; id++) {
+            lista.add(entrenamiento(id, random));
+        }
+        return lista;
+    }
+
+    /**
+     * @return Un entrenamiento aleatorio con ese ID
+     */
+    static Entrenamiento entrenamiento(int id, Random random) {
+        String actividad = ACTIVIDADES[random.nextInt(ACTIVIDADES.length)];
+        int minutos = 5 + random.nextInt(116);
+        String duracion = random.nextInt(20) == 0 ? "Entre " + minutos + " y " + (minutos + 10) + " min"
+                : minutos + " minutos";
+        return new Entrenamiento.Builder()
+                .setId(id)
+                .setNombre(actividad + " " + id)
+                .setDescripcion(actividad + " de " + minutos + " minutos para todos los niveles")
+                .setDuracion(duracion)
+                .setDificultad(DIFICULTADES[random.nextInt(DIFICULTADES.length)])
+                .setIconoResId(ICONOS[random.nextInt(ICONOS.length)])
+                .construir();
+    }
+
+    /**
+     * @return IDs existentes (1..total) en orden aleatorio, para no medir siempre la misma caché
+     */
+    static int[] idsAleatorios(int total, int cantidad) {
+        Random random = new Random(SEMILLA + 1);
+        int[] ids = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            ids[i] = 1 + random.nextInt(total);
+        }
+        return ids;
+    }
+
+    // ==================== ALMACÉN ====================
+
+    /**
+     * Crea un almacén nuevo en un directorio temporal y le escribe los entrenamientos por lotes.
+     *
+     * @param directorio Directorio de crearDirectorio()
+     * @param entrenamientos Contenido inicial
+     * @return Almacén abierto (cerrarlo con close() y borrar el directorio)
+     */
+    static AlmacenEntrenamientos crearAlmacen(File directorio, List<Entrenamiento> entrenamientos)
+            throws IOException {
+        AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(new File(directorio, "entrenamientos.db"));
+        for (int desde = 0; desde < entrenamientos.size(); desde += LOTE) {
+            almacen.guardarLote(entrenamientos.subList(desde, Math.min(entrenamientos.size(), desde + LOTE)));
+        }
+        return almacen;
+    }
+
+    static File crearDirectorio() throws IOException {
+        return Files.createTempDirectory("examen-jmh").toFile();
+    }
+
+    /**
+     * Borra el directorio temporal y todo lo que contiene (.db, .seq, .wal).
+     */
+    static void borrar(File directorio) {
+        File[] ficheros = directorio.listFiles();
+        if (ficheros != null) {
+            for (File fichero : ficheros) {
+                fichero.delete();
+            }
+        }
+        directorio.delete();
+    }
+}
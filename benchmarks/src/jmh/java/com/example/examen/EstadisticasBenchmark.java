@@ -0,0 +1,73 @@
+/**
+ * CLASE: EstadisticasBenchmark.java
+ *
+ * PROPÓSITO:
+ * Estadísticas del catálogo (EstadisticasCatalogo) con 1k, 100k y 1M
+ * entrenamientos: mantenerlas al editar uno (AgregadosCatalogo.reemplazar +
+ * instantanea) frente a recalcularlas recorriendo el catálogo entero.
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EstadisticasBenchmark {
+
+    /** Ediciones distintas que se aplican en bucle (potencia de 2: el cursor se enmascara) */
+    private static final int EDICIONES = 1 << 12;
+
+    @Param({DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private Entrenamiento[] catalogo;
+    private AgregadosCatalogo agregados;
+    private Entrenamiento[] ediciones;
+    private int cursor;
+
+    @Setup
+    public void preparar() {
+        List<Entrenamiento> entrenamientos = DatosBenchmark.generar(tamano);
+        catalogo = entrenamientos.toArray(new Entrenamiento[0]);
+        agregados = AgregadosCatalogo.calcular(entrenamientos);
+        ediciones = new Entrenamiento[EDICIONES];
+        Random random = new Random(7);
+        for (int i = 0; i < EDICIONES; i++) {
+            ediciones[i] = DatosBenchmark.entrenamiento(1 + random.nextInt(tamano), random);
+        }
+    }
+
+    /**
+     * Una edición cualquiera y las estadísticas que ve la pantalla después.
+     */
+    @Benchmark
+    public EstadisticasCatalogo mantenerUnCambio() {
+        Entrenamiento nuevo = ediciones[cursor++ & (EDICIONES - 1)];
+        int posicion = nuevo.getId() - 1;
+        agregados.reemplazar(catalogo[posicion], nuevo);
+        catalogo[posicion] = nuevo;
+        return agregados.instantanea(this::buscar);
+    }
+
+    @Benchmark
+    public EstadisticasCatalogo recalcular() {
+        return AgregadosCatalogo.calcular(Arrays.asList(catalogo)).instantanea(this::buscar);
+    }
+
+    private Entrenamiento buscar(int id) {
+        return catalogo[id - 1];
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * CLASE: FiltroBenchmark.java
+ *
+ * PROPÓSITO:
+ * Filtrar un catálogo de 1k, 100k y 1M entrenamientos: dificultad + icono
+ * (MotorFiltros), texto con prefijo (IndiceBusqueda), una búsqueda tecleada
+ * letra a letra y rango de duración (IndiceDuracion, y recorriendo el catálogo
+ * para comparar). Cada medida incluye construir el array de IDs resultante.
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FiltroBenchmark {
+
+    private static final List<String> DIFICULTADES = Arrays.asList("Media", "Alta");
+    private static final int[] ICONOS = {DatosBenchmark.ICONOS[0], DatosBenchmark.ICONOS[3]};
+
+    /** Resultados que pide la lista al buscar por texto */
+    private static final int LIMITE_BUSQUEDA = 200;
+
+    /** Lo que escribe el usuario, una búsqueda por pulsación */
+    private static final String TECLEADO = "carrera de 30";
+
+    @Param({DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private Entrenamiento[] catalogo;
+    private MotorFiltros filtros;
+    private IndiceBusqueda busqueda;
+    private IndiceDuracion duracion;
+
+    @Setup
+    public void preparar() {
+        List<Entrenamiento> entrenamientos = DatosBenchmark.generar(tamano);
+        catalogo = entrenamientos.toArray(new Entrenamiento[0]);
+        filtros = new MotorFiltros();
+        busqueda = new IndiceBusqueda();
+        duracion = new IndiceDuracion();
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            filtros.anadir(entrenamiento);
+            busqueda.anadir(entrenamiento);
+        }
+        duracion.anadirLote(entrenamientos);
+    }
+
+    @Benchmark
+    public int[] dificultadEIcono() {
+        return filtros.filtrar(DIFICULTADES, ICONOS).aArray();
+    }
+
+    @Benchmark
+    public int[] textoConPrefijo() {
+        return busqueda.buscar("carr", LIMITE_BUSQUEDA);
+    }
+
+    /**
+     * Todas las búsquedas de escribir TECLEADO: el tiempo por pulsación es este / su longitud.
+     */
+    @Benchmark
+    public int buscarMientrasSeEscribe() {
+        int encontrados = 0;
+        for (int fin = 1; fin <= TECLEADO.length(); fin++) {
+            encontrados += busqueda.buscar(TECLEADO.substring(0, fin), LIMITE_BUSQUEDA).length;
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public int[] textoYDificultad() {
+        return busqueda.buscar("yoga", LIMITE_BUSQUEDA, filtros.filtrar(DIFICULTADES, null));
+    }
+
+    @Benchmark
+    public int[] rangoDuracion() {
+        return duracion.rango(30, 45);
+    }
+
+    /**
+     * Lo mismo que rangoDuracion() sin índice: analizar el texto de cada entrenamiento.
+     */
+    @Benchmark
+    public int[] rangoRecorriendo() {
+        int[] ids = new int[catalogo.length];
+        int encontrados = 0;
+        for (Entrenamiento entrenamiento : catalogo) {
+            int minutos = AnalizadorDuracion.analizar(entrenamiento.getDuracion());
+            if (minutos >= 30 && minutos <= 45) {
+                ids[encontrados++] = entrenamiento.getId();
+            }
+        }
+        return Arrays.copyOf(ids, encontrados);
+    }
+}
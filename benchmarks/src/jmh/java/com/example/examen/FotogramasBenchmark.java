@@ -0,0 +1,57 @@
+/**
+ * CLASE: FotogramasBenchmark.java
+ *
+ * PROPÓSITO:
+ * Registrar un fotograma en RegistroFotogramas, lo que MonitorFotogramas hace
+ * en cada refresco de pantalla: un scroll con un 2 % de tirones atribuidos a
+ * la última operación del hilo principal.
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FotogramasBenchmark {
+
+    private static final long MS = 1_000_000L;
+
+    /** Duraciones distintas que se registran en bucle (potencia de 2: el cursor se enmascara) */
+    private static final int DURACIONES = 1 << 12;
+
+    private RegistroFotogramas registro;
+    private long[] duraciones;
+    private int cursor;
+    private long vsync;
+
+    @Setup
+    public void preparar() {
+        registro = new RegistroFotogramas();
+        duraciones = new long[DURACIONES];
+        Random random = new Random(7);
+        for (int i = 0; i < DURACIONES; i++) {
+            // 98 % entre 4 y 12 ms; 2 % tirones de 20 a 60 ms
+            duraciones[i] = random.nextInt(100) < 2 ? (20 + random.nextInt(40)) * MS : (4 + random.nextInt(8)) * MS;
+        }
+    }
+
+    @Benchmark
+    public void registrar() {
+        long duracion = duraciones[cursor++ & (DURACIONES - 1)];
+        if (duracion > RegistroFotogramas.PRESUPUESTO_60HZ) {
+            registro.anotarOperacion("lista.bind", vsync + MS);
+        }
+        registro.registrar("lista", vsync, duracion);
+        vsync += RegistroFotogramas.PRESUPUESTO_60HZ;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * CLASE: InsercionBenchmark.java
+ *
+ * PROPÓSITO:
+ * Coste de dar de alta UN entrenamiento en un catálogo que ya tiene 1k, 100k o
+ * 1M: en el almacén (registro de escrituras + registro nuevo + vista nueva) y
+ * en los índices en memoria (filtros, búsqueda de texto y duración).
+ *
+ * El catálogo crece durante la medida (cada llamada añade uno); con los tamaños
+ * medidos eso no cambia el orden de magnitud.
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InsercionBenchmark {
+
+    @Param({DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private File directorio;
+    private AlmacenEntrenamientos almacen;
+    private MotorFiltros filtros;
+    private IndiceBusqueda busqueda;
+    private IndiceDuracion duracion;
+
+    private final Random random = new Random(7);
+    private int siguienteId;
+
+    @Setup
+    public void preparar() throws IOException {
+        List<Entrenamiento> entrenamientos = DatosBenchmark.generar(tamano);
+        directorio = DatosBenchmark.crearDirectorio();
+        almacen = DatosBenchmark.crearAlmacen(directorio, entrenamientos);
+
+        filtros = new MotorFiltros();
+        busqueda = new IndiceBusqueda();
+        duracion = new IndiceDuracion();
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            filtros.anadir(entrenamiento);
+            busqueda.anadir(entrenamiento);
+        }
+        duracion.anadirLote(entrenamientos);
+        siguienteId = tamano + 1;
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        almacen.close();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public Entrenamiento guardarEnAlmacen() throws IOException {
+        Entrenamiento nuevo = DatosBenchmark.entrenamiento(almacen.generarNuevoId(), random);
+        almacen.guardar(nuevo);
+        return nuevo;
+    }
+
+    @Benchmark
+    public Entrenamiento anadirAIndices() {
+        Entrenamiento nuevo = DatosBenchmark.entrenamiento(siguienteId++, random);
+        filtros.anadir(nuevo);
+        busqueda.anadir(nuevo);
+        duracion.anadir(nuevo);
+        return nuevo;
+    }
+}
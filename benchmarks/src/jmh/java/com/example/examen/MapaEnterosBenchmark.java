@@ -0,0 +1,89 @@
+/**
+ * CLASE: MapaEnterosBenchmark.java
+ *
+ * PROPÓSITO:
+ * Índice ID → ranura (MapaEnteros) y secuencia de IDs (SecuenciaIds) desde 10
+ * hasta 1M entradas. Son O(1): los ns/op deben mantenerse planos (salvo efectos
+ * de caché en los tamaños grandes).
+ *
+ * - obtener: buscar una clave existente (en orden aleatorio)
+ * - poner: insertar una clave nueva; para que el mapa no crezca durante la
+ *   medida, cada llamada quita también la clave más antigua (ventana deslizante)
+ * - siguiente: pedir un ID nuevo con tantos IDs ya entregados como entradas
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapaEnterosBenchmark {
+
+    /** Claves distintas que se consultan en bucle (potencia de 2: el cursor se enmascara) */
+    private static final int CONSULTAS = 1 << 16;
+
+    @Param({"10", DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private MapaEnteros mapa;
+    private int[] claves;
+    private int cursor;
+
+    /** Clave más antigua del mapa y siguiente clave nueva (ventana [antigua, nueva)) */
+    private int antigua;
+    private int nueva;
+
+    private File directorio;
+    private SecuenciaIds secuencia;
+
+    @Setup
+    public void preparar() throws IOException {
+        mapa = new MapaEnteros();
+        for (int id = 1; id <= tamano; id++) {
+            mapa.poner(id, id);
+        }
+        antigua = 1;
+        nueva = tamano + 1;
+        claves = DatosBenchmark.idsAleatorios(tamano, CONSULTAS);
+
+        directorio = DatosBenchmark.crearDirectorio();
+        secuencia = SecuenciaIds.abrir(new File(directorio, "entrenamientos.seq"));
+        secuencia.avanzarHasta(tamano);
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        secuencia.close();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public int obtener() {
+        return mapa.obtener(claves[cursor++ & (CONSULTAS - 1)]);
+    }
+
+    @Benchmark
+    public int poner() {
+        int clave = nueva++;
+        mapa.poner(clave, clave);
+        return mapa.eliminar(antigua++);
+    }
+
+    @Benchmark
+    public int siguiente() {
+        return secuencia.siguiente();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * CLASE: MemoriaEntrenamientoBenchmark.java
+ *
+ * PROPÓSITO:
+ * Memoria por entrenamiento con 100.000 en el catálogo: modelo anterior (un
+ * String de duración y otro de dificultad propios en cada entrenamiento) frente
+ * al actual (Duracion compartida y dificultad internada).
+ *
+ * CÓMO SE MIDE:
+ * - bytes/entrenamiento: tamaño retenido del grafo de objetos (JOL), sin contar
+ *   la lista que los guarda. No depende de cuándo pase el GC: es el mismo número
+ *   en cada ejecución y se imprime al preparar cada modelo.
+ * - crear (ms/op): crear los 100.000 entrenamientos como los crea el importador,
+ *   con cada texto recién leído (sin compartir con los demás).
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+// JOL se engancha a la propia JVM para medir los objetos
+@Fork(jvmArgsAppend = "-Djdk.attach.allowAttachSelf")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemoriaEntrenamientoBenchmark {
+
+    private static final int N = 100_000;
+
+    /** Modelo que se mide: anterior (textos propios) o actual (valores compartidos) */
+    @Param({"anterior", "actual"})
+    public String modelo;
+
+    @Setup
+    public void medirMemoria() {
+        List<Object> lista = crear();
+        long total = GraphLayout.parseInstance(lista).totalSize();
+        long contenedor = GraphLayout.parseInstance(new ArrayList<>(N)).totalSize();
+        System.out.println(String.format("%n%,d entrenamientos (modelo %s): %.1f bytes/entrenamiento retenidos",
+                N, modelo, (total - contenedor) / (double) N));
+    }
+
+    @Benchmark
+    public List<Object> crear() {
+        boolean anterior = "anterior".equals(modelo);
+        List<Object> lista = new ArrayList<>(N);
+        for (int i = 0; i < N; i++) {
+            String nombre = "Entrenamiento " + i;
+            String descripcion = "Descripción " + i;
+            String duracion = (10 + i % 50) + " minutos";
+            String dificultad = copia(DatosBenchmark.DIFICULTADES[i % 3]);
+            int icono = DatosBenchmark.ICONOS[i % DatosBenchmark.ICONOS.length];
+            lista.add(anterior
+                    ? new EntrenamientoAnterior(i, nombre, descripcion, duracion, dificultad, icono)
+                    : new Entrenamiento(i, nombre, descripcion, duracion, dificultad, icono));
+        }
+        return lista;
+    }
+
+    /** String igual pero con su propio array (como el que sale de leer un fichero) */
+    private static String copia(String texto) {
+        return new String(texto.toCharArray());
+    }
+
+    /** Réplica del modelo mutable anterior: textos propios y minutos calculados aparte */
+    @SuppressWarnings("unused")
+    private static final class EntrenamientoAnterior {
+        private int id;
+        private String nombre;
+        private String descripcion;
+        private String duracion;
+        private int minutos = -2;
+        private String dificultad;
+        private int iconoResId;
+
+        EntrenamientoAnterior(int id, String nombre, String descripcion, String duracion, String dificultad, int iconoResId) {
+            this.id = id;
+            this.nombre = nombre;
+            this.descripcion = descripcion;
+            this.duracion = duracion;
+            this.dificultad = dificultad;
+            this.iconoResId = iconoResId;
+        }
+    }
+}
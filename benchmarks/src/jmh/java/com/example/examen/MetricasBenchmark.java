@@ -0,0 +1,52 @@
+/**
+ * CLASE: MetricasBenchmark.java
+ *
+ * PROPÓSITO:
+ * Lo que cuesta la instrumentación de Metricas alrededor de cada operación
+ * (iniciar + terminar + contar), desactivada (lo que paga la versión de release)
+ * y activada (histograma + contador, sin trazador).
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricasBenchmark {
+
+    private static final String NOMBRE = "benchmark.operacion";
+
+    @Param({"false", "true"})
+    public boolean activas;
+
+    @Setup
+    public void preparar() {
+        Metricas.reiniciar();
+        Metricas.setActivas(activas);
+    }
+
+    @TearDown
+    public void terminar() {
+        Metricas.setActivas(false);
+        Metricas.reiniciar();
+    }
+
+    @Benchmark
+    public long medirOperacion() {
+        long inicio = Metricas.iniciar(NOMBRE);
+        Metricas.terminar(NOMBRE, inicio);
+        Metricas.contar(NOMBRE);
+        return inicio;
+    }
+}
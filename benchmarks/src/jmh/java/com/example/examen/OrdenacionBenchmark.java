@@ -0,0 +1,65 @@
+/**
+ * CLASE: OrdenacionBenchmark.java
+ *
+ * PROPÓSITO:
+ * Catálogo ordenado por duración con 1k, 100k y 1M entrenamientos:
+ * - leerIndice: el orden que ya mantiene IndiceDuracion (solo copia los IDs)
+ * - construirIndice: crear el índice desde cero con anadirLote() (una ordenación)
+ * - ordenarLista: lo que costaría sin índice (copiar la lista y ordenarla por minutos)
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrdenacionBenchmark {
+
+    private static final Comparator<Entrenamiento> POR_MINUTOS =
+            Comparator.comparingInt(Entrenamiento::getMinutos).thenComparingInt(Entrenamiento::getId);
+
+    @Param({DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private List<Entrenamiento> entrenamientos;
+    private IndiceDuracion duracion;
+
+    @Setup
+    public void preparar() {
+        entrenamientos = DatosBenchmark.generar(tamano);
+        duracion = new IndiceDuracion();
+        duracion.anadirLote(entrenamientos);
+    }
+
+    @Benchmark
+    public int[] leerIndice() {
+        return duracion.ordenados();
+    }
+
+    @Benchmark
+    public IndiceDuracion construirIndice() {
+        IndiceDuracion indice = new IndiceDuracion();
+        indice.anadirLote(entrenamientos);
+        return indice;
+    }
+
+    @Benchmark
+    public List<Entrenamiento> ordenarLista() {
+        List<Entrenamiento> copia = new ArrayList<>(entrenamientos);
+        copia.sort(POR_MINUTOS);
+        return copia;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * CLASE: RutaBenchmark.java
+ *
+ * PROPÓSITO:
+ * Simplificar una ruta GPS sintética de 10k y 100k puntos en todos los niveles
+ * de detalle (SimplificadorRuta), y lo que hace VistaRuta en cada cambio de
+ * tamaño: elegir nivel y recorrer sus puntos.
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RutaBenchmark {
+
+    /** Metros por píxel de una ruta de ~10 km en una vista de 1000 px */
+    private static final double METROS_POR_PIXEL = 10;
+
+    private static final int MAXIMO_PUNTOS = 1000;
+
+    @Param({"10000", "100000"})
+    public int puntos;
+
+    private int[] latitudes;
+    private int[] longitudes;
+    private RutaSimplificada simplificada;
+
+    /**
+     * Corredor a ~3 m/s que cambia poco a poco de rumbo, con ruido de GPS.
+     */
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        latitudes = new int[puntos];
+        longitudes = new int[puntos];
+        double latitud = 40.4168;
+        double longitud = -3.7038;
+        double rumbo = 0;
+        for (int i = 0; i < puntos; i++) {
+            rumbo += aleatorio.nextGaussian() * 0.1;
+            double metros = 3 + aleatorio.nextGaussian() * 0.3;
+            latitud += Math.cos(rumbo) * metros / 111_320 + aleatorio.nextGaussian() * 1e-6;
+            longitud += Math.sin(rumbo) * metros / (111_320 * Math.cos(Math.toRadians(latitud)));
+            latitudes[i] = (int) Math.round(latitud * 1e7);
+            longitudes[i] = (int) Math.round(longitud * 1e7);
+        }
+        simplificada = simplificar();
+    }
+
+    @Benchmark
+    public RutaSimplificada simplificar() {
+        SimplificadorRuta simplificador = new SimplificadorRuta();
+        for (int i = 0; i < puntos; i++) {
+            simplificador.anadir(latitudes[i], longitudes[i]);
+        }
+        return simplificador.terminar();
+    }
+
+    @Benchmark
+    public long elegirNivelYRecorrer() {
+        int nivel = simplificada.nivelPara(METROS_POR_PIXEL, MAXIMO_PUNTOS);
+        long suma = 0;
+        for (int i = 0; i < simplificada.getPuntos(nivel); i++) {
+            suma += simplificada.getLatitudE7(nivel, i) + simplificada.getLongitudE7(nivel, i);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * CLASE: SerializacionBenchmark.java
+ *
+ * PROPÓSITO:
+ * Serializar el catálogo completo (1k, 100k y 1M entrenamientos):
+ * - codificar / decodificar: formato binario del almacén (CodecEntrenamiento)
+ * - codificarJsonIngenuo: la referencia, un String JSON por entrenamiento con
+ *   todos sus campos tal cual, unidos en un único String y pasado a UTF-8
+ * - exportarCsv / exportarJson: ExportadorEntrenamientos hacia un canal que
+ *   descarta los bytes (se mide la conversión, no el disco)
+ *
+ * TAMAÑO:
+ * Al preparar cada tamaño se imprimen los bytes por entrenamiento del formato
+ * binario y del JSON ingenuo (no dependen del tiempo: son iguales en cada ejecución).
+ */
+package com.example.examen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializacionBenchmark {
+
+    @Param({DatosBenchmark.TAMANO_1K, DatosBenchmark.TAMANO_100K, DatosBenchmark.TAMANO_1M})
+    public int tamano;
+
+    private List<Entrenamiento> entrenamientos;
+    private CodecEntrenamiento codec;
+    private ByteBuffer codificados;
+    private File directorio;
+    private AlmacenEntrenamientos almacen;
+    private final PoolBuffers pool = new PoolBuffers(PoolBuffers.TAMANO_BUFFER, 1);
+    private Map<Integer, String> nombresIconos;
+
+    @Setup
+    public void preparar() throws IOException {
+        entrenamientos = DatosBenchmark.generar(tamano);
+        codec = new CodecEntrenamiento();
+        for (String dificultad : DatosBenchmark.DIFICULTADES) {
+            codec.registrarDificultad(dificultad);
+        }
+        nombresIconos = new HashMap<>();
+        for (int icono : DatosBenchmark.ICONOS) {
+            codec.registrarIcono(icono);
+            nombresIconos.put(icono, "Icono " + icono);
+        }
+
+        int bytes = 0;
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            bytes += codec.tamanoMaximo(entrenamiento);
+        }
+        codificados = ByteBuffer.allocate(bytes);
+        double binario = codificar() / (double) tamano;
+        double json = codificarJsonIngenuo() / (double) tamano;
+        System.out.println(String.format("%n%,d entrenamientos: %.1f bytes/entrenamiento en binario, %.1f en JSON ingenuo (%.1fx)",
+                tamano, binario, json, json / binario));
+
+        directorio = DatosBenchmark.crearDirectorio();
+        almacen = DatosBenchmark.crearAlmacen(directorio, entrenamientos);
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        almacen.close();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public int codificar() {
+        codificados.clear();
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            codec.codificar(entrenamiento, codificados);
+        }
+        return codificados.position();
+    }
+
+    @Benchmark
+    public void decodificar(Blackhole agujero) {
+        ByteBuffer origen = codificados.duplicate();
+        origen.flip();
+        while (origen.hasRemaining()) {
+            agujero.consume(codec.decodificar(origen));
+        }
+    }
+
+    /**
+     * @return Bytes del catálogo en JSON ingenuo
+     */
+    @Benchmark
+    public int codificarJsonIngenuo() {
+        StringBuilder json = new StringBuilder("[");
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(jsonIngenuo(entrenamiento));
+        }
+        json.append(']');
+        return json.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public int exportarCsv() throws IOException {
+        return new ExportadorEntrenamientos(nombresIconos, pool)
+                .exportar(almacen, ExportadorEntrenamientos.Formato.CSV, new CanalNulo(), null);
+    }
+
+    @Benchmark
+    public int exportarJson() throws IOException {
+        return new ExportadorEntrenamientos(nombresIconos, pool)
+                .exportar(almacen, ExportadorEntrenamientos.Formato.JSON, new CanalNulo(), null);
+    }
+
+    /** Un objeto JSON con los campos del entrenamiento, como lo escribiría un serializador genérico */
+    private static String jsonIngenuo(Entrenamiento entrenamiento) {
+        return "{\"id\":" + entrenamiento.getId()
+                + ",\"nombre\":" + textoJson(entrenamiento.getNombre())
+                + ",\"descripcion\":" + textoJson(entrenamiento.getDescripcion())
+                + ",\"duracion\":" + textoJson(entrenamiento.getDuracion())
+                + ",\"dificultad\":" + textoJson(entrenamiento.getDificultad())
+                + ",\"iconoResId\":" + entrenamiento.getIconoResId() + "}";
+    }
+
+    private static String textoJson(String texto) {
+        return "\"" + texto.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Canal que acepta y descarta todo lo que se escribe.
+     */
+    private static final class CanalNulo implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer origen) {
+            int bytes = origen.remaining();
+            origen.position(origen.limit());
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,16 @@
+// Módulo core: modelo, almacén, índices e importación/exportación en Java puro.
+// Sin dependencias de Android: lo usan la app y los benchmarks JMH.
+plugins {
+    `java-library`
+    // EntrenamientosPrueba (src/testFixtures) la comparten los tests de core y de la app
+    `java-test-fixtures`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,160 @@
+/**
+ * CLASE: AgregadosCatalogo.java
+ *
+ * PROPÓSITO:
+ * Estadísticas del catálogo MATERIALIZADAS: los totales por dificultad y por
+ * icono y los extremos de duración se guardan ya calculados y se corrigen con
+ * cada alta, edición o baja. Pedir las estadísticas (EstadisticasCatalogo) ya
+ * no recorre los 100.000 entrenamientos cada vez que se abre la pantalla.
+ *
+ * COSTE DE CADA ESCRITURA:
+ * - Totales por dificultad y por icono: O(1) (sumar o restar en un HashMap)
+ * - Más corto / más largo: O(log n) en un TreeSet de claves (minutos, id).
+ *   Para poder quitar cualquier entrenamiento hace falta un orden; un simple
+ *   "mínimo hasta ahora" no sabría cuál es el siguiente al borrar el mínimo
+ * - Una edición es quitar la versión anterior y añadir la nueva
+ *
+ * MEMORIA:
+ * Un long por entrenamiento con duración (el TreeSet); lo demás es un total
+ * por dificultad y por icono. Los extremos se guardan como ID y se leen del
+ * repositorio al construir la EstadisticasCatalogo.
+ *
+ * HILOS:
+ * No es thread-safe: CatalogoEntrenamientos lo usa solo desde su hilo de
+ * escrituras (el mismo que mantiene los índices secundarios).
+ *
+ * COMPROBACIÓN:
+ * calcular() recalcula todo desde cero recorriendo los entrenamientos; los tests
+ * comparan ese resultado con el incremental después de miles de cambios.
+ */
+package com.example.examen;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+/**
+ * Totales por dificultad e icono y extremos de duración, mantenidos en cada escritura.
+ */
+public class AgregadosCatalogo {
+
+    // ==================== ATRIBUTOS ====================
+
+    private int total;
+    private int sinDuracion;
+
+    /** Dificultad → {cantidad, con duración, minutos} */
+    private final Map<String, long[]> porDificultad = new HashMap<>();
+
+    /** iconoResId → cantidad */
+    private final Map<Integer, Integer> porIcono = new HashMap<>();
+
+    /** (minutos << 32) | id de cada entrenamiento con duración, ordenadas */
+    private final TreeSet<Long> porDuracion = new TreeSet<>();
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    /**
+     * Recalcula todo desde cero (construcción inicial y comprobación en tests).
+     *
+     * @param entrenamientos Todos los entrenamientos del catálogo
+     * @return Agregados de esos entrenamientos
+     */
+    public static AgregadosCatalogo calcular(Iterable<Entrenamiento> entrenamientos) {
+        AgregadosCatalogo agregados = new AgregadosCatalogo();
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            agregados.anadir(entrenamiento);
+        }
+        return agregados;
+    }
+
+    // ==================== CAMBIOS ====================
+
+    /**
+     * Cuenta un entrenamiento nuevo.
+     */
+    public void anadir(Entrenamiento entrenamiento) {
+        sumar(entrenamiento, 1);
+    }
+
+    /**
+     * Descuenta un entrenamiento que se ha eliminado.
+     *
+     * @param entrenamiento La versión que había guardada
+     */
+    public void eliminar(Entrenamiento entrenamiento) {
+        sumar(entrenamiento, -1);
+    }
+
+    /**
+     * Guardar con un ID que ya existía: cambia la versión anterior por la nueva.
+     *
+     * @param anterior Versión guardada hasta ahora (null si el ID es nuevo)
+     * @param nuevo Versión que se acaba de guardar
+     */
+    public void reemplazar(Entrenamiento anterior, Entrenamiento nuevo) {
+        if (anterior != null) {
+            eliminar(anterior);
+        }
+        anadir(nuevo);
+    }
+
+    private void sumar(Entrenamiento entrenamiento, int signo) {
+        total += signo;
+        int minutos = entrenamiento.getMinutos();
+        boolean conDuracion = minutos != AnalizadorDuracion.SIN_DURACION;
+        if (!conDuracion) {
+            sinDuracion += signo;
+        }
+
+        long[] dificultad = porDificultad.computeIfAbsent(entrenamiento.getDificultad(), d -> new long[3]);
+        dificultad[0] += signo;
+        if (conDuracion) {
+            dificultad[1] += signo;
+            dificultad[2] += (long) signo * minutos;
+        }
+        if (dificultad[0] == 0) {
+            porDificultad.remove(entrenamiento.getDificultad());
+        }
+
+        // merge() quita la entrada cuando el resultado es null (el último de ese icono)
+        porIcono.merge(entrenamiento.getIconoResId(), signo, (a, b) -> a + b == 0 ? null : a + b);
+
+        if (conDuracion) {
+            long clave = clave(minutos, entrenamiento.getId());
+            if (signo > 0) {
+                porDuracion.add(clave);
+            } else {
+                porDuracion.remove(clave);
+            }
+        }
+    }
+
+    private static long clave(int minutos, int id) {
+        return (long) minutos << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    // ==================== CONSULTAS ====================
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Foto de las estadísticas actuales. Solo copia los totales: O(dificultades + iconos).
+     *
+     * @param buscarPorId Lee un entrenamiento por ID (para el más corto y el más largo)
+     * @return Estadísticas inmutables
+     */
+    public EstadisticasCatalogo instantanea(IntFunction<Entrenamiento> buscarPorId) {
+        Map<String, EstadisticasCatalogo.Dificultad> dificultades = new HashMap<>();
+        for (Map.Entry<String, long[]> entrada : porDificultad.entrySet()) {
+            long[] d = entrada.getValue();
+            dificultades.put(entrada.getKey(), new EstadisticasCatalogo.Dificultad((int) d[0], (int) d[1], d[2]));
+        }
+        Entrenamiento masCorto = porDuracion.isEmpty() ? null : buscarPorId.apply((int) (long) porDuracion.first());
+        Entrenamiento masLargo = porDuracion.isEmpty() ? null : buscarPorId.apply((int) (long) porDuracion.last());
+        return new EstadisticasCatalogo(total, sinDuracion, dificultades, porIcono, masCorto, masLargo);
+    }
+}
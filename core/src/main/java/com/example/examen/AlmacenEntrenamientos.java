@@ -0,0 +1,941 @@
+/**
+ * CLASE: AlmacenEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Motor de almacenamiento persistente para los entrenamientos.
+ * Sustituye a la antigua lista estática en memoria de ListaEntrenamientosFragment,
+ * que se perdía cada vez que Android mataba el proceso.
+ *
+ * FORMATO DEL FICHERO (append-only):
+ * ┌──────────────────────┐
+ * │ Cabecera (8 bytes)   │ ← MAGIA + VERSION
+ * ├──────────────────────┤
+ * │ Registro 1           │ ← [longitud:varint][tipo:byte][datos...]
+ * │ Registro 2           │
+ * │ ...                  │
+ * └──────────────────────┘
+ *
+ * - Nunca se modifica un registro ya escrito: solo se añaden al final
+ * - Editar = añadir una nueva versión (tipo ALTA con el mismo ID)
+ * - Eliminar = añadir una marca de borrado (tipo BAJA)
+ * - Los datos de un ALTA van en el formato binario de CodecEntrenamiento
+ * - Antes del primer ALTA que usa una dificultad o un icono nuevo se escribe
+ *   un registro DIFICULTAD / ICONO que amplía el diccionario del codec
+ *
+ * ARRANQUE EN FRÍO:
+ * El fichero se lee con un MappedByteBuffer (memory-mapping). Al abrir solo se
+ * recorren las cabeceras de los registros para construir el índice ID → posición;
+ * los textos NO se decodifican hasta que alguien pide ese entrenamiento.
+ * Así reabrir un almacén con decenas de miles de entrenamientos tarda milisegundos.
+ *
+ * ÍNDICE EN MEMORIA (VistaEntrenamientos):
+ * - VectorPersistente: ranura → ID
+ * - MapaPersistente: ID → ranura, e ID → posición del registro vigente en el fichero
+ * Las ranuras conservan el orden de inserción, que es el orden de la lista.
+ * Una baja deja una ranura borrada (lápida) en vez de desplazar las siguientes;
+ * la vista sabe qué ranura es el entrenamiento N sin recorrer las anteriores, así
+ * obtenerRango() lee una página directamente (ver VistaEntrenamientos).
+ *
+ * LECTURAS SIN CANDADOS:
+ * El índice es inmutable: cada escritura crea una VistaEntrenamientos nueva (copia
+ * por ruta) y la publica con una sola asignación volatile. Las lecturas toman la
+ * vista actual y NO se sincronizan: nunca esperan a una escritura (ni a un lote de
+ * importación, ni a un punto de control) y nunca ven un estado a medias.
+ * Solo las escrituras se serializan entre sí (synchronized).
+ * Los IDs nuevos los entrega SecuenciaIds (fichero ".seq" junto al almacén).
+ *
+ * RECUPERACIÓN:
+ * Si la app muere a mitad de una escritura, el último registro queda incompleto.
+ * Al abrir se detecta (la longitud no cabe en el fichero) y se recorta.
+ *
+ * DURABILIDAD (RegistroEscrituras, fichero ".wal"):
+ * Cada guardar/guardarLote/eliminar se aplica primero al almacén y después escribe
+ * su registro lógico en el registro de escrituras, todo con el mismo candado. Si
+ * cualquiera de los dos pasos falla, lo escrito en el almacén se deshace (se recorta)
+ * y el ".wal" no se toca: al abrir nunca se reproduce una escritura que falló.
+ * Como un punto de control también necesita el candado, nunca sincroniza un
+ * registro del almacén que no esté ya en el ".wal". El fsync del ".wal" lo hace
+ * su propio hilo, agrupando en uno solo todas las escrituras que llegan mientras
+ * tanto. El almacén solo se sincroniza en cada punto de control (al cerrar o cuando
+ * el ".wal" supera LIMITE_REGISTRO), y justo después se vacía el ".wal". Al abrir se
+ * reproduce lo que quede en él: exactamente lo escrito desde el último punto de
+ * control, que puede no estar en el almacén.
+ *
+ * NADA ES VISIBLE ANTES DE SER DURABLE:
+ * Una escritura aplicada se queda en "ultima" (y en la cola de pendientes) hasta
+ * que el fsync del ".wal" cubre su LSN; solo entonces se publica como "vista".
+ * guardar() y eliminar() esperan a eso antes de retornar, pero FUERA del candado:
+ * mientras esperan, otros hilos siguen escribiendo y comparten el mismo fsync.
+ * guardarSinConfirmar() + confirmar() dejan agrupar varias escrituras de un mismo
+ * hilo en una sola espera. Si el fsync falla, confirmar() lanza la IOException y
+ * esas escrituras no llegan a verse (ni a confirmarse a nadie).
+ *
+ * QUÉ SE GARANTIZA Y QUÉ NO:
+ * - guardar*()/eliminar*() lanzan una excepción: la escritura no está en el almacén
+ *   ni en el ".wal"; no aparece nunca, tampoco al reabrir
+ * - Retornan una marca y confirmar() aún no ha retornado: nadie la ve; si el
+ *   proceso o el sistema caen ahora, tras reabrir puede estar o no
+ * - confirmar() lanza una excepción (fsync fallido): no se ve en esta sesión, pero
+ *   sus bytes pudieron llegar al disco, así que tras reabrir puede aparecer
+ * - confirmar() retorna: está en disco (".wal") y es visible; sobrevive a la caída
+ *   del proceso y del sistema
+ *
+ * EXPORTACIÓN NATIVA:
+ * exportarCabecera() + exportarRegistros() escriben un almacén compactado (solo
+ * la última versión de cada entrenamiento, sin BAJAs) que abrir() acepta tal cual.
+ * Los registros ALTA se copian SIN decodificar, fichero a fichero con
+ * FileChannel.transferTo (el núcleo copia los bytes sin pasar por el heap de Java).
+ */
+package com.example.examen;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementación de RepositorioEntrenamientos sobre un fichero append-only mapeado en memoria.
+ */
+public class AlmacenEntrenamientos implements RepositorioEntrenamientos {
+
+    // ==================== CONSTANTES ====================
+
+    /** Identifica el fichero como un almacén de entrenamientos ("EXMN") */
+    private static final int MAGIA = 0x45584D4E;
+
+    /** Versión del formato de los registros (2 = registros codificados con CodecEntrenamiento) */
+    private static final int VERSION = 2;
+
+    /** Tamaño de la cabecera del fichero: MAGIA + VERSION */
+    private static final int TAMANO_CABECERA = 8;
+
+    /** Tamaño máximo de la cabecera de cada registro: longitud (varint) + tipo (byte) */
+    private static final int CABECERA_REGISTRO_MAX = Varint.MAX_BYTES + 1;
+
+    /** Registro con los datos completos de un entrenamiento (alta o edición) */
+    private static final byte TIPO_ALTA = 1;
+
+    /** Registro que marca un entrenamiento como eliminado */
+    private static final byte TIPO_BAJA = 2;
+
+    /** Registro que añade una dificultad al diccionario del codec */
+    private static final byte TIPO_DIFICULTAD = 3;
+
+    /** Registro que añade un icono al diccionario del codec */
+    private static final byte TIPO_ICONO = 4;
+
+    /** Tamaño del registro de escrituras a partir del cual se hace un punto de control */
+    static final long LIMITE_REGISTRO = 1024 * 1024;
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Canal del fichero, abierto en lectura/escritura */
+    private final FileChannel canal;
+
+    /**
+     * Vista mapeada del fichero (puede quedarse corta tras nuevas escrituras).
+     * La sustituye quien necesite leer más allá (cualquier hilo), nunca se modifica.
+     */
+    private volatile MappedByteBuffer mapa;
+
+    /** Tamaño lógico del fichero: posición donde se escribirá el próximo registro */
+    private long tamano;
+
+    /** Índice publicado (solo cambios durables): los lectores lo leen sin candado */
+    private volatile VistaEntrenamientos vista;
+
+    /** Índice con todo lo escrito, durable o no (solo con el candado de escritura) */
+    private VistaEntrenamientos ultima;
+
+    /** Índices escritos que esperan a que su LSN sea durable, en orden de LSN */
+    private final ArrayDeque<Pendiente> pendientes = new ArrayDeque<>();
+
+    /** Generador persistente de IDs nuevos */
+    private final SecuenciaIds secuencia;
+
+    /** Codec de los registros ALTA; sus diccionarios se reconstruyen al abrir */
+    private final CodecEntrenamiento codec = new CodecEntrenamiento();
+
+    /** Registro de escritura anticipada (fichero + ".wal") */
+    private RegistroEscrituras registro;
+
+    /** Tamaño del registro de escrituras que dispara un punto de control */
+    private final long limiteRegistro;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    private AlmacenEntrenamientos(FileChannel canal, SecuenciaIds secuencia, long limiteRegistro) {
+        this.canal = canal;
+        this.secuencia = secuencia;
+        this.limiteRegistro = limiteRegistro;
+    }
+
+    /**
+     * Abre (o crea si no existe) un almacén de entrenamientos.
+     *
+     * FLUJO:
+     * 1. Si el fichero es nuevo, escribe la cabecera
+     * 2. Mapea el fichero completo en memoria
+     * 3. Recorre las cabeceras de los registros para construir el índice
+     * 4. Recorta un posible registro incompleto al final
+     * 5. Abre la secuencia de IDs (fichero + ".seq")
+     * 6. Reproduce el registro de escrituras (fichero + ".wal") y hace un punto de control
+     *
+     * @param fichero Fichero donde se guardan los entrenamientos
+     * @return Almacén listo para usar
+     * @throws IOException Si el fichero no se puede abrir o no es un almacén válido
+     */
+    public static AlmacenEntrenamientos abrir(File fichero) throws IOException {
+        return abrir(fichero, LIMITE_REGISTRO);
+    }
+
+    /**
+     * @param limiteRegistro Tamaño del ".wal" que dispara un punto de control (para pruebas)
+     */
+    static AlmacenEntrenamientos abrir(File fichero, long limiteRegistro) throws IOException {
+        SecuenciaIds secuencia = SecuenciaIds.abrir(new File(fichero.getPath() + ".seq"));
+        FileChannel canal;
+        try {
+            canal = new RandomAccessFile(fichero, "rw").getChannel();
+        } catch (IOException e) {
+            secuencia.close();
+            throw e;
+        }
+        AlmacenEntrenamientos almacen = new AlmacenEntrenamientos(canal, secuencia, limiteRegistro);
+        try {
+            almacen.cargar();
+            almacen.registro = RegistroEscrituras.abrir(
+                    new File(fichero.getPath() + ".wal"), almacen::reproducir);
+            if (almacen.registro.getReproducidos() > 0) {
+                almacen.puntoControl();
+            }
+            // Lo reproducido ya estaba en el ".wal" del disco
+            almacen.vista = almacen.ultima;
+        } catch (IOException | RuntimeException e) {
+            cerrarSinError(almacen.registro);
+            canal.close();
+            secuencia.close();
+            throw e;
+        }
+        return almacen;
+    }
+
+    private static void cerrarSinError(Closeable recurso) {
+        if (recurso != null) {
+            try {
+                recurso.close();
+            } catch (IOException ignorada) {
+                // Ya se está propagando el error original
+            }
+        }
+    }
+
+    private void cargar() throws IOException {
+        if (canal.size() < TAMANO_CABECERA) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGIA).putInt(VERSION).flip();
+            canal.truncate(0);
+            canal.write(cabecera, 0);
+        }
+
+        tamano = canal.size();
+        MappedByteBuffer mapa = mapear(tamano);
+
+        if (mapa.getInt(0) != MAGIA || mapa.getInt(4) != VERSION) {
+            throw new IOException("El fichero no es un almacén de entrenamientos válido");
+        }
+
+        // Solo se leen longitud, tipo e ID de cada registro (sin decodificar textos)
+        IndiceCarga indice = new IndiceCarga();
+        int maxId = 0;
+        int posicion = TAMANO_CABECERA;
+        int fin = (int) Math.min(tamano, Integer.MAX_VALUE);
+        while (posicion < fin) {
+            long cabecera = Varint.leerEn(mapa, posicion, fin);
+            if (cabecera < 0) {
+                break; // Cabecera incompleta: la app murió a mitad de una escritura
+            }
+            int longitud = (int) cabecera;
+            int inicioTipo = posicion + (int) (cabecera >>> 32);
+            if (longitud < 1 || (long) inicioTipo + 1 + longitud > fin) {
+                break; // Registro incompleto
+            }
+
+            byte tipo = mapa.get(inicioTipo);
+            int inicioDatos = inicioTipo + 1;
+
+            if (tipo == TIPO_ALTA || tipo == TIPO_BAJA) {
+                int id = (int) Varint.leerEn(mapa, inicioDatos, inicioDatos + longitud);
+                if (tipo == TIPO_ALTA) {
+                    indice.indexar(id, posicion);
+                } else {
+                    indice.desindexar(id);
+                }
+                maxId = Math.max(maxId, id);
+            } else if (tipo == TIPO_DIFICULTAD) {
+                byte[] texto = new byte[longitud];
+                ByteBuffer lector = mapa.duplicate();
+                lector.position(inicioDatos);
+                lector.get(texto);
+                codec.registrarDificultad(new String(texto, StandardCharsets.UTF_8));
+            } else if (tipo == TIPO_ICONO) {
+                codec.registrarIcono((int) Varint.leerEn(mapa, inicioDatos, inicioDatos + longitud));
+            }
+
+            posicion = inicioDatos + longitud;
+        }
+
+        // Descartar la cola corrupta para que la próxima escritura empiece en un punto válido
+        if (posicion < tamano) {
+            canal.truncate(posicion);
+            tamano = posicion;
+            mapear(tamano); // el mapa viejo cubriría bytes que ya no existen
+        }
+
+        vista = indice.construirVista(this, tamano);
+        ultima = vista;
+
+        // Un almacén escrito antes de existir la secuencia (o sin ".seq") no debe repetir IDs
+        secuencia.avanzarHasta(maxId);
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Versión actual del índice. No bloquea nunca: se puede llamar desde cualquier hilo
+     * y seguir usando la vista aunque después lleguen escrituras.
+     *
+     * @return Vista inmutable del catálogo
+     */
+    @Override
+    public VistaEntrenamientos getVista() {
+        return vista;
+    }
+
+    @Override
+    public List<Entrenamiento> obtenerTodos() {
+        return vista.obtenerTodos();
+    }
+
+    @Override
+    public List<Entrenamiento> obtenerRango(int desde, int cantidad) {
+        return vista.obtenerRango(desde, cantidad);
+    }
+
+    @Override
+    public Entrenamiento obtenerPorId(int id) {
+        return vista.obtenerPorId(id);
+    }
+
+    @Override
+    public int contar() {
+        return vista.contar();
+    }
+
+    /**
+     * Reserva un ID nuevo en la secuencia persistente. O(1).
+     */
+    @Override
+    public int generarNuevoId() {
+        return secuencia.siguiente();
+    }
+
+    /**
+     * Decodifica el registro ALTA que empieza en la posición indicada.
+     * Sin candados: el registro ya no cambia y el codec solo amplía sus diccionarios
+     * sustituyéndolos (ver CodecEntrenamiento).
+     *
+     * @param posicion Posición del registro en el fichero
+     * @param tamanoVista Bytes del fichero que cubre la vista que pide el registro
+     * @return Entrenamiento guardado en ese registro
+     */
+    Entrenamiento leerRegistro(int posicion, long tamanoVista) {
+        ByteBuffer lector = mapaQueCubre(posicion, tamanoVista).duplicate();
+        lector.position(posicion);
+        Varint.leer(lector); // longitud
+        lector.get();        // tipo
+
+        return codec.decodificar(lector);
+    }
+
+    /**
+     * Retorna un mapa que contiene la posición, volviendo a mapear (hasta tamanoVista)
+     * si el registro se escribió después del último mapeo. Puede llamarse desde
+     * varios hilos a la vez: en el peor caso se mapea dos veces.
+     */
+    private MappedByteBuffer mapaQueCubre(int posicion, long tamanoVista) {
+        MappedByteBuffer actual = mapa;
+        if (posicion < actual.capacity()) {
+            return actual;
+        }
+        try {
+            return mapear(tamanoVista);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo mapear el almacén", e);
+        }
+    }
+
+    private MappedByteBuffer mapear(long bytes) throws IOException {
+        MappedByteBuffer nuevo = canal.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+        mapa = nuevo;
+        return nuevo;
+    }
+
+    // ==================== ESCRITURA ====================
+
+    @Override
+    public void guardar(Entrenamiento entrenamiento) throws IOException {
+        confirmar(guardarSinConfirmar(entrenamiento));
+    }
+
+    @Override
+    public synchronized long guardarSinConfirmar(Entrenamiento entrenamiento) throws IOException {
+        ByteBuffer carga = cargaAlta(entrenamiento);
+        VistaEntrenamientos anterior = ultima;
+        int posicion = aplicarAlta(entrenamiento);
+        return registrar(carga, posicion, anterior);
+    }
+
+    /**
+     * @return Posición del registro ALTA (los de diccionario, si hacen falta, van antes)
+     */
+    private int aplicarAlta(Entrenamiento entrenamiento) throws IOException {
+        asegurarDiccionario(entrenamiento);
+
+        ByteBuffer datos = ByteBuffer.allocate(codec.tamanoMaximo(entrenamiento));
+        codec.codificar(entrenamiento, datos);
+        datos.flip();
+
+        int posicion = anadirRegistro(TIPO_ALTA, datos);
+        ultima = ultima.conAlta(entrenamiento.getId(), posicion, tamano);
+        secuencia.avanzarHasta(entrenamiento.getId());
+        return posicion;
+    }
+
+    /**
+     * Codifica todo el lote en un único buffer y lo escribe con una sola llamada al canal
+     * (en lugar de una escritura por entrenamiento). Los lectores ven el lote entero
+     * o nada: la vista nueva se publica una sola vez, cuando el lote es durable.
+     */
+    @Override
+    public void guardarLote(List<Entrenamiento> entrenamientos) throws IOException {
+        confirmar(guardarLoteSinConfirmar(entrenamientos));
+    }
+
+    private synchronized long guardarLoteSinConfirmar(List<Entrenamiento> entrenamientos) throws IOException {
+        List<ByteBuffer> cargas = new ArrayList<>(entrenamientos.size());
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            cargas.add(cargaAlta(entrenamiento));
+        }
+
+        // Los registros de diccionario tienen que quedar antes que los ALTA que los usan
+        int tamanoLote = 0;
+        int tamanoMayor = 0;
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            asegurarDiccionario(entrenamiento);
+            int tamanoMaximo = codec.tamanoMaximo(entrenamiento);
+            tamanoLote += CABECERA_REGISTRO_MAX + tamanoMaximo;
+            tamanoMayor = Math.max(tamanoMayor, tamanoMaximo);
+        }
+
+        // Cada entrenamiento se codifica en "datos" y se copia al lote tras su cabecera
+        ByteBuffer lote = ByteBuffer.allocate(tamanoLote);
+        ByteBuffer datos = ByteBuffer.allocate(tamanoMayor);
+        int[] desplazamientos = new int[entrenamientos.size()];
+        for (int i = 0; i < entrenamientos.size(); i++) {
+            datos.clear();
+            codec.codificar(entrenamientos.get(i), datos);
+            datos.flip();
+
+            desplazamientos[i] = lote.position();
+            Varint.escribir(lote, datos.remaining());
+            lote.put(TIPO_ALTA).put(datos);
+        }
+        lote.flip();
+
+        int inicio = anadirAlFinal(lote);
+        VistaEntrenamientos anterior = ultima;
+        VistaEntrenamientos nueva = ultima;
+        for (int i = 0; i < entrenamientos.size(); i++) {
+            Entrenamiento entrenamiento = entrenamientos.get(i);
+            nueva = nueva.conAlta(entrenamiento.getId(), inicio + desplazamientos[i], tamano);
+            secuencia.avanzarHasta(entrenamiento.getId());
+        }
+        ultima = nueva;
+        return registrar(cargas, inicio, anterior);
+    }
+
+    @Override
+    public boolean eliminar(int id) throws IOException {
+        long marca = eliminarSinConfirmar(id);
+        confirmar(marca);
+        return marca != SIN_CAMBIOS;
+    }
+
+    @Override
+    public synchronized long eliminarSinConfirmar(int id) throws IOException {
+        if (!ultima.contiene(id)) {
+            return SIN_CAMBIOS;
+        }
+
+        ByteBuffer carga = ByteBuffer.allocate(1 + Varint.MAX_BYTES);
+        carga.put(TIPO_BAJA);
+        Varint.escribir(carga, id);
+        carga.flip();
+
+        VistaEntrenamientos anterior = ultima;
+        int posicion = aplicarBaja(id);
+        return registrar(carga, posicion, anterior);
+    }
+
+    /**
+     * @return Posición del registro BAJA
+     */
+    private int aplicarBaja(int id) throws IOException {
+        ByteBuffer datos = ByteBuffer.allocate(Varint.MAX_BYTES);
+        Varint.escribir(datos, id);
+        datos.flip();
+
+        int posicion = anadirRegistro(TIPO_BAJA, datos);
+        ultima = ultima.conBaja(id, tamano);
+        return posicion;
+    }
+
+    /**
+     * Escribe en el ".wal" la escritura que ya se aplicó al almacén a partir de
+     * "posicion". Si el ".wal" falla, la deshace: ni almacén ni ".wal" la conservan.
+     *
+     * @param anterior Índice "ultima" de antes de aplicarla
+     * @return LSN de la escritura (la marca para confirmar())
+     */
+    private long registrar(ByteBuffer carga, int posicion, VistaEntrenamientos anterior) throws IOException {
+        return registrar(Collections.singletonList(carga), posicion, anterior);
+    }
+
+    private long registrar(List<ByteBuffer> cargas, int posicion, VistaEntrenamientos anterior) throws IOException {
+        long lsn;
+        try {
+            lsn = registro.anadir(cargas);
+        } catch (IOException | RuntimeException e) {
+            ultima = anterior;
+            recortar(posicion);
+            throw e;
+        }
+        return pendiente(lsn);
+    }
+
+    /**
+     * Escribe los registros de diccionario que falten para poder codificar el entrenamiento.
+     * Se escriben ANTES que el ALTA para que al reabrir el código ya esté definido.
+     */
+    private void asegurarDiccionario(Entrenamiento entrenamiento) throws IOException {
+        String dificultad = entrenamiento.getDificultad() != null ? entrenamiento.getDificultad() : "";
+        if (codec.codigoDificultad(dificultad) < 0) {
+            anadirRegistro(TIPO_DIFICULTAD, ByteBuffer.wrap(dificultad.getBytes(StandardCharsets.UTF_8)));
+            codec.registrarDificultad(dificultad);
+        }
+
+        int iconoResId = entrenamiento.getIconoResId();
+        if (codec.codigoIcono(iconoResId) < 0) {
+            ByteBuffer datos = ByteBuffer.allocate(Varint.MAX_BYTES);
+            Varint.escribir(datos, iconoResId);
+            datos.flip();
+            anadirRegistro(TIPO_ICONO, datos);
+            codec.registrarIcono(iconoResId);
+        }
+    }
+
+    /**
+     * Añade la cabecera (longitud + tipo) a los datos y los escribe al final del fichero.
+     *
+     * @return Posición donde empieza el registro
+     */
+    private int anadirRegistro(byte tipo, ByteBuffer datos) throws IOException {
+        ByteBuffer registro = ByteBuffer.allocate(CABECERA_REGISTRO_MAX + datos.remaining());
+        Varint.escribir(registro, datos.remaining());
+        registro.put(tipo).put(datos);
+        registro.flip();
+        return anadirAlFinal(registro);
+    }
+
+    /**
+     * Escribe un registro completo al final del fichero.
+     *
+     * @return Posición donde empieza el registro
+     */
+    private int anadirAlFinal(ByteBuffer registro) throws IOException {
+        long posicion = tamano;
+        if (posicion + registro.remaining() > Integer.MAX_VALUE) {
+            throw new IOException("El almacén de entrenamientos ha alcanzado su tamaño máximo");
+        }
+        try {
+            while (registro.hasRemaining()) {
+                tamano += canal.write(registro, tamano);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Un registro a medias no puede quedar delante del siguiente
+            recortar(posicion);
+            throw e;
+        }
+        return (int) posicion;
+    }
+
+    /**
+     * Descarta todo lo escrito en el almacén desde "posicion": la próxima escritura
+     * empieza ahí. Si además no se puede recortar el fichero, lo que sobra detrás
+     * se sobrescribe (y al abrir un registro incompleto al final se recorta igual).
+     */
+    private void recortar(long posicion) {
+        tamano = posicion;
+        try {
+            canal.truncate(posicion);
+        } catch (IOException e) {
+            // Ya estamos propagando el error original
+        }
+    }
+
+    // ==================== PENDIENTES ====================
+
+    /**
+     * Vista tras una escritura que todavía no es durable, con el LSN que la cubre.
+     */
+    private static final class Pendiente {
+        final long lsn;
+        final VistaEntrenamientos vista;
+
+        Pendiente(long lsn, VistaEntrenamientos vista) {
+            this.lsn = lsn;
+            this.vista = vista;
+        }
+    }
+
+    // ==================== ÍNDICE DE CARGA ====================
+
+    /**
+     * Índice mutable que solo existe mientras se recorre el fichero al abrir.
+     * Aplicar cada registro a arrays de int es mucho más barato que crear una vista
+     * persistente por registro; al terminar se construye la vista de una vez.
+     */
+    private static final class IndiceCarga {
+
+        /** Marca de ranura borrada en posiciones[] */
+        private static final int RANURA_BORRADA = -1;
+
+        /** ID → ranura en posiciones[] */
+        private final MapaEnteros ranuraPorId = new MapaEnteros();
+
+        /** Posición en el fichero del registro vigente de cada ranura (RANURA_BORRADA si se eliminó) */
+        private int[] posiciones = new int[16];
+
+        /** ID del entrenamiento de cada ranura */
+        private int[] idsPorRanura = new int[16];
+
+        /** Ranuras usadas (incluye las borradas) */
+        private int numRanuras;
+
+        /** Entrenamientos vigentes (ranuras no borradas) */
+        private int vivos;
+
+        /**
+         * Apunta el ID a un registro nuevo. Si el ID ya existía conserva su ranura
+         * (y por tanto su lugar en la lista); si no, ocupa una ranura al final.
+         */
+        void indexar(int id, int posicion) {
+            int ranura = ranuraPorId.obtener(id);
+            if (ranura == MapaEnteros.VALOR_AUSENTE) {
+                if (numRanuras == posiciones.length) {
+                    posiciones = Arrays.copyOf(posiciones, numRanuras * 2);
+                    idsPorRanura = Arrays.copyOf(idsPorRanura, numRanuras * 2);
+                }
+                ranura = numRanuras++;
+                ranuraPorId.poner(id, ranura);
+                idsPorRanura[ranura] = id;
+                vivos++;
+            }
+            posiciones[ranura] = posicion;
+        }
+
+        /**
+         * Quita el ID del índice dejando su ranura marcada como borrada
+         * (construirVista() elimina los huecos de una vez).
+         */
+        void desindexar(int id) {
+            int ranura = ranuraPorId.eliminar(id);
+            if (ranura != MapaEnteros.VALOR_AUSENTE) {
+                posiciones[ranura] = RANURA_BORRADA;
+                vivos--;
+            }
+        }
+
+        /**
+         * Compacta las ranuras borradas y construye la vista inmutable en O(n).
+         */
+        VistaEntrenamientos construirVista(AlmacenEntrenamientos almacen, long tamanoFichero) {
+            int destino = 0;
+            for (int ranura = 0; ranura < numRanuras; ranura++) {
+                if (posiciones[ranura] != RANURA_BORRADA) {
+                    posiciones[destino] = posiciones[ranura];
+                    idsPorRanura[destino] = idsPorRanura[ranura];
+                    destino++;
+                }
+            }
+            return VistaEntrenamientos.construir(almacen, idsPorRanura, posiciones, vivos, tamanoFichero);
+        }
+    }
+
+    // ==================== REGISTRO DE ESCRITURAS ====================
+
+    /**
+     * Registro lógico de un ALTA para el ".wal": autocontenido (textos completos, no
+     * códigos del diccionario), porque al reproducirlo el almacén puede haber perdido
+     * los registros DIFICULTAD / ICONO que se escribieron con él.
+     *
+     * [TIPO_ALTA][id:varint][nombre][descripcion][duracion][dificultad][icono:varint]
+     * Cada texto va como [longitud:varint][UTF-8].
+     */
+    private static ByteBuffer cargaAlta(Entrenamiento entrenamiento) {
+        byte[][] textos = {
+                utf8(entrenamiento.getNombre()),
+                utf8(entrenamiento.getDescripcion()),
+                utf8(entrenamiento.getDuracion()),
+                utf8(entrenamiento.getDificultad())
+        };
+        int tamanoCarga = 1 + 2 * Varint.MAX_BYTES;
+        for (byte[] texto : textos) {
+            tamanoCarga += Varint.MAX_BYTES + texto.length;
+        }
+
+        ByteBuffer carga = ByteBuffer.allocate(tamanoCarga);
+        carga.put(TIPO_ALTA);
+        Varint.escribir(carga, entrenamiento.getId());
+        for (byte[] texto : textos) {
+            Varint.escribir(carga, texto.length);
+            carga.put(texto);
+        }
+        Varint.escribir(carga, entrenamiento.getIconoResId());
+        carga.flip();
+        return carga;
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static String leerTexto(ByteBuffer carga) {
+        byte[] texto = new byte[Varint.leer(carga)];
+        carga.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Aplica un registro del ".wal" al abrir, SIN volver a escribirlo en el ".wal".
+     * Es idempotente: un ALTA que ya estaba en el almacén solo añade una versión
+     * igual, y una BAJA de un ID que ya no existe se ignora.
+     */
+    private void reproducir(ByteBuffer carga) throws IOException {
+        byte tipo = carga.get();
+        int id = Varint.leer(carga);
+        if (tipo == TIPO_ALTA) {
+            String nombre = leerTexto(carga);
+            String descripcion = leerTexto(carga);
+            String duracion = leerTexto(carga);
+            String dificultad = leerTexto(carga);
+            int iconoResId = Varint.leer(carga);
+            aplicarAlta(new Entrenamiento(id, nombre, descripcion, duracion, dificultad, iconoResId));
+        } else if (tipo == TIPO_BAJA && ultima.contiene(id)) {
+            aplicarBaja(id);
+        }
+    }
+
+    // ==================== CONFIRMACIÓN ====================
+
+    /**
+     * Espera (sin el candado: otros hilos pueden seguir escribiendo y compartir el
+     * fsync) a que la escritura sea durable y publica todo lo que ya lo es.
+     */
+    @Override
+    public void confirmar(long marca) throws IOException {
+        if (marca == SIN_CAMBIOS) {
+            return;
+        }
+        registro.esperarDurable(marca);
+        synchronized (this) {
+            publicarDurables();
+            comprobarPuntoControl();
+        }
+    }
+
+    /** Apunta la vista "ultima" como pendiente del LSN de la escritura que la produjo */
+    private long pendiente(long lsn) {
+        pendientes.addLast(new Pendiente(lsn, ultima));
+        return lsn;
+    }
+
+    /** Publica, en orden, las vistas pendientes cuyo LSN ya está en disco */
+    private void publicarDurables() {
+        long durable = registro.getLsnDurable();
+        Pendiente primera = pendientes.peekFirst();
+        while (primera != null && primera.lsn <= durable) {
+            vista = primera.vista;
+            pendientes.removeFirst();
+            primera = pendientes.peekFirst();
+        }
+    }
+
+    /**
+     * Hace un punto de control si el ".wal" ha crecido más de limiteRegistro.
+     */
+    private void comprobarPuntoControl() throws IOException {
+        if (registro.getTamano() > limiteRegistro) {
+            puntoControl();
+        }
+    }
+
+    /**
+     * Sincroniza el almacén con el disco y vacía el ".wal": a partir de aquí todo lo
+     * escrito antes ya está en el almacén y no hace falta reproducirlo.
+     */
+    private void puntoControl() throws IOException {
+        canal.force(false);
+        registro.reiniciar();
+        publicarDurables(); // reiniciar() espera a que todo lo escrito sea durable
+    }
+
+    /**
+     * @return Registros del ".wal" reproducidos al abrir (0 si el cierre anterior fue limpio)
+     */
+    int getRegistrosRecuperados() {
+        return registro.getReproducidos();
+    }
+
+    /**
+     * @return fsync hechos por el registro de escrituras desde que se abrió
+     */
+    long getSincronizacionesRegistro() {
+        return registro.getSincronizaciones();
+    }
+
+    /**
+     * @return LSN hasta el que el registro de escrituras está en disco
+     */
+    long getLsnDurableRegistro() {
+        return registro.getLsnDurable();
+    }
+
+    /**
+     * @return Registro de escrituras (para pruebas: cerrarlo hace fallar las escrituras)
+     */
+    RegistroEscrituras getRegistroEscrituras() {
+        return registro;
+    }
+
+    // ==================== EXPORTACIÓN ====================
+
+    /**
+     * Escribe la cabecera del fichero y los registros de diccionario (dificultades e iconos)
+     * en el mismo orden de códigos que este almacén, para que los registros ALTA
+     * copiados después con exportarRegistros() se decodifiquen igual.
+     *
+     * @param destino Canal de salida
+     * @param buffer Buffer de trabajo (se vacía en el canal cuando se llena)
+     * @throws IOException Si no se puede escribir en el destino
+     */
+    public synchronized void exportarCabecera(WritableByteChannel destino, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        buffer.putInt(MAGIA).putInt(VERSION);
+        for (int codigo = 0; codigo < codec.numDificultades(); codigo++) {
+            byte[] texto = codec.dificultad(codigo).getBytes(StandardCharsets.UTF_8);
+            reservar(destino, buffer, CABECERA_REGISTRO_MAX + texto.length);
+            Varint.escribir(buffer, texto.length);
+            buffer.put(TIPO_DIFICULTAD).put(texto);
+        }
+        for (int codigo = 0; codigo < codec.numIconos(); codigo++) {
+            int iconoResId = codec.icono(codigo);
+            reservar(destino, buffer, CABECERA_REGISTRO_MAX + Varint.MAX_BYTES);
+            Varint.escribir(buffer, Varint.tamano(iconoResId));
+            buffer.put(TIPO_ICONO);
+            Varint.escribir(buffer, iconoResId);
+        }
+        vaciar(destino, buffer);
+    }
+
+    /**
+     * Copia tal cual los registros ALTA vigentes de las posiciones [desde, desde + cantidad)
+     * de la lista. Los registros que están seguidos en el fichero se copian con una sola
+     * llamada a transferTo.
+     *
+     * @param desde Posición del primer entrenamiento
+     * @param cantidad Número máximo de entrenamientos
+     * @param destino Canal de salida
+     * @return Entrenamientos copiados
+     * @throws IOException Si no se puede escribir en el destino
+     */
+    public synchronized int exportarRegistros(int desde, int cantidad, WritableByteChannel destino)
+            throws IOException {
+        VistaEntrenamientos actual = vista;
+        int hasta = Math.min(actual.contar(), desde + cantidad);
+        long inicioTramo = -1;
+        long finTramo = -1;
+        for (int ranura = Math.max(0, desde); ranura < hasta; ranura++) {
+            int posicion = actual.posicionEn(ranura);
+            MappedByteBuffer mapeado = mapaQueCubre(posicion, actual.getTamanoFichero());
+            long cabecera = Varint.leerEn(mapeado, posicion, mapeado.capacity());
+            long fin = posicion + (cabecera >>> 32) + 1 + (int) cabecera;
+
+            if (posicion != finTramo) {
+                transferir(inicioTramo, finTramo, destino);
+                inicioTramo = posicion;
+            }
+            finTramo = fin;
+        }
+        transferir(inicioTramo, finTramo, destino);
+        return Math.max(0, hasta - Math.max(0, desde));
+    }
+
+    private void transferir(long inicio, long fin, WritableByteChannel destino) throws IOException {
+        while (inicio < fin) {
+            long copiados = canal.transferTo(inicio, fin - inicio, destino);
+            if (copiados <= 0) {
+                throw new IOException("No se pudo copiar el almacén al destino");
+            }
+            inicio += copiados;
+        }
+    }
+
+    /** Vacía el buffer en el canal si no quedan "bytes" libres */
+    private static void reservar(WritableByteChannel destino, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            vaciar(destino, buffer);
+        }
+    }
+
+    private static void vaciar(WritableByteChannel destino, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            canal.force(true);
+            registro.reiniciar();
+        } finally {
+            registro.close();
+            canal.close();
+            secuencia.close();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * CLASE: AnalizadorDuracion.java
+ *
+ * PROPÓSITO:
+ * Convierte el texto de duración que escribe el usuario ("45 minutos", "1h 30m"...)
+ * en un número de minutos, para poder filtrar y ordenar por duración.
+ *
+ * FORMATOS ACEPTADOS (sin importar mayúsculas ni acentos):
+ * - "45", "45 min", "45 minutos", "45m", "45'"      → 45
+ * - "1 hora", "2 horas", "2h", "1,5 horas"          → 60, 120, 120, 90
+ * - "1h 30m", "1h30", "1 hora y 30 minutos"         → 90
+ * - "1:30"                                          → 90 (horas:minutos)
+ * Cualquier otra cosa → SIN_DURACION
+ *
+ * CACHÉ (Duracion compartidas):
+ * En un catálogo casi todas las duraciones se repiten ("30 minutos", "45 minutos"...),
+ * así que los resultados se guardan en una caché de tamaño fijo indexada por el hash
+ * del texto. Cada casilla es una Duracion inmutable, y es la MISMA instancia la que
+ * reciben todos los entrenamientos con ese texto: un objeto por duración distinta,
+ * no uno por entrenamiento. Leer la caché desde varios hilos a la vez es seguro sin
+ * sincronizar (como mucho se recalcula un valor y esa duración no se comparte).
+ *
+ * Las duraciones "N minutos" (la forma que reconstruye CodecEntrenamiento al leer
+ * del disco) tienen además su propia tabla por minutos, sin hash ni comparar textos.
+ */
+package com.example.examen;
+
+/**
+ * Analizador de duraciones en texto con caché de resultados.
+ */
+public final class AnalizadorDuracion {
+
+    // ==================== CONSTANTES ====================
+
+    /** Valor que retorna minutos() si el texto no es una duración reconocible */
+    public static final int SIN_DURACION = -1;
+
+    /** Duración máxima aceptada (una semana); evita desbordamientos con textos absurdos */
+    private static final int MAXIMO_MINUTOS = 7 * 24 * 60;
+
+    /** Número de casillas de la caché (potencia de 2) */
+    private static final int TAMANO_CACHE = 1024;
+
+    /** Las duraciones "N minutos" con N menor que esto se guardan en su propia tabla */
+    private static final int MINUTOS_EN_TABLA = 6 * 60;
+
+    private static final String SUFIJO_MINUTOS = " minutos";
+
+    /** Duración de un entrenamiento sin texto de duración */
+    public static final Duracion NINGUNA = new Duracion(null, SIN_DURACION);
+
+    // ==================== CACHÉ ====================
+
+    private static final Duracion[] CACHE = new Duracion[TAMANO_CACHE];
+
+    /** Posición N: la Duracion "N minutos" (se crea la primera vez que se pide) */
+    private static final Duracion[] POR_MINUTOS = new Duracion[MINUTOS_EN_TABLA];
+
+    private AnalizadorDuracion() {
+        // Solo métodos estáticos
+    }
+
+    // ==================== ANÁLISIS ====================
+
+    /**
+     * Retorna los minutos de una duración en texto, usando la caché si ya se analizó.
+     *
+     * @param texto Duración escrita por el usuario (puede ser null)
+     * @return Minutos, o SIN_DURACION si el texto no se entiende
+     */
+    public static int minutos(String texto) {
+        return duracion(texto).getMinutos();
+    }
+
+    /**
+     * Retorna la Duracion compartida de un texto (analizándolo solo si no está en caché).
+     *
+     * @param texto Duración escrita por el usuario (puede ser null)
+     * @return Duracion con ese texto; NINGUNA si el texto es null
+     */
+    public static Duracion duracion(String texto) {
+        if (texto == null) {
+            return NINGUNA;
+        }
+        int casilla = (texto.hashCode() * 0x9E3779B9 >>> 22) & (TAMANO_CACHE - 1);
+        Duracion duracion = CACHE[casilla];
+        if (duracion != null && duracion.getTexto().equals(texto)) {
+            return duracion;
+        }
+        duracion = new Duracion(texto, analizar(texto));
+        CACHE[casilla] = duracion;
+        return duracion;
+    }
+
+    /**
+     * Retorna la Duracion compartida "N minutos" sin crear el texto si ya existe.
+     *
+     * @param minutos Minutos (>= 0)
+     * @return Duracion con texto "N minutos"
+     */
+    public static Duracion enMinutos(int minutos) {
+        if (minutos >= MINUTOS_EN_TABLA) {
+            return duracion(minutos + SUFIJO_MINUTOS);
+        }
+        Duracion duracion = POR_MINUTOS[minutos];
+        if (duracion == null) {
+            duracion = duracion(minutos + SUFIJO_MINUTOS);
+            POR_MINUTOS[minutos] = duracion;
+        }
+        return duracion;
+    }
+
+    /**
+     * Analiza el texto sin pasar por la caché.
+     * Recorre el texto buscando pares "número + unidad" y suma cada uno.
+     */
+    static int analizar(String texto) {
+        double total = 0;
+        boolean hayNumero = false;
+        int i = 0;
+        int n = texto.length();
+
+        while (i < n) {
+            char c = TextoPlegado.plegar(texto.charAt(i));
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                // Solo se permite la conjunción "y" entre dos cantidades ("1 hora y 30 minutos")
+                if (hayNumero && c == 'y' && (i + 1 == n || texto.charAt(i + 1) == ' ')) {
+                    i++;
+                    continue;
+                }
+                return SIN_DURACION;
+            }
+
+            // --- Número (entero o decimal con "," o ".") ---
+            double numero = 0;
+            while (i < n && esDigito(texto.charAt(i))) {
+                numero = numero * 10 + (texto.charAt(i) - '0');
+                i++;
+                if (numero > MAXIMO_MINUTOS) {
+                    return SIN_DURACION;
+                }
+            }
+            if (i + 1 < n && (texto.charAt(i) == ',' || texto.charAt(i) == '.') && esDigito(texto.charAt(i + 1))) {
+                i++;
+                double factor = 0.1;
+                while (i < n && esDigito(texto.charAt(i))) {
+                    numero += (texto.charAt(i) - '0') * factor;
+                    factor /= 10;
+                    i++;
+                }
+            }
+
+            // --- Formato "h:mm" ---
+            if (i < n && texto.charAt(i) == ':') {
+                int inicioMinutos = ++i;
+                int minutos = 0;
+                while (i < n && esDigito(texto.charAt(i))) {
+                    minutos = minutos * 10 + (texto.charAt(i) - '0');
+                    i++;
+                }
+                if (i - inicioMinutos != 2 || minutos >= 60) {
+                    return SIN_DURACION;
+                }
+                total += numero * 60 + minutos;
+                hayNumero = true;
+                continue;
+            }
+
+            // --- Unidad ---
+            while (i < n && texto.charAt(i) == ' ') {
+                i++;
+            }
+            int inicioUnidad = i;
+            while (i < n && Character.isLetter(texto.charAt(i))) {
+                i++;
+            }
+            if (inicioUnidad == i && i < n && texto.charAt(i) == '\'') {
+                i++; // 45'
+                total += numero;
+            } else {
+                int factor = factorUnidad(texto, inicioUnidad, i);
+                if (factor == 0) {
+                    return SIN_DURACION;
+                }
+                total += numero * factor;
+            }
+            hayNumero = true;
+        }
+
+        if (!hayNumero || total > MAXIMO_MINUTOS) {
+            return SIN_DURACION;
+        }
+        return (int) Math.round(total);
+    }
+
+    /**
+     * @return Minutos por unidad (60 para horas, 1 para minutos o sin unidad), 0 si no se reconoce
+     */
+    private static int factorUnidad(String texto, int desde, int hasta) {
+        if (desde == hasta) {
+            return 1; // "45" a secas: minutos
+        }
+        String unidad = TextoPlegado.plegar(texto.substring(desde, hasta));
+        switch (unidad) {
+            case "h":
+            case "hr":
+            case "hrs":
+            case "hora":
+            case "horas":
+                return 60;
+            case "m":
+            case "min":
+            case "mins":
+            case "minuto":
+            case "minutos":
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
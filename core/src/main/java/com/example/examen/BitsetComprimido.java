@@ -0,0 +1,443 @@
+/**
+ * CLASE: BitsetComprimido.java
+ *
+ * PROPÓSITO:
+ * Conjunto de enteros (IDs de entrenamiento) comprimido, con AND/OR rápidos.
+ * Es la base del motor de filtros: un conjunto por cada dificultad y por cada icono.
+ *
+ * ¿POR QUÉ NO java.util.BitSet?
+ * Un BitSet reserva un bit por cada ID posible hasta el mayor: con IDs altos o
+ * repartidos gasta memoria en ceros. Y un HashSet<Integer> ocupa ~32 bytes por ID.
+ *
+ * ESTRUCTURA (al estilo "Roaring bitmap"):
+ * Los 32 bits de cada ID se parten en dos mitades:
+ * - 16 bits altos → eligen un CONTENEDOR (cubre 65.536 IDs consecutivos)
+ * - 16 bits bajos → posición dentro del contenedor
+ * Cada contenedor elige su forma según cuántos IDs tiene:
+ * ┌──────────────────────────┬──────────────────────────────────────────────┐
+ * │ ≤ 4096 IDs → ARRAY       │ char[] ordenado, 2 bytes por ID              │
+ * │ > 4096 IDs → MAPA DE BITS│ long[1024] = 8 KB fijos, 1 bit por ID posible │
+ * └──────────────────────────┴──────────────────────────────────────────────┘
+ * (4096 es el punto en el que los dos ocupan lo mismo: 4096 × 2 B = 8 KB)
+ *
+ * OPERACIONES:
+ * - AND/OR entre mapas de bits: palabra a palabra (64 IDs por instrucción)
+ * - Con arrays: mezcla de listas ordenadas o consulta de bits
+ * - Solo se combinan contenedores con la misma clave; el resto se salta entero
+ */
+package com.example.examen;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto comprimido de enteros con contenedores de array o de mapa de bits.
+ */
+public final class BitsetComprimido {
+
+    // ==================== CONSTANTES ====================
+
+    /** Máximo de valores en un contenedor de tipo array */
+    static final int MAXIMO_ARRAY = 4096;
+
+    /** Palabras de 64 bits en un contenedor de mapa de bits (65.536 bits) */
+    private static final int PALABRAS = 1024;
+
+    // ==================== ATRIBUTOS ====================
+
+    /** 16 bits altos de cada contenedor, ordenados (char = entero sin signo de 16 bits) */
+    private char[] claves = new char[4];
+
+    /** Contenedor de cada clave */
+    private Contenedor[] contenedores = new Contenedor[4];
+
+    /** Número de contenedores en uso */
+    private int numContenedores;
+
+    // ==================== CONSULTA Y MODIFICACIÓN ====================
+
+    /**
+     * @param valor Entero a buscar
+     * @return true si está en el conjunto
+     */
+    public boolean contiene(int valor) {
+        int i = buscarClave((char) (valor >>> 16));
+        return i >= 0 && contenedores[i].contiene((char) valor);
+    }
+
+    /**
+     * Añade un entero al conjunto.
+     *
+     * @param valor Entero a añadir
+     * @return true si no estaba
+     */
+    public boolean anadir(int valor) {
+        char clave = (char) (valor >>> 16);
+        int i = buscarClave(clave);
+        if (i < 0) {
+            i = -i - 1;
+            insertarContenedor(i, clave, new Contenedor());
+        }
+        return contenedores[i].anadir((char) valor);
+    }
+
+    /**
+     * Quita un entero del conjunto.
+     *
+     * @param valor Entero a quitar
+     * @return true si estaba
+     */
+    public boolean quitar(int valor) {
+        int i = buscarClave((char) (valor >>> 16));
+        if (i < 0 || !contenedores[i].quitar((char) valor)) {
+            return false;
+        }
+        if (contenedores[i].cardinalidad == 0) {
+            System.arraycopy(claves, i + 1, claves, i, numContenedores - i - 1);
+            System.arraycopy(contenedores, i + 1, contenedores, i, numContenedores - i - 1);
+            contenedores[--numContenedores] = null;
+        }
+        return true;
+    }
+
+    /**
+     * @return Número de enteros del conjunto
+     */
+    public int cardinalidad() {
+        int total = 0;
+        for (int i = 0; i < numContenedores; i++) {
+            total += contenedores[i].cardinalidad;
+        }
+        return total;
+    }
+
+    /**
+     * @return true si el conjunto no tiene ningún entero
+     */
+    public boolean estaVacio() {
+        return numContenedores == 0;
+    }
+
+    /**
+     * @param limite Número máximo de valores a retornar
+     * @return Los primeros "limite" enteros del conjunto, de menor a mayor (sin signo)
+     */
+    public int[] aArray(int limite) {
+        int[] resultado = new int[Math.min(limite, cardinalidad())];
+        int n = 0;
+        for (int i = 0; i < numContenedores && n < resultado.length; i++) {
+            n = contenedores[i].volcar(claves[i] << 16, resultado, n);
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Todos los enteros del conjunto, de menor a mayor (sin signo)
+     */
+    public int[] aArray() {
+        return aArray(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Copia independiente del conjunto
+     */
+    public BitsetComprimido copia() {
+        BitsetComprimido copia = new BitsetComprimido();
+        copia.claves = Arrays.copyOf(claves, Math.max(4, numContenedores));
+        copia.contenedores = new Contenedor[copia.claves.length];
+        for (int i = 0; i < numContenedores; i++) {
+            copia.contenedores[i] = contenedores[i].copia();
+        }
+        copia.numContenedores = numContenedores;
+        return copia;
+    }
+
+    // ==================== ÁLGEBRA ====================
+
+    /**
+     * Intersección: enteros que están en los dos conjuntos.
+     * Solo se visitan las claves comunes.
+     *
+     * @param a Primer conjunto
+     * @param b Segundo conjunto
+     * @return Conjunto nuevo con a AND b
+     */
+    public static BitsetComprimido and(BitsetComprimido a, BitsetComprimido b) {
+        BitsetComprimido resultado = new BitsetComprimido();
+        int i = 0;
+        int j = 0;
+        while (i < a.numContenedores && j < b.numContenedores) {
+            if (a.claves[i] < b.claves[j]) {
+                i++;
+            } else if (a.claves[i] > b.claves[j]) {
+                j++;
+            } else {
+                Contenedor c = Contenedor.and(a.contenedores[i], b.contenedores[j]);
+                if (c.cardinalidad > 0) {
+                    resultado.insertarContenedor(resultado.numContenedores, a.claves[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Unión: enteros que están en al menos uno de los dos conjuntos.
+     *
+     * @param a Primer conjunto
+     * @param b Segundo conjunto
+     * @return Conjunto nuevo con a OR b
+     */
+    public static BitsetComprimido or(BitsetComprimido a, BitsetComprimido b) {
+        BitsetComprimido resultado = new BitsetComprimido();
+        int i = 0;
+        int j = 0;
+        while (i < a.numContenedores || j < b.numContenedores) {
+            if (j == b.numContenedores || i < a.numContenedores && a.claves[i] < b.claves[j]) {
+                resultado.insertarContenedor(resultado.numContenedores, a.claves[i], a.contenedores[i].copia());
+                i++;
+            } else if (i == a.numContenedores || a.claves[i] > b.claves[j]) {
+                resultado.insertarContenedor(resultado.numContenedores, b.claves[j], b.contenedores[j].copia());
+                j++;
+            } else {
+                resultado.insertarContenedor(resultado.numContenedores, a.claves[i],
+                        Contenedor.or(a.contenedores[i], b.contenedores[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    // ==================== CONTENEDORES ====================
+
+    private int buscarClave(char clave) {
+        return Arrays.binarySearch(claves, 0, numContenedores, clave);
+    }
+
+    private void insertarContenedor(int posicion, char clave, Contenedor contenedor) {
+        if (numContenedores == claves.length) {
+            claves = Arrays.copyOf(claves, numContenedores * 2);
+            contenedores = Arrays.copyOf(contenedores, numContenedores * 2);
+        }
+        System.arraycopy(claves, posicion, claves, posicion + 1, numContenedores - posicion);
+        System.arraycopy(contenedores, posicion, contenedores, posicion + 1, numContenedores - posicion);
+        claves[posicion] = clave;
+        contenedores[posicion] = contenedor;
+        numContenedores++;
+    }
+
+    /**
+     * Los 65.536 valores posibles de una clave, como array ordenado (valores != null)
+     * o como mapa de bits (palabras != null). Nunca las dos formas a la vez.
+     */
+    private static final class Contenedor {
+        char[] valores = new char[4];
+        long[] palabras;
+        int cardinalidad;
+
+        boolean esMapa() {
+            return palabras != null;
+        }
+
+        boolean contiene(char v) {
+            if (esMapa()) {
+                return (palabras[v >>> 6] & (1L << v)) != 0;
+            }
+            return Arrays.binarySearch(valores, 0, cardinalidad, v) >= 0;
+        }
+
+        boolean anadir(char v) {
+            if (esMapa()) {
+                long anterior = palabras[v >>> 6];
+                palabras[v >>> 6] = anterior | (1L << v);
+                if (anterior == palabras[v >>> 6]) {
+                    return false;
+                }
+                cardinalidad++;
+                return true;
+            }
+            int i = Arrays.binarySearch(valores, 0, cardinalidad, v);
+            if (i >= 0) {
+                return false;
+            }
+            if (cardinalidad == MAXIMO_ARRAY) {
+                aMapa();
+                return anadir(v);
+            }
+            i = -i - 1;
+            if (cardinalidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAXIMO_ARRAY, cardinalidad * 2));
+            }
+            System.arraycopy(valores, i, valores, i + 1, cardinalidad - i);
+            valores[i] = v;
+            cardinalidad++;
+            return true;
+        }
+
+        boolean quitar(char v) {
+            if (esMapa()) {
+                long anterior = palabras[v >>> 6];
+                palabras[v >>> 6] = anterior & ~(1L << v);
+                if (anterior == palabras[v >>> 6]) {
+                    return false;
+                }
+                if (--cardinalidad <= MAXIMO_ARRAY / 2) {
+                    aArray(); // histéresis: no se alterna de forma con cada alta/baja
+                }
+                return true;
+            }
+            int i = Arrays.binarySearch(valores, 0, cardinalidad, v);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(valores, i + 1, valores, i, cardinalidad - i - 1);
+            cardinalidad--;
+            return true;
+        }
+
+        void aMapa() {
+            palabras = new long[PALABRAS];
+            for (int i = 0; i < cardinalidad; i++) {
+                palabras[valores[i] >>> 6] |= 1L << valores[i];
+            }
+            valores = null;
+        }
+
+        void aArray() {
+            valores = new char[Math.max(4, cardinalidad)];
+            int n = 0;
+            for (int w = 0; w < PALABRAS; w++) {
+                long palabra = palabras[w];
+                while (palabra != 0) {
+                    valores[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+            palabras = null;
+        }
+
+        int volcar(int alto, int[] destino, int n) {
+            if (esMapa()) {
+                for (int w = 0; w < PALABRAS && n < destino.length; w++) {
+                    long palabra = palabras[w];
+                    while (palabra != 0 && n < destino.length) {
+                        destino[n++] = alto | ((w << 6) + Long.numberOfTrailingZeros(palabra));
+                        palabra &= palabra - 1;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinalidad && n < destino.length; i++) {
+                    destino[n++] = alto | valores[i];
+                }
+            }
+            return n;
+        }
+
+        Contenedor copia() {
+            Contenedor copia = new Contenedor();
+            copia.cardinalidad = cardinalidad;
+            if (esMapa()) {
+                copia.palabras = palabras.clone();
+                copia.valores = null;
+            } else {
+                copia.valores = Arrays.copyOf(valores, Math.max(4, cardinalidad));
+            }
+            return copia;
+        }
+
+        static Contenedor and(Contenedor a, Contenedor b) {
+            Contenedor r = new Contenedor();
+            if (a.esMapa() && b.esMapa()) {
+                // Palabra a palabra: 64 IDs por operación
+                r.palabras = new long[PALABRAS];
+                r.valores = null;
+                int total = 0;
+                for (int w = 0; w < PALABRAS; w++) {
+                    long palabra = a.palabras[w] & b.palabras[w];
+                    r.palabras[w] = palabra;
+                    total += Long.bitCount(palabra);
+                }
+                r.cardinalidad = total;
+                if (total <= MAXIMO_ARRAY) {
+                    r.aArray();
+                }
+                return r;
+            }
+            if (a.esMapa() || b.esMapa()) {
+                // Array × mapa: quedarse con los valores del array cuyo bit está a 1
+                Contenedor array = a.esMapa() ? b : a;
+                Contenedor mapa = a.esMapa() ? a : b;
+                r.valores = new char[Math.max(4, array.cardinalidad)];
+                for (int i = 0; i < array.cardinalidad; i++) {
+                    char v = array.valores[i];
+                    if ((mapa.palabras[v >>> 6] & (1L << v)) != 0) {
+                        r.valores[r.cardinalidad++] = v;
+                    }
+                }
+                return r;
+            }
+            // Array × array: mezcla de dos listas ordenadas
+            r.valores = new char[Math.max(4, Math.min(a.cardinalidad, b.cardinalidad))];
+            int i = 0;
+            int j = 0;
+            while (i < a.cardinalidad && j < b.cardinalidad) {
+                if (a.valores[i] < b.valores[j]) {
+                    i++;
+                } else if (a.valores[i] > b.valores[j]) {
+                    j++;
+                } else {
+                    r.valores[r.cardinalidad++] = a.valores[i];
+                    i++;
+                    j++;
+                }
+            }
+            return r;
+        }
+
+        static Contenedor or(Contenedor a, Contenedor b) {
+            if (a.esMapa() || b.esMapa()) {
+                Contenedor mapa = a.esMapa() ? a : b;
+                Contenedor otro = a.esMapa() ? b : a;
+                Contenedor r = mapa.copia();
+                if (otro.esMapa()) {
+                    int total = 0;
+                    for (int w = 0; w < PALABRAS; w++) {
+                        r.palabras[w] |= otro.palabras[w];
+                        total += Long.bitCount(r.palabras[w]);
+                    }
+                    r.cardinalidad = total;
+                } else {
+                    for (int i = 0; i < otro.cardinalidad; i++) {
+                        r.anadir(otro.valores[i]);
+                    }
+                }
+                return r;
+            }
+            // Array × array: mezcla; si el resultado es grande pasa a mapa de bits
+            Contenedor r = new Contenedor();
+            r.valores = new char[a.cardinalidad + b.cardinalidad];
+            int i = 0;
+            int j = 0;
+            while (i < a.cardinalidad || j < b.cardinalidad) {
+                char v;
+                if (j == b.cardinalidad || i < a.cardinalidad && a.valores[i] < b.valores[j]) {
+                    v = a.valores[i++];
+                } else if (i == a.cardinalidad || a.valores[i] > b.valores[j]) {
+                    v = b.valores[j++];
+                } else {
+                    v = a.valores[i++];
+                    j++;
+                }
+                r.valores[r.cardinalidad++] = v;
+            }
+            if (r.cardinalidad > MAXIMO_ARRAY) {
+                r.aMapa();
+            } else if (r.valores.length == 0) {
+                r.valores = new char[4];
+            }
+            return r;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * CLASE: BufferMuestras.java
+ *
+ * PROPÓSITO:
+ * Cola circular SIN CANDADOS entre el hilo que recibe las posiciones GPS
+ * (un productor) y el hilo que las escribe en disco (un consumidor).
+ * Recibir una posición nunca espera al disco ni crea objetos.
+ *
+ * ¿POR QUÉ SIN CANDADOS?
+ * Con un solo productor y un solo consumidor basta con dos contadores:
+ * - escritas: solo lo avanza el productor
+ * - leidas: solo lo avanza el consumidor
+ * Cada uno publica su contador con lazySet (escritura ordenada) DESPUÉS de
+ * tocar las casillas, y lee el del otro antes de tocarlas. No hace falta
+ * compareAndSet ni synchronized.
+ *
+ * ¿POR QUÉ ARRAYS DE PRIMITIVOS?
+ * Una muestra son 5 números (hora, latitud, longitud, altitud, precisión).
+ * Guardarlos en arrays paralelos, reservados una sola vez, evita crear un
+ * objeto por muestra: una carrera de 3 horas a 1 Hz no genera basura.
+ *
+ * UNIDADES (enteros, como en el fichero):
+ * - Latitud y longitud en grados × 10^7 (≈ 1 cm en el ecuador)
+ * - Altitud y precisión en decímetros
+ *
+ * SI SE LLENA:
+ * Las muestras nuevas se descartan (getDescartadas) en vez de sobrescribir las
+ * que el consumidor puede estar leyendo. Con la capacidad por defecto el
+ * escritor tendría que estar parado más de una hora a 1 Hz.
+ *
+ * USO:
+ * Productor: buffer.ofrecer(hora, latitud, longitud, altitud, precision)
+ * Consumidor: buffer.drenar(receptor, maximo) (FicheroRecorrido.volcar)
+ */
+package com.example.examen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola circular de un productor y un consumidor para muestras de posición.
+ */
+public final class BufferMuestras {
+
+    /**
+     * Recibe las muestras al drenar el buffer (en el hilo consumidor).
+     */
+    public interface Receptor {
+        /**
+         * @return false para dejar esta muestra (y las siguientes) en el buffer
+         */
+        boolean recibir(long tiempo, int latitudE7, int longitudE7, int altitudDm, int precisionDm);
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Capacidad por defecto: 4096 muestras (más de una hora a 1 Hz) */
+    public static final int CAPACIDAD_POR_DEFECTO = 4096;
+
+    private static final double E7 = 1e7;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final int mascara;
+
+    private final long[] tiempos;
+    private final int[] latitudes;
+    private final int[] longitudes;
+    private final int[] altitudes;
+    private final int[] precisiones;
+
+    /** Muestras escritas desde el principio (solo lo avanza el productor) */
+    private final AtomicLong escritas = new AtomicLong();
+
+    /** Muestras leídas desde el principio (solo lo avanza el consumidor) */
+    private final AtomicLong leidas = new AtomicLong();
+
+    /** Última lectura de "leidas" que hizo el productor (evita leer el contador del otro hilo siempre) */
+    private long leidasVistas;
+
+    /** Muestras descartadas por buffer lleno (solo lo escribe el productor) */
+    private volatile long descartadas;
+
+    // ==================== CONSTRUCTORES ====================
+
+    public BufferMuestras() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * @param capacidad Muestras que caben (se redondea a potencia de 2)
+     */
+    public BufferMuestras(int capacidad) {
+        if (capacidad <= 0 || capacidad > 1 << 24) {
+            throw new IllegalArgumentException("Capacidad fuera de rango: " + capacidad);
+        }
+        int tamano = capacidad == 1 ? 1 : Integer.highestOneBit(capacidad - 1) << 1;
+        mascara = tamano - 1;
+        tiempos = new long[tamano];
+        latitudes = new int[tamano];
+        longitudes = new int[tamano];
+        altitudes = new int[tamano];
+        precisiones = new int[tamano];
+    }
+
+    // ==================== PRODUCTOR ====================
+
+    /**
+     * Añade una muestra. Solo desde el hilo productor.
+     *
+     * @param tiempo Hora de la muestra en milisegundos desde 1970
+     * @param latitud Grados
+     * @param longitud Grados
+     * @param altitud Metros (0 si no se conoce)
+     * @param precision Radio de precisión en metros (0 si no se conoce)
+     * @return false si el buffer estaba lleno y la muestra se ha descartado
+     */
+    public boolean ofrecer(long tiempo, double latitud, double longitud, double altitud, float precision) {
+        long posicion = escritas.get();
+        if (posicion - leidasVistas > mascara) {
+            leidasVistas = leidas.get();
+            if (posicion - leidasVistas > mascara) {
+                descartadas++;
+                return false;
+            }
+        }
+        int casilla = (int) posicion & mascara;
+        tiempos[casilla] = tiempo;
+        latitudes[casilla] = (int) Math.round(latitud * E7);
+        longitudes[casilla] = (int) Math.round(longitud * E7);
+        altitudes[casilla] = decimetros(altitud);
+        precisiones[casilla] = Math.max(0, decimetros(precision));
+        // Publica la muestra: el consumidor no la ve antes de que estén escritas sus casillas
+        escritas.lazySet(posicion + 1);
+        return true;
+    }
+
+    private static int decimetros(double metros) {
+        double decimetros = Math.rint(metros * 10);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, decimetros));
+    }
+
+    // ==================== CONSUMIDOR ====================
+
+    /**
+     * Entrega al receptor las muestras pendientes, de la más antigua a la más nueva.
+     * Solo desde el hilo consumidor.
+     *
+     * @param receptor Recibe cada muestra; si devuelve false, esa muestra se queda en el buffer
+     * @param maximo Muestras como mucho
+     * @return Muestras entregadas (y quitadas del buffer)
+     */
+    public int drenar(Receptor receptor, int maximo) {
+        long desde = leidas.get();
+        long hasta = Math.min(escritas.get(), desde + maximo);
+        long posicion = desde;
+        while (posicion < hasta) {
+            int casilla = (int) posicion & mascara;
+            if (!receptor.recibir(tiempos[casilla], latitudes[casilla], longitudes[casilla],
+                    altitudes[casilla], precisiones[casilla])) {
+                break;
+            }
+            posicion++;
+        }
+        // Libera las casillas para el productor
+        leidas.lazySet(posicion);
+        return (int) (posicion - desde);
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * @return Muestras que caben
+     */
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+
+    /**
+     * @return Muestras escritas y aún sin drenar (aproximado si los hilos están trabajando)
+     */
+    public int getPendientes() {
+        return (int) (escritas.get() - leidas.get());
+    }
+
+    /**
+     * @return Muestras descartadas porque el buffer estaba lleno
+     */
+    public long getDescartadas() {
+        return descartadas;
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * CLASE: CodecEntrenamiento.java
+ *
+ * PROPÓSITO:
+ * Convierte un Entrenamiento a un formato binario compacto y viceversa.
+ * Es el formato que usa AlmacenEntrenamientos en disco y el de las exportaciones.
+ *
+ * FORMATO DE UN ENTRENAMIENTO:
+ * ┌─────────────────────────────────────────────────────────────┐
+ * │ id          varint                                          │
+ * │ nombre      varint longitud + bytes UTF-8                   │
+ * │ descripcion varint longitud + bytes UTF-8                   │
+ * │ duracion    varint: (minutos << 1)        si es "N minutos" │
+ * │                     (longitud << 1) | 1   + texto si no     │
+ * │ dificultad  varint: código del diccionario                  │
+ * │ icono       varint: código del diccionario                  │
+ * └─────────────────────────────────────────────────────────────┘
+ *
+ * DICCIONARIOS:
+ * Solo existen unos pocos valores de dificultad ("Baja", "Media", "Alta") y de
+ * icono (los de IconoEntrenamiento). En vez de repetir el texto o el ID de recurso
+ * (4 bytes) en cada registro, se guarda un código pequeño (1 byte).
+ * Los códigos se asignan en orden de aparición; quien guarde los datos
+ * (AlmacenEntrenamientos) es responsable de persistir también el diccionario,
+ * porque sin él los códigos no significan nada.
+ *
+ * HILOS:
+ * Registrar (y codificar) solo desde un hilo a la vez: el que escribe.
+ * Decodificar se puede desde cualquier hilo sin candados: los arrays código → valor
+ * nunca se modifican, al registrar se sustituyen por una copia ampliada (son muy
+ * pequeños) y un código, una vez asignado, no cambia.
+ *
+ * EJEMPLO:
+ * "Cardio Intenso", 45 minutos, Alta, ic_menu_directions
+ * JSON ≈ 190 bytes → binario ≈ 95 bytes (la mayor parte es la descripción)
+ */
+package com.example.examen;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Codec binario de Entrenamiento con diccionarios para dificultad e icono.
+ */
+public class CodecEntrenamiento {
+
+    // ==================== CONSTANTES ====================
+
+    /** Sufijo de las duraciones que se guardan como número de minutos */
+    private static final String SUFIJO_MINUTOS = " minutos";
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Código → texto de dificultad (se sustituye entero al registrar, nunca se modifica) */
+    private volatile String[] dificultades = new String[0];
+
+    /** Texto de dificultad → código */
+    private final Map<String, Integer> codigosDificultad = new HashMap<>();
+
+    /** Código → ID de recurso del icono (se sustituye entero al registrar, nunca se modifica) */
+    private volatile int[] iconos = new int[0];
+
+    /** ID de recurso del icono → código */
+    private final MapaEnteros codigosIcono = new MapaEnteros();
+
+    // ==================== DICCIONARIOS ====================
+
+    /**
+     * @param dificultad Texto de dificultad
+     * @return Código asignado, o -1 si todavía no está en el diccionario
+     */
+    public int codigoDificultad(String dificultad) {
+        Integer codigo = codigosDificultad.get(dificultad);
+        return codigo != null ? codigo : -1;
+    }
+
+    /**
+     * Añade una dificultad al diccionario (si no estaba) y retorna su código.
+     *
+     * @param dificultad Texto de dificultad
+     * @return Código de la dificultad
+     */
+    public int registrarDificultad(String dificultad) {
+        int codigo = codigoDificultad(dificultad);
+        if (codigo < 0) {
+            codigo = dificultades.length;
+            String[] ampliadas = Arrays.copyOf(dificultades, codigo + 1);
+            ampliadas[codigo] = dificultad;
+            dificultades = ampliadas;
+            codigosDificultad.put(dificultad, codigo);
+        }
+        return codigo;
+    }
+
+    /**
+     * @param iconoResId ID de recurso del icono
+     * @return Código asignado, o -1 si todavía no está en el diccionario
+     */
+    public int codigoIcono(int iconoResId) {
+        return codigosIcono.obtener(iconoResId);
+    }
+
+    /**
+     * Añade un icono al diccionario (si no estaba) y retorna su código.
+     *
+     * @param iconoResId ID de recurso del icono
+     * @return Código del icono
+     */
+    public int registrarIcono(int iconoResId) {
+        int codigo = codigoIcono(iconoResId);
+        if (codigo < 0) {
+            codigo = iconos.length;
+            int[] ampliados = Arrays.copyOf(iconos, codigo + 1);
+            ampliados[codigo] = iconoResId;
+            iconos = ampliados;
+            codigosIcono.poner(iconoResId, codigo);
+        }
+        return codigo;
+    }
+
+    /**
+     * @return Número de dificultades registradas (códigos 0..n-1)
+     */
+    public int numDificultades() {
+        return dificultades.length;
+    }
+
+    /**
+     * @param codigo Código de dificultad
+     * @return Texto de la dificultad con ese código
+     */
+    public String dificultad(int codigo) {
+        return dificultades[codigo];
+    }
+
+    /**
+     * @return Número de iconos registrados (códigos 0..n-1)
+     */
+    public int numIconos() {
+        return iconos.length;
+    }
+
+    /**
+     * @param codigo Código de icono
+     * @return ID de recurso del icono con ese código
+     */
+    public int icono(int codigo) {
+        return iconos[codigo];
+    }
+
+    // ==================== CODIFICACIÓN ====================
+
+    /**
+     * Cota superior de los bytes que ocupará el entrenamiento codificado.
+     * Sirve para reservar el buffer antes de llamar a codificar().
+     *
+     * @param entrenamiento Entrenamiento a medir
+     * @return Bytes máximos necesarios
+     */
+    public int tamanoMaximo(Entrenamiento entrenamiento) {
+        // Un char UTF-16 nunca ocupa más de 3 bytes en UTF-8
+        return Varint.MAX_BYTES * 6
+                + 3 * (longitud(entrenamiento.getNombre())
+                + longitud(entrenamiento.getDescripcion())
+                + longitud(entrenamiento.getDuracion()));
+    }
+
+    /**
+     * Escribe el entrenamiento en el buffer a partir de su posición actual.
+     *
+     * @param entrenamiento Entrenamiento a codificar
+     * @param destino Buffer con al menos tamanoMaximo() bytes libres
+     * @throws IllegalArgumentException Si su dificultad o su icono no están en los diccionarios
+     */
+    public void codificar(Entrenamiento entrenamiento, ByteBuffer destino) {
+        int codigoDificultad = codigoDificultad(entrenamiento.getDificultad());
+        int codigoIcono = codigoIcono(entrenamiento.getIconoResId());
+        if (codigoDificultad < 0 || codigoIcono < 0) {
+            throw new IllegalArgumentException("Dificultad o icono sin registrar en el diccionario: "
+                    + entrenamiento.getDificultad() + ", " + entrenamiento.getIconoResId());
+        }
+
+        Varint.escribir(destino, entrenamiento.getId());
+        escribirTexto(destino, entrenamiento.getNombre());
+        escribirTexto(destino, entrenamiento.getDescripcion());
+
+        String duracion = entrenamiento.getDuracion();
+        int minutos = minutosCanonicos(duracion);
+        if (minutos >= 0) {
+            Varint.escribir(destino, minutos << 1);
+        } else {
+            byte[] texto = bytes(duracion);
+            Varint.escribir(destino, (texto.length << 1) | 1);
+            destino.put(texto);
+        }
+
+        Varint.escribir(destino, codigoDificultad);
+        Varint.escribir(destino, codigoIcono);
+    }
+
+    /**
+     * Lee un entrenamiento a partir de la posición actual del buffer.
+     *
+     * @param origen Buffer con los datos codificados (avanza su posición)
+     * @return Entrenamiento decodificado
+     * @throws IllegalArgumentException Si los datos usan un código desconocido
+     */
+    public Entrenamiento decodificar(ByteBuffer origen) {
+        int id = Varint.leer(origen);
+        String nombre = leerTexto(origen);
+        String descripcion = leerTexto(origen);
+
+        // Duracion compartida: "N minutos" sale de la tabla sin crear ningún String
+        Duracion duracion;
+        int cabeceraDuracion = Varint.leer(origen);
+        if ((cabeceraDuracion & 1) == 0) {
+            duracion = AnalizadorDuracion.enMinutos(cabeceraDuracion >>> 1);
+        } else {
+            duracion = AnalizadorDuracion.duracion(leerTexto(origen, cabeceraDuracion >>> 1));
+        }
+
+        int codigoDificultad = Varint.leer(origen);
+        int codigoIcono = Varint.leer(origen);
+        // Una sola lectura de cada diccionario: puede sustituirse mientras tanto
+        String[] dificultades = this.dificultades;
+        int[] iconos = this.iconos;
+        if (codigoDificultad >= dificultades.length || codigoIcono >= iconos.length) {
+            throw new IllegalArgumentException("Código de diccionario desconocido");
+        }
+
+        return new Entrenamiento(id, nombre, descripcion, duracion,
+                dificultades[codigoDificultad], iconos[codigoIcono]);
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /**
+     * Si la duración tiene exactamente la forma "N minutos" (sin ceros a la izquierda),
+     * retorna N; así al decodificar se reconstruye el mismo texto. Si no, -1.
+     */
+    static int minutosCanonicos(String duracion) {
+        if (duracion == null || !duracion.endsWith(SUFIJO_MINUTOS)) {
+            return -1;
+        }
+        int digitos = duracion.length() - SUFIJO_MINUTOS.length();
+        if (digitos < 1 || digitos > 6 || (digitos > 1 && duracion.charAt(0) == '0')) {
+            return -1;
+        }
+        int minutos = 0;
+        for (int i = 0; i < digitos; i++) {
+            char c = duracion.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            minutos = minutos * 10 + (c - '0');
+        }
+        return minutos;
+    }
+
+    /**
+     * Escribe el texto en UTF-8 directamente en el buffer, sin crear un byte[] intermedio.
+     */
+    private static void escribirTexto(ByteBuffer destino, String texto) {
+        if (texto == null) {
+            texto = "";
+        }
+        int longitud = texto.length();
+        Varint.escribir(destino, longitudUtf8(texto));
+        for (int i = 0; i < longitud; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino.put((byte) c);
+            } else if (c < 0x800) {
+                destino.put((byte) (0xC0 | (c >> 6)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < longitud
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int punto = Character.toCodePoint(c, texto.charAt(++i));
+                destino.put((byte) (0xF0 | (punto >> 18)));
+                destino.put((byte) (0x80 | ((punto >> 12) & 0x3F)));
+                destino.put((byte) (0x80 | ((punto >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (punto & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                destino.put((byte) '?'); // Surrogate suelto: igual que String.getBytes()
+            } else {
+                destino.put((byte) (0xE0 | (c >> 12)));
+                destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static int longitudUtf8(String texto) {
+        int longitud = texto.length();
+        int bytes = longitud;
+        for (int i = 0; i < longitud; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < longitud
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    bytes += 2; // 2 chars → 4 bytes
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            } else if (c >= 0x80) {
+                bytes += 1;
+            }
+        }
+        return bytes;
+    }
+
+    private static String leerTexto(ByteBuffer origen) {
+        return leerTexto(origen, Varint.leer(origen));
+    }
+
+    private static String leerTexto(ByteBuffer origen, int longitud) {
+        if (origen.hasArray()) {
+            int inicio = origen.arrayOffset() + origen.position();
+            origen.position(origen.position() + longitud);
+            return new String(origen.array(), inicio, longitud, StandardCharsets.UTF_8);
+        }
+        byte[] utf8 = new byte[longitud];
+        origen.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String texto) {
+        return (texto != null ? texto : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int longitud(String texto) {
+        return texto != null ? texto.length() : 0;
+    }
+}
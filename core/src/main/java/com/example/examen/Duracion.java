@@ -0,0 +1,45 @@
+/**
+ * CLASE: Duracion.java
+ *
+ * PROPÓSITO:
+ * Duración de un entrenamiento: el texto que escribió el usuario y sus minutos
+ * ya analizados. Es un objeto compartido (flyweight): todos los entrenamientos de
+ * "45 minutos" apuntan a la MISMA Duracion, en vez de tener cada uno su String
+ * y su propio análisis.
+ *
+ * Se obtiene siempre con AnalizadorDuracion.duracion(texto) o
+ * AnalizadorDuracion.enMinutos(minutos), que guardan las instancias en caché.
+ * Inmutable: se comparte entre hilos sin sincronizar.
+ */
+package com.example.examen;
+
+/**
+ * Texto de duración + minutos, compartido entre todos los entrenamientos con la misma duración.
+ */
+public final class Duracion {
+
+    /** Texto tal como se guarda y se muestra (ej: "45 minutos"); null si no hay duración */
+    private final String texto;
+
+    /** Minutos, o AnalizadorDuracion.SIN_DURACION si el texto no se entiende */
+    private final int minutos;
+
+    Duracion(String texto, int minutos) {
+        this.texto = texto;
+        this.minutos = minutos;
+    }
+
+    /**
+     * @return Texto de la duración (ej: "1h 30m")
+     */
+    public String getTexto() {
+        return texto;
+    }
+
+    /**
+     * @return Minutos, o AnalizadorDuracion.SIN_DURACION si el texto no es una duración válida
+     */
+    public int getMinutos() {
+        return minutos;
+    }
+}
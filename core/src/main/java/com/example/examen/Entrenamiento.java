@@ -0,0 +1,251 @@
+/**
+ * CLASE: Entrenamiento.java
+ *
+ * PROPÓSITO:
+ * Esta es la clase MODELO que representa un entrenamiento en la aplicación.
+ * Es un objeto de valor INMUTABLE: una vez creado no cambia nunca, así que se
+ * puede compartir entre hilos, instantáneas y listas sin copiarlo.
+ *
+ * PATRÓN DE DISEÑO:
+ * - Campos privados y final, sin setters
+ * - Constructor público con todos los datos
+ * - Para "editar" se crea otro: entrenamiento.editar().setNombre("...").construir()
+ * - equals() y hashCode() comparan todos los datos
+ *
+ * DATOS QUE ALMACENA:
+ * - id: Identificador único del entrenamiento
+ * - nombre: Nombre descriptivo del entrenamiento
+ * - descripcion: Descripción detallada del entrenamiento
+ * - duracion: Tiempo estimado (ej: "45 minutos")
+ *   (y los mismos minutos ya analizados como int, ver getMinutos())
+ * - dificultad: Nivel de dificultad (Baja, Media, Alta)
+ * - iconoResId: ID del recurso del icono asociado
+ *
+ * MEMORIA (valores compartidos):
+ * En un catálogo grande casi todas las duraciones y dificultades se repiten. En vez
+ * de que cada entrenamiento tenga su propio String (y sus propios minutos):
+ * - duracion apunta a la Duracion compartida de AnalizadorDuracion (texto + minutos)
+ * - dificultad se sustituye por la instancia compartida del InternadorTextos
+ * Solo el nombre y la descripción son realmente de cada entrenamiento.
+ *
+ * USO:
+ * Esta clase se usa en toda la aplicación para pasar datos de entrenamientos
+ * entre diferentes componentes (Fragments, Adapters, etc.)
+ */
+package com.example.examen;
+
+import java.util.Objects;
+
+public final class Entrenamiento {
+    // ==================== ATRIBUTOS ====================
+
+    /** Textos de dificultad compartidos por todos los entrenamientos */
+    private static final InternadorTextos DIFICULTADES = new InternadorTextos(64);
+
+    /** Identificador único del entrenamiento */
+    private final int id;
+
+    /** Nombre del entrenamiento (ej: "Cardio Intenso") */
+    private final String nombre;
+
+    /** Descripción detallada de qué incluye el entrenamiento */
+    private final String descripcion;
+
+    /** Duración estimada (ej: "45 minutos") con sus minutos; instancia compartida */
+    private final Duracion duracion;
+
+    /** Nivel de dificultad: "Baja", "Media" o "Alta" (instancia compartida) */
+    private final String dificultad;
+
+    /** ID del recurso drawable del icono (ej: android.R.drawable.ic_menu_directions) */
+    private final int iconoResId;
+
+    // ==================== CONSTRUCTOR ====================
+
+    /**
+     * Constructor principal que inicializa todos los campos del entrenamiento.
+     *
+     * @param id Identificador único del entrenamiento
+     * @param nombre Nombre descriptivo del entrenamiento
+     * @param descripcion Descripción detallada de los ejercicios incluidos
+     * @param duracion Tiempo estimado en formato texto (ej: "30 minutos")
+     * @param dificultad Nivel de dificultad: "Baja", "Media" o "Alta"
+     * @param iconoResId ID del recurso drawable del icono a mostrar
+     */
+    public Entrenamiento(int id, String nombre, String descripcion, String duracion, String dificultad, int iconoResId) {
+        this(id, nombre, descripcion, AnalizadorDuracion.duracion(duracion), dificultad, iconoResId);
+    }
+
+    /**
+     * Igual que el constructor principal, con la Duracion ya resuelta
+     * (la usa CodecEntrenamiento para no crear el texto al leer del disco).
+     */
+    Entrenamiento(int id, String nombre, String descripcion, Duracion duracion, String dificultad, int iconoResId) {
+        this.id = id;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.duracion = duracion;
+        this.dificultad = DIFICULTADES.compartir(dificultad);
+        this.iconoResId = iconoResId;
+    }
+
+    /**
+     * Empieza una edición: un Builder con los datos de este entrenamiento.
+     * Este entrenamiento no cambia; construir() crea otro.
+     *
+     * @return Builder con todos los campos copiados
+     */
+    public Builder editar() {
+        return new Builder(this);
+    }
+
+    // ==================== GETTERS ====================
+
+    /**
+     * Obtiene el ID único del entrenamiento.
+     * @return ID del entrenamiento
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el nombre del entrenamiento.
+     * @return Nombre del entrenamiento
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene la descripción completa del entrenamiento.
+     * @return Descripción del entrenamiento
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Obtiene la duración estimada del entrenamiento.
+     * @return Duración en formato texto (ej: "45 minutos")
+     */
+    public String getDuracion() {
+        return duracion.getTexto();
+    }
+
+    /**
+     * Obtiene la duración en minutos (analizada una sola vez por texto distinto).
+     * @return Minutos, o AnalizadorDuracion.SIN_DURACION si el texto no es una duración válida
+     */
+    public int getMinutos() {
+        return duracion.getMinutos();
+    }
+
+    /**
+     * Obtiene el nivel de dificultad del entrenamiento.
+     * @return Dificultad: "Baja", "Media" o "Alta"
+     */
+    public String getDificultad() {
+        return dificultad;
+    }
+
+    /**
+     * Obtiene el ID del recurso del icono asociado al entrenamiento.
+     * @return ID del recurso drawable (ej: android.R.drawable.ic_menu_directions)
+     */
+    public int getIconoResId() {
+        return iconoResId;
+    }
+
+    // ==================== IGUALDAD ====================
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof Entrenamiento)) {
+            return false;
+        }
+        Entrenamiento e = (Entrenamiento) otro;
+        return id == e.id
+                && iconoResId == e.iconoResId
+                && Objects.equals(nombre, e.nombre)
+                && Objects.equals(descripcion, e.descripcion)
+                && Objects.equals(getDuracion(), e.getDuracion())
+                && Objects.equals(dificultad, e.dificultad);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, nombre, descripcion, getDuracion(), dificultad, iconoResId);
+    }
+
+    // ==================== BUILDER ====================
+
+    /**
+     * Copia editable de un entrenamiento. Cada setter retorna el propio Builder
+     * para encadenar; construir() crea el Entrenamiento inmutable.
+     */
+    public static final class Builder {
+        private int id;
+        private String nombre;
+        private String descripcion;
+        private Duracion duracion;
+        private String dificultad;
+        private int iconoResId;
+
+        /**
+         * Builder vacío (sin duración, ID 0).
+         */
+        public Builder() {
+            this.duracion = AnalizadorDuracion.NINGUNA;
+        }
+
+        private Builder(Entrenamiento origen) {
+            this.id = origen.id;
+            this.nombre = origen.nombre;
+            this.descripcion = origen.descripcion;
+            this.duracion = origen.duracion;
+            this.dificultad = origen.dificultad;
+            this.iconoResId = origen.iconoResId;
+        }
+
+        public Builder setId(int id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setNombre(String nombre) {
+            this.nombre = nombre;
+            return this;
+        }
+
+        public Builder setDescripcion(String descripcion) {
+            this.descripcion = descripcion;
+            return this;
+        }
+
+        public Builder setDuracion(String duracion) {
+            this.duracion = AnalizadorDuracion.duracion(duracion);
+            return this;
+        }
+
+        public Builder setDificultad(String dificultad) {
+            this.dificultad = dificultad;
+            return this;
+        }
+
+        public Builder setIconoResId(int iconoResId) {
+            this.iconoResId = iconoResId;
+            return this;
+        }
+
+        /**
+         * @return Entrenamiento nuevo con los datos actuales del Builder
+         */
+        public Entrenamiento construir() {
+            return new Entrenamiento(id, nombre, descripcion, duracion, dificultad, iconoResId);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * CLASE: EstadisticasCatalogo.java
+ *
+ * PROPÓSITO:
+ * Foto inmutable de las estadísticas del catálogo en un momento dado:
+ * - Número de entrenamientos (y cuántos tienen una duración que no se entiende)
+ * - Por dificultad: cuántos hay, minutos totales y media de minutos
+ * - Por categoría de icono (cada iconoResId, como en MotorFiltros): cuántos hay
+ * - El entrenamiento más corto y el más largo
+ *
+ * ORIGEN:
+ * AgregadosCatalogo la construye a partir de sus agregados, que se mantienen al
+ * día en cada escritura. Construirla solo copia unos pocos totales (uno por
+ * dificultad y por icono): no recorre el catálogo.
+ *
+ * PATRÓN DE DISEÑO:
+ * Objeto de valor inmutable: se entrega al hilo principal sin sincronizar, y
+ * equals() compara todos los totales (los tests la comparan con un recálculo completo).
+ */
+package com.example.examen;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Totales, medias y extremos del catálogo.
+ */
+public final class EstadisticasCatalogo {
+
+    // ==================== ATRIBUTOS ====================
+
+    private final int total;
+    private final int sinDuracion;
+    private final Map<String, Dificultad> porDificultad;
+    private final Map<Integer, Integer> porIcono;
+    private final Entrenamiento masCorto;
+    private final Entrenamiento masLargo;
+
+    /**
+     * @param porDificultad Se copia (ordenado por nombre de dificultad)
+     * @param porIcono Se copia (ordenado por iconoResId)
+     * @param masCorto Entrenamiento con menos minutos (null si ninguno tiene duración)
+     * @param masLargo Entrenamiento con más minutos (null si ninguno tiene duración)
+     */
+    EstadisticasCatalogo(int total, int sinDuracion, Map<String, Dificultad> porDificultad,
+                         Map<Integer, Integer> porIcono, Entrenamiento masCorto, Entrenamiento masLargo) {
+        this.total = total;
+        this.sinDuracion = sinDuracion;
+        this.porDificultad = Collections.unmodifiableMap(new TreeMap<>(porDificultad));
+        this.porIcono = Collections.unmodifiableMap(new TreeMap<>(porIcono));
+        this.masCorto = masCorto;
+        this.masLargo = masLargo;
+    }
+
+    // ==================== GETTERS ====================
+
+    /**
+     * @return Número de entrenamientos del catálogo
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Entrenamientos cuya duración no se entiende (no cuentan en minutos ni extremos)
+     */
+    public int getSinDuracion() {
+        return sinDuracion;
+    }
+
+    /**
+     * @return Dificultad → sus totales, por orden alfabético
+     */
+    public Map<String, Dificultad> getPorDificultad() {
+        return porDificultad;
+    }
+
+    /**
+     * @return iconoResId → número de entrenamientos con ese icono
+     */
+    public Map<Integer, Integer> getPorIcono() {
+        return porIcono;
+    }
+
+    public Entrenamiento getMasCorto() {
+        return masCorto;
+    }
+
+    public Entrenamiento getMasLargo() {
+        return masLargo;
+    }
+
+    // ==================== IGUALDAD ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EstadisticasCatalogo)) {
+            return false;
+        }
+        EstadisticasCatalogo otras = (EstadisticasCatalogo) o;
+        return total == otras.total
+                && sinDuracion == otras.sinDuracion
+                && porDificultad.equals(otras.porDificultad)
+                && porIcono.equals(otras.porIcono)
+                && Objects.equals(masCorto, otras.masCorto)
+                && Objects.equals(masLargo, otras.masLargo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, sinDuracion, porDificultad, porIcono, masCorto, masLargo);
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasCatalogo{total=" + total + ", sinDuracion=" + sinDuracion
+                + ", porDificultad=" + porDificultad + ", porIcono=" + porIcono
+                + ", masCorto=" + (masCorto != null ? masCorto.getId() : null)
+                + ", masLargo=" + (masLargo != null ? masLargo.getId() : null) + "}";
+    }
+
+    // ==================== DIFICULTAD ====================
+
+    /**
+     * Totales de una dificultad.
+     */
+    public static final class Dificultad {
+
+        private final int cantidad;
+        private final int conDuracion;
+        private final long minutos;
+
+        Dificultad(int cantidad, int conDuracion, long minutos) {
+            this.cantidad = cantidad;
+            this.conDuracion = conDuracion;
+            this.minutos = minutos;
+        }
+
+        /**
+         * @return Entrenamientos con esta dificultad
+         */
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        /**
+         * @return Suma de los minutos de los que tienen duración
+         */
+        public long getMinutos() {
+            return minutos;
+        }
+
+        /**
+         * @return Media de minutos de los que tienen duración (0 si ninguno la tiene)
+         */
+        public double getMedia() {
+            return conDuracion > 0 ? (double) minutos / conDuracion : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Dificultad)) {
+                return false;
+            }
+            Dificultad otra = (Dificultad) o;
+            return cantidad == otra.cantidad && conDuracion == otra.conDuracion && minutos == otra.minutos;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cantidad, conDuracion, minutos);
+        }
+
+        @Override
+        public String toString() {
+            return cantidad + " (" + minutos + " min en " + conDuracion + ")";
+        }
+    }
+}
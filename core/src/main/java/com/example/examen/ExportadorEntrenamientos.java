@@ -0,0 +1,359 @@
+/**
+ * CLASE: ExportadorEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Exporta el catálogo completo (copia de seguridad o para compartir) escribiendo
+ * directamente en un canal de salida, sin construir nunca un String ni una lista
+ * con todo el catálogo.
+ *
+ * FORMATOS:
+ * - CSV:    mismas columnas que lee ImportadorEntrenamientos (se puede reimportar)
+ * - JSON:   array de objetos con los mismos campos
+ * - NATIVO: almacén compactado en el formato de AlmacenEntrenamientos; los registros
+ *           se copian sin decodificar (transferTo) y el fichero se abre con abrir()
+ *
+ * MEMORIA:
+ * Constante: un ByteBuffer directo de PoolBuffers y una página de TAMANO_PAGINA
+ * entrenamientos decodificados (CSV/JSON). Los caracteres se codifican a UTF-8
+ * directamente en el buffer; cuando se llena, se escribe en el canal y se reutiliza.
+ *
+ * HILOS:
+ * exportar() bloquea hasta terminar: CatalogoEntrenamientos lo llama en el hilo
+ * catalogo-io, así el fichero es una foto coherente del catálogo.
+ * cancelar() puede llamarse desde cualquier hilo; para antes de la siguiente página.
+ */
+package com.example.examen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exportación en streaming del catálogo a CSV, JSON o al formato nativo del almacén.
+ */
+public class ExportadorEntrenamientos {
+
+    // ==================== TIPOS ====================
+
+    /**
+     * Formato del fichero exportado.
+     */
+    public enum Formato {
+        CSV("text/csv", "entrenamientos.csv"),
+        JSON("application/json", "entrenamientos.json"),
+        NATIVO("application/octet-stream", "entrenamientos.db");
+
+        private final String tipoMime;
+        private final String nombrePorDefecto;
+
+        Formato(String tipoMime, String nombrePorDefecto) {
+            this.tipoMime = tipoMime;
+            this.nombrePorDefecto = nombrePorDefecto;
+        }
+
+        /** @return Tipo MIME del fichero */
+        public String getTipoMime() {
+            return tipoMime;
+        }
+
+        /** @return Nombre de fichero que se propone al usuario */
+        public String getNombrePorDefecto() {
+            return nombrePorDefecto;
+        }
+    }
+
+    /**
+     * Recibe el progreso después de cada página exportada.
+     * Se llama en el hilo que ejecuta exportar().
+     */
+    public interface OnProgresoListener {
+        /**
+         * @param exportados Entrenamientos escritos hasta ahora
+         * @param total Entrenamientos del catálogo al empezar
+         */
+        void onProgreso(int exportados, int total);
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Entrenamientos que se leen del almacén de cada vez */
+    public static final int TAMANO_PAGINA = 500;
+
+    /** Columnas / campos, con los nombres que reconoce ImportadorEntrenamientos */
+    static final String[] COLUMNAS = {"nombre", "descripcion", "duracion", "dificultad", "icono"};
+
+    /** Bytes que puede ocupar un carácter en UTF-8 (un par sustituto = 4) */
+    private static final int MAX_BYTES_CARACTER = 4;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // ==================== ATRIBUTOS ====================
+
+    /** iconoResId → nombre del icono (se exporta el nombre: los IDs de recurso cambian entre versiones) */
+    private final Map<Integer, String> nombresIconos;
+
+    private final PoolBuffers pool;
+
+    private final AtomicBoolean cancelada = new AtomicBoolean();
+
+    /** Canal y buffer de la exportación en curso */
+    private WritableByteChannel destino;
+    private ByteBuffer buffer;
+
+    /** Primera mitad de un par sustituto (emoji...) pendiente de su segunda mitad */
+    private char sustitutoAlto;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    /**
+     * @param nombresIconos iconoResId → nombre (IconoEntrenamiento.getIconosDisponibles())
+     * @param pool De dónde se toma el buffer directo
+     */
+    public ExportadorEntrenamientos(Map<Integer, String> nombresIconos, PoolBuffers pool) {
+        this.nombresIconos = nombresIconos;
+        this.pool = pool;
+    }
+
+    // ==================== EXPORTACIÓN ====================
+
+    /**
+     * Pide que la exportación en curso pare antes de la siguiente página.
+     */
+    public void cancelar() {
+        cancelada.set(true);
+    }
+
+    /**
+     * @return true si se llamó a cancelar()
+     */
+    public boolean isCancelada() {
+        return cancelada.get();
+    }
+
+    /**
+     * Escribe el catálogo completo en el canal. No cierra el canal.
+     *
+     * @param repositorio Catálogo a exportar (NATIVO necesita un AlmacenEntrenamientos)
+     * @param formato Formato de salida
+     * @param destino Canal de salida (un FileChannel para que NATIVO copie sin pasar por Java)
+     * @param listener Recibe el progreso tras cada página (puede ser null)
+     * @return Entrenamientos exportados
+     * @throws IOException Si no se puede escribir en el destino
+     */
+    public int exportar(RepositorioEntrenamientos repositorio, Formato formato,
+                        WritableByteChannel destino, OnProgresoListener listener) throws IOException {
+        AlmacenEntrenamientos almacen = null;
+        if (formato == Formato.NATIVO) {
+            if (!(repositorio instanceof AlmacenEntrenamientos)) {
+                throw new IOException("El formato nativo solo se puede exportar desde AlmacenEntrenamientos");
+            }
+            almacen = (AlmacenEntrenamientos) repositorio;
+        }
+
+        this.destino = destino;
+        this.buffer = pool.obtener();
+        try {
+            int total = repositorio.contar();
+            int exportados = 0;
+
+            if (almacen != null) {
+                almacen.exportarCabecera(destino, buffer);
+            } else {
+                empezar(formato);
+            }
+
+            while (exportados < total && !cancelada.get()) {
+                int copiados;
+                if (almacen != null) {
+                    copiados = almacen.exportarRegistros(exportados, TAMANO_PAGINA, destino);
+                } else {
+                    List<Entrenamiento> pagina = repositorio.obtenerRango(exportados, TAMANO_PAGINA);
+                    for (int i = 0; i < pagina.size(); i++) {
+                        if (formato == Formato.CSV) {
+                            escribirCsv(pagina.get(i));
+                        } else {
+                            escribirJson(pagina.get(i), exportados + i == 0);
+                        }
+                    }
+                    copiados = pagina.size();
+                }
+                if (copiados == 0) {
+                    break;
+                }
+                exportados += copiados;
+                if (listener != null) {
+                    listener.onProgreso(exportados, total);
+                }
+            }
+
+            if (almacen == null) {
+                terminar(formato);
+            }
+            vaciar();
+            return exportados;
+        } finally {
+            pool.devolver(buffer);
+            this.buffer = null;
+            this.destino = null;
+        }
+    }
+
+    // ==================== CSV ====================
+
+    private void empezar(Formato formato) throws IOException {
+        if (formato == Formato.CSV) {
+            // Marca BOM: sin ella Excel abre el UTF-8 como Latin-1 y rompe los acentos
+            escribir('\uFEFF');
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                if (i > 0) {
+                    escribir(',');
+                }
+                escribir(COLUMNAS[i]);
+            }
+            escribir("\r\n");
+        } else {
+            escribir('[');
+        }
+    }
+
+    private void terminar(Formato formato) throws IOException {
+        if (formato == Formato.JSON) {
+            escribir("\n]\n");
+        }
+    }
+
+    private void escribirCsv(Entrenamiento entrenamiento) throws IOException {
+        campoCsv(entrenamiento.getNombre());
+        escribir(',');
+        campoCsv(entrenamiento.getDescripcion());
+        escribir(',');
+        campoCsv(entrenamiento.getDuracion());
+        escribir(',');
+        campoCsv(entrenamiento.getDificultad());
+        escribir(',');
+        campoCsv(nombresIconos.get(entrenamiento.getIconoResId()));
+        escribir("\r\n");
+    }
+
+    /** Entre comillas solo si hace falta (separador, comillas, saltos de línea o espacios en los extremos) */
+    private void campoCsv(String texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+        boolean comillas = !texto.isEmpty()
+                && (texto.charAt(0) == ' ' || texto.charAt(texto.length() - 1) == ' ');
+        for (int i = 0; i < texto.length() && !comillas; i++) {
+            char c = texto.charAt(i);
+            comillas = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            escribir(texto);
+            return;
+        }
+        escribir('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                escribir('"');
+            }
+            escribir(c);
+        }
+        escribir('"');
+    }
+
+    // ==================== JSON ====================
+
+    private void escribirJson(Entrenamiento entrenamiento, boolean primero) throws IOException {
+        escribir(primero ? "\n  {" : ",\n  {");
+        campoJson(COLUMNAS[0], entrenamiento.getNombre(), true);
+        campoJson(COLUMNAS[1], entrenamiento.getDescripcion(), false);
+        campoJson(COLUMNAS[2], entrenamiento.getDuracion(), false);
+        campoJson(COLUMNAS[3], entrenamiento.getDificultad(), false);
+        campoJson(COLUMNAS[4], nombresIconos.get(entrenamiento.getIconoResId()), false);
+        escribir('}');
+    }
+
+    /** Un valor null no se escribe (el importador lo trata igual que un campo ausente) */
+    private void campoJson(String clave, String valor, boolean primero) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (!primero) {
+            escribir(", ");
+        }
+        textoJson(clave);
+        escribir(": ");
+        textoJson(valor);
+    }
+
+    private void textoJson(String texto) throws IOException {
+        escribir('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': escribir("\\\""); break;
+                case '\\': escribir("\\\\"); break;
+                case '\n': escribir("\\n"); break;
+                case '\r': escribir("\\r"); break;
+                case '\t': escribir("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escribir("\\u00");
+                        escribir(HEX[c >> 4]);
+                        escribir(HEX[c & 0xF]);
+                    } else {
+                        escribir(c);
+                    }
+            }
+        }
+        escribir('"');
+    }
+
+    // ==================== UTF-8 EN EL BUFFER ====================
+
+    private void escribir(String texto) throws IOException {
+        for (int i = 0; i < texto.length(); i++) {
+            escribir(texto.charAt(i));
+        }
+    }
+
+    /**
+     * Codifica un carácter en UTF-8 directamente en el buffer.
+     * Un par sustituto (emoji...) se escribe al llegar su segunda mitad.
+     */
+    private void escribir(char c) throws IOException {
+        if (buffer.remaining() < MAX_BYTES_CARACTER) {
+            vaciar();
+        }
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            sustitutoAlto = c;
+        } else if (Character.isLowSurrogate(c) && sustitutoAlto != 0) {
+            int codigo = Character.toCodePoint(sustitutoAlto, c);
+            sustitutoAlto = 0;
+            buffer.put((byte) (0xF0 | (codigo >> 18)));
+            buffer.put((byte) (0x80 | ((codigo >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codigo >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codigo & 0x3F)));
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * CLASE: FicheroRecorrido.java
+ *
+ * PROPÓSITO:
+ * Fichero de un recorrido GPS comprimido con diferencias (deltas) y varints.
+ * El hilo escritor de GrabadorRecorrido vacía el BufferMuestras aquí por lotes;
+ * leer() lo convierte en un Recorrido, o entrega las muestras una a una a un
+ * BufferMuestras.Receptor (SimplificadorRuta) sin guardarlas todas en memoria.
+ *
+ * FORMATO DEL FICHERO:
+ * ┌──────────────────────┐
+ * │ Cabecera (8 bytes)   │ ← MAGIA + VERSION
+ * ├──────────────────────┤
+ * │ Bloque 1             │ ← [longitud:varint][crc32:int][carga...]
+ * │ Bloque 2             │   (mismo formato de registro que RegistroEscrituras)
+ * │ ...                  │
+ * └──────────────────────┘
+ * Carga de un bloque (hasta MUESTRAS_POR_BLOQUE muestras):
+ * - [muestras:short]
+ * - Primera muestra ENTERA: [tiempo:long][latitud:int][longitud:int][altitud:zigzag][precisión:varint]
+ * - Las demás, DIFERENCIAS con la anterior: [Δtiempo][Δlatitud][Δlongitud][Δaltitud] en
+ *   zigzag (Varint.escribirConSigno) + [precisión:varint]
+ *
+ * ¿CUÁNTO OCUPA?
+ * Corriendo a 1 Hz, entre dos muestras pasan ~1000 ms y ~3 m: Δtiempo ocupa
+ * 2 bytes, Δlatitud y Δlongitud 2 bytes cada una, Δaltitud y la precisión 1.
+ * Unos 8 bytes por muestra frente a los 32 de guardarla entera: una carrera de
+ * 3 horas (10.800 muestras) ocupa menos de 100 KB.
+ *
+ * ¿POR QUÉ BLOQUES INDEPENDIENTES?
+ * Cada bloque empieza con una muestra entera y lleva su CRC: si la app muere a
+ * mitad de escribir uno, al abrir el fichero se pierde solo ese lote (como
+ * mucho unos segundos de ruta), no el resto del recorrido.
+ *
+ * SIN CREAR OBJETOS:
+ * El buffer del bloque, el CRC y el receptor que codifica se crean una vez al
+ * abrir el fichero: volcar() no reserva memoria por muestra ni por bloque.
+ *
+ * HILOS:
+ * Solo desde un hilo (el consumidor del BufferMuestras).
+ */
+package com.example.examen;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Escritor (y lector) de ficheros de recorrido con compresión delta + varint.
+ */
+public class FicheroRecorrido implements Closeable {
+
+    // ==================== CONSTANTES ====================
+
+    /** Identifica el fichero como un recorrido ("EXMT") */
+    private static final int MAGIA = 0x45584D54;
+
+    private static final int VERSION = 1;
+
+    private static final int TAMANO_CABECERA = 8;
+
+    /** Muestras por bloque como máximo (≈ 4 minutos a 1 Hz) */
+    static final int MUESTRAS_POR_BLOQUE = 256;
+
+    /** Máximo que ocupa la primera muestra de un bloque (con el contador) */
+    private static final int MAX_PRIMERA = 2 + 8 + 4 + 4 + 2 * Varint.MAX_BYTES;
+
+    /** Mínimo que ocupa la carga de un bloque: contador + una muestra entera */
+    private static final int MIN_CARGA = 2 + 8 + 4 + 4 + 2;
+
+    /** Máximo que ocupa una muestra codificada como diferencias */
+    private static final int MAX_SIGUIENTE = 5 * Varint.MAX_BYTES;
+
+    /** Cabecera de cada bloque: longitud (varint) + CRC32 */
+    private static final int CABECERA_BLOQUE_MAX = Varint.MAX_BYTES + 4;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final FileChannel canal;
+    private final CRC32 crc = new CRC32();
+
+    /** Se reutilizan en cada bloque */
+    private final ByteBuffer cabeceraBloque = ByteBuffer.allocate(CABECERA_BLOQUE_MAX);
+    private final ByteBuffer carga = ByteBuffer.allocate(MAX_PRIMERA + (MUESTRAS_POR_BLOQUE - 1) * MAX_SIGUIENTE);
+    private final ByteBuffer[] partes = {cabeceraBloque, carga};
+
+    /** Codifica cada muestra drenada en el bloque en curso (un solo objeto para todo el fichero) */
+    private final BufferMuestras.Receptor codificador = this::codificar;
+
+    /** Final de los datos válidos */
+    private long fin;
+
+    /** Muestras guardadas en el fichero */
+    private long muestras;
+
+    /** Bloque en curso: muestras y la última codificada (base de la siguiente diferencia) */
+    private int enBloque;
+    private long tiempoAnterior;
+    private int latitudAnterior;
+    private int longitudAnterior;
+    private int altitudAnterior;
+
+    // ==================== APERTURA ====================
+
+    private FicheroRecorrido(FileChannel canal) {
+        this.canal = canal;
+    }
+
+    /**
+     * Abre un recorrido para añadirle muestras (lo crea si no existe).
+     * Si el último bloque quedó a medio escribir, se descarta.
+     *
+     * @param fichero Fichero del recorrido
+     * @return Fichero listo para volcar()
+     * @throws IOException Si no se puede abrir o no es un recorrido
+     */
+    public static FicheroRecorrido abrir(File fichero) throws IOException {
+        FileChannel canal = new RandomAccessFile(fichero, "rw").getChannel();
+        FicheroRecorrido recorrido = new FicheroRecorrido(canal);
+        try {
+            recorrido.cargar();
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        return recorrido;
+    }
+
+    private void cargar() throws IOException {
+        if (canal.size() < TAMANO_CABECERA) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGIA).putInt(VERSION).flip();
+            canal.truncate(0);
+            canal.write(cabecera, 0);
+            canal.force(false);
+            fin = TAMANO_CABECERA;
+            return;
+        }
+        ByteBuffer datos = leerFichero(canal);
+        long[] leidas = new long[1];
+        fin = recorrer(datos, (tiempo, latitud, longitud, altitud, precision) -> {
+            leidas[0]++;
+            return true;
+        });
+        muestras = leidas[0];
+        if (fin < canal.size()) {
+            canal.truncate(fin);
+            canal.force(false);
+        }
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Vacía el buffer en el fichero, en bloques de hasta MUESTRAS_POR_BLOQUE.
+     * No sincroniza con el disco (sincronizar()).
+     *
+     * @param buffer Buffer del que este hilo es el consumidor
+     * @return Muestras escritas
+     * @throws IOException Si no se puede escribir
+     */
+    public int volcar(BufferMuestras buffer) throws IOException {
+        int total = 0;
+        while (true) {
+            empezarBloque();
+            int drenadas = buffer.drenar(codificador, MUESTRAS_POR_BLOQUE);
+            if (drenadas == 0) {
+                return total;
+            }
+            escribirBloque();
+            total += drenadas;
+        }
+    }
+
+    private void empezarBloque() {
+        carga.clear();
+        carga.putShort((short) 0); // Se rellena al cerrar el bloque
+        enBloque = 0;
+    }
+
+    private boolean codificar(long tiempo, int latitud, int longitud, int altitud, int precision) {
+        if (enBloque == 0) {
+            carga.putLong(tiempo).putInt(latitud).putInt(longitud);
+            Varint.escribirConSigno(carga, altitud);
+        } else {
+            long diferencia = tiempo - tiempoAnterior;
+            if (diferencia < Integer.MIN_VALUE || diferencia > Integer.MAX_VALUE) {
+                return false; // Un salto de más de 24 días empieza un bloque nuevo
+            }
+            Varint.escribirConSigno(carga, (int) diferencia);
+            // Las restas se desbordan igual al escribir que al sumar al leer: el resultado es exacto
+            Varint.escribirConSigno(carga, latitud - latitudAnterior);
+            Varint.escribirConSigno(carga, longitud - longitudAnterior);
+            Varint.escribirConSigno(carga, altitud - altitudAnterior);
+        }
+        Varint.escribir(carga, precision);
+        tiempoAnterior = tiempo;
+        latitudAnterior = latitud;
+        longitudAnterior = longitud;
+        altitudAnterior = altitud;
+        enBloque++;
+        return true;
+    }
+
+    private void escribirBloque() throws IOException {
+        carga.putShort(0, (short) enBloque);
+        carga.flip();
+        crc.reset();
+        crc.update(carga.array(), 0, carga.limit());
+        cabeceraBloque.clear();
+        Varint.escribir(cabeceraBloque, carga.limit());
+        cabeceraBloque.putInt((int) crc.getValue());
+        cabeceraBloque.flip();
+
+        long tamano = cabeceraBloque.remaining() + carga.remaining();
+        canal.position(fin);
+        while (carga.hasRemaining()) {
+            canal.write(partes);
+        }
+        fin += tamano;
+        muestras += enBloque;
+    }
+
+    /**
+     * Sincroniza con el disco lo escrito hasta ahora.
+     */
+    public void sincronizar() throws IOException {
+        canal.force(false);
+    }
+
+    /**
+     * @return Muestras guardadas en el fichero
+     */
+    public long getMuestras() {
+        return muestras;
+    }
+
+    /**
+     * @return Bytes que ocupa el fichero
+     */
+    public long getTamano() {
+        return fin;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Lee un recorrido completo. Un último bloque a medio escribir se ignora.
+     *
+     * @param fichero Fichero del recorrido
+     * @return Sus muestras
+     * @throws IOException Si no se puede leer o no es un recorrido
+     */
+    public static Recorrido leer(File fichero) throws IOException {
+        Acumulador acumulador = new Acumulador();
+        leer(fichero, acumulador);
+        return acumulador.recorrido();
+    }
+
+    /**
+     * Entrega las muestras del recorrido en orden, sin guardarlas.
+     *
+     * @param fichero Fichero del recorrido
+     * @param receptor Recibe cada muestra; si devuelve false, se deja de leer
+     * @throws IOException Si no se puede leer o no es un recorrido
+     */
+    public static void leer(File fichero, BufferMuestras.Receptor receptor) throws IOException {
+        try (FileChannel canal = new RandomAccessFile(fichero, "r").getChannel()) {
+            recorrer(leerFichero(canal), receptor);
+        }
+    }
+
+    private static ByteBuffer leerFichero(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("Recorrido demasiado grande: " + tamano + " bytes");
+        }
+        ByteBuffer datos = ByteBuffer.allocate((int) tamano);
+        while (datos.hasRemaining()) {
+            if (canal.read(datos, datos.position()) < 0) {
+                throw new EOFException("Fin de fichero inesperado");
+            }
+        }
+        datos.flip();
+        if (tamano < TAMANO_CABECERA || datos.getInt(0) != MAGIA || datos.getInt(4) != VERSION) {
+            throw new IOException("El fichero no es un recorrido");
+        }
+        return datos;
+    }
+
+    /**
+     * Decodifica los bloques válidos del fichero.
+     *
+     * @return Final del último bloque válido
+     */
+    private static long recorrer(ByteBuffer datos, BufferMuestras.Receptor receptor) {
+        CRC32 crc = new CRC32();
+        int limite = datos.limit();
+        int posicion = TAMANO_CABECERA;
+        while (posicion < limite) {
+            long cabecera = Varint.leerEn(datos, posicion, limite);
+            if (cabecera < 0) {
+                break;
+            }
+            int longitud = (int) cabecera;
+            int inicioCrc = posicion + (int) (cabecera >>> 32);
+            int inicioCarga = inicioCrc + 4;
+            if (longitud < MIN_CARGA || (long) inicioCarga + longitud > limite) {
+                break; // Incompleto (o basura)
+            }
+            crc.reset();
+            crc.update(datos.array(), inicioCarga, longitud);
+            if ((int) crc.getValue() != datos.getInt(inicioCrc)) {
+                break; // Bloque a medio escribir
+            }
+            ByteBuffer bloque = datos.duplicate();
+            bloque.position(inicioCarga).limit(inicioCarga + longitud);
+            posicion = inicioCarga + longitud;
+            if (!decodificar(bloque, receptor)) {
+                break;
+            }
+        }
+        return posicion;
+    }
+
+    /**
+     * @return false si el receptor pidió dejar de leer
+     */
+    private static boolean decodificar(ByteBuffer bloque, BufferMuestras.Receptor receptor) {
+        int enBloque = bloque.getShort() & 0xFFFF;
+        long tiempo = bloque.getLong();
+        int latitud = bloque.getInt();
+        int longitud = bloque.getInt();
+        int altitud = Varint.leerConSigno(bloque);
+        for (int i = 0; i < enBloque; i++) {
+            if (i > 0) {
+                tiempo += Varint.leerConSigno(bloque);
+                latitud += Varint.leerConSigno(bloque);
+                longitud += Varint.leerConSigno(bloque);
+                altitud += Varint.leerConSigno(bloque);
+            }
+            if (!receptor.recibir(tiempo, latitud, longitud, altitud, Varint.leer(bloque))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Arrays que crecen mientras se leen los bloques.
+     */
+    private static final class Acumulador implements BufferMuestras.Receptor {
+
+        int cantidad;
+        long[] tiempos = new long[MUESTRAS_POR_BLOQUE];
+        int[] latitudes = new int[MUESTRAS_POR_BLOQUE];
+        int[] longitudes = new int[MUESTRAS_POR_BLOQUE];
+        int[] altitudes = new int[MUESTRAS_POR_BLOQUE];
+        int[] precisiones = new int[MUESTRAS_POR_BLOQUE];
+
+        @Override
+        public boolean recibir(long tiempo, int latitud, int longitud, int altitud, int precision) {
+            if (cantidad == tiempos.length) {
+                crecer();
+            }
+            tiempos[cantidad] = tiempo;
+            latitudes[cantidad] = latitud;
+            longitudes[cantidad] = longitud;
+            altitudes[cantidad] = altitud;
+            precisiones[cantidad] = precision;
+            cantidad++;
+            return true;
+        }
+
+        private void crecer() {
+            int nueva = tiempos.length * 2;
+            tiempos = Arrays.copyOf(tiempos, nueva);
+            latitudes = Arrays.copyOf(latitudes, nueva);
+            longitudes = Arrays.copyOf(longitudes, nueva);
+            altitudes = Arrays.copyOf(altitudes, nueva);
+            precisiones = Arrays.copyOf(precisiones, nueva);
+        }
+
+        Recorrido recorrido() {
+            return new Recorrido(cantidad, tiempos, latitudes, longitudes, altitudes, precisiones);
+        }
+    }
+}
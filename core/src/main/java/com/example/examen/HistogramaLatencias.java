@@ -0,0 +1,155 @@
+/**
+ * CLASE: HistogramaLatencias.java
+ *
+ * PROPÓSITO:
+ * Histograma de duraciones en nanosegundos del que se sacan percentiles
+ * (p50, p99...) sin guardar cada medida. Lo usa Metricas para sus tiempos.
+ *
+ * ¿POR QUÉ NO UNA LISTA DE MEDIDAS?
+ * Un bind del adapter puede medirse miles de veces por segundo al hacer scroll:
+ * guardarlas todas crecería sin límite y crearía basura. Aquí cada medida solo
+ * suma 1 a una casilla de un array fijo (≈ 4 KB por histograma).
+ *
+ * ALGORITMO (cubos logarítmicos, como HdrHistogram con 3 bits de precisión):
+ * - Los valores 0..7 tienen una casilla cada uno
+ * - A partir de 8, cada potencia de 2 [2^e, 2^(e+1)) se parte en 8 casillas iguales
+ * - El error relativo de un percentil es como mucho 1/8 (12,5 %), se mida 1 µs o 10 s
+ *
+ * CONCURRENCIA:
+ * registrar() se puede llamar desde cualquier hilo sin candados (AtomicLongArray).
+ * Los percentiles se calculan sobre una lectura casilla a casilla: si se está
+ * registrando a la vez, una medida puede contar o no, nunca corromper el histograma.
+ */
+package com.example.examen;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma concurrente de latencias con cubos logarítmicos.
+ */
+public class HistogramaLatencias {
+
+    // ==================== CONSTANTES ====================
+
+    /** Bits de precisión dentro de cada potencia de 2 (8 casillas) */
+    private static final int BITS_SUBCUBO = 3;
+    private static final int SUBCUBOS = 1 << BITS_SUBCUBO;
+
+    /** Casillas para cualquier long positivo: la última potencia es 2^62 */
+    private static final int CASILLAS = (63 - BITS_SUBCUBO + 1) * SUBCUBOS;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(CASILLAS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong suma = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    // ==================== REGISTRO ====================
+
+    /**
+     * Añade una medida.
+     *
+     * @param nanos Duración en nanosegundos (los negativos cuentan como 0)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        cuentas.incrementAndGet(casilla(valor));
+        total.incrementAndGet();
+        suma.addAndGet(valor);
+        long anterior;
+        while (valor > (anterior = maximo.get()) && !maximo.compareAndSet(anterior, valor)) {
+            // Otro hilo subió el máximo a la vez: se vuelve a comparar
+        }
+    }
+
+    /**
+     * Vuelve a dejar el histograma vacío.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CASILLAS; i++) {
+            cuentas.set(i, 0);
+        }
+        total.set(0);
+        suma.set(0);
+        maximo.set(0);
+    }
+
+    // ==================== CONSULTAS ====================
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return Media en nanosegundos (0 si no hay medidas)
+     */
+    public long getMedia() {
+        long n = total.get();
+        return n > 0 ? suma.get() / n : 0;
+    }
+
+    /**
+     * @return Mayor medida registrada, exacta (0 si no hay medidas)
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Valor por debajo del cual queda el porcentaje pedido de las medidas.
+     * Se retorna el límite superior de su casilla (nunca por debajo del real)
+     * y nunca por encima del máximo registrado.
+     *
+     * @param porcentaje Entre 0 y 100 (50 = mediana, 99 = p99)
+     * @return Duración en nanosegundos (0 si no hay medidas)
+     */
+    public long percentil(double porcentaje) {
+        long[] copia = new long[CASILLAS];
+        long n = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            copia[i] = cuentas.get(i);
+            n += copia[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(n * Math.min(100, Math.max(0, porcentaje)) / 100));
+        long acumulado = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    // ==================== CASILLAS ====================
+
+    /**
+     * @return Casilla en la que cae un valor ≥ 0
+     */
+    static int casilla(long valor) {
+        if (valor < SUBCUBOS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int subcubo = (int) (valor >>> (exponente - BITS_SUBCUBO)) & (SUBCUBOS - 1);
+        return (exponente - BITS_SUBCUBO + 1) * SUBCUBOS + subcubo;
+    }
+
+    /**
+     * @return Mayor valor que cae en la casilla
+     */
+    static long limiteSuperior(int casilla) {
+        if (casilla < SUBCUBOS) {
+            return casilla;
+        }
+        int exponente = casilla / SUBCUBOS + BITS_SUBCUBO - 1;
+        long inicio = (long) (SUBCUBOS + casilla % SUBCUBOS) << (exponente - BITS_SUBCUBO);
+        long ancho = 1L << (exponente - BITS_SUBCUBO);
+        return inicio + ancho - 1;
+    }
+}
@@ -0,0 +1,563 @@
+/**
+ * CLASE: HistorialSesiones.java
+ *
+ * PROPÓSITO:
+ * Historial append-only de las sesiones realizadas (Sesion), repartido en un
+ * fichero por mes. Consultas como "las sesiones de los últimos 90 días" solo
+ * abren los meses que tocan, y abrir el historial no lee ninguna partición:
+ * años de historial no hacen más lento el arranque.
+ *
+ * FICHEROS (en la carpeta del historial):
+ * - AAAA-MM.ses: sesiones que EMPEZARON ese mes (UTC), en orden de llegada
+ *   ┌──────────────────────┐
+ *   │ Cabecera (8 bytes)   │ ← MAGIA + VERSION
+ *   ├──────────────────────┤
+ *   │ Registro 1           │ ← [longitud:varint][crc32:int][carga...]
+ *   │ ...                  │   (mismo formato de registro que RegistroEscrituras)
+ *   └──────────────────────┘
+ *   Carga: [inicio:long][segundos:varint][idEntrenamiento:varint]
+ *          [nombre: longitud varint + UTF-8][notas: longitud varint + UTF-8]
+ * - AAAA-MM.idx: índice DISPERSO de la partición: una entrada por cada bloque de
+ *   REGISTROS_POR_BLOQUE sesiones → [fin del bloque:long][inicio mínimo:long][inicio máximo:long]
+ *
+ * ÍNDICE DISPERSO:
+ * Las sesiones llegan al terminar, no necesariamente en orden de inicio (una
+ * sesión apuntada a mano puede ser de hace días). Por eso cada bloque guarda su
+ * inicio mínimo y máximo, y una consulta solo lee los bloques cuyo intervalo se
+ * cruza con el pedido. Las últimas sesiones (el bloque aún sin completar) se
+ * recorren al abrir la partición: como mucho REGISTROS_POR_BLOQUE - 1.
+ *
+ * RECUPERACIÓN:
+ * - Un registro a medio escribir (CRC incorrecto o incompleto) al final de la
+ *   partición se descarta al abrirla, como en RegistroEscrituras
+ * - El .idx se puede reconstruir siempre desde el .ses: si falta o le faltan
+ *   entradas, se completan al recorrer la partición; las que apuntan más allá
+ *   del final de los datos se descartan
+ *
+ * DURABILIDAD:
+ * Cada sesión se sincroniza con el disco (force) al añadirla: son pocas (una
+ * por entrenamiento hecho) y perder una sería perder un dato del usuario.
+ *
+ * HILOS:
+ * Todos los métodos son synchronized (CatalogoEntrenamientos lo usa desde catalogo-io).
+ */
+package com.example.examen;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Historial de sesiones en particiones mensuales con un índice temporal disperso.
+ */
+public class HistorialSesiones implements Closeable {
+
+    // ==================== CONSTANTES ====================
+
+    /** Identifica el fichero como una partición del historial ("EXMS") */
+    private static final int MAGIA = 0x45584D53;
+
+    private static final int VERSION = 1;
+
+    private static final int TAMANO_CABECERA = 8;
+
+    /** Sesiones por entrada del índice disperso */
+    static final int REGISTROS_POR_BLOQUE = 64;
+
+    /** Tamaño de una entrada del índice: fin + mínimo + máximo */
+    private static final int TAMANO_ENTRADA = 24;
+
+    private static final String EXTENSION_DATOS = ".ses";
+    private static final String EXTENSION_INDICE = ".idx";
+
+    private static final long MILIS_POR_DIA = 24L * 60 * 60 * 1000;
+
+    /** 1 de enero del año 10000: los nombres de partición tienen 4 cifras de año */
+    private static final long FIN_FECHAS = 253_402_300_800_000L;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    // ==================== ATRIBUTOS ====================
+
+    private final File carpeta;
+
+    /** Meses (año * 12 + mes) que tienen partición, según el listado de la carpeta */
+    private final TreeSet<Integer> meses = new TreeSet<>();
+
+    /** Partición abierta para añadir (la del mes de la última sesión añadida) */
+    private Particion actual;
+
+    /** Particiones abiertas desde que se abrió el historial (para comprobar las consultas) */
+    private int aperturas;
+
+    private boolean cerrado;
+
+    // ==================== APERTURA ====================
+
+    private HistorialSesiones(File carpeta) {
+        this.carpeta = carpeta;
+    }
+
+    /**
+     * Abre (o crea) el historial. Solo lista la carpeta: no abre ninguna partición.
+     *
+     * @param carpeta Carpeta del historial (se crea si no existe)
+     * @return Historial listo para añadir y consultar
+     * @throws IOException Si la carpeta no se puede crear
+     */
+    public static HistorialSesiones abrir(File carpeta) throws IOException {
+        if (!carpeta.isDirectory() && !carpeta.mkdirs()) {
+            throw new IOException("No se puede crear la carpeta del historial: " + carpeta);
+        }
+        HistorialSesiones historial = new HistorialSesiones(carpeta);
+        String[] nombres = carpeta.list();
+        if (nombres != null) {
+            for (String nombre : nombres) {
+                int mes = mesDeFichero(nombre);
+                if (mes >= 0) {
+                    historial.meses.add(mes);
+                }
+            }
+        }
+        return historial;
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Añade una sesión a la partición del mes en que empezó y la sincroniza con el disco.
+     *
+     * @param sesion Sesión terminada
+     * @throws IOException Si no se puede escribir
+     */
+    public synchronized void anadir(Sesion sesion) throws IOException {
+        comprobarAbierto();
+        if (sesion.getInicio() >= FIN_FECHAS) {
+            throw new IllegalArgumentException("Inicio posterior al año 9999: " + sesion.getInicio());
+        }
+        int mes = mes(sesion.getInicio());
+        if (actual == null || actual.mes != mes) {
+            if (actual != null) {
+                actual.close();
+            }
+            actual = abrirParticion(mes);
+            meses.add(mes);
+        }
+        actual.anadir(codificar(sesion), sesion.getInicio());
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Sesiones que empezaron en [desde, hasta), ordenadas por inicio.
+     * Solo se abren las particiones de los meses de ese intervalo, y de ellas
+     * solo se leen los bloques cuyo rango de inicios se cruza con él.
+     *
+     * @param desde Milisegundos desde 1970, incluido
+     * @param hasta Milisegundos desde 1970, excluido
+     * @return Sesiones encontradas
+     * @throws IOException Si no se puede leer una partición
+     */
+    public synchronized List<Sesion> consultar(long desde, long hasta) throws IOException {
+        comprobarAbierto();
+        List<Sesion> sesiones = new ArrayList<>();
+        long inicio = Math.max(0, desde);
+        long fin = Math.min(hasta, FIN_FECHAS);
+        if (fin <= inicio) {
+            return sesiones;
+        }
+        for (int mes : meses.subSet(mes(inicio), true, mes(fin - 1), true)) {
+            if (actual != null && actual.mes == mes) {
+                actual.consultar(inicio, fin, sesiones);
+            } else {
+                try (Particion particion = abrirParticion(mes)) {
+                    particion.consultar(inicio, fin, sesiones);
+                }
+            }
+        }
+        sesiones.sort(Comparator.comparingLong(Sesion::getInicio));
+        return sesiones;
+    }
+
+    /**
+     * Sesiones de los últimos días hasta ahora.
+     *
+     * @param dias Número de días hacia atrás (90 = los últimos tres meses)
+     * @param ahora Hora actual en milisegundos desde 1970
+     * @return Sesiones ordenadas por inicio
+     * @throws IOException Si no se puede leer una partición
+     */
+    public List<Sesion> ultimosDias(int dias, long ahora) throws IOException {
+        return consultar(ahora - dias * MILIS_POR_DIA, ahora + 1);
+    }
+
+    /**
+     * @return Número de meses con alguna sesión
+     */
+    public synchronized int getParticiones() {
+        return meses.size();
+    }
+
+    /**
+     * @return Particiones abiertas desde que se abrió el historial (al añadir o consultar)
+     */
+    public synchronized int getAperturas() {
+        return aperturas;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        cerrado = true;
+        if (actual != null) {
+            actual.close();
+            actual = null;
+        }
+    }
+
+    private void comprobarAbierto() throws IOException {
+        if (cerrado) {
+            throw new IOException("Historial de sesiones cerrado");
+        }
+    }
+
+    // ==================== MESES ====================
+
+    /**
+     * @return año * 12 + mes (0-11) en UTC del instante
+     */
+    static int mes(long milis) {
+        Calendar calendario = Calendar.getInstance(UTC, Locale.ROOT);
+        calendario.setTimeInMillis(milis);
+        return calendario.get(Calendar.YEAR) * 12 + calendario.get(Calendar.MONTH);
+    }
+
+    private static String nombreBase(int mes) {
+        return String.format(Locale.ROOT, "%04d-%02d", mes / 12, mes % 12 + 1);
+    }
+
+    /**
+     * @return Mes del nombre "AAAA-MM.ses", o -1 si no es una partición
+     */
+    private static int mesDeFichero(String nombre) {
+        if (nombre.length() != 7 + EXTENSION_DATOS.length() || !nombre.endsWith(EXTENSION_DATOS)
+                || nombre.charAt(4) != '-') {
+            return -1;
+        }
+        try {
+            int anio = Integer.parseInt(nombre.substring(0, 4));
+            int mes = Integer.parseInt(nombre.substring(5, 7));
+            return mes >= 1 && mes <= 12 ? anio * 12 + mes - 1 : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Particion abrirParticion(int mes) throws IOException {
+        aperturas++;
+        String base = nombreBase(mes);
+        return Particion.abrir(mes, new File(carpeta, base + EXTENSION_DATOS), new File(carpeta, base + EXTENSION_INDICE));
+    }
+
+    // ==================== CODIFICACIÓN ====================
+
+    private static ByteBuffer codificar(Sesion sesion) {
+        byte[] nombre = sesion.getNombreEntrenamiento().getBytes(StandardCharsets.UTF_8);
+        byte[] notas = sesion.getNotas().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer carga = ByteBuffer.allocate(8 + 4 * Varint.MAX_BYTES + nombre.length + notas.length);
+        carga.putLong(sesion.getInicio());
+        Varint.escribir(carga, sesion.getSegundos());
+        Varint.escribir(carga, sesion.getIdEntrenamiento());
+        Varint.escribir(carga, nombre.length);
+        carga.put(nombre);
+        Varint.escribir(carga, notas.length);
+        carga.put(notas);
+        carga.flip();
+        return carga;
+    }
+
+    private static Sesion decodificar(ByteBuffer carga) {
+        long inicio = carga.getLong();
+        int segundos = Varint.leer(carga);
+        int idEntrenamiento = Varint.leer(carga);
+        String nombre = leerTexto(carga);
+        String notas = leerTexto(carga);
+        return new Sesion(idEntrenamiento, nombre, inicio, segundos, notas);
+    }
+
+    private static String leerTexto(ByteBuffer carga) {
+        int longitud = Varint.leer(carga);
+        String texto = new String(carga.array(), carga.arrayOffset() + carga.position(), longitud, StandardCharsets.UTF_8);
+        carga.position(carga.position() + longitud);
+        return texto;
+    }
+
+    // ==================== PARTICIÓN ====================
+
+    /**
+     * Un mes: fichero de datos + índice disperso (en memoria y en su .idx).
+     */
+    private static final class Particion implements Closeable {
+
+        final int mes;
+        private final FileChannel datos;
+        private final FileChannel indice;
+        private final CRC32 crc = new CRC32();
+
+        /** Final de los datos válidos (donde va la próxima sesión) */
+        private long fin;
+
+        /** Bloques completos: fin, inicio mínimo e inicio máximo de cada uno */
+        private long[] fines = new long[8];
+        private long[] minimos = new long[8];
+        private long[] maximos = new long[8];
+        private int bloques;
+
+        /** Bloque en curso (sin entrada en el .idx todavía) */
+        private int enBloque;
+        private long minimoBloque = Long.MAX_VALUE;
+        private long maximoBloque = Long.MIN_VALUE;
+
+        private Particion(int mes, FileChannel datos, FileChannel indice) {
+            this.mes = mes;
+            this.datos = datos;
+            this.indice = indice;
+        }
+
+        static Particion abrir(int mes, File ficheroDatos, File ficheroIndice) throws IOException {
+            FileChannel datos = new RandomAccessFile(ficheroDatos, "rw").getChannel();
+            FileChannel indice;
+            try {
+                indice = new RandomAccessFile(ficheroIndice, "rw").getChannel();
+            } catch (IOException e) {
+                datos.close();
+                throw e;
+            }
+            Particion particion = new Particion(mes, datos, indice);
+            try {
+                particion.cargar();
+            } catch (IOException | RuntimeException e) {
+                particion.close();
+                throw e;
+            }
+            return particion;
+        }
+
+        /**
+         * Lee el índice y recorre solo lo que haya detrás de su último bloque.
+         */
+        private void cargar() throws IOException {
+            if (datos.size() < TAMANO_CABECERA) {
+                ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+                cabecera.putInt(MAGIA).putInt(VERSION).flip();
+                datos.truncate(0);
+                datos.write(cabecera, 0);
+                datos.force(false);
+                indice.truncate(0);
+            } else {
+                ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+                leerCompleto(datos, cabecera, 0);
+                if (cabecera.getInt(0) != MAGIA || cabecera.getInt(4) != VERSION) {
+                    throw new IOException("El fichero no es una partición del historial de sesiones");
+                }
+            }
+
+            // Entradas del índice que siguen siendo válidas (crecientes y dentro de los datos)
+            long tamanoDatos = datos.size();
+            int entradas = (int) (indice.size() / TAMANO_ENTRADA);
+            if (entradas > 0) {
+                ByteBuffer contenido = ByteBuffer.allocate(entradas * TAMANO_ENTRADA);
+                leerCompleto(indice, contenido, 0);
+                long anterior = TAMANO_CABECERA;
+                for (int i = 0; i < entradas; i++) {
+                    long finBloque = contenido.getLong(i * TAMANO_ENTRADA);
+                    if (finBloque <= anterior || finBloque > tamanoDatos) {
+                        break;
+                    }
+                    anadirBloque(finBloque, contenido.getLong(i * TAMANO_ENTRADA + 8),
+                            contenido.getLong(i * TAMANO_ENTRADA + 16));
+                    anterior = finBloque;
+                }
+            }
+            indice.truncate((long) bloques * TAMANO_ENTRADA);
+
+            // Sesiones detrás del último bloque indexado: se validan y forman el bloque en curso
+            long desde = bloques > 0 ? fines[bloques - 1] : TAMANO_CABECERA;
+            int longitud = (int) Math.min(Integer.MAX_VALUE, tamanoDatos - desde);
+            ByteBuffer cola = ByteBuffer.allocate(longitud);
+            leerCompleto(datos, cola, desde);
+            int posicion = 0;
+            while (posicion < longitud) {
+                int tamano = leerRegistro(cola, posicion, longitud);
+                if (tamano < 0) {
+                    break; // Sesión a medio escribir: se descarta con lo que haya detrás
+                }
+                int carga = longitudCarga(cola, posicion, longitud);
+                long inicio = cola.getLong(posicion + tamano - carga);
+                posicion += tamano;
+                contarEnBloque(inicio, desde + posicion);
+            }
+            fin = desde + posicion;
+            if (fin < tamanoDatos) {
+                datos.truncate(fin);
+                datos.force(false);
+            }
+        }
+
+        void anadir(ByteBuffer carga, long inicio) throws IOException {
+            int longitud = carga.remaining();
+            ByteBuffer registro = ByteBuffer.allocate(Varint.MAX_BYTES + 4 + longitud);
+            Varint.escribir(registro, longitud);
+            crc.reset();
+            crc.update(carga.duplicate());
+            registro.putInt((int) crc.getValue());
+            registro.put(carga);
+            registro.flip();
+
+            int tamano = registro.remaining();
+            while (registro.hasRemaining()) {
+                datos.write(registro, fin + (tamano - registro.remaining()));
+            }
+            datos.force(false);
+            fin += tamano;
+            contarEnBloque(inicio, fin);
+        }
+
+        /**
+         * Cuenta una sesión en el bloque en curso; al completarlo, escribe su entrada en el .idx.
+         */
+        private void contarEnBloque(long inicio, long finSesion) throws IOException {
+            enBloque++;
+            minimoBloque = Math.min(minimoBloque, inicio);
+            maximoBloque = Math.max(maximoBloque, inicio);
+            if (enBloque < REGISTROS_POR_BLOQUE) {
+                return;
+            }
+            ByteBuffer entrada = ByteBuffer.allocate(TAMANO_ENTRADA);
+            entrada.putLong(finSesion).putLong(minimoBloque).putLong(maximoBloque).flip();
+            while (entrada.hasRemaining()) {
+                indice.write(entrada, (long) bloques * TAMANO_ENTRADA + entrada.position());
+            }
+            anadirBloque(finSesion, minimoBloque, maximoBloque);
+            enBloque = 0;
+            minimoBloque = Long.MAX_VALUE;
+            maximoBloque = Long.MIN_VALUE;
+        }
+
+        private void anadirBloque(long finBloque, long minimo, long maximo) {
+            if (bloques == fines.length) {
+                fines = Arrays.copyOf(fines, bloques * 2);
+                minimos = Arrays.copyOf(minimos, bloques * 2);
+                maximos = Arrays.copyOf(maximos, bloques * 2);
+            }
+            fines[bloques] = finBloque;
+            minimos[bloques] = minimo;
+            maximos[bloques] = maximo;
+            bloques++;
+        }
+
+        /**
+         * Añade a resultado las sesiones con inicio en [desde, hasta), leyendo
+         * solo los bloques cuyo [mínimo, máximo] se cruza con el intervalo.
+         */
+        void consultar(long desde, long hasta, List<Sesion> resultado) throws IOException {
+            long inicioBloque = TAMANO_CABECERA;
+            for (int i = 0; i < bloques; i++) {
+                if (maximos[i] >= desde && minimos[i] < hasta) {
+                    leerBloque(inicioBloque, fines[i], desde, hasta, resultado);
+                }
+                inicioBloque = fines[i];
+            }
+            if (enBloque > 0 && maximoBloque >= desde && minimoBloque < hasta) {
+                leerBloque(inicioBloque, fin, desde, hasta, resultado);
+            }
+        }
+
+        private void leerBloque(long inicio, long finBloque, long desde, long hasta,
+                                List<Sesion> resultado) throws IOException {
+            int longitud = (int) (finBloque - inicio);
+            ByteBuffer bloque = ByteBuffer.allocate(longitud);
+            leerCompleto(datos, bloque, inicio);
+            int posicion = 0;
+            while (posicion < longitud) {
+                int tamano = leerRegistro(bloque, posicion, longitud);
+                if (tamano < 0) {
+                    throw new IOException("Sesión dañada en la partición " + nombreBase(mes));
+                }
+                int carga = longitudCarga(bloque, posicion, longitud);
+                ByteBuffer registro = bloque.duplicate();
+                registro.position(posicion + tamano - carga).limit(posicion + tamano);
+                long inicioSesion = registro.getLong(registro.position());
+                if (inicioSesion >= desde && inicioSesion < hasta) {
+                    resultado.add(decodificar(registro.slice()));
+                }
+                posicion += tamano;
+            }
+        }
+
+        /**
+         * Comprueba el registro que empieza en posicion.
+         *
+         * @return Bytes que ocupa (cabecera + carga), o -1 si está incompleto o su CRC no cuadra
+         */
+        private int leerRegistro(ByteBuffer buffer, int posicion, int limite) {
+            long cabecera = Varint.leerEn(buffer, posicion, limite);
+            if (cabecera < 0) {
+                return -1;
+            }
+            int longitud = (int) cabecera;
+            int inicioCrc = posicion + (int) (cabecera >>> 32);
+            int inicioCarga = inicioCrc + 4;
+            if (longitud < 8 || (long) inicioCarga + longitud > limite) {
+                return -1;
+            }
+            ByteBuffer carga = buffer.duplicate();
+            carga.position(inicioCarga).limit(inicioCarga + longitud);
+            crc.reset();
+            crc.update(carga);
+            if ((int) crc.getValue() != buffer.getInt(inicioCrc)) {
+                return -1;
+            }
+            return inicioCarga + longitud - posicion;
+        }
+
+        /**
+         * @return Longitud de la carga del registro (ya validado) que empieza en posicion
+         */
+        private static int longitudCarga(ByteBuffer buffer, int posicion, int limite) {
+            return (int) Varint.leerEn(buffer, posicion, limite);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                datos.close();
+            } finally {
+                indice.close();
+            }
+        }
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int leidos = canal.read(destino, posicion + destino.position());
+            if (leidos < 0) {
+                throw new EOFException("Fin de fichero inesperado");
+            }
+        }
+        destino.flip();
+    }
+}
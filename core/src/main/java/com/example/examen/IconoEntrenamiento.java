@@ -0,0 +1,111 @@
+/**
+ * CLASE: IconoEntrenamiento.java
+ *
+ * PROPÓSITO:
+ * Gestiona los iconos disponibles para asociar a los entrenamientos.
+ * Proporciona una lista de iconos temáticos de gimnasio y ejercicio.
+ *
+ * FUNCIONALIDAD:
+ * - Cada icono tiene un nombre descriptivo y una descripción de uso
+ * - Método estático para obtener todos los iconos disponibles
+ * - Método estático para buscar un icono por su ID de recurso
+ * Los iconos en sí los definen los paquetes (PaqueteIconosBasico, que registra la
+ * app al arrancar, y los que se registren después) y se guardan una sola vez en
+ * RegistroIconos.
+ *
+ * PATRÓN DE DISEÑO:
+ * Objeto de valor inmutable + métodos estáticos que consultan el registro
+ *
+ * USO:
+ * - El diálogo de nuevo entrenamiento usa getIconosDisponibles() para mostrar opciones
+ * - El usuario selecciona un icono al crear un entrenamiento
+ */
+package com.example.examen;
+
+import java.util.List;
+
+/**
+ * Icono que se puede asociar a un entrenamiento (inmutable).
+ */
+public final class IconoEntrenamiento {
+
+    // ==================== ATRIBUTOS ====================
+
+    /** ID del recurso drawable del icono */
+    private final int iconoResId;
+
+    /** Nombre descriptivo corto del icono (ej: "Cardio/Running") */
+    private final String nombre;
+
+    /** Descripción del uso recomendado del icono */
+    private final String descripcion;
+
+    // ==================== CONSTRUCTOR ====================
+
+    /**
+     * Constructor que inicializa un icono de entrenamiento.
+     *
+     * @param iconoResId ID del recurso drawable del icono
+     * @param nombre Nombre descriptivo corto del icono
+     * @param descripcion Descripción del uso recomendado
+     */
+    public IconoEntrenamiento(int iconoResId, String nombre, String descripcion) {
+        this.iconoResId = iconoResId;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+    }
+
+    // ==================== GETTERS ====================
+
+    /**
+     * Obtiene el ID del recurso drawable del icono.
+     * @return ID del recurso (ej: android.R.drawable.ic_menu_directions)
+     */
+    public int getIconoResId() {
+        return iconoResId;
+    }
+
+    /**
+     * Obtiene el nombre descriptivo del icono.
+     * @return Nombre corto del icono (ej: "Cardio/Running")
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene la descripción de uso del icono.
+     * @return Descripción de cuándo usar este icono
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    // ==================== MÉTODOS ESTÁTICOS ====================
+
+    /**
+     * Retorna la lista completa de iconos disponibles para entrenamientos:
+     * los 12 del paquete básico (PaqueteIconosBasico) más los de cualquier
+     * paquete registrado después en RegistroIconos.
+     *
+     * No crea nada: es siempre la lista de solo lectura del catálogo vigente.
+     *
+     * @return Lista de IconoEntrenamiento con todos los iconos disponibles
+     */
+    public static List<IconoEntrenamiento> getIconosDisponibles() {
+        return RegistroIconos.getIconos();
+    }
+
+    /**
+     * Busca y retorna un icono específico por su ID de recurso (O(1), sin recorrer la lista).
+     * Si no se encuentra el icono, retorna el primero por defecto.
+     *
+     * @param iconoResId ID del recurso drawable a buscar
+     * @return IconoEntrenamiento encontrado, o el primero si no existe
+     *         (null solo si aún no se ha registrado ningún paquete)
+     */
+    public static IconoEntrenamiento getIconoPorId(int iconoResId) {
+        IconoEntrenamiento icono = RegistroIconos.getIcono(iconoResId);
+        return icono != null ? icono : RegistroIconos.getIconoPorDefecto();
+    }
+}
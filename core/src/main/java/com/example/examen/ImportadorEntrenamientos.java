@@ -0,0 +1,436 @@
+/**
+ * CLASE: ImportadorEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Importa entrenamientos en bloque desde un fichero CSV o JSON de cualquier tamaño.
+ * No usa nada de Android: CatalogoEntrenamientos le pasa el InputStream del fichero
+ * elegido y un Destino que guarda cada lote en el almacén.
+ *
+ * COLUMNAS / CAMPOS (sin importar mayúsculas ni acentos):
+ * ┌────────────┬─────────────┬──────────────────────────────────────────────┐
+ * │ nombre     │ obligatorio │                                              │
+ * │ descripcion│ obligatorio │                                              │
+ * │ duracion   │ obligatorio │ "45 minutos", "1h 30m"... (AnalizadorDuracion)│
+ * │ dificultad │ obligatorio │ Baja, Media o Alta                           │
+ * │ icono      │ opcional    │ Nombre del icono ("Cardio/Running" o "cardio")│
+ * └────────────┴─────────────┴──────────────────────────────────────────────┘
+ * En CSV la primera fila es la cabecera con los nombres de las columnas.
+ *
+ * VALIDACIÓN:
+ * Cada fila pasa por ValidadorEntrenamiento, las mismas reglas que el diálogo de
+ * nuevo entrenamiento. Una fila inválida NO detiene la importación: se cuenta como
+ * rechazada y se guarda su error (hasta MAX_ERRORES mensajes).
+ *
+ * FLUJO:
+ * fichero → [buffer fijo] LectorCsv / LectorJson → validar → lote de TAMANO_LOTE
+ *         → Destino.guardarLote() → OnProgresoListener.onProgreso()
+ *
+ * MEMORIA:
+ * Constante: el buffer del lector y como mucho un lote de entrenamientos.
+ * Importar 10 entrenamientos o 1.000.000 ocupa lo mismo.
+ *
+ * CANCELACIÓN:
+ * cancelar() puede llamarse desde cualquier hilo. La importación para antes del
+ * siguiente lote; los lotes ya guardados se quedan guardados.
+ */
+package com.example.examen;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Importación en streaming y por lotes de entrenamientos desde CSV o JSON.
+ */
+public class ImportadorEntrenamientos {
+
+    // ==================== TIPOS ====================
+
+    /**
+     * Formato del fichero a importar.
+     */
+    public enum Formato {
+        CSV, JSON;
+
+        /**
+         * Deduce el formato a partir del tipo MIME o, si no lo aclara, de la extensión.
+         *
+         * @param nombreFichero Nombre del fichero (puede ser null)
+         * @param tipoMime Tipo MIME (puede ser null)
+         * @return JSON si parece JSON; CSV en cualquier otro caso
+         */
+        public static Formato detectar(String nombreFichero, String tipoMime) {
+            if (tipoMime != null && tipoMime.contains("json")) {
+                return JSON;
+            }
+            if (nombreFichero != null && nombreFichero.toLowerCase().endsWith(".json")) {
+                return JSON;
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * Dónde se guardan los entrenamientos importados.
+     */
+    public interface Destino {
+        /**
+         * Guarda un lote de entrenamientos válidos (sin ID: el destino asigna uno nuevo a cada uno).
+         *
+         * @param lote Entrenamientos del lote, en el orden del fichero
+         * @throws IOException Si no se pueden guardar
+         */
+        void guardarLote(List<Entrenamiento> lote) throws IOException;
+    }
+
+    /**
+     * Recibe el progreso después de cada lote guardado.
+     * Se llama en el hilo que ejecuta importar().
+     */
+    public interface OnProgresoListener {
+        void onProgreso(Progreso progreso);
+    }
+
+    /**
+     * Estado de una importación en curso (inmutable).
+     */
+    public static final class Progreso {
+        private final int filasLeidas;
+        private final int importadas;
+        private final int rechazadas;
+        private final long bytesLeidos;
+        private final long bytesTotales;
+
+        Progreso(int filasLeidas, int importadas, int rechazadas, long bytesLeidos, long bytesTotales) {
+            this.filasLeidas = filasLeidas;
+            this.importadas = importadas;
+            this.rechazadas = rechazadas;
+            this.bytesLeidos = bytesLeidos;
+            this.bytesTotales = bytesTotales;
+        }
+
+        /** @return Filas (o objetos JSON) leídas hasta ahora */
+        public int getFilasLeidas() {
+            return filasLeidas;
+        }
+
+        /** @return Entrenamientos ya guardados */
+        public int getImportadas() {
+            return importadas;
+        }
+
+        /** @return Filas descartadas por no ser válidas */
+        public int getRechazadas() {
+            return rechazadas;
+        }
+
+        /** @return Bytes del fichero leídos hasta ahora */
+        public long getBytesLeidos() {
+            return bytesLeidos;
+        }
+
+        /** @return Tamaño del fichero en bytes, o -1 si no se conoce */
+        public long getBytesTotales() {
+            return bytesTotales;
+        }
+
+        /**
+         * @return Porcentaje leído (0-100), o -1 si no se conoce el tamaño del fichero
+         */
+        public int getPorcentaje() {
+            if (bytesTotales <= 0) {
+                return -1;
+            }
+            return (int) Math.min(100, bytesLeidos * 100 / bytesTotales);
+        }
+    }
+
+    /**
+     * Resultado final de una importación (inmutable).
+     */
+    public static final class Resultado {
+        private final int importadas;
+        private final int rechazadas;
+        private final List<String> errores;
+        private final boolean cancelada;
+
+        Resultado(int importadas, int rechazadas, List<String> errores, boolean cancelada) {
+            this.importadas = importadas;
+            this.rechazadas = rechazadas;
+            this.errores = Collections.unmodifiableList(errores);
+            this.cancelada = cancelada;
+        }
+
+        /** @return Entrenamientos guardados */
+        public int getImportadas() {
+            return importadas;
+        }
+
+        /** @return Filas descartadas */
+        public int getRechazadas() {
+            return rechazadas;
+        }
+
+        /** @return Primeros errores ("Fila N: motivo"), como mucho MAX_ERRORES */
+        public List<String> getErrores() {
+            return errores;
+        }
+
+        /** @return true si se llamó a cancelar() antes de terminar */
+        public boolean isCancelada() {
+            return cancelada;
+        }
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Entrenamientos que se guardan (y se notifican) de una vez */
+    public static final int TAMANO_LOTE = 500;
+
+    /** Mensajes de error que se guardan como máximo */
+    public static final int MAX_ERRORES = 20;
+
+    /** Dificultades aceptadas, como las del Spinner del diálogo (R.array.dificultades) */
+    private static final String[] DIFICULTADES = {"Baja", "Media", "Alta"};
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Nombre de icono plegado (y cada parte de "Cardio/Running") → iconoResId */
+    private final Map<String, Integer> iconos = new HashMap<>();
+
+    /** Icono para las filas sin icono o con uno desconocido */
+    private final int iconoPorDefecto;
+
+    private final AtomicBoolean cancelada = new AtomicBoolean();
+
+    // ==================== CONSTRUCTOR ====================
+
+    /**
+     * @param iconosPorNombre Nombre de cada icono disponible → iconoResId
+     *                        (IconoEntrenamiento.getIconosDisponibles())
+     * @param iconoPorDefecto Icono de las filas sin icono reconocible
+     */
+    public ImportadorEntrenamientos(Map<String, Integer> iconosPorNombre, int iconoPorDefecto) {
+        this.iconoPorDefecto = iconoPorDefecto;
+        for (Map.Entry<String, Integer> icono : iconosPorNombre.entrySet()) {
+            // "Cardio/Running" se reconoce como "cardio/running", "cardio" o "running"
+            for (String parte : icono.getKey().split("/")) {
+                iconos.putIfAbsent(TextoPlegado.plegar(parte.trim()), icono.getValue());
+            }
+        }
+        for (Map.Entry<String, Integer> icono : iconosPorNombre.entrySet()) {
+            iconos.put(TextoPlegado.plegar(icono.getKey().trim()), icono.getValue());
+        }
+    }
+
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Pide que la importación en curso pare antes del siguiente lote.
+     * Se puede llamar desde cualquier hilo.
+     */
+    public void cancelar() {
+        cancelada.set(true);
+    }
+
+    /**
+     * Lee el fichero completo, guardando los entrenamientos válidos por lotes.
+     * Bloquea hasta terminar: llamar desde un hilo de fondo.
+     *
+     * @param entrada Contenido del fichero en UTF-8 (no se cierra)
+     * @param formato CSV o JSON
+     * @param bytesTotales Tamaño del fichero, o -1 si no se conoce (solo para el progreso)
+     * @param destino Dónde se guarda cada lote
+     * @param listener Recibe el progreso tras cada lote (puede ser null)
+     * @return Resumen de la importación
+     * @throws IOException Si el fichero no se puede leer, está mal formado o el destino falla
+     */
+    public Resultado importar(InputStream entrada, Formato formato, long bytesTotales,
+                              Destino destino, OnProgresoListener listener) throws IOException {
+        EntradaContada contada = new EntradaContada(entrada);
+        Reader lector = new InputStreamReader(contada, StandardCharsets.UTF_8);
+        Fuente fuente = formato == Formato.JSON ? new FuenteJson(lector) : new FuenteCsv(lector);
+
+        List<Entrenamiento> lote = new ArrayList<>(TAMANO_LOTE);
+        List<String> errores = new ArrayList<>();
+        int filas = 0;
+        int importadas = 0;
+        int rechazadas = 0;
+
+        Map<String, String> campos;
+        while (!cancelada.get() && (campos = fuente.siguiente()) != null) {
+            filas++;
+            String error = validar(campos);
+            if (error != null) {
+                rechazadas++;
+                if (errores.size() < MAX_ERRORES) {
+                    errores.add("Fila " + filas + ": " + error);
+                }
+                continue;
+            }
+
+            lote.add(crear(campos));
+            if (lote.size() == TAMANO_LOTE) {
+                destino.guardarLote(lote);
+                importadas += lote.size();
+                lote = new ArrayList<>(TAMANO_LOTE);
+                if (listener != null) {
+                    listener.onProgreso(new Progreso(filas, importadas, rechazadas, contada.leidos, bytesTotales));
+                }
+            }
+        }
+
+        boolean cancelado = cancelada.get();
+        if (!cancelado && !lote.isEmpty()) {
+            destino.guardarLote(lote);
+            importadas += lote.size();
+        }
+        if (listener != null) {
+            listener.onProgreso(new Progreso(filas, importadas, rechazadas, contada.leidos, bytesTotales));
+        }
+        return new Resultado(importadas, rechazadas, errores, cancelado);
+    }
+
+    // ==================== VALIDACIÓN ====================
+
+    private String validar(Map<String, String> campos) {
+        String error = ValidadorEntrenamiento.validar(
+                campos.get("nombre"), campos.get("descripcion"), campos.get("duracion"));
+        if (error != null) {
+            return error;
+        }
+        String dificultad = campos.get("dificultad");
+        if (dificultad == null || dificultad.trim().isEmpty()) {
+            return "La dificultad es obligatoria";
+        }
+        if (normalizarDificultad(dificultad) == null) {
+            return "Dificultad no válida: " + dificultad.trim() + " (Baja, Media o Alta)";
+        }
+        return null;
+    }
+
+    private Entrenamiento crear(Map<String, String> campos) {
+        String icono = campos.get("icono");
+        Integer iconoResId = icono != null ? iconos.get(TextoPlegado.plegar(icono.trim())) : null;
+        return new Entrenamiento(0,
+                campos.get("nombre").trim(),
+                campos.get("descripcion").trim(),
+                campos.get("duracion").trim(),
+                normalizarDificultad(campos.get("dificultad")),
+                iconoResId != null ? iconoResId : iconoPorDefecto);
+    }
+
+    /** "alta", " ALTA " → "Alta"; null si no es una dificultad conocida */
+    private static String normalizarDificultad(String dificultad) {
+        String plegada = TextoPlegado.plegar(dificultad.trim());
+        for (String valida : DIFICULTADES) {
+            if (TextoPlegado.plegar(valida).equals(plegada)) {
+                return valida;
+            }
+        }
+        return null;
+    }
+
+    // ==================== FUENTES ====================
+
+    /** Entrega cada fila u objeto como nombre de campo plegado → valor */
+    private interface Fuente {
+        Map<String, String> siguiente() throws IOException;
+    }
+
+    private static final class FuenteCsv implements Fuente {
+        private final LectorCsv lector;
+        private String[] columnas;
+
+        FuenteCsv(Reader entrada) {
+            this.lector = new LectorCsv(entrada);
+        }
+
+        @Override
+        public Map<String, String> siguiente() throws IOException {
+            if (columnas == null) {
+                String[] cabecera = lector.siguienteFila();
+                if (cabecera == null) {
+                    return null;
+                }
+                columnas = new String[cabecera.length];
+                for (int i = 0; i < cabecera.length; i++) {
+                    columnas[i] = TextoPlegado.plegar(cabecera[i].trim());
+                }
+            }
+            String[] fila = lector.siguienteFila();
+            if (fila == null) {
+                return null;
+            }
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < Math.min(fila.length, columnas.length); i++) {
+                campos.put(columnas[i], fila[i]);
+            }
+            return campos;
+        }
+    }
+
+    private static final class FuenteJson implements Fuente {
+        private final LectorJson lector;
+
+        FuenteJson(Reader entrada) {
+            this.lector = new LectorJson(entrada);
+        }
+
+        @Override
+        public Map<String, String> siguiente() throws IOException {
+            Map<String, String> objeto = lector.siguienteObjeto();
+            if (objeto == null) {
+                return null;
+            }
+            Map<String, String> campos = new HashMap<>();
+            for (Map.Entry<String, String> campo : objeto.entrySet()) {
+                campos.put(TextoPlegado.plegar(campo.getKey().trim()), campo.getValue());
+            }
+            return campos;
+        }
+    }
+
+    /** Cuenta los bytes leídos del fichero para calcular el progreso */
+    private static final class EntradaContada extends FilterInputStream {
+        private long leidos;
+
+        EntradaContada(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                leidos++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int desde, int cantidad) throws IOException {
+            int n = super.read(b, desde, cantidad);
+            if (n > 0) {
+                leidos += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long saltados = super.skip(n);
+            leidos += saltados;
+            return saltados;
+        }
+    }
+}
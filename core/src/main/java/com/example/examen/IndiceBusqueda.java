@@ -0,0 +1,404 @@
+/**
+ * CLASE: IndiceBusqueda.java
+ *
+ * PROPÓSITO:
+ * Índice invertido en memoria sobre el nombre y la descripción de los entrenamientos.
+ * Permite buscar mientras se escribe sin recorrer todo el catálogo.
+ *
+ * ESTRUCTURA:
+ * ┌──────────────┬─────────────────────────────────┐
+ * │ término      │ postings (documento, peso)      │
+ * ├──────────────┼─────────────────────────────────┤
+ * │ "cardio"     │ (0, 3) (7, 1) (12, 4) ...       │
+ * │ "fuerza"     │ (1, 3) (9, 1) ...               │
+ * └──────────────┴─────────────────────────────────┘
+ * - Los términos están ordenados (TreeMap): una búsqueda por prefijo "car"
+ *   recorre solo el tramo ["car", "car￿"] del diccionario
+ * - Un HashMap paralelo resuelve los términos exactos al indexar sin comparar cadenas
+ * - Cada entrenamiento tiene un número de documento interno (denso, reutilizable)
+ *   para poder acumular puntuaciones en un array en lugar de en un mapa
+ * - Todos los términos se guardan plegados (TextoPlegado): sin mayúsculas ni acentos
+ *
+ * PUNTUACIÓN:
+ * - Cada aparición en el nombre vale PESO_NOMBRE, en la descripción PESO_DESCRIPCION
+ * - Si el término coincide entero (no solo por prefijo) la puntuación se duplica
+ * - Todos los tokens de la consulta deben aparecer (AND); se suman sus puntuaciones
+ * - A igual puntuación gana el ID más bajo (el entrenamiento creado antes). No se
+ *   desempata por número de documento: esos números se reutilizan
+ *
+ * ACTUALIZACIÓN INCREMENTAL:
+ * anadir() y eliminar() solo tocan los postings de los términos del entrenamiento
+ * afectado. Nunca se reconstruye el índice completo.
+ * Cada documento guarda en qué posición de cada lista de postings está, así que
+ * quitarlo de una lista es O(1) (el último ocupa su hueco), por largas que sean
+ * las listas de las palabras comunes ("de", "para"...).
+ *
+ * HILOS:
+ * Todos los métodos públicos son synchronized (se usa desde el hilo catalogo-io).
+ */
+package com.example.examen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido con plegado de acentos, búsqueda por prefijo y resultados ordenados por relevancia.
+ */
+public class IndiceBusqueda {
+
+    // ==================== CONSTANTES ====================
+
+    /** Peso de cada aparición de un término en el nombre */
+    static final int PESO_NOMBRE = 3;
+
+    /** Peso de cada aparición de un término en la descripción */
+    static final int PESO_DESCRIPCION = 1;
+
+    /** Multiplicador cuando el término coincide entero con el token de la consulta */
+    private static final int FACTOR_EXACTO = 2;
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Diccionario ordenado: término plegado → postings */
+    private final TreeMap<String, Postings> terminos = new TreeMap<>();
+
+    /** Mismo contenido que terminos, para buscar un término exacto en O(1) */
+    private final HashMap<String, Postings> terminosExactos = new HashMap<>();
+
+    /** ID de entrenamiento → número de documento */
+    private final MapaEnteros documentoPorId = new MapaEnteros();
+
+    /** Número de documento → ID de entrenamiento */
+    private int[] idPorDocumento = new int[64];
+
+    /** Número de documento → términos distintos del documento (para poder quitarlo) */
+    private String[][] terminosPorDocumento = new String[64][];
+
+    /**
+     * Número de documento → posición del documento en los postings de cada uno de sus
+     * términos (mismo orden que terminosPorDocumento)
+     */
+    private int[][] posicionesPorDocumento = new int[64][];
+
+    /** Números de documento liberados, para reutilizarlos */
+    private int[] libres = new int[16];
+    private int numLibres;
+
+    /** Números de documento usados alguna vez (el siguiente nuevo es este) */
+    private int numDocumentos;
+
+    /** Puntuación acumulada por documento durante una búsqueda */
+    private int[] puntuacion = new int[64];
+
+    /** Último token de la consulta que tocó cada documento (evita limpiar los arrays) */
+    private int[] marca = new int[64];
+
+    /** Contador de tokens procesados; cada token de cada búsqueda usa un valor nuevo */
+    private int marcaActual;
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Indexa un entrenamiento. Si ya estaba indexado (mismo ID), se reemplaza.
+     *
+     * @param entrenamiento Entrenamiento a indexar
+     */
+    public synchronized void anadir(Entrenamiento entrenamiento) {
+        eliminar(entrenamiento.getId());
+
+        // Peso de cada término distinto en este entrenamiento
+        // (un texto tiene pocas palabras: buscar repetidos en una lista es suficiente)
+        List<String> distintos = new ArrayList<>();
+        int[] pesos = new int[8];
+        pesos = acumular(distintos, pesos, TextoPlegado.tokens(entrenamiento.getNombre()), PESO_NOMBRE);
+        pesos = acumular(distintos, pesos, TextoPlegado.tokens(entrenamiento.getDescripcion()), PESO_DESCRIPCION);
+
+        int documento = nuevoDocumento();
+        idPorDocumento[documento] = entrenamiento.getId();
+        documentoPorId.poner(entrenamiento.getId(), documento);
+
+        String[] delDocumento = distintos.toArray(new String[0]);
+        int[] posiciones = new int[delDocumento.length];
+        for (int i = 0; i < delDocumento.length; i++) {
+            Postings postings = terminosExactos.get(delDocumento[i]);
+            if (postings == null) {
+                postings = new Postings();
+                terminosExactos.put(delDocumento[i], postings);
+                terminos.put(delDocumento[i], postings);
+            }
+            posiciones[i] = postings.anadir(documento, i, pesos[i]);
+        }
+        terminosPorDocumento[documento] = delDocumento;
+        posicionesPorDocumento[documento] = posiciones;
+    }
+
+    /**
+     * Quita un entrenamiento del índice.
+     *
+     * @param id ID del entrenamiento
+     * @return true si estaba indexado
+     */
+    public synchronized boolean eliminar(int id) {
+        int documento = documentoPorId.obtener(id);
+        if (documento == MapaEnteros.VALOR_AUSENTE) {
+            return false;
+        }
+        documentoPorId.eliminar(id);
+
+        String[] delDocumento = terminosPorDocumento[documento];
+        int[] posiciones = posicionesPorDocumento[documento];
+        for (int i = 0; i < delDocumento.length; i++) {
+            Postings postings = terminosExactos.get(delDocumento[i]);
+            postings.quitar(posiciones[i], posicionesPorDocumento);
+            if (postings.tamano == 0) {
+                terminosExactos.remove(delDocumento[i]);
+                terminos.remove(delDocumento[i]);
+            }
+        }
+        terminosPorDocumento[documento] = null;
+        posicionesPorDocumento[documento] = null;
+
+        if (numLibres == libres.length) {
+            libres = Arrays.copyOf(libres, numLibres * 2);
+        }
+        libres[numLibres++] = documento;
+        return true;
+    }
+
+    /**
+     * @return Número de entrenamientos indexados
+     */
+    public synchronized int tamano() {
+        return documentoPorId.tamano();
+    }
+
+    /**
+     * @return Número de términos distintos en el diccionario
+     */
+    public synchronized int numTerminos() {
+        return terminos.size();
+    }
+
+    /**
+     * Suma el peso de cada token al término correspondiente de "distintos"
+     * (añadiéndolo si es nuevo). Retorna el array de pesos, que puede haber crecido.
+     */
+    private static int[] acumular(List<String> distintos, int[] pesos, List<String> tokens, int peso) {
+        for (String token : tokens) {
+            int indice = distintos.indexOf(token);
+            if (indice < 0) {
+                indice = distintos.size();
+                distintos.add(token);
+                if (indice == pesos.length) {
+                    pesos = Arrays.copyOf(pesos, indice * 2);
+                }
+            }
+            pesos[indice] += peso;
+        }
+        return pesos;
+    }
+
+    private int nuevoDocumento() {
+        if (numLibres > 0) {
+            return libres[--numLibres];
+        }
+        if (numDocumentos == idPorDocumento.length) {
+            int capacidad = numDocumentos * 2;
+            idPorDocumento = Arrays.copyOf(idPorDocumento, capacidad);
+            terminosPorDocumento = Arrays.copyOf(terminosPorDocumento, capacidad);
+            posicionesPorDocumento = Arrays.copyOf(posicionesPorDocumento, capacidad);
+            puntuacion = Arrays.copyOf(puntuacion, capacidad);
+            marca = Arrays.copyOf(marca, capacidad);
+        }
+        return numDocumentos++;
+    }
+
+    // ==================== BÚSQUEDA ====================
+
+    /**
+     * Busca los entrenamientos que contienen TODOS los tokens de la consulta
+     * (cada token puede ser el principio de una palabra: "card" encuentra "Cardio").
+     *
+     * @param consulta Texto escrito por el usuario (mayúsculas y acentos dan igual)
+     * @param limite Número máximo de resultados
+     * @return IDs de los entrenamientos, del más relevante al menos relevante
+     */
+    public int[] buscar(String consulta, int limite) {
+        return buscar(consulta, limite, null);
+    }
+
+    /**
+     * Igual que buscar(consulta, limite), pero solo entre los IDs de "permitidos"
+     * (por ejemplo, el resultado de MotorFiltros). El filtro se aplica ANTES de
+     * quedarse con los mejores, así que no se pierden resultados por el límite.
+     *
+     * @param consulta Texto escrito por el usuario
+     * @param limite Número máximo de resultados
+     * @param permitidos IDs aceptados, o null para aceptar todos
+     * @return IDs de los entrenamientos, del más relevante al menos relevante
+     */
+    public synchronized int[] buscar(String consulta, int limite, BitsetComprimido permitidos) {
+        List<String> tokens = TextoPlegado.tokens(consulta);
+        if (tokens.isEmpty() || limite <= 0) {
+            return new int[0];
+        }
+
+        // Documentos que han pasado todos los tokens anteriores (marca == marcaAnterior)
+        int marcaAnterior = 0;
+        for (int t = 0; t < tokens.size(); t++) {
+            int marcaToken = siguienteMarca();
+            boolean primero = t == 0;
+            String token = tokens.get(t);
+
+            // Tramo del diccionario con los términos que empiezan por el token
+            NavigableMap<String, Postings> tramo = terminos.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Postings> entrada : tramo.entrySet()) {
+                int factor = entrada.getKey().length() == token.length() ? FACTOR_EXACTO : 1;
+                Postings postings = entrada.getValue();
+                for (int i = 0; i < postings.tamano; i++) {
+                    int documento = postings.documentos[i];
+                    int puntos = postings.pesos[i] * factor;
+                    if (marca[documento] == marcaToken) {
+                        // Otro término del mismo token (ej: "cardio" y "cardiaco" para "card")
+                        puntuacion[documento] += puntos;
+                    } else if (primero) {
+                        marca[documento] = marcaToken;
+                        puntuacion[documento] = puntos;
+                    } else if (marca[documento] == marcaAnterior) {
+                        marca[documento] = marcaToken;
+                        puntuacion[documento] += puntos;
+                    }
+                }
+            }
+            marcaAnterior = marcaToken;
+        }
+
+        return mejores(marcaAnterior, limite, permitidos);
+    }
+
+    /**
+     * Selecciona los "limite" documentos con más puntuación usando un montículo
+     * de tamaño fijo (no hace falta ordenar todos los candidatos).
+     */
+    private int[] mejores(int marcaFinal, int limite, BitsetComprimido permitidos) {
+        // Cada candidato es un long: puntuación en los 32 bits altos y el ID (>= 0)
+        // invertido en los bajos, así "mayor long" = "mejor resultado"
+        long[] monticulo = new long[limite];
+        int tamano = 0;
+        for (int documento = 0; documento < numDocumentos; documento++) {
+            if (marca[documento] != marcaFinal
+                    || permitidos != null && !permitidos.contiene(idPorDocumento[documento])) {
+                continue;
+            }
+            long clave = ((long) puntuacion[documento] << 32) | (Integer.MAX_VALUE - idPorDocumento[documento]);
+            if (tamano < limite) {
+                monticulo[tamano] = clave;
+                subir(monticulo, tamano++);
+            } else if (clave > monticulo[0]) {
+                monticulo[0] = clave;
+                bajar(monticulo, tamano);
+            }
+        }
+
+        long[] ordenados = Arrays.copyOf(monticulo, tamano);
+        Arrays.sort(ordenados);
+        int[] ids = new int[tamano];
+        for (int i = 0; i < tamano; i++) {
+            ids[i] = Integer.MAX_VALUE - (int) ordenados[tamano - 1 - i];
+        }
+        return ids;
+    }
+
+    private int siguienteMarca() {
+        if (++marcaActual == Integer.MAX_VALUE) {
+            // Desbordamiento (tras ~2.000 millones de tokens): empezar de cero
+            Arrays.fill(marca, 0);
+            marcaActual = 1;
+        }
+        return marcaActual;
+    }
+
+    /** Montículo de mínimos: sube el elemento i hasta su sitio */
+    private static void subir(long[] monticulo, int i) {
+        long valor = monticulo[i];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (monticulo[padre] <= valor) {
+                break;
+            }
+            monticulo[i] = monticulo[padre];
+            i = padre;
+        }
+        monticulo[i] = valor;
+    }
+
+    /** Montículo de mínimos: baja la raíz hasta su sitio */
+    private static void bajar(long[] monticulo, int tamano) {
+        long valor = monticulo[0];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamano) {
+                break;
+            }
+            if (hijo + 1 < tamano && monticulo[hijo + 1] < monticulo[hijo]) {
+                hijo++;
+            }
+            if (monticulo[hijo] >= valor) {
+                break;
+            }
+            monticulo[i] = monticulo[hijo];
+            i = hijo;
+        }
+        monticulo[i] = valor;
+    }
+
+    // ==================== POSTINGS ====================
+
+    /**
+     * Lista de (documento, peso) de un término, en arrays de int paralelos.
+     * El orden no importa: al quitar se mueve el último al hueco. Cada entrada
+     * guarda también qué término del documento es (su índice en terminosPorDocumento)
+     * para corregir la posición del documento que se mueve.
+     */
+    private static final class Postings {
+        int[] documentos = new int[2];
+        int[] pesos = new int[2];
+        int[] terminoEnDocumento = new int[2];
+        int tamano;
+
+        /**
+         * @return Posición en la que queda el documento
+         */
+        int anadir(int documento, int termino, int peso) {
+            if (tamano == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamano * 2);
+                pesos = Arrays.copyOf(pesos, tamano * 2);
+                terminoEnDocumento = Arrays.copyOf(terminoEnDocumento, tamano * 2);
+            }
+            documentos[tamano] = documento;
+            pesos[tamano] = peso;
+            terminoEnDocumento[tamano] = termino;
+            return tamano++;
+        }
+
+        /**
+         * Quita la entrada de esa posición moviendo la última a su hueco, y anota
+         * la nueva posición del documento movido.
+         */
+        void quitar(int posicion, int[][] posicionesPorDocumento) {
+            tamano--;
+            if (posicion != tamano) {
+                documentos[posicion] = documentos[tamano];
+                pesos[posicion] = pesos[tamano];
+                terminoEnDocumento[posicion] = terminoEnDocumento[tamano];
+                posicionesPorDocumento[documentos[posicion]][terminoEnDocumento[posicion]] = posicion;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * CLASE: IndiceDuracion.java
+ *
+ * PROPÓSITO:
+ * Índice ordenado por duración (en minutos) para responder consultas como
+ * "entrenamientos de 20 a 40 minutos" u "ordenar por duración" sin recorrer
+ * el catálogo ni volver a analizar textos.
+ *
+ * ESTRUCTURA:
+ * Un único array de long ORDENADO. Cada entrada empaqueta dos int:
+ * ┌────────────────────┬────────────────────┐
+ * │ minutos (32 bits)  │ id (32 bits)       │
+ * └────────────────────┴────────────────────┘
+ * Ordenar los long ordena por minutos y, a igual duración, por ID.
+ *
+ * CONSULTAS:
+ * - rango(20, 40): dos búsquedas binarias (primer ≥ 20, primer > 40) y se copia el tramo
+ * - O(log n + resultados), sin crear objetos por entrada
+ *
+ * ACTUALIZACIÓN:
+ * Insertar y quitar usan búsqueda binaria + System.arraycopy (un memmove).
+ * Con 100.000 entradas mover medio array cuesta decenas de microsegundos,
+ * mucho menos que reordenar o recorrer entrenamientos.
+ * Para construir el índice de golpe, anadirLote() ordena el lote y lo mezcla
+ * con lo existente en una sola pasada desde el final (O(n) por lote).
+ *
+ * Los entrenamientos cuya duración no se entiende (SIN_DURACION) no se indexan.
+ */
+package com.example.examen;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice numérico ordenado de ID de entrenamiento por minutos de duración.
+ */
+public class IndiceDuracion {
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Entradas (minutos << 32 | id) ordenadas de menor a mayor */
+    private long[] entradas = new long[64];
+
+    /** Número de entradas usadas en el array */
+    private int tamano;
+
+    /** ID → minutos con los que está indexado (para poder quitarlo) */
+    private final MapaEnteros minutosPorId = new MapaEnteros();
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Indexa un entrenamiento por su duración. Si ya estaba indexado, se reemplaza.
+     *
+     * @param entrenamiento Entrenamiento a indexar
+     */
+    public synchronized void anadir(Entrenamiento entrenamiento) {
+        eliminar(entrenamiento.getId());
+        int minutos = entrenamiento.getMinutos();
+        if (minutos == AnalizadorDuracion.SIN_DURACION) {
+            return;
+        }
+
+        long entrada = empaquetar(minutos, entrenamiento.getId());
+        int posicion = -(Arrays.binarySearch(entradas, 0, tamano, entrada) + 1);
+        if (tamano == entradas.length) {
+            entradas = Arrays.copyOf(entradas, tamano * 2);
+        }
+        System.arraycopy(entradas, posicion, entradas, posicion + 1, tamano - posicion);
+        entradas[posicion] = entrada;
+        tamano++;
+        minutosPorId.poner(entrenamiento.getId(), minutos);
+    }
+
+    /**
+     * Indexa muchos entrenamientos de golpe (por ejemplo al construir el índice).
+     * Equivale a llamar a anadir() con cada uno, pero mueve cada entrada una sola vez.
+     *
+     * @param lote Entrenamientos a indexar
+     */
+    public synchronized void anadirLote(List<Entrenamiento> lote) {
+        for (Entrenamiento entrenamiento : lote) {
+            eliminar(entrenamiento.getId());
+        }
+        // Del último al primero: si un ID se repite en el lote, gana la última versión
+        long[] nuevas = new long[lote.size()];
+        int numNuevas = 0;
+        for (int k = lote.size() - 1; k >= 0; k--) {
+            Entrenamiento entrenamiento = lote.get(k);
+            int minutos = entrenamiento.getMinutos();
+            if (minutos != AnalizadorDuracion.SIN_DURACION
+                    && minutosPorId.obtener(entrenamiento.getId()) == MapaEnteros.VALOR_AUSENTE) {
+                nuevas[numNuevas++] = empaquetar(minutos, entrenamiento.getId());
+                minutosPorId.poner(entrenamiento.getId(), minutos);
+            }
+        }
+        Arrays.sort(nuevas, 0, numNuevas);
+
+        if (tamano + numNuevas > entradas.length) {
+            entradas = Arrays.copyOf(entradas, Math.max(tamano + numNuevas, entradas.length * 2));
+        }
+        // Mezcla desde el final: cada entrada existente se mueve como mucho una vez
+        int i = tamano - 1;
+        int j = numNuevas - 1;
+        int destino = tamano + numNuevas - 1;
+        while (j >= 0) {
+            if (i >= 0 && entradas[i] > nuevas[j]) {
+                entradas[destino--] = entradas[i--];
+            } else {
+                entradas[destino--] = nuevas[j--];
+            }
+        }
+        tamano += numNuevas;
+    }
+
+    /**
+     * Quita un entrenamiento del índice.
+     *
+     * @param id ID del entrenamiento
+     * @return true si estaba indexado
+     */
+    public synchronized boolean eliminar(int id) {
+        int minutos = minutosPorId.eliminar(id);
+        if (minutos == MapaEnteros.VALOR_AUSENTE) {
+            return false;
+        }
+        int posicion = Arrays.binarySearch(entradas, 0, tamano, empaquetar(minutos, id));
+        System.arraycopy(entradas, posicion + 1, entradas, posicion, tamano - posicion - 1);
+        tamano--;
+        return true;
+    }
+
+    /**
+     * @return Número de entrenamientos indexados
+     */
+    public synchronized int tamano() {
+        return tamano;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * IDs de los entrenamientos con duración entre minimo y maximo (ambos incluidos),
+     * ordenados de menor a mayor duración.
+     *
+     * @param minimo Minutos mínimos
+     * @param maximo Minutos máximos
+     * @return IDs encontrados (array vacío si ninguno)
+     */
+    public synchronized int[] rango(int minimo, int maximo) {
+        int desde = primeraPosicion(minimo);
+        int hasta = maximo == Integer.MAX_VALUE ? tamano : primeraPosicion(maximo + 1);
+        int[] ids = new int[Math.max(0, hasta - desde)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (int) entradas[desde + i] ^ Integer.MIN_VALUE;
+        }
+        return ids;
+    }
+
+    /**
+     * Número de entrenamientos con duración entre minimo y maximo, sin copiar IDs.
+     *
+     * @param minimo Minutos mínimos
+     * @param maximo Minutos máximos
+     * @return Cantidad de entrenamientos en el rango
+     */
+    public synchronized int contarRango(int minimo, int maximo) {
+        int hasta = maximo == Integer.MAX_VALUE ? tamano : primeraPosicion(maximo + 1);
+        return Math.max(0, hasta - primeraPosicion(minimo));
+    }
+
+    /**
+     * Todos los IDs indexados, del más corto al más largo.
+     *
+     * @return IDs ordenados por duración
+     */
+    public synchronized int[] ordenados() {
+        return rango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param id ID del entrenamiento
+     * @return Minutos con los que está indexado, o AnalizadorDuracion.SIN_DURACION si no está
+     */
+    public synchronized int minutosDe(int id) {
+        int minutos = minutosPorId.obtener(id);
+        return minutos == MapaEnteros.VALOR_AUSENTE ? AnalizadorDuracion.SIN_DURACION : minutos;
+    }
+
+    /**
+     * Primera posición cuya duración es mayor o igual que "minutos" (búsqueda binaria).
+     */
+    private int primeraPosicion(int minutos) {
+        // El menor long con esos minutos: id = Integer.MIN_VALUE en la parte baja
+        long clave = empaquetar(minutos, Integer.MIN_VALUE);
+        int bajo = 0;
+        int alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (entradas[medio] < clave) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Empaqueta minutos e ID en un long que se ordena primero por minutos.
+     * El ID se desplaza (XOR del bit de signo) para que los negativos queden antes.
+     */
+    private static long empaquetar(int minutos, int id) {
+        return ((long) minutos << 32) | ((id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+}
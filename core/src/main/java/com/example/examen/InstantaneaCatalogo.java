@@ -0,0 +1,57 @@
+/**
+ * CLASE: InstantaneaCatalogo.java
+ *
+ * PROPÓSITO:
+ * Describe el estado del catálogo en un momento dado, SIN contener los entrenamientos.
+ * Con 100.000 entrenamientos no podemos tenerlos todos en memoria: la lista los pide
+ * por páginas (FuentePaginadaEntrenamientos) y esta instantánea solo le dice
+ * cuántos hay y si han cambiado desde la última vez.
+ *
+ * INMUTABLE:
+ * Una vez creada no cambia. Cada cambio en el catálogo publica una instantánea nueva
+ * con la versión incrementada.
+ *
+ * VISTA:
+ * Lleva la VistaEntrenamientos de su versión (índice persistente, no los datos):
+ * las páginas que se leen de ella corresponden exactamente a este total, aunque
+ * el catálogo haya cambiado después.
+ */
+package com.example.examen;
+
+/**
+ * Versión y tamaño del catálogo de entrenamientos en un instante concreto.
+ */
+public final class InstantaneaCatalogo {
+
+    /** Número que aumenta con cada cambio del catálogo */
+    private final long version;
+
+    /** Índice del almacén en esta versión */
+    private final VistaEntrenamientos vista;
+
+    public InstantaneaCatalogo(long version, VistaEntrenamientos vista) {
+        this.version = version;
+        this.vista = vista;
+    }
+
+    /**
+     * @return Versión del catálogo (mayor = más reciente)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Número total de entrenamientos
+     */
+    public int getTotal() {
+        return vista.contar();
+    }
+
+    /**
+     * @return Vista inmutable del catálogo en esta versión (legible desde cualquier hilo)
+     */
+    public VistaEntrenamientos getVista() {
+        return vista;
+    }
+}
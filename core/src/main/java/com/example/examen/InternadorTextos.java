@@ -0,0 +1,53 @@
+/**
+ * CLASE: InternadorTextos.java
+ *
+ * PROPÓSITO:
+ * Hace que los textos iguales que se repiten mucho ("Alta", "Media"...) compartan
+ * UNA sola instancia de String, como String.intern() pero acotado y sin tocar la
+ * tabla global de la JVM.
+ *
+ * ALGORITMO (caché de correspondencia directa):
+ * - El hash del texto elige una casilla de un array de tamaño fijo
+ * - Si la casilla tiene un texto igual, se retorna ese (el compartido)
+ * - Si no, el texto nuevo ocupa la casilla y se retorna tal cual
+ * La memoria no crece nunca; si dos textos chocan en la misma casilla se van
+ * alternando (se comparten peor, pero el resultado sigue siendo correcto).
+ *
+ * HILOS:
+ * Igual que la caché de AnalizadorDuracion: los String son inmutables, así que leer
+ * y escribir casillas desde varios hilos sin sincronizar es seguro (como mucho, un
+ * texto se queda sin compartir).
+ */
+package com.example.examen;
+
+/**
+ * Tabla acotada de textos canónicos.
+ */
+public final class InternadorTextos {
+
+    private final String[] casillas;
+
+    /**
+     * @param casillas Número de casillas (se redondea a potencia de 2)
+     */
+    public InternadorTextos(int casillas) {
+        this.casillas = new String[Integer.highestOneBit(Math.max(1, casillas - 1)) << 1];
+    }
+
+    /**
+     * @param texto Texto (puede ser null)
+     * @return Instancia compartida igual a texto (o el propio texto si es la primera vez)
+     */
+    public String compartir(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int casilla = (texto.hashCode() * 0x9E3779B9 >>> 16) & (casillas.length - 1);
+        String compartido = casillas[casilla];
+        if (texto.equals(compartido)) {
+            return compartido;
+        }
+        casillas[casilla] = texto;
+        return texto;
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * CLASE: LectorCsv.java
+ *
+ * PROPÓSITO:
+ * Lee un fichero CSV fila a fila sin cargarlo entero en memoria.
+ * Lo usa ImportadorEntrenamientos para importar catálogos de cualquier tamaño.
+ *
+ * FORMATO ACEPTADO (RFC 4180 más lo que exporta una hoja de cálculo):
+ * - Separador ',' , ';' o tabulador: se detecta en la primera fila
+ * - Campos entre comillas dobles, con "" para escribir una comilla
+ * - Saltos de línea dentro de un campo entre comillas
+ * - Fin de línea \n o \r\n; las líneas vacías se saltan
+ * - Marca BOM de UTF-8 al principio (la añade Excel)
+ *
+ * MEMORIA:
+ * Un buffer fijo de TAMANO_BUFFER caracteres y el campo que se está leyendo.
+ * Un campo de más de MAX_CAMPO caracteres se considera un fichero que no es CSV
+ * (por ejemplo, un binario elegido por error) y se rechaza.
+ */
+package com.example.examen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de filas CSV en streaming con buffer de tamaño fijo.
+ */
+final class LectorCsv {
+
+    // ==================== CONSTANTES ====================
+
+    /** Caracteres que se piden al Reader de cada vez */
+    static final int TAMANO_BUFFER = 8192;
+
+    /** Longitud máxima de un campo */
+    static final int MAX_CAMPO = 64 * 1024;
+
+    private static final int FIN = -1;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Reader entrada;
+    private final char[] buffer = new char[TAMANO_BUFFER];
+    private int posicion;
+    private int limite;
+
+    /** Separador de campos; se decide al leer la primera fila */
+    private char separador;
+
+    /** Campo en construcción y campos de la fila en construcción (se reutilizan) */
+    private final StringBuilder campo = new StringBuilder();
+    private final List<String> fila = new ArrayList<>();
+
+    // ==================== CONSTRUCTOR ====================
+
+    /**
+     * @param entrada Texto CSV (se lee por bloques, no hace falta envolverlo en BufferedReader)
+     */
+    LectorCsv(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Lee la siguiente fila no vacía.
+     *
+     * @return Campos de la fila, o null al llegar al final del fichero
+     * @throws IOException Si no se puede leer o el fichero está mal formado
+     */
+    String[] siguienteFila() throws IOException {
+        if (separador == 0) {
+            separador = detectarSeparador();
+        }
+
+        fila.clear();
+        campo.setLength(0);
+        boolean enComillas = false;
+        boolean hayDatos = false;
+
+        while (true) {
+            int c = leer();
+            if (c == FIN) {
+                if (enComillas) {
+                    throw new IOException("Comillas sin cerrar al final del fichero");
+                }
+                if (!hayDatos) {
+                    return null;
+                }
+                return terminarFila();
+            }
+
+            if (enComillas) {
+                if (c != '"') {
+                    anadir((char) c);
+                } else if (mirar() == '"') {
+                    leer();
+                    anadir('"');
+                } else {
+                    enComillas = false;
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                enComillas = true;
+                hayDatos = true;
+            } else if (c == separador) {
+                fila.add(campo.toString());
+                campo.setLength(0);
+                hayDatos = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && mirar() == '\n') {
+                    leer();
+                }
+                if (hayDatos) {
+                    return terminarFila();
+                }
+                // Línea vacía: se salta
+            } else {
+                anadir((char) c);
+                hayDatos = true;
+            }
+        }
+    }
+
+    private String[] terminarFila() {
+        fila.add(campo.toString());
+        campo.setLength(0);
+        return fila.toArray(new String[0]);
+    }
+
+    private void anadir(char c) throws IOException {
+        if (campo.length() >= MAX_CAMPO) {
+            throw new IOException("Campo de más de " + MAX_CAMPO + " caracteres: el fichero no parece un CSV");
+        }
+        campo.append(c);
+    }
+
+    /**
+     * Mira la primera línea (fuera de comillas) y elige el primer separador que aparezca.
+     * Si la primera línea no cabe en el buffer o solo tiene una columna, se usa ','.
+     */
+    private char detectarSeparador() throws IOException {
+        if (mirar() == '\uFEFF') {
+            leer();
+        }
+        boolean enComillas = false;
+        for (int i = posicion; i < limite; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                enComillas = !enComillas;
+            } else if (!enComillas) {
+                if (c == ',' || c == ';' || c == '\t') {
+                    return c;
+                }
+                if (c == '\n' || c == '\r') {
+                    break;
+                }
+            }
+        }
+        return ',';
+    }
+
+    // ==================== BUFFER ====================
+
+    private int leer() throws IOException {
+        if (posicion == limite && !rellenar()) {
+            return FIN;
+        }
+        return buffer[posicion++];
+    }
+
+    private int mirar() throws IOException {
+        if (posicion == limite && !rellenar()) {
+            return FIN;
+        }
+        return buffer[posicion];
+    }
+
+    /** Solo se llama con el buffer agotado, así que se puede sobrescribir desde el principio */
+    private boolean rellenar() throws IOException {
+        int leidos;
+        do {
+            leidos = entrada.read(buffer, 0, buffer.length);
+        } while (leidos == 0);
+        if (leidos < 0) {
+            return false;
+        }
+        posicion = 0;
+        limite = leidos;
+        return true;
+    }
+}
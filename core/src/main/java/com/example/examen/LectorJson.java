@@ -0,0 +1,246 @@
+/**
+ * CLASE: LectorJson.java
+ *
+ * PROPÓSITO:
+ * Lee un array JSON de objetos planos objeto a objeto, sin construir el árbol
+ * del documento entero. Lo usa ImportadorEntrenamientos.
+ *
+ * FORMATO ACEPTADO:
+ * [
+ *   {"nombre": "Cardio", "duracion": "45 minutos", "dificultad": "Alta"},
+ *   {"nombre": "Yoga", "duracion": 30, "icono": "Yoga/Estiramiento"}
+ * ]
+ * - Los valores pueden ser texto, números, true/false (se entregan como texto) o null (se ignora)
+ * - Un objeto o array anidado dentro de un entrenamiento es un error
+ *
+ * MEMORIA:
+ * Un buffer fijo de TAMANO_BUFFER caracteres y el objeto que se está leyendo.
+ */
+package com.example.examen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lector en streaming de un array JSON de objetos con valores simples.
+ */
+final class LectorJson {
+
+    // ==================== CONSTANTES ====================
+
+    /** Caracteres que se piden al Reader de cada vez */
+    static final int TAMANO_BUFFER = 8192;
+
+    /** Longitud máxima de un texto (clave o valor) */
+    static final int MAX_TEXTO = 64 * 1024;
+
+    private static final int FIN = -1;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Reader entrada;
+    private final char[] buffer = new char[TAMANO_BUFFER];
+    private int posicion;
+    private int limite;
+
+    /** Texto en construcción (se reutiliza) */
+    private final StringBuilder texto = new StringBuilder();
+
+    /** false hasta leer el '[' inicial */
+    private boolean empezado;
+
+    /** true al leer el ']' final */
+    private boolean terminado;
+
+    // ==================== CONSTRUCTOR ====================
+
+    /**
+     * @param entrada Texto JSON (se lee por bloques)
+     */
+    LectorJson(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Lee el siguiente objeto del array.
+     *
+     * @return Campos del objeto (clave → valor en texto), o null al cerrar el array
+     * @throws IOException Si no se puede leer o el JSON no tiene el formato esperado
+     */
+    Map<String, String> siguienteObjeto() throws IOException {
+        if (terminado) {
+            return null;
+        }
+
+        int c = siguienteNoBlanco();
+        if (!empezado) {
+            if (c == '\uFEFF') {
+                c = siguienteNoBlanco();
+            }
+            if (c != '[') {
+                throw error("Se esperaba un array '[' de entrenamientos");
+            }
+            empezado = true;
+            c = siguienteNoBlanco();
+            if (c == ']') {
+                terminado = true;
+                return null;
+            }
+        } else if (c == ']') {
+            terminado = true;
+            return null;
+        } else if (c == ',') {
+            c = siguienteNoBlanco();
+        } else {
+            throw error("Se esperaba ',' o ']' entre entrenamientos");
+        }
+
+        if (c != '{') {
+            throw error("Cada entrenamiento debe ser un objeto '{...}'");
+        }
+        return leerObjeto();
+    }
+
+    private Map<String, String> leerObjeto() throws IOException {
+        Map<String, String> objeto = new HashMap<>();
+        int c = siguienteNoBlanco();
+        if (c == '}') {
+            return objeto;
+        }
+        while (true) {
+            if (c != '"') {
+                throw error("Se esperaba el nombre de un campo entre comillas");
+            }
+            String clave = leerTexto();
+            if (siguienteNoBlanco() != ':') {
+                throw error("Se esperaba ':' después de \"" + clave + "\"");
+            }
+            String valor = leerValor(siguienteNoBlanco());
+            if (valor != null) {
+                objeto.put(clave, valor);
+            }
+
+            c = siguienteNoBlanco();
+            if (c == '}') {
+                return objeto;
+            }
+            if (c != ',') {
+                throw error("Se esperaba ',' o '}' dentro de un entrenamiento");
+            }
+            c = siguienteNoBlanco();
+        }
+    }
+
+    /** Lee un valor simple que empieza por c; null para el literal null */
+    private String leerValor(int c) throws IOException {
+        if (c == '"') {
+            return leerTexto();
+        }
+        if (c == '{' || c == '[') {
+            throw error("Los campos de un entrenamiento no pueden ser objetos ni arrays");
+        }
+        // Número, true, false o null: hasta el siguiente separador
+        texto.setLength(0);
+        while (c != FIN && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            anadir((char) c);
+            c = leer();
+        }
+        if (c != FIN) {
+            posicion--; // el separador lo procesa quien llama
+        }
+        String literal = texto.toString();
+        if (literal.isEmpty()) {
+            throw error("Falta un valor");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    /** Lee un texto entre comillas (la comilla de apertura ya se ha leído) */
+    private String leerTexto() throws IOException {
+        texto.setLength(0);
+        while (true) {
+            int c = leer();
+            if (c == FIN) {
+                throw error("Texto sin cerrar al final del fichero");
+            }
+            if (c == '"') {
+                return texto.toString();
+            }
+            if (c != '\\') {
+                anadir((char) c);
+                continue;
+            }
+            int escape = leer();
+            switch (escape) {
+                case '"': anadir('"'); break;
+                case '\\': anadir('\\'); break;
+                case '/': anadir('/'); break;
+                case 'b': anadir('\b'); break;
+                case 'f': anadir('\f'); break;
+                case 'n': anadir('\n'); break;
+                case 'r': anadir('\r'); break;
+                case 't': anadir('\t'); break;
+                case 'u': anadir(leerUnicode()); break;
+                default: throw error("Secuencia de escape no válida");
+            }
+        }
+    }
+
+    private char leerUnicode() throws IOException {
+        int valor = 0;
+        for (int i = 0; i < 4; i++) {
+            int digito = Character.digit(leer(), 16);
+            if (digito < 0) {
+                throw error("Secuencia \\u no válida");
+            }
+            valor = (valor << 4) | digito;
+        }
+        return (char) valor;
+    }
+
+    private void anadir(char c) throws IOException {
+        if (texto.length() >= MAX_TEXTO) {
+            throw error("Texto de más de " + MAX_TEXTO + " caracteres");
+        }
+        texto.append(c);
+    }
+
+    private IOException error(String mensaje) {
+        return new IOException("JSON no válido: " + mensaje);
+    }
+
+    // ==================== BUFFER ====================
+
+    private int siguienteNoBlanco() throws IOException {
+        int c;
+        do {
+            c = leer();
+        } while (c != FIN && Character.isWhitespace(c));
+        return c;
+    }
+
+    private int leer() throws IOException {
+        if (posicion == limite && !rellenar()) {
+            return FIN;
+        }
+        return buffer[posicion++];
+    }
+
+    /** Solo se llama con el buffer agotado, así que se puede sobrescribir desde el principio */
+    private boolean rellenar() throws IOException {
+        int leidos;
+        do {
+            leidos = entrada.read(buffer, 0, buffer.length);
+        } while (leidos == 0);
+        if (leidos < 0) {
+            return false;
+        }
+        posicion = 0;
+        limite = leidos;
+        return true;
+    }
+}
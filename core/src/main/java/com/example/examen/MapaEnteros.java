@@ -0,0 +1,244 @@
+/**
+ * CLASE: MapaEnteros.java
+ *
+ * PROPÓSITO:
+ * Mapa de int → int sin objetos intermedios (sin autoboxing a Integer).
+ * Se usa como índice ID → posición en AlmacenEntrenamientos.
+ *
+ * ¿POR QUÉ NO HashMap<Integer, Integer>?
+ * - Cada entrada de un HashMap crea un nodo + dos Integer (≈ 48 bytes)
+ * - Aquí cada entrada ocupa 8 bytes en dos arrays de int
+ * - Buscar no crea basura, así que el GC no interrumpe el scroll
+ *
+ * ALGORITMO:
+ * Direccionamiento abierto con sondeo lineal:
+ * - La clave se "mezcla" (hash) para elegir una casilla
+ * - Si está ocupada por otra clave, se prueba la siguiente
+ * - Al borrar se desplazan hacia atrás las claves siguientes (sin lápidas)
+ *
+ * La clave 0 marca las casillas vacías, por eso se guarda aparte.
+ * Buscar, insertar y borrar son O(1) de media.
+ */
+package com.example.examen;
+
+import java.util.Arrays;
+
+/**
+ * Mapa hash de claves int a valores int con direccionamiento abierto.
+ */
+public class MapaEnteros {
+
+    // ==================== CONSTANTES ====================
+
+    /** Valor que retorna obtener() cuando la clave no existe */
+    public static final int VALOR_AUSENTE = -1;
+
+    /** Proporción máxima de casillas ocupadas antes de crecer */
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Claves de cada casilla (0 = casilla vacía) */
+    private int[] claves;
+
+    /** Valor asociado a la clave de la misma casilla */
+    private int[] valores;
+
+    /** claves.length - 1 (la capacidad siempre es potencia de 2) */
+    private int mascara;
+
+    /** Número de entradas guardadas en los arrays (sin contar la clave 0) */
+    private int ocupadas;
+
+    /** Número de entradas a partir del cual hay que duplicar la capacidad */
+    private int limite;
+
+    /** true si la clave 0 está presente (no puede guardarse en los arrays) */
+    private boolean tieneCero;
+
+    /** Valor asociado a la clave 0 */
+    private int valorCero;
+
+    // ==================== CONSTRUCTORES ====================
+
+    public MapaEnteros() {
+        this(16);
+    }
+
+    /**
+     * @param capacidadInicial Número de entradas esperadas (evita redimensionar)
+     */
+    public MapaEnteros(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadInicial / CARGA_MAXIMA)) - 1) << 1;
+        inicializar(capacidad);
+    }
+
+    private void inicializar(int capacidad) {
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+        limite = (int) (capacidad * CARGA_MAXIMA);
+    }
+
+    // ==================== OPERACIONES ====================
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param clave Clave a buscar
+     * @return Valor guardado, o VALOR_AUSENTE si la clave no existe
+     */
+    public int obtener(int clave) {
+        if (clave == 0) {
+            return tieneCero ? valorCero : VALOR_AUSENTE;
+        }
+        int casilla = mezclar(clave) & mascara;
+        int actual;
+        while ((actual = claves[casilla]) != 0) {
+            if (actual == clave) {
+                return valores[casilla];
+            }
+            casilla = (casilla + 1) & mascara;
+        }
+        return VALOR_AUSENTE;
+    }
+
+    /**
+     * @param clave Clave a comprobar
+     * @return true si la clave está en el mapa
+     */
+    public boolean contiene(int clave) {
+        if (clave == 0) {
+            return tieneCero;
+        }
+        int casilla = mezclar(clave) & mascara;
+        int actual;
+        while ((actual = claves[casilla]) != 0) {
+            if (actual == clave) {
+                return true;
+            }
+            casilla = (casilla + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * Guarda (o reemplaza) el valor de una clave.
+     *
+     * @param clave Clave a guardar
+     * @param valor Valor asociado
+     */
+    public void poner(int clave, int valor) {
+        if (clave == 0) {
+            tieneCero = true;
+            valorCero = valor;
+            return;
+        }
+        int casilla = mezclar(clave) & mascara;
+        int actual;
+        while ((actual = claves[casilla]) != 0) {
+            if (actual == clave) {
+                valores[casilla] = valor;
+                return;
+            }
+            casilla = (casilla + 1) & mascara;
+        }
+        claves[casilla] = clave;
+        valores[casilla] = valor;
+        if (++ocupadas >= limite) {
+            redimensionar(claves.length << 1);
+        }
+    }
+
+    /**
+     * Elimina una clave del mapa.
+     *
+     * @param clave Clave a eliminar
+     * @return Valor que tenía, o VALOR_AUSENTE si no existía
+     */
+    public int eliminar(int clave) {
+        if (clave == 0) {
+            if (!tieneCero) {
+                return VALOR_AUSENTE;
+            }
+            tieneCero = false;
+            return valorCero;
+        }
+        int casilla = mezclar(clave) & mascara;
+        int actual;
+        while ((actual = claves[casilla]) != 0) {
+            if (actual == clave) {
+                int anterior = valores[casilla];
+                desplazarHaciaAtras(casilla);
+                ocupadas--;
+                return anterior;
+            }
+            casilla = (casilla + 1) & mascara;
+        }
+        return VALOR_AUSENTE;
+    }
+
+    /**
+     * @return Número de entradas del mapa
+     */
+    public int tamano() {
+        return ocupadas + (tieneCero ? 1 : 0);
+    }
+
+    /**
+     * Elimina todas las entradas (conserva la capacidad).
+     */
+    public void limpiar() {
+        Arrays.fill(claves, 0);
+        ocupadas = 0;
+        tieneCero = false;
+    }
+
+    // ==================== INTERNOS ====================
+
+    /**
+     * Tras vaciar una casilla, mueve hacia atrás las claves que llegaron más lejos
+     * de su casilla ideal por culpa de la que se ha borrado.
+     */
+    private void desplazarHaciaAtras(int vacia) {
+        int casilla = vacia;
+        while (true) {
+            casilla = (casilla + 1) & mascara;
+            int clave = claves[casilla];
+            if (clave == 0) {
+                break;
+            }
+            int ideal = mezclar(clave) & mascara;
+            // Mover solo si la casilla vacía está entre la ideal y la actual (circularmente)
+            if (((casilla - ideal) & mascara) >= ((casilla - vacia) & mascara)) {
+                claves[vacia] = clave;
+                valores[vacia] = valores[casilla];
+                vacia = casilla;
+            }
+        }
+        claves[vacia] = 0;
+    }
+
+    private void redimensionar(int nuevaCapacidad) {
+        int[] clavesViejas = claves;
+        int[] valoresViejos = valores;
+        inicializar(nuevaCapacidad);
+        for (int i = 0; i < clavesViejas.length; i++) {
+            int clave = clavesViejas[i];
+            if (clave != 0) {
+                int casilla = mezclar(clave) & mascara;
+                while (claves[casilla] != 0) {
+                    casilla = (casilla + 1) & mascara;
+                }
+                claves[casilla] = clave;
+                valores[casilla] = valoresViejos[i];
+            }
+        }
+    }
+
+    /** Reparte claves consecutivas (IDs 1, 2, 3...) por toda la tabla */
+    private static int mezclar(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
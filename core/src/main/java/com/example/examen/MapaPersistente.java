@@ -0,0 +1,155 @@
+/**
+ * CLASE: MapaPersistente.java
+ *
+ * PROPÓSITO:
+ * Mapa int → int INMUTABLE con copia por ruta: la versión persistente de MapaEnteros.
+ * poner() y eliminar() retornan un mapa nuevo que comparte con el anterior todo
+ * lo que no ha cambiado; el anterior sigue siendo válido y no cambia nunca.
+ *
+ * ESTRUCTURA:
+ * El mismo trie de 32 ramas que VectorPersistente, pero indexado por la CLAVE:
+ * - Los IDs de entrenamiento son consecutivos (SecuenciaIds), así que las hojas
+ *   quedan casi llenas y no hace falta hash
+ * - Cada casilla guarda valor + 1; 0 = clave ausente (las hojas nacen a cero)
+ * - Al eliminar no se podan nodos vacíos: los IDs borrados son pocos
+ *
+ * Las claves y los valores deben ser >= 0 (IDs y posiciones en el fichero).
+ */
+package com.example.examen;
+
+import static com.example.examen.VectorPersistente.BITS;
+import static com.example.examen.VectorPersistente.MASCARA;
+
+/**
+ * Mapa persistente de claves int (>= 0) a valores int (>= 0).
+ */
+public final class MapaPersistente {
+
+    // ==================== CONSTANTES ====================
+
+    /** Valor que retorna obtener() cuando la clave no existe */
+    public static final int VALOR_AUSENTE = -1;
+
+    private static final MapaPersistente VACIO = new MapaPersistente(null, 0, 0);
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Object raiz;
+    private final int desplazamiento;
+    private final int tamano;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    private MapaPersistente(Object raiz, int desplazamiento, int tamano) {
+        this.raiz = raiz;
+        this.desplazamiento = desplazamiento;
+        this.tamano = tamano;
+    }
+
+    /**
+     * @return Mapa sin entradas (compartido)
+     */
+    public static MapaPersistente vacio() {
+        return VACIO;
+    }
+
+    /**
+     * Construye un mapa con n pares clave → valor modificando nodos recién creados
+     * en el sitio (sin copias por ruta). Si una clave se repite, gana la última.
+     *
+     * @param claves Claves (>= 0)
+     * @param valores Valor de cada clave (>= 0)
+     * @param n Cuántos pares usar
+     * @return Mapa nuevo
+     */
+    public static MapaPersistente de(int[] claves, int[] valores, int n) {
+        Object raiz = null;
+        int desplazamiento = 0;
+        int tamano = 0;
+        for (int i = 0; i < n; i++) {
+            int clave = comprobar(claves[i]);
+            while (clave >= VectorPersistente.capacidad(desplazamiento)) {
+                Object[] ramas = new Object[VectorPersistente.ANCHO];
+                ramas[0] = raiz;
+                raiz = ramas;
+                desplazamiento += BITS;
+            }
+            if (leer(raiz, desplazamiento, clave) == VALOR_AUSENTE) {
+                tamano++;
+            }
+            raiz = VectorPersistente.ponerEn(raiz, desplazamiento, clave, comprobar(valores[i]) + 1, false);
+        }
+        return tamano == 0 ? VACIO : new MapaPersistente(raiz, desplazamiento, tamano);
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * @return Número de claves
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @param clave Clave buscada
+     * @return Valor asociado, o VALOR_AUSENTE si no existe. O(log32 clave).
+     */
+    public int obtener(int clave) {
+        if (clave < 0 || clave >= VectorPersistente.capacidad(desplazamiento)) {
+            return VALOR_AUSENTE;
+        }
+        return leer(raiz, desplazamiento, clave);
+    }
+
+    /**
+     * @return true si la clave existe
+     */
+    public boolean contiene(int clave) {
+        return obtener(clave) != VALOR_AUSENTE;
+    }
+
+    private static int leer(Object raiz, int desplazamiento, int clave) {
+        int[] hoja = VectorPersistente.hojaEn(raiz, desplazamiento, clave);
+        return hoja != null ? hoja[clave & MASCARA] - 1 : VALOR_AUSENTE;
+    }
+
+    // ==================== VERSIONES NUEVAS ====================
+
+    /**
+     * @return Mapa nuevo con la clave apuntando al valor (este no cambia)
+     */
+    public MapaPersistente poner(int clave, int valor) {
+        comprobar(clave);
+        comprobar(valor);
+        Object nuevaRaiz = raiz;
+        int nuevoDesplazamiento = desplazamiento;
+        while (clave >= VectorPersistente.capacidad(nuevoDesplazamiento)) {
+            Object[] ramas = new Object[VectorPersistente.ANCHO];
+            ramas[0] = nuevaRaiz;
+            nuevaRaiz = ramas;
+            nuevoDesplazamiento += BITS;
+        }
+        int nuevoTamano = contiene(clave) ? tamano : tamano + 1;
+        return new MapaPersistente(VectorPersistente.ponerEn(nuevaRaiz, nuevoDesplazamiento, clave, valor + 1, true),
+                nuevoDesplazamiento, nuevoTamano);
+    }
+
+    /**
+     * @return Mapa nuevo sin la clave (este mismo si no existía)
+     */
+    public MapaPersistente eliminar(int clave) {
+        if (!contiene(clave)) {
+            return this;
+        }
+        return new MapaPersistente(VectorPersistente.ponerEn(raiz, desplazamiento, clave, 0, true),
+                desplazamiento, tamano - 1);
+    }
+
+    private static int comprobar(int numero) {
+        if (numero < 0) {
+            throw new IllegalArgumentException("Las claves y los valores deben ser >= 0: " + numero);
+        }
+        return numero;
+    }
+}
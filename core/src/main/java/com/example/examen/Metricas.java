@@ -0,0 +1,248 @@
+/**
+ * CLASE: Metricas.java
+ *
+ * PROPÓSITO:
+ * Registro de métricas de rendimiento de toda la app: contadores y tiempos
+ * (con su HistogramaLatencias para sacar p50/p99). Dice EN QUÉ se va el tiempo
+ * (pintar filas, leer páginas, guardar, inflar diálogos...) sin un profiler.
+ *
+ * TIPOS DE MÉTRICA:
+ * - Contador: cuántas veces pasó algo (aciertos de una caché, reintentos...)
+ * - Tiempo: cuánto tardó cada vez; se mide entre iniciar() y terminar()
+ * - Fotogramas: duración de cada fotograma por pantalla (RegistroFotogramas);
+ *   los lentos se atribuyen a la última operación medida en el hilo principal
+ *
+ * SECCIONES DE TRAZA:
+ * Cada tiempo medido abre y cierra una sección con el mismo nombre en el
+ * Trazador (en Android, android.os.Trace: se ven en Perfetto/systrace junto a
+ * los frames). El módulo core no conoce Android: la app instala su Trazador.
+ *
+ * COSTE CON LAS MÉTRICAS DESACTIVADAS:
+ * iniciar() y contar() leen un volatile y retornan: ni reloj, ni mapas, ni
+ * objetos nuevos. Se puede dejar la instrumentación en el código de release.
+ *
+ * USO:
+ * long inicio = Metricas.iniciar("adapter.bind");
+ * try {
+ *     ...
+ * } finally {
+ *     Metricas.terminar("adapter.bind", inicio);
+ * }
+ *
+ * HILOS:
+ * Todo se puede llamar desde cualquier hilo. Las secciones de traza deben
+ * abrirse y cerrarse en el mismo hilo (por eso el try/finally).
+ */
+package com.example.examen;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores y tiempos de rendimiento con secciones de traza, desactivables.
+ */
+public final class Metricas {
+
+    // ==================== INTERFACES ====================
+
+    /**
+     * Destino de las secciones de traza (android.os.Trace en la app).
+     */
+    public interface Trazador {
+        void comenzar(String seccion);
+
+        void terminar();
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Valor de iniciar() cuando no se está midiendo */
+    public static final long SIN_MEDIR = 0;
+
+    private static final Trazador SIN_TRAZAS = new Trazador() {
+        @Override
+        public void comenzar(String seccion) {
+        }
+
+        @Override
+        public void terminar() {
+        }
+    };
+
+    // ==================== ATRIBUTOS ====================
+
+    private static volatile boolean activas;
+    private static volatile Trazador trazador = SIN_TRAZAS;
+
+    /** Hilo cuyas operaciones pueden retrasar un fotograma (el principal, en la app) */
+    private static volatile Thread hiloPrincipal;
+
+    private static final RegistroFotogramas fotogramas = new RegistroFotogramas();
+
+    private static final ConcurrentHashMap<String, AtomicLong> contadores = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, HistogramaLatencias> tiempos = new ConcurrentHashMap<>();
+
+    private Metricas() {
+    }
+
+    // ==================== CONFIGURACIÓN ====================
+
+    public static boolean isActivas() {
+        return activas;
+    }
+
+    /**
+     * Activa o desactiva las medidas (las ya tomadas se conservan).
+     */
+    public static void setActivas(boolean activar) {
+        activas = activar;
+    }
+
+    /**
+     * @param nuevo Trazador para las secciones, o null para no emitir ninguna
+     */
+    public static void setTrazador(Trazador nuevo) {
+        trazador = nuevo != null ? nuevo : SIN_TRAZAS;
+    }
+
+    /**
+     * @param hilo Hilo que dibuja la interfaz: sus operaciones medidas quedan
+     *             anotadas como posibles causas de los fotogramas lentos
+     */
+    public static void setHiloPrincipal(Thread hilo) {
+        hiloPrincipal = hilo;
+    }
+
+    // ==================== MEDIDAS ====================
+
+    /**
+     * Suma 1 a un contador.
+     *
+     * @param nombre Nombre del contador ("iconos.fallo")
+     */
+    public static void contar(String nombre) {
+        if (activas) {
+            contadores.computeIfAbsent(nombre, n -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Empieza a medir un tiempo y abre su sección de traza.
+     *
+     * @param nombre Nombre del tiempo ("catalogo.leerPagina")
+     * @return Marca para terminar(), o SIN_MEDIR si las métricas están desactivadas
+     */
+    public static long iniciar(String nombre) {
+        if (!activas) {
+            return SIN_MEDIR;
+        }
+        trazador.comenzar(nombre);
+        return System.nanoTime();
+    }
+
+    /**
+     * Cierra la sección de traza y registra lo que ha tardado.
+     *
+     * @param nombre El mismo nombre que en iniciar()
+     * @param inicio Lo que retornó iniciar()
+     */
+    public static void terminar(String nombre, long inicio) {
+        if (inicio == SIN_MEDIR) {
+            return;
+        }
+        long fin = System.nanoTime();
+        trazador.terminar();
+        tiempos.computeIfAbsent(nombre, n -> new HistogramaLatencias()).registrar(fin - inicio);
+        if (Thread.currentThread() == hiloPrincipal) {
+            fotogramas.anotarOperacion(nombre, fin);
+        }
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * @return Valor del contador (0 si nunca se contó)
+     */
+    public static long getContador(String nombre) {
+        AtomicLong contador = contadores.get(nombre);
+        return contador != null ? contador.get() : 0;
+    }
+
+    /**
+     * @return Histograma del tiempo, o null si nunca se midió
+     */
+    public static HistogramaLatencias getTiempo(String nombre) {
+        return tiempos.get(nombre);
+    }
+
+    /**
+     * @return Fotogramas por pantalla (MonitorFotogramas los registra aquí)
+     */
+    public static RegistroFotogramas getFotogramas() {
+        return fotogramas;
+    }
+
+    /**
+     * Borra todos los contadores, tiempos y fotogramas (p. ej. antes de repetir una prueba).
+     */
+    public static void reiniciar() {
+        contadores.clear();
+        tiempos.clear();
+        fotogramas.reiniciar();
+    }
+
+    // ==================== INFORME ====================
+
+    /**
+     * @return Informe de texto con todas las métricas (ver volcar)
+     */
+    public static String informe() {
+        StringWriter texto = new StringWriter();
+        try {
+            volcar(texto);
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringWriter no lanza
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Escribe todas las métricas, por orden alfabético, en forma de tabla:
+     * los contadores con su valor, los tiempos con n, p50, p90, p99, máximo y media
+     * en microsegundos, y los fotogramas de cada pantalla (RegistroFotogramas.volcar).
+     *
+     * @param salida Destino (un fichero, la pantalla de depuración...)
+     * @throws IOException Si no se puede escribir en la salida
+     */
+    public static void volcar(Writer salida) throws IOException {
+        salida.write("Métricas " + (activas ? "activas" : "desactivadas") + "\n");
+
+        salida.write("\nCONTADORES\n");
+        for (Map.Entry<String, AtomicLong> contador : new TreeMap<>(contadores).entrySet()) {
+            salida.write(String.format("%-28s %10d%n", contador.getKey(), contador.getValue().get()));
+        }
+
+        salida.write("\nTIEMPOS (µs)\n");
+        salida.write(String.format("%-28s %8s %9s %9s %9s %9s %9s%n",
+                "", "n", "p50", "p90", "p99", "máx", "media"));
+        for (Map.Entry<String, HistogramaLatencias> tiempo : new TreeMap<>(tiempos).entrySet()) {
+            HistogramaLatencias h = tiempo.getValue();
+            salida.write(String.format("%-28s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    tiempo.getKey(), h.getTotal(),
+                    micros(h.percentil(50)), micros(h.percentil(90)), micros(h.percentil(99)),
+                    micros(h.getMaximo()), micros(h.getMedia())));
+        }
+
+        fotogramas.volcar(salida);
+        salida.flush();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * CLASE: MotorFiltros.java
+ *
+ * PROPÓSITO:
+ * Filtra entrenamientos por dificultad y por categoría de icono sin recorrer el catálogo.
+ *
+ * FUNCIONAMIENTO:
+ * Guarda un BitsetComprimido de IDs por cada valor de cada campo:
+ * ┌───────────────────────┬──────────────────────────────┐
+ * │ dificultad "Alta"     │ {1, 4, 9, 12, ...}           │
+ * │ dificultad "Media"    │ {2, 5, ...}                  │
+ * │ icono Cardio/Running  │ {1, 3, 9, ...}               │
+ * │ icono Fuerza/Pesas    │ {2, 4, ...}                  │
+ * └───────────────────────┴──────────────────────────────┘
+ * "Alta AND Cardio/Running" = AND de dos conjuntos, palabra a palabra.
+ *
+ * SEMÁNTICA DE filtrar(dificultades, iconos):
+ * - Dentro de un mismo campo, OR  ("Alta" o "Media")
+ * - Entre campos distintos, AND   (dificultad elegida Y categoría elegida)
+ * - Un campo sin valores elegidos no filtra
+ *
+ * Las categorías de icono son las de IconoEntrenamiento.getIconosDisponibles():
+ * cada icono es su propia categoría (la clave es su iconoResId).
+ *
+ * SINCRONIZACIÓN:
+ * anadir() y eliminar() se llaman en cada alta/baja/edición del catálogo, y quitan
+ * el ID del conjunto antiguo antes de ponerlo en el nuevo.
+ */
+package com.example.examen;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Índice de bitsets por dificultad y por icono con combinaciones AND/OR.
+ */
+public class MotorFiltros {
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Dificultades vistas; su posición es el código de la dificultad */
+    private final List<String> dificultades = new ArrayList<>();
+
+    /** Conjunto de IDs de cada dificultad (misma posición que en "dificultades") */
+    private final List<BitsetComprimido> porDificultad = new ArrayList<>();
+
+    /** iconoResId → posición en "porIcono" */
+    private final MapaEnteros codigoIcono = new MapaEnteros();
+
+    /** Conjunto de IDs de cada icono */
+    private final List<BitsetComprimido> porIcono = new ArrayList<>();
+
+    /** Todos los IDs indexados */
+    private final BitsetComprimido todos = new BitsetComprimido();
+
+    /** ID → (código de dificultad << 16 | código de icono) con el que está indexado */
+    private final MapaEnteros codigosPorId = new MapaEnteros();
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Indexa un entrenamiento. Si ya estaba (mismo ID), se mueve a sus conjuntos nuevos.
+     *
+     * @param entrenamiento Entrenamiento a indexar
+     */
+    public synchronized void anadir(Entrenamiento entrenamiento) {
+        int id = entrenamiento.getId();
+        eliminar(id);
+
+        int dificultad = codigoDificultad(entrenamiento.getDificultad(), true);
+        int icono = codigoIcono(entrenamiento.getIconoResId(), true);
+        porDificultad.get(dificultad).anadir(id);
+        porIcono.get(icono).anadir(id);
+        todos.anadir(id);
+        codigosPorId.poner(id, (dificultad << 16) | icono);
+    }
+
+    /**
+     * Quita un entrenamiento de todos los conjuntos.
+     *
+     * @param id ID del entrenamiento
+     * @return true si estaba indexado
+     */
+    public synchronized boolean eliminar(int id) {
+        int codigos = codigosPorId.eliminar(id);
+        if (codigos == MapaEnteros.VALOR_AUSENTE) {
+            return false;
+        }
+        porDificultad.get(codigos >>> 16).quitar(id);
+        porIcono.get(codigos & 0xFFFF).quitar(id);
+        todos.quitar(id);
+        return true;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Entrenamientos que cumplen el filtro: (alguna de las dificultades) AND (alguno de los iconos).
+     *
+     * @param dificultades Dificultades aceptadas (null o vacío = todas)
+     * @param iconosResId Iconos aceptados (null o vacío = todos)
+     * @return Conjunto nuevo con los IDs que cumplen el filtro
+     */
+    public synchronized BitsetComprimido filtrar(Collection<String> dificultades, int[] iconosResId) {
+        BitsetComprimido resultado = todos;
+
+        if (dificultades != null && !dificultades.isEmpty()) {
+            BitsetComprimido union = new BitsetComprimido();
+            for (String dificultad : dificultades) {
+                int codigo = codigoDificultad(dificultad, false);
+                if (codigo >= 0) {
+                    union = BitsetComprimido.or(union, porDificultad.get(codigo));
+                }
+            }
+            resultado = BitsetComprimido.and(resultado, union);
+        }
+
+        if (iconosResId != null && iconosResId.length > 0) {
+            BitsetComprimido union = new BitsetComprimido();
+            for (int iconoResId : iconosResId) {
+                int codigo = codigoIcono(iconoResId, false);
+                if (codigo >= 0) {
+                    union = BitsetComprimido.or(union, porIcono.get(codigo));
+                }
+            }
+            resultado = BitsetComprimido.and(resultado, union);
+        }
+
+        // Nunca se entrega el conjunto interno: quien lo reciba podría modificarlo
+        return resultado == todos ? todos.copia() : resultado;
+    }
+
+    /**
+     * @param dificultad Dificultad ("Baja", "Media", "Alta"...)
+     * @return Número de entrenamientos con esa dificultad
+     */
+    public synchronized int contarDificultad(String dificultad) {
+        int codigo = codigoDificultad(dificultad, false);
+        return codigo < 0 ? 0 : porDificultad.get(codigo).cardinalidad();
+    }
+
+    /**
+     * @param iconoResId ID de recurso del icono
+     * @return Número de entrenamientos con ese icono
+     */
+    public synchronized int contarIcono(int iconoResId) {
+        int codigo = codigoIcono(iconoResId, false);
+        return codigo < 0 ? 0 : porIcono.get(codigo).cardinalidad();
+    }
+
+    /**
+     * @return Número de entrenamientos indexados
+     */
+    public synchronized int tamano() {
+        return codigosPorId.tamano();
+    }
+
+    // ==================== CÓDIGOS ====================
+
+    private int codigoDificultad(String dificultad, boolean crear) {
+        int codigo = dificultades.indexOf(dificultad);
+        if (codigo < 0 && crear) {
+            codigo = dificultades.size();
+            dificultades.add(dificultad);
+            porDificultad.add(new BitsetComprimido());
+        }
+        return codigo;
+    }
+
+    private int codigoIcono(int iconoResId, boolean crear) {
+        int codigo = codigoIcono.obtener(iconoResId);
+        if (codigo == MapaEnteros.VALOR_AUSENTE && crear) {
+            codigo = porIcono.size();
+            codigoIcono.poner(iconoResId, codigo);
+            porIcono.add(new BitsetComprimido());
+        }
+        return codigo == MapaEnteros.VALOR_AUSENTE ? -1 : codigo;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * INTERFAZ: PaqueteIconos.java
+ *
+ * PROPÓSITO:
+ * Un conjunto de iconos que se puede añadir al RegistroIconos: el paquete básico
+ * de la app (PaqueteIconosBasico) o cualquier paquete extra que se cargue después.
+ *
+ * USO:
+ * RegistroIconos.registrarPaquete(new MiPaquete());
+ * Los iconos del paquete aparecen a partir de entonces en el selector, los filtros,
+ * la importación y la exportación.
+ */
+package com.example.examen;
+
+import java.util.List;
+
+/**
+ * Fuente de iconos de entrenamiento registrables en RegistroIconos.
+ */
+public interface PaqueteIconos {
+
+    /**
+     * @return Nombre único del paquete (registrar dos veces el mismo nombre no hace nada)
+     */
+    String getNombre();
+
+    /**
+     * Se llama UNA vez, al registrar el paquete.
+     *
+     * @return Iconos del paquete en el orden en que deben mostrarse
+     */
+    List<IconoEntrenamiento> getIconos();
+}
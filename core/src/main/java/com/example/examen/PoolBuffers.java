@@ -0,0 +1,99 @@
+/**
+ * CLASE: PoolBuffers.java
+ *
+ * PROPÓSITO:
+ * Reutiliza ByteBuffers directos (fuera del heap de Java) de tamaño fijo.
+ *
+ * ¿POR QUÉ UN POOL?
+ * - Un buffer directo se escribe en un FileChannel sin copiarlo antes a un buffer
+ *   temporal del sistema (con un buffer del heap, Java hace esa copia en cada write)
+ * - Crear buffers directos es caro y su memoria solo se libera cuando el GC recoge
+ *   el objeto: crear uno por exportación llenaría la memoria nativa
+ * Con el pool, exportar 10 veces seguidas usa los mismos buffers.
+ *
+ * USO:
+ * ByteBuffer buffer = pool.obtener();
+ * try { ... } finally { pool.devolver(buffer); }
+ */
+package com.example.examen;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool de ByteBuffers directos de tamaño fijo, seguro entre hilos.
+ */
+public final class PoolBuffers {
+
+    // ==================== CONSTANTES ====================
+
+    /** Tamaño de los buffers del pool compartido */
+    public static final int TAMANO_BUFFER = 64 * 1024;
+
+    /** Buffers libres que guarda como máximo el pool compartido */
+    private static final int MAX_LIBRES = 4;
+
+    private static final PoolBuffers COMPARTIDO = new PoolBuffers(TAMANO_BUFFER, MAX_LIBRES);
+
+    // ==================== ATRIBUTOS ====================
+
+    private final int tamanoBuffer;
+    private final int maxLibres;
+    private final ArrayDeque<ByteBuffer> libres = new ArrayDeque<>();
+
+    /** Buffers creados desde el principio (para comprobar que se reutilizan) */
+    private int creados;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    /**
+     * @param tamanoBuffer Capacidad de cada buffer
+     * @param maxLibres Buffers devueltos que se guardan; los que sobren se dejan al GC
+     */
+    public PoolBuffers(int tamanoBuffer, int maxLibres) {
+        this.tamanoBuffer = tamanoBuffer;
+        this.maxLibres = maxLibres;
+    }
+
+    /**
+     * @return Pool compartido por toda la app (buffers de TAMANO_BUFFER bytes)
+     */
+    public static PoolBuffers compartido() {
+        return COMPARTIDO;
+    }
+
+    // ==================== PRÉSTAMO ====================
+
+    /**
+     * Presta un buffer vacío (posición 0, límite = capacidad).
+     *
+     * @return Buffer directo de tamanoBuffer bytes
+     */
+    public synchronized ByteBuffer obtener() {
+        ByteBuffer buffer = libres.pollFirst();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(tamanoBuffer);
+            creados++;
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Devuelve un buffer prestado. No se debe seguir usando después.
+     *
+     * @param buffer Buffer obtenido con obtener()
+     */
+    public synchronized void devolver(ByteBuffer buffer) {
+        if (libres.size() < maxLibres && buffer.capacity() == tamanoBuffer && buffer.isDirect()) {
+            libres.addFirst(buffer);
+        }
+    }
+
+    /**
+     * @return Buffers creados desde que existe el pool
+     */
+    public synchronized int getCreados() {
+        return creados;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * CLASE: Recorrido.java
+ *
+ * PROPÓSITO:
+ * Ruta GPS ya leída de un fichero de recorrido (FicheroRecorrido.leer): las
+ * muestras en orden, con las mismas unidades enteras que el fichero.
+ *
+ * ¿POR QUÉ ARRAYS DE PRIMITIVOS?
+ * Un recorrido de varias horas tiene decenas de miles de puntos: cinco arrays
+ * ocupan una fracción de lo que ocuparía un objeto por punto.
+ *
+ * UNIDADES:
+ * - Latitud y longitud en grados × 10^7 (getLatitudE7) o en grados (getLatitud)
+ * - Altitud y precisión en decímetros
+ */
+package com.example.examen;
+
+/**
+ * Muestras de un recorrido GPS en arrays paralelos (inmutable).
+ */
+public final class Recorrido {
+
+    // ==================== ATRIBUTOS ====================
+
+    private final int muestras;
+    private final long[] tiempos;
+    private final int[] latitudes;
+    private final int[] longitudes;
+    private final int[] altitudes;
+    private final int[] precisiones;
+
+    /**
+     * Se queda con los arrays (quien construye no debe tocarlos después).
+     */
+    Recorrido(int muestras, long[] tiempos, int[] latitudes, int[] longitudes, int[] altitudes, int[] precisiones) {
+        this.muestras = muestras;
+        this.tiempos = tiempos;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.altitudes = altitudes;
+        this.precisiones = precisiones;
+    }
+
+    // ==================== GETTERS ====================
+
+    public int getMuestras() {
+        return muestras;
+    }
+
+    /**
+     * @return Hora de la muestra en milisegundos desde 1970
+     */
+    public long getTiempo(int i) {
+        return tiempos[comprobar(i)];
+    }
+
+    public int getLatitudE7(int i) {
+        return latitudes[comprobar(i)];
+    }
+
+    public int getLongitudE7(int i) {
+        return longitudes[comprobar(i)];
+    }
+
+    /**
+     * @return Latitud en grados
+     */
+    public double getLatitud(int i) {
+        return getLatitudE7(i) / 1e7;
+    }
+
+    /**
+     * @return Longitud en grados
+     */
+    public double getLongitud(int i) {
+        return getLongitudE7(i) / 1e7;
+    }
+
+    public int getAltitudDm(int i) {
+        return altitudes[comprobar(i)];
+    }
+
+    public int getPrecisionDm(int i) {
+        return precisiones[comprobar(i)];
+    }
+
+    /**
+     * @return Milisegundos entre la primera y la última muestra
+     */
+    public long getDuracion() {
+        return muestras > 1 ? tiempos[muestras - 1] - tiempos[0] : 0;
+    }
+
+    private int comprobar(int i) {
+        if (i < 0 || i >= muestras) {
+            throw new IndexOutOfBoundsException("Muestra " + i + " de " + muestras);
+        }
+        return i;
+    }
+
+    // ==================== IGUALDAD ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Recorrido)) {
+            return false;
+        }
+        Recorrido otro = (Recorrido) o;
+        if (muestras != otro.muestras) {
+            return false;
+        }
+        // Los arrays pueden tener huecos al final: solo cuentan las muestras
+        for (int i = 0; i < muestras; i++) {
+            if (tiempos[i] != otro.tiempos[i] || latitudes[i] != otro.latitudes[i]
+                    || longitudes[i] != otro.longitudes[i] || altitudes[i] != otro.altitudes[i]
+                    || precisiones[i] != otro.precisiones[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = muestras;
+        for (int i = 0; i < muestras; i++) {
+            hash = 31 * hash + Long.hashCode(tiempos[i]);
+            hash = 31 * hash + latitudes[i];
+            hash = 31 * hash + longitudes[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "Recorrido{" + muestras + " muestras, " + getDuracion() / 1000 + " s}";
+    }
+}
@@ -0,0 +1,380 @@
+/**
+ * CLASE: RegistroEscrituras.java
+ *
+ * PROPÓSITO:
+ * Registro de escritura anticipada (write-ahead log) del almacén de entrenamientos.
+ * Cada alta, edición o baja se escribe aquí ANTES de aplicarse al almacén, y es
+ * este fichero (no el almacén) el que se sincroniza con el disco (fsync).
+ *
+ * FORMATO DEL FICHERO:
+ * ┌──────────────────────┐
+ * │ Cabecera (8 bytes)   │ ← MAGIA + VERSION
+ * ├──────────────────────┤
+ * │ Registro 1           │ ← [longitud:varint][crc32:int][carga...]
+ * │ Registro 2           │
+ * │ ...                  │
+ * └──────────────────────┘
+ * La carga la decide quien usa el registro (AlmacenEntrenamientos); el CRC32
+ * detecta un registro a medio escribir si la app o el sistema mueren.
+ *
+ * SINCRONIZACIÓN AGRUPADA (group commit):
+ * anadir() solo escribe (no espera al disco) y retorna el LSN del registro.
+ * Un hilo propio ("registro-escrituras") hace fsync en bucle: mientras un fsync
+ * está en marcha, los registros que llegan se acumulan y el SIGUIENTE fsync los
+ * cubre a todos. Con 50 escrituras seguidas se hacen unos pocos fsync, no 50.
+ * Quien necesite saber que un registro ya es durable llama a esperarDurable(lsn):
+ * AlmacenEntrenamientos no publica ninguna escritura hasta que lo es.
+ *
+ * PUNTO DE CONTROL (checkpoint):
+ * Cuando el almacén ya ha sincronizado sus propios datos, llama a reiniciar():
+ * el registro se vacía y al arrancar solo se reproduce lo escrito desde entonces.
+ *
+ * LSN (Log Sequence Number):
+ * Bytes escritos desde que se abrió el registro. No vuelve a empezar al reiniciar(),
+ * así un LSN antiguo nunca se confunde con uno nuevo.
+ */
+package com.example.examen;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Log de escritura anticipada con CRC por registro, fsync agrupado y reinicio en cada punto de control.
+ */
+public class RegistroEscrituras implements Closeable {
+
+    // ==================== INTERFACES ====================
+
+    /**
+     * Recibe las cargas de los registros al reproducir el registro en la apertura.
+     */
+    public interface Reproductor {
+        /**
+         * @param carga Carga del registro (solo lectura mientras dura la llamada)
+         * @throws IOException Si no se puede aplicar
+         */
+        void reproducir(ByteBuffer carga) throws IOException;
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Identifica el fichero como un registro de escrituras ("EXMW") */
+    private static final int MAGIA = 0x45584D57;
+
+    private static final int VERSION = 1;
+
+    /** Tamaño de la cabecera del fichero: MAGIA + VERSION */
+    private static final int TAMANO_CABECERA = 8;
+
+    /** Tamaño máximo de la cabecera de cada registro: longitud (varint) + CRC32 */
+    private static final int CABECERA_REGISTRO_MAX = Varint.MAX_BYTES + 4;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final FileChannel canal;
+
+    /** Posición del fichero donde se escribirá el próximo registro */
+    private long fin;
+
+    /** LSN del último byte escrito */
+    private long lsnEscrito;
+
+    /** LSN hasta el que todo está sincronizado con el disco */
+    private long lsnDurable;
+
+    /** fsync hechos por el hilo de sincronización */
+    private long sincronizaciones;
+
+    /** Registros reproducidos al abrir */
+    private int reproducidos;
+
+    /** Error del último fsync; se relanza en la siguiente llamada */
+    private IOException error;
+
+    private boolean cerrado;
+
+    private final Thread sincronizador;
+
+    private final CRC32 crc = new CRC32();
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    private RegistroEscrituras(FileChannel canal) {
+        this.canal = canal;
+        this.sincronizador = new Thread(this::sincronizarEnBucle, "registro-escrituras");
+        this.sincronizador.setDaemon(true);
+    }
+
+    /**
+     * Abre (o crea) el registro y reproduce, en orden, los registros que contiene:
+     * los escritos desde el último punto de control. Un registro incompleto o con
+     * CRC incorrecto al final se descarta (y todo lo que haya detrás).
+     *
+     * @param fichero Fichero del registro
+     * @param reproductor Aplica cada registro al almacén
+     * @return Registro listo para añadir
+     * @throws IOException Si el fichero no se puede abrir, no es un registro o falla la reproducción
+     */
+    public static RegistroEscrituras abrir(File fichero, Reproductor reproductor) throws IOException {
+        FileChannel canal = new RandomAccessFile(fichero, "rw").getChannel();
+        RegistroEscrituras registro = new RegistroEscrituras(canal);
+        try {
+            registro.cargar(reproductor);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        registro.sincronizador.start();
+        return registro;
+    }
+
+    private void cargar(Reproductor reproductor) throws IOException {
+        if (canal.size() < TAMANO_CABECERA) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGIA).putInt(VERSION).flip();
+            canal.truncate(0);
+            canal.write(cabecera, 0);
+            canal.force(false);
+        }
+
+        long tamano = canal.size();
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("Registro de escrituras demasiado grande");
+        }
+        ByteBuffer contenido = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+        if (contenido.getInt(0) != MAGIA || contenido.getInt(4) != VERSION) {
+            throw new IOException("El fichero no es un registro de escrituras válido");
+        }
+
+        int posicion = TAMANO_CABECERA;
+        int limite = (int) tamano;
+        while (posicion < limite) {
+            long cabecera = Varint.leerEn(contenido, posicion, limite);
+            if (cabecera < 0) {
+                break; // Cabecera incompleta
+            }
+            int longitud = (int) cabecera;
+            int inicioCrc = posicion + (int) (cabecera >>> 32);
+            int inicioCarga = inicioCrc + 4;
+            if (longitud < 1 || (long) inicioCarga + longitud > limite) {
+                break; // Registro incompleto
+            }
+
+            ByteBuffer carga = contenido.duplicate();
+            carga.position(inicioCarga).limit(inicioCarga + longitud);
+            crc.reset();
+            crc.update(carga.duplicate());
+            if ((int) crc.getValue() != contenido.getInt(inicioCrc)) {
+                break; // Registro a medio escribir
+            }
+
+            reproductor.reproducir(carga.slice());
+            reproducidos++;
+            posicion = inicioCarga + longitud;
+        }
+
+        // Lo que haya detrás del último registro válido no llegó a confirmarse
+        if (posicion < tamano) {
+            canal.truncate(posicion);
+            canal.force(false);
+        }
+        fin = posicion;
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Añade un registro. No espera al disco: el fsync lo hace el hilo de sincronización.
+     *
+     * @param carga Contenido del registro
+     * @return LSN del registro (para esperarDurable)
+     * @throws IOException Si no se puede escribir o falló un fsync anterior
+     */
+    public long anadir(ByteBuffer carga) throws IOException {
+        return anadir(Collections.singletonList(carga));
+    }
+
+    /**
+     * Añade varios registros con una sola escritura.
+     *
+     * @param cargas Contenido de cada registro, en orden
+     * @return LSN del último registro
+     * @throws IOException Si no se puede escribir o falló un fsync anterior
+     */
+    public synchronized long anadir(List<ByteBuffer> cargas) throws IOException {
+        comprobarEstado();
+
+        int tamano = 0;
+        for (ByteBuffer carga : cargas) {
+            tamano += CABECERA_REGISTRO_MAX + carga.remaining();
+        }
+        ByteBuffer bloque = ByteBuffer.allocate(tamano);
+        for (ByteBuffer carga : cargas) {
+            crc.reset();
+            crc.update(carga.duplicate());
+            Varint.escribir(bloque, carga.remaining());
+            bloque.putInt((int) crc.getValue());
+            bloque.put(carga.duplicate());
+        }
+        bloque.flip();
+
+        int bytes = bloque.remaining();
+        long inicio = fin;
+        try {
+            while (bloque.hasRemaining()) {
+                fin += canal.write(bloque, fin);
+            }
+        } catch (IOException | RuntimeException e) {
+            // El siguiente registro se escribe encima: un bloque a medias no puede
+            // quedar delante de él (al abrir, la reproducción pararía ahí)
+            fin = inicio;
+            throw e;
+        }
+        lsnEscrito += bytes;
+        notifyAll(); // despierta al hilo de sincronización
+        return lsnEscrito;
+    }
+
+    /**
+     * Bloquea hasta que el registro con ese LSN (y todos los anteriores) esté en disco.
+     *
+     * @param lsn LSN retornado por anadir()
+     * @throws IOException Si el fsync falló o el registro se cerró antes
+     */
+    public synchronized void esperarDurable(long lsn) throws IOException {
+        while (lsnDurable < lsn) {
+            comprobarEstado();
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Espera de sincronización interrumpida");
+            }
+        }
+    }
+
+    /**
+     * Punto de control: vacía el registro. Llamar SOLO después de sincronizar el almacén,
+     * porque a partir de aquí lo escrito antes ya no se reproducirá al arrancar.
+     *
+     * @throws IOException Si no se puede truncar el fichero
+     */
+    public synchronized void reiniciar() throws IOException {
+        esperarDurable(lsnEscrito);
+        canal.truncate(TAMANO_CABECERA);
+        canal.force(false);
+        fin = TAMANO_CABECERA;
+    }
+
+    private void comprobarEstado() throws IOException {
+        if (error != null) {
+            throw new IOException("Falló la sincronización del registro de escrituras", error);
+        }
+        if (cerrado) {
+            throw new IOException("El registro de escrituras está cerrado");
+        }
+    }
+
+    // ==================== SINCRONIZACIÓN AGRUPADA ====================
+
+    /**
+     * Bucle del hilo "registro-escrituras": espera a que haya registros sin sincronizar
+     * y hace UN fsync que cubre todos los escritos hasta ese momento.
+     */
+    private void sincronizarEnBucle() {
+        while (true) {
+            long objetivo;
+            synchronized (this) {
+                while (!cerrado && lsnDurable == lsnEscrito) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (lsnDurable == lsnEscrito) {
+                    return; // cerrado y sin nada pendiente
+                }
+                objetivo = lsnEscrito;
+            }
+
+            // Fuera del candado: mientras dura el fsync se pueden seguir añadiendo registros
+            try {
+                canal.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    error = e;
+                    notifyAll();
+                }
+                return;
+            }
+
+            synchronized (this) {
+                lsnDurable = Math.max(lsnDurable, objetivo);
+                sincronizaciones++;
+                notifyAll();
+            }
+        }
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * @return Bytes del fichero (cabecera incluida); crece hasta el siguiente punto de control
+     */
+    public synchronized long getTamano() {
+        return fin;
+    }
+
+    /**
+     * @return LSN hasta el que todo está en disco
+     */
+    public synchronized long getLsnDurable() {
+        return lsnDurable;
+    }
+
+    /**
+     * @return fsync hechos desde que se abrió (para medir el agrupamiento)
+     */
+    public synchronized long getSincronizaciones() {
+        return sincronizaciones;
+    }
+
+    /**
+     * @return Registros reproducidos al abrir
+     */
+    public int getReproducidos() {
+        return reproducidos;
+    }
+
+    // ==================== CIERRE ====================
+
+    /**
+     * Espera a que todo lo escrito esté en disco, para el hilo de sincronización y cierra.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            notifyAll();
+        }
+        try {
+            sincronizador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.force(false);
+        canal.close();
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * CLASE: RegistroFotogramas.java
+ *
+ * PROPÓSITO:
+ * Duración de cada fotograma de cada pantalla (lista, detalle, diálogos) en
+ * histogramas de memoria fija, con los fotogramas que se pasan de presupuesto
+ * contados aparte y atribuidos a la última operación medida en el hilo principal.
+ * Pasa de "a veces va a tirones" a "p99 de 41 ms en la lista, 80 % de los
+ * fotogramas lentos tras lista.bind".
+ *
+ * CONCEPTOS:
+ * - Presupuesto: lo que dura un refresco de pantalla (16,7 ms a 60 Hz). Un
+ *   fotograma más largo se ve como un tirón (jank): se repite el anterior
+ * - Congelado: fotograma de más de 700 ms (la app parece colgada)
+ * - Causa: operación de Metricas que terminó dentro del fotograma o como mucho
+ *   un presupuesto antes de empezar (la que lo retrasó); "(ninguna)" si no hay
+ *
+ * MEMORIA FIJA:
+ * Cada pantalla es un HistogramaLatencias (array fijo) y unos contadores: medir
+ * millones de fotogramas no ocupa más que medir uno. Las causas son nombres de
+ * métricas (constantes del código), así que su número también está acotado.
+ *
+ * ORIGEN DE LOS DATOS:
+ * Este módulo no conoce Android: MonitorFotogramas (app) lee FrameMetrics o
+ * Choreographer y llama a registrar(). Metricas avisa de cada operación del hilo
+ * principal con anotarOperacion().
+ */
+package com.example.examen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Histogramas de duración de fotogramas por pantalla con detección de tirones.
+ */
+public class RegistroFotogramas {
+
+    // ==================== CONSTANTES ====================
+
+    /** Presupuesto por defecto: pantalla de 60 Hz */
+    public static final long PRESUPUESTO_60HZ = 1_000_000_000L / 60;
+
+    /** A partir de aquí un fotograma cuenta como congelado */
+    public static final long UMBRAL_CONGELADO = 700_000_000L;
+
+    /** Causa de los fotogramas lentos sin ninguna operación medida cerca */
+    public static final String SIN_CAUSA = "(ninguna)";
+
+    // ==================== ATRIBUTOS ====================
+
+    private final ConcurrentHashMap<String, Pantalla> pantallas = new ConcurrentHashMap<>();
+
+    private volatile long presupuesto = PRESUPUESTO_60HZ;
+
+    /** Última operación terminada en el hilo principal y cuándo terminó (System.nanoTime) */
+    private volatile String ultimaOperacion;
+    private volatile long finUltimaOperacion;
+
+    // ==================== CONFIGURACIÓN ====================
+
+    /**
+     * @param nanos Duración de un refresco de la pantalla (1e9 / Hz)
+     */
+    public void setPresupuesto(long nanos) {
+        presupuesto = Math.max(1, nanos);
+    }
+
+    public long getPresupuesto() {
+        return presupuesto;
+    }
+
+    // ==================== REGISTRO ====================
+
+    /**
+     * Apunta que una operación medida acaba de terminar en el hilo principal.
+     *
+     * @param nombre Nombre de la operación
+     * @param fin Momento en que terminó (System.nanoTime)
+     */
+    public void anotarOperacion(String nombre, long fin) {
+        ultimaOperacion = nombre;
+        finUltimaOperacion = fin;
+    }
+
+    /**
+     * Añade un fotograma.
+     *
+     * @param pantalla Pantalla que se estaba dibujando ("lista", "dialogo.nuevo"...)
+     * @param inicio Momento en que empezó el fotograma (System.nanoTime, vsync previsto)
+     * @param duracion Lo que tardó en nanosegundos
+     */
+    public void registrar(String pantalla, long inicio, long duracion) {
+        Pantalla estadisticas = pantallas.computeIfAbsent(pantalla, p -> new Pantalla());
+        estadisticas.duraciones.registrar(duracion);
+        if (duracion <= presupuesto) {
+            return;
+        }
+        estadisticas.lentos.incrementAndGet();
+        if (duracion >= UMBRAL_CONGELADO) {
+            estadisticas.congelados.incrementAndGet();
+        }
+        String operacion = ultimaOperacion;
+        String causa = operacion != null && finUltimaOperacion >= inicio - presupuesto ? operacion : SIN_CAUSA;
+        estadisticas.causas.computeIfAbsent(causa, c -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Borra todos los fotogramas registrados.
+     */
+    public void reiniciar() {
+        pantallas.clear();
+        ultimaOperacion = null;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * @return Estadísticas de la pantalla, o null si no se ha registrado ningún fotograma
+     */
+    public Pantalla getPantalla(String nombre) {
+        return pantallas.get(nombre);
+    }
+
+    /**
+     * Escribe una tabla por pantalla: fotogramas, lentos (% del total), congelados,
+     * p50/p90/p99/máx en milisegundos y, debajo, las causas de los lentos.
+     *
+     * @param salida Destino del informe
+     * @throws IOException Si no se puede escribir en la salida
+     */
+    public void volcar(Writer salida) throws IOException {
+        salida.write(String.format("%nFOTOGRAMAS (ms, presupuesto %.1f)%n", presupuesto / 1e6));
+        salida.write(String.format("%-28s %8s %7s %6s %7s %7s %7s %7s%n",
+                "", "n", "lentos", "cong.", "p50", "p90", "p99", "máx"));
+        for (Map.Entry<String, Pantalla> entrada : new TreeMap<>(pantallas).entrySet()) {
+            Pantalla p = entrada.getValue();
+            HistogramaLatencias h = p.duraciones;
+            salida.write(String.format("%-28s %8d %6.1f%% %6d %7.1f %7.1f %7.1f %7.1f%n",
+                    entrada.getKey(), h.getTotal(), p.getPorcentajeLentos(), p.getCongelados(),
+                    h.percentil(50) / 1e6, h.percentil(90) / 1e6, h.percentil(99) / 1e6, h.getMaximo() / 1e6));
+            for (Map.Entry<String, AtomicLong> causa : new TreeMap<>(p.causas).entrySet()) {
+                salida.write(String.format("    lento tras %-28s %8d%n", causa.getKey(), causa.getValue().get()));
+            }
+        }
+    }
+
+    // ==================== PANTALLA ====================
+
+    /**
+     * Fotogramas de una pantalla.
+     */
+    public static final class Pantalla {
+
+        private final HistogramaLatencias duraciones = new HistogramaLatencias();
+        private final AtomicLong lentos = new AtomicLong();
+        private final AtomicLong congelados = new AtomicLong();
+        private final ConcurrentHashMap<String, AtomicLong> causas = new ConcurrentHashMap<>();
+
+        public HistogramaLatencias getDuraciones() {
+            return duraciones;
+        }
+
+        public long getLentos() {
+            return lentos.get();
+        }
+
+        public long getCongelados() {
+            return congelados.get();
+        }
+
+        /**
+         * @return Porcentaje de fotogramas por encima del presupuesto (0 si no hay ninguno)
+         */
+        public double getPorcentajeLentos() {
+            long total = duraciones.getTotal();
+            return total > 0 ? 100.0 * lentos.get() / total : 0;
+        }
+
+        /**
+         * @return Fotogramas lentos atribuidos a la causa (SIN_CAUSA = sin operación cerca)
+         */
+        public long getLentosPor(String causa) {
+            AtomicLong contador = causas.get(causa);
+            return contador != null ? contador.get() : 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * CLASE: RegistroIconos.java
+ *
+ * PROPÓSITO:
+ * Catálogo ÚNICO de iconos de entrenamiento, construido una sola vez.
+ * Antes cada consulta creaba una lista nueva con 12 objetos nuevos (y buscar un
+ * icono por su ID la creaba hasta dos veces); ahora todas las consultas leen el
+ * mismo catálogo inmutable.
+ *
+ * ESTRUCTURA:
+ * - iconos: array en el orden de los paquetes registrados (el del selector)
+ * - indices: iconoResId → posición en el array, en un MapaEnteros (claves int sin
+ *   autoboxing, como un SparseArray pero O(1) y sin depender de Android)
+ * - lista: vista de solo lectura del array, la MISMA instancia en cada llamada
+ *
+ * PAQUETES DE ICONOS:
+ * registrarPaquete() añade los iconos de un PaqueteIconos en tiempo de ejecución.
+ * No modifica el catálogo actual: construye uno nuevo (copia + iconos nuevos) y lo
+ * publica en un campo volatile. Es lo único que cuesta O(n); las consultas siguen
+ * siendo lecturas sin candados ni copias.
+ * - Si un iconoResId ya está registrado, gana el primero
+ * - Registrar dos veces un paquete con el mismo nombre no hace nada
+ * - El registro empieza vacío: este módulo (core) no conoce los drawables de
+ *   Android. La app registra su PaqueteIconosBasico al arrancar (AplicacionExamen)
+ *
+ * HILOS:
+ * Las consultas se pueden hacer desde cualquier hilo. Registrar está sincronizado.
+ * Quien guarde la lista de getIconos() sigue viendo el catálogo de ese momento.
+ */
+package com.example.examen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registro inmutable (copia al registrar) de los iconos disponibles.
+ */
+public final class RegistroIconos {
+
+    // ==================== CATÁLOGO ====================
+
+    /** Una versión del catálogo. No cambia después de publicarse. */
+    private static final class Catalogo {
+        final IconoEntrenamiento[] iconos;
+        final MapaEnteros indices;
+        final List<IconoEntrenamiento> lista;
+        final List<String> paquetes;
+
+        Catalogo(IconoEntrenamiento[] iconos, MapaEnteros indices, List<String> paquetes) {
+            this.iconos = iconos;
+            this.indices = indices;
+            this.lista = Collections.unmodifiableList(Arrays.asList(iconos));
+            this.paquetes = paquetes;
+        }
+    }
+
+    /** Catálogo vigente */
+    private static volatile Catalogo catalogo =
+            new Catalogo(new IconoEntrenamiento[0], new MapaEnteros(), Collections.emptyList());
+
+    private RegistroIconos() {
+        // Solo métodos estáticos
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * @return Todos los iconos registrados, de solo lectura (no crea nada)
+     */
+    public static List<IconoEntrenamiento> getIconos() {
+        return catalogo.lista;
+    }
+
+    /**
+     * @param iconoResId ID del recurso drawable
+     * @return Icono con ese ID, o null si no está registrado. O(1).
+     */
+    public static IconoEntrenamiento getIcono(int iconoResId) {
+        Catalogo actual = catalogo;
+        int indice = actual.indices.obtener(iconoResId);
+        return indice != MapaEnteros.VALOR_AUSENTE ? actual.iconos[indice] : null;
+    }
+
+    /**
+     * @return Primer icono registrado (el que se usa cuando no se reconoce uno),
+     *         o null si todavía no hay ningún paquete registrado
+     */
+    public static IconoEntrenamiento getIconoPorDefecto() {
+        IconoEntrenamiento[] iconos = catalogo.iconos;
+        return iconos.length > 0 ? iconos[0] : null;
+    }
+
+    /**
+     * @return Número de iconos registrados
+     */
+    public static int contar() {
+        return catalogo.iconos.length;
+    }
+
+    // ==================== PAQUETES ====================
+
+    /**
+     * Añade los iconos de un paquete al catálogo.
+     *
+     * @param paquete Paquete de iconos
+     * @return Número de iconos nuevos (0 si el paquete ya estaba o no aporta ninguno)
+     */
+    public static synchronized int registrarPaquete(PaqueteIconos paquete) {
+        Catalogo actual = catalogo;
+        if (actual.paquetes.contains(paquete.getNombre())) {
+            return 0;
+        }
+
+        List<IconoEntrenamiento> nuevos = paquete.getIconos();
+        IconoEntrenamiento[] iconos = Arrays.copyOf(actual.iconos, actual.iconos.length + nuevos.size());
+        MapaEnteros indices = new MapaEnteros(iconos.length);
+        for (int i = 0; i < actual.iconos.length; i++) {
+            indices.poner(iconos[i].getIconoResId(), i);
+        }
+        int total = actual.iconos.length;
+        for (IconoEntrenamiento icono : nuevos) {
+            if (!indices.contiene(icono.getIconoResId())) {
+                indices.poner(icono.getIconoResId(), total);
+                iconos[total++] = icono;
+            }
+        }
+
+        List<String> paquetes = new ArrayList<>(actual.paquetes);
+        paquetes.add(paquete.getNombre());
+        catalogo = new Catalogo(Arrays.copyOf(iconos, total), indices, Collections.unmodifiableList(paquetes));
+        return total - actual.iconos.length;
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * INTERFAZ: RepositorioEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Define las operaciones de acceso a los datos de entrenamientos, sin importar
+ * dónde estén guardados (memoria, fichero, base de datos...).
+ *
+ * PATRÓN DE DISEÑO:
+ * Repository Pattern - Separa la lógica de almacenamiento del resto de la app.
+ * Los Fragments solo conocen esta interfaz, no la implementación concreta.
+ *
+ * IMPLEMENTACIONES:
+ * - AlmacenEntrenamientos: Fichero de registros append-only leído con memory-mapping
+ *
+ * USO:
+ * ListaEntrenamientosFragment y DetalleEntrenamientoFragment acceden a los
+ * entrenamientos a través de esta interfaz.
+ */
+package com.example.examen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Operaciones básicas sobre el catálogo de entrenamientos.
+ */
+public interface RepositorioEntrenamientos extends Closeable {
+
+    /**
+     * Foto inmutable del catálogo en este momento. Se puede leer desde cualquier
+     * hilo, sin sincronización, aunque después lleguen escrituras.
+     *
+     * @return Vista actual del catálogo
+     */
+    VistaEntrenamientos getVista();
+
+    /**
+     * Retorna todos los entrenamientos en orden de inserción.
+     *
+     * @return Lista con todos los entrenamientos guardados
+     */
+    List<Entrenamiento> obtenerTodos();
+
+    /**
+     * Retorna una porción de la lista (una "página") sin leer el resto.
+     *
+     * @param desde Posición del primer entrenamiento (0 = el primero de la lista)
+     * @param cantidad Número máximo de entrenamientos a retornar
+     * @return Entrenamientos en las posiciones [desde, desde + cantidad) que existan
+     */
+    List<Entrenamiento> obtenerRango(int desde, int cantidad);
+
+    /**
+     * Busca un entrenamiento por su ID.
+     *
+     * @param id ID único del entrenamiento
+     * @return El entrenamiento, o null si no existe
+     */
+    Entrenamiento obtenerPorId(int id);
+
+    /**
+     * Número de entrenamientos guardados.
+     *
+     * @return Cantidad de entrenamientos
+     */
+    int contar();
+
+    /**
+     * Guarda un entrenamiento nuevo o reemplaza uno existente con el mismo ID.
+     * Al retornar, el cambio ya es durable y visible en getVista().
+     *
+     * @param entrenamiento Entrenamiento a guardar
+     * @throws IOException Si no se puede escribir en el almacenamiento
+     */
+    void guardar(Entrenamiento entrenamiento) throws IOException;
+
+    /**
+     * Guarda varios entrenamientos de una vez (por ejemplo, un lote de una importación).
+     * Equivale a llamar a guardar() con cada uno, pero puede escribirlos juntos.
+     *
+     * @param entrenamientos Entrenamientos a guardar, en orden
+     * @throws IOException Si no se puede escribir en el almacenamiento
+     */
+    void guardarLote(List<Entrenamiento> entrenamientos) throws IOException;
+
+    /**
+     * Elimina un entrenamiento por su ID.
+     *
+     * @param id ID del entrenamiento a eliminar
+     * @return true si existía y se eliminó
+     * @throws IOException Si no se puede escribir en el almacenamiento
+     */
+    boolean eliminar(int id) throws IOException;
+
+    /** Marca de una escritura que no cambió nada (confirmar() retorna enseguida) */
+    long SIN_CAMBIOS = 0;
+
+    /**
+     * Como guardar(), pero sin esperar al disco: el cambio NO es visible hasta
+     * confirmar() una marca igual o posterior. Varias escrituras seguidas se
+     * confirman con una sola espera.
+     *
+     * @param entrenamiento Entrenamiento a guardar
+     * @return Marca para confirmar()
+     * @throws IOException Si no se puede escribir en el almacenamiento
+     */
+    long guardarSinConfirmar(Entrenamiento entrenamiento) throws IOException;
+
+    /**
+     * Como eliminar(), pero sin esperar al disco (ver guardarSinConfirmar()).
+     *
+     * @param id ID del entrenamiento a eliminar
+     * @return Marca para confirmar(), o SIN_CAMBIOS si no existía
+     * @throws IOException Si no se puede escribir en el almacenamiento
+     */
+    long eliminarSinConfirmar(int id) throws IOException;
+
+    /**
+     * Espera a que la escritura de esa marca (y todas las anteriores) sea durable
+     * y solo entonces la hace visible en getVista().
+     *
+     * @param marca Marca de guardarSinConfirmar() / eliminarSinConfirmar()
+     * @throws IOException Si el disco falló: esas escrituras no se llegan a ver
+     */
+    void confirmar(long marca) throws IOException;
+
+    /**
+     * Genera un nuevo ID único para un entrenamiento.
+     *
+     * @return ID que todavía no ha sido usado
+     */
+    int generarNuevoId();
+}
@@ -0,0 +1,171 @@
+/**
+ * CLASE: RutaSimplificada.java
+ *
+ * PROPÓSITO:
+ * Una ruta GPS a varios niveles de detalle (LOD), ya simplificada por
+ * SimplificadorRuta. Quien la dibuja elige el nivel según la escala: nunca
+ * pinta las decenas de miles de puntos del recorrido original.
+ *
+ * NIVELES:
+ * El nivel n garantiza que ningún punto original queda a más de
+ * 2 × getTolerancia(n) metros de la línea simplificada; la tolerancia se
+ * duplica en cada nivel (1 m, 2 m, 4 m... hasta 2 km).
+ * Con el mapa a zoom Z (teselas web, 256 px) un píxel mide ~150.000 / 2^Z metros:
+ * el nivel n equivale aproximadamente al zoom 17 - n (nivelParaZoom).
+ *
+ * ELEGIR NIVEL (nivelPara):
+ * El más detallado cuyo error no se vea (menos de medio píxel) y que no pase
+ * de un máximo de puntos; si ni el más simple cabe, el más simple.
+ *
+ * PATRÓN DE DISEÑO:
+ * Objeto de valor inmutable: se construye en segundo plano y se entrega al
+ * hilo principal sin sincronizar (y se puede guardar en una caché).
+ */
+package com.example.examen;
+
+/**
+ * Puntos de una ruta en cada nivel de detalle (inmutable).
+ */
+public final class RutaSimplificada {
+
+    // ==================== CONSTANTES ====================
+
+    /** Zoom de mapa al que corresponde el nivel 0 (1 m de tolerancia ≈ 1 píxel) */
+    public static final int ZOOM_NIVEL_0 = 17;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final double[] tolerancias;
+    private final int[][] latitudes;
+    private final int[][] longitudes;
+    private final int[][] indices;
+
+    /** Muestras del recorrido original */
+    private final int original;
+
+    /** Rectángulo que contiene todo el recorrido original (grados × 10^7) */
+    private final int latitudMinima;
+    private final int latitudMaxima;
+    private final int longitudMinima;
+    private final int longitudMaxima;
+
+    /**
+     * Se queda con los arrays (cada uno del tamaño exacto de su nivel).
+     */
+    RutaSimplificada(double[] tolerancias, int[][] latitudes, int[][] longitudes, int[][] indices, int original,
+                     int latitudMinima, int latitudMaxima, int longitudMinima, int longitudMaxima) {
+        this.tolerancias = tolerancias;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.indices = indices;
+        this.original = original;
+        this.latitudMinima = latitudMinima;
+        this.latitudMaxima = latitudMaxima;
+        this.longitudMinima = longitudMinima;
+        this.longitudMaxima = longitudMaxima;
+    }
+
+    // ==================== NIVELES ====================
+
+    public int getNiveles() {
+        return tolerancias.length;
+    }
+
+    /**
+     * @return Tolerancia del nivel en metros
+     */
+    public double getTolerancia(int nivel) {
+        return tolerancias[nivel];
+    }
+
+    /**
+     * @return Puntos del nivel
+     */
+    public int getPuntos(int nivel) {
+        return latitudes[nivel].length;
+    }
+
+    public int getLatitudE7(int nivel, int punto) {
+        return latitudes[nivel][punto];
+    }
+
+    public int getLongitudE7(int nivel, int punto) {
+        return longitudes[nivel][punto];
+    }
+
+    /**
+     * @return Posición del punto en el recorrido original
+     */
+    public int getIndice(int nivel, int punto) {
+        return indices[nivel][punto];
+    }
+
+    /**
+     * @return true si no hay recorrido (ningún punto)
+     */
+    public boolean isVacia() {
+        return original == 0;
+    }
+
+    /**
+     * @return Muestras del recorrido original
+     */
+    public int getOriginal() {
+        return original;
+    }
+
+    // ==================== EXTENSIÓN ====================
+
+    public int getLatitudMinimaE7() {
+        return latitudMinima;
+    }
+
+    public int getLatitudMaximaE7() {
+        return latitudMaxima;
+    }
+
+    public int getLongitudMinimaE7() {
+        return longitudMinima;
+    }
+
+    public int getLongitudMaximaE7() {
+        return longitudMaxima;
+    }
+
+    // ==================== ELEGIR NIVEL ====================
+
+    /**
+     * @param zoom Zoom de mapa (teselas web)
+     * @return Nivel con la tolerancia de aproximadamente un píxel a ese zoom
+     */
+    public int nivelParaZoom(int zoom) {
+        return Math.max(0, Math.min(getNiveles() - 1, ZOOM_NIVEL_0 - zoom));
+    }
+
+    /**
+     * @param metrosPorPixel Escala a la que se va a dibujar
+     * @param maximoPuntos Puntos que se pueden dibujar como mucho
+     * @return El nivel más detallado con error invisible que no pasa de maximoPuntos
+     *         (el más simple si ninguno cabe)
+     */
+    public int nivelPara(double metrosPorPixel, int maximoPuntos) {
+        int nivel = 0;
+        // Más detalle del que cabe en medio píxel no se ve
+        while (nivel < getNiveles() - 1 && 2 * tolerancias[nivel + 1] <= metrosPorPixel / 2) {
+            nivel++;
+        }
+        while (nivel < getNiveles() - 1 && getPuntos(nivel) > maximoPuntos) {
+            nivel++;
+        }
+        return nivel;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder("RutaSimplificada{").append(original).append(" →");
+        for (int nivel = 0; nivel < getNiveles(); nivel++) {
+            texto.append(' ').append(getPuntos(nivel));
+        }
+        return texto.append('}').toString();
+    }
+}
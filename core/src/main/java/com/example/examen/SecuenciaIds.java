@@ -0,0 +1,95 @@
+/**
+ * CLASE: SecuenciaIds.java
+ *
+ * PROPÓSITO:
+ * Generador persistente de IDs para los entrenamientos.
+ *
+ * ANTES:
+ * generarNuevoId() recorría toda la lista buscando el ID más alto (O(n))
+ * y, si se borraba el último entrenamiento, su ID se volvía a usar.
+ *
+ * AHORA:
+ * El último ID entregado se guarda en un fichero diminuto (4 bytes) mapeado
+ * en memoria. Pedir un ID nuevo es leer, sumar 1 y escribir en el mapa: O(1),
+ * y nunca se repite un ID aunque se borren entrenamientos o se reinicie la app.
+ */
+package com.example.examen;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Secuencia monótona de IDs guardada en un fichero mapeado en memoria.
+ */
+public class SecuenciaIds implements Closeable {
+
+    /** Tamaño del fichero: un único int con el último ID entregado */
+    private static final int TAMANO = 4;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+
+    private SecuenciaIds(FileChannel canal, MappedByteBuffer mapa) {
+        this.canal = canal;
+        this.mapa = mapa;
+    }
+
+    /**
+     * Abre (o crea, empezando en 0) la secuencia guardada en el fichero.
+     *
+     * @param fichero Fichero de la secuencia
+     * @return Secuencia lista para usar
+     * @throws IOException Si no se puede abrir o mapear el fichero
+     */
+    public static SecuenciaIds abrir(File fichero) throws IOException {
+        FileChannel canal = new RandomAccessFile(fichero, "rw").getChannel();
+        try {
+            // map() extiende el fichero con ceros si es más corto
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANO);
+            return new SecuenciaIds(canal, mapa);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reserva y retorna el siguiente ID.
+     *
+     * @return ID que nunca se había entregado
+     */
+    public synchronized int siguiente() {
+        int id = mapa.getInt(0) + 1;
+        mapa.putInt(0, id);
+        return id;
+    }
+
+    /**
+     * Último ID entregado (0 si todavía no se ha entregado ninguno).
+     */
+    public synchronized int actual() {
+        return mapa.getInt(0);
+    }
+
+    /**
+     * Garantiza que la secuencia nunca entregue un ID menor o igual que el indicado.
+     * Se usa al guardar entrenamientos con un ID asignado desde fuera.
+     *
+     * @param id ID ya usado
+     */
+    public synchronized void avanzarHasta(int id) {
+        if (id > mapa.getInt(0)) {
+            mapa.putInt(0, id);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapa.force();
+        canal.close();
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * CLASE: Sesion.java
+ *
+ * PROPÓSITO:
+ * Una vez que se HIZO un entrenamiento: cuándo empezó, cuánto duró de verdad y
+ * las notas del usuario. Entrenamiento es la plantilla; Sesion es el registro
+ * de cada vez que se usó.
+ *
+ * ¿POR QUÉ GUARDA EL NOMBRE?
+ * La plantilla se puede editar o eliminar después: la sesión conserva el nombre
+ * que tenía al hacerla, así el historial sigue teniendo sentido.
+ *
+ * USO:
+ * HistorialSesiones las guarda en particiones mensuales y las consulta por fechas.
+ */
+package com.example.examen;
+
+import java.util.Objects;
+
+/**
+ * Registro inmutable de una sesión de entrenamiento realizada.
+ */
+public final class Sesion {
+
+    // ==================== ATRIBUTOS ====================
+
+    private final int idEntrenamiento;
+    private final String nombreEntrenamiento;
+    private final long inicio;
+    private final int segundos;
+    private final String notas;
+
+    /**
+     * @param idEntrenamiento ID del Entrenamiento que se hizo
+     * @param nombreEntrenamiento Su nombre en ese momento
+     * @param inicio Hora de inicio en milisegundos desde 1970 (UTC)
+     * @param segundos Duración real en segundos
+     * @param notas Notas del usuario (null = sin notas)
+     */
+    public Sesion(int idEntrenamiento, String nombreEntrenamiento, long inicio, int segundos, String notas) {
+        if (inicio < 0) {
+            throw new IllegalArgumentException("Inicio anterior a 1970: " + inicio);
+        }
+        if (segundos < 0) {
+            throw new IllegalArgumentException("Duración negativa: " + segundos);
+        }
+        this.idEntrenamiento = idEntrenamiento;
+        this.nombreEntrenamiento = nombreEntrenamiento != null ? nombreEntrenamiento : "";
+        this.inicio = inicio;
+        this.segundos = segundos;
+        this.notas = notas != null ? notas : "";
+    }
+
+    // ==================== GETTERS ====================
+
+    public int getIdEntrenamiento() {
+        return idEntrenamiento;
+    }
+
+    public String getNombreEntrenamiento() {
+        return nombreEntrenamiento;
+    }
+
+    /**
+     * @return Hora de inicio en milisegundos desde 1970 (UTC)
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    /**
+     * @return Duración real en segundos
+     */
+    public int getSegundos() {
+        return segundos;
+    }
+
+    /**
+     * @return Notas ("" si no hay)
+     */
+    public String getNotas() {
+        return notas;
+    }
+
+    // ==================== IGUALDAD ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Sesion)) {
+            return false;
+        }
+        Sesion otra = (Sesion) o;
+        return idEntrenamiento == otra.idEntrenamiento
+                && inicio == otra.inicio
+                && segundos == otra.segundos
+                && nombreEntrenamiento.equals(otra.nombreEntrenamiento)
+                && notas.equals(otra.notas);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idEntrenamiento, nombreEntrenamiento, inicio, segundos, notas);
+    }
+
+    @Override
+    public String toString() {
+        return "Sesion{" + nombreEntrenamiento + " (" + idEntrenamiento + ") @" + inicio + ", " + segundos + " s}";
+    }
+}
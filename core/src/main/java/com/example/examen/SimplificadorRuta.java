@@ -0,0 +1,310 @@
+/**
+ * CLASE: SimplificadorRuta.java
+ *
+ * PROPÓSITO:
+ * Simplifica una ruta GPS A MEDIDA QUE LLEGAN LOS PUNTOS y produce a la vez
+ * todos los niveles de detalle de una RutaSimplificada. Un recorrido de varias
+ * horas (decenas de miles de puntos) se queda en unos cientos por nivel.
+ *
+ * ALGORITMO: Douglas-Peucker con ventana deslizante
+ * Cada nivel guarda los puntos que le llegan en una ventana de VENTANA puntos.
+ * Al llenarse, aplica Douglas-Peucker a la ventana (se queda con los puntos
+ * que se separan más de la tolerancia de la recta entre los que ya guarda),
+ * emite los que sobreviven y empieza la ventana siguiente con el último. La
+ * memoria no depende de la longitud de la ruta, y cada punto se procesa una
+ * vez por nivel en el que sigue vivo.
+ *
+ * NIVELES EN CASCADA:
+ * El nivel 0 recibe los puntos originales; cada nivel siguiente (tolerancia
+ * doble) recibe solo lo que emite el anterior. Los errores se suman, pero como
+ * las tolerancias se duplican, el total del nivel n es menos de 2 × tolerancia(n).
+ * Los niveles gruesos apenas cuestan: reciben muy pocos puntos.
+ *
+ * DISTANCIAS:
+ * Se proyecta a metros en un plano tangente en el primer punto (equirectangular):
+ * el error es despreciable para la extensión de un entrenamiento.
+ *
+ * PRECIO DE LA VENTANA:
+ * El último punto de cada ventana se conserva siempre (un punto de más cada
+ * VENTANA puntos recibidos en ese nivel).
+ *
+ * USO:
+ * SimplificadorRuta simplificador = new SimplificadorRuta();
+ * FicheroRecorrido.leer(fichero, simplificador);   // o anadir(lat, lon) punto a punto
+ * RutaSimplificada ruta = simplificador.terminar();
+ */
+package com.example.examen;
+
+import java.util.Arrays;
+
+/**
+ * Douglas-Peucker en streaming con una ventana por nivel de detalle.
+ */
+public final class SimplificadorRuta implements BufferMuestras.Receptor {
+
+    // ==================== CONSTANTES ====================
+
+    /** Niveles de detalle: de 1 m a 2 km de tolerancia */
+    public static final int NIVELES = 12;
+
+    /** Tolerancia del nivel 0 en metros (se duplica en cada nivel) */
+    public static final double TOLERANCIA_BASE = 1.0;
+
+    /** Puntos de la ventana de Douglas-Peucker de cada nivel */
+    static final int VENTANA = 256;
+
+    /** Metros por unidad de grado × 10^7 (en un meridiano) */
+    private static final double METROS_POR_E7 = 111_319.49 / 1e7;
+
+    // ==================== ATRIBUTOS ====================
+
+    private final Nivel[] niveles = new Nivel[NIVELES];
+
+    /** Primer punto: origen de la proyección */
+    private int latitudOrigen;
+    private int longitudOrigen;
+    private double metrosPorE7Longitud;
+
+    private int recibidos;
+    private int latitudMinima = Integer.MAX_VALUE;
+    private int latitudMaxima = Integer.MIN_VALUE;
+    private int longitudMinima = Integer.MAX_VALUE;
+    private int longitudMaxima = Integer.MIN_VALUE;
+
+    private boolean terminado;
+
+    public SimplificadorRuta() {
+        double tolerancia = TOLERANCIA_BASE;
+        for (int i = 0; i < NIVELES; i++) {
+            niveles[i] = new Nivel(tolerancia);
+            tolerancia *= 2;
+        }
+        for (int i = 0; i < NIVELES - 1; i++) {
+            niveles[i].siguiente = niveles[i + 1];
+        }
+    }
+
+    /**
+     * Simplifica un recorrido ya leído.
+     */
+    public static RutaSimplificada simplificar(Recorrido recorrido) {
+        SimplificadorRuta simplificador = new SimplificadorRuta();
+        for (int i = 0; i < recorrido.getMuestras(); i++) {
+            simplificador.anadir(recorrido.getLatitudE7(i), recorrido.getLongitudE7(i));
+        }
+        return simplificador.terminar();
+    }
+
+    // ==================== ENTRADA ====================
+
+    /**
+     * Añade el siguiente punto de la ruta.
+     *
+     * @param latitudE7 Latitud en grados × 10^7
+     * @param longitudE7 Longitud en grados × 10^7
+     */
+    public void anadir(int latitudE7, int longitudE7) {
+        if (terminado) {
+            throw new IllegalStateException("Simplificación ya terminada");
+        }
+        if (recibidos == 0) {
+            latitudOrigen = latitudE7;
+            longitudOrigen = longitudE7;
+            metrosPorE7Longitud = METROS_POR_E7 * Math.cos(Math.toRadians(latitudE7 / 1e7));
+        }
+        latitudMinima = Math.min(latitudMinima, latitudE7);
+        latitudMaxima = Math.max(latitudMaxima, latitudE7);
+        longitudMinima = Math.min(longitudMinima, longitudE7);
+        longitudMaxima = Math.max(longitudMaxima, longitudE7);
+
+        double x = (double) ((long) longitudE7 - longitudOrigen) * metrosPorE7Longitud;
+        double y = (double) ((long) latitudE7 - latitudOrigen) * METROS_POR_E7;
+        niveles[0].anadir(x, y, latitudE7, longitudE7, recibidos);
+        recibidos++;
+    }
+
+    /**
+     * Para leer un FicheroRecorrido directamente (solo usa la posición).
+     */
+    @Override
+    public boolean recibir(long tiempo, int latitudE7, int longitudE7, int altitudDm, int precisionDm) {
+        anadir(latitudE7, longitudE7);
+        return true;
+    }
+
+    /**
+     * @return Puntos recibidos hasta ahora
+     */
+    public int getRecibidos() {
+        return recibidos;
+    }
+
+    // ==================== RESULTADO ====================
+
+    /**
+     * Vacía las ventanas pendientes y retorna la ruta en todos sus niveles.
+     * Después ya no se pueden añadir puntos.
+     */
+    public RutaSimplificada terminar() {
+        if (!terminado) {
+            terminado = true;
+            niveles[0].vaciar();
+        }
+        double[] tolerancias = new double[NIVELES];
+        int[][] latitudes = new int[NIVELES][];
+        int[][] longitudes = new int[NIVELES][];
+        int[][] indices = new int[NIVELES][];
+        for (int i = 0; i < NIVELES; i++) {
+            Nivel nivel = niveles[i];
+            tolerancias[i] = nivel.tolerancia;
+            latitudes[i] = Arrays.copyOf(nivel.latitudesSalida, nivel.salida);
+            longitudes[i] = Arrays.copyOf(nivel.longitudesSalida, nivel.salida);
+            indices[i] = Arrays.copyOf(nivel.indicesSalida, nivel.salida);
+        }
+        return recibidos == 0
+                ? new RutaSimplificada(tolerancias, latitudes, longitudes, indices, 0, 0, 0, 0, 0)
+                : new RutaSimplificada(tolerancias, latitudes, longitudes, indices, recibidos,
+                        latitudMinima, latitudMaxima, longitudMinima, longitudMaxima);
+    }
+
+    // ==================== NIVEL ====================
+
+    /**
+     * Ventana de Douglas-Peucker de un nivel y los puntos que ha emitido.
+     */
+    private static final class Nivel {
+
+        final double tolerancia;
+        private final double toleranciaCuadrado;
+        Nivel siguiente;
+
+        /** Ventana: el primer punto ya se emitió (es el último de la ventana anterior) */
+        private final double[] x = new double[VENTANA];
+        private final double[] y = new double[VENTANA];
+        private final int[] latitudes = new int[VENTANA];
+        private final int[] longitudes = new int[VENTANA];
+        private final int[] indices = new int[VENTANA];
+        private int enVentana;
+
+        /** Trabajo de Douglas-Peucker (reutilizado en cada ventana) */
+        private final boolean[] conservar = new boolean[VENTANA];
+        private final int[] pila = new int[2 * VENTANA];
+
+        /** Puntos emitidos */
+        int[] latitudesSalida = new int[64];
+        int[] longitudesSalida = new int[64];
+        int[] indicesSalida = new int[64];
+        int salida;
+
+        Nivel(double tolerancia) {
+            this.tolerancia = tolerancia;
+            this.toleranciaCuadrado = tolerancia * tolerancia;
+        }
+
+        void anadir(double px, double py, int latitud, int longitud, int indice) {
+            x[enVentana] = px;
+            y[enVentana] = py;
+            latitudes[enVentana] = latitud;
+            longitudes[enVentana] = longitud;
+            indices[enVentana] = indice;
+            enVentana++;
+            if (enVentana == 1 && salida == 0) {
+                emitir(0); // El primer punto de la ruta se conserva siempre
+            } else if (enVentana == VENTANA) {
+                procesar();
+            }
+        }
+
+        /**
+         * Vacía la ventana (al terminar la ruta) y después la del nivel siguiente.
+         */
+        void vaciar() {
+            if (enVentana > 1) {
+                procesar();
+            }
+            if (siguiente != null) {
+                siguiente.vaciar();
+            }
+        }
+
+        /**
+         * Douglas-Peucker sobre la ventana; emite lo conservado y deja el último punto como inicio.
+         */
+        private void procesar() {
+            int ultimo = enVentana - 1;
+            Arrays.fill(conservar, 0, enVentana, false);
+            conservar[0] = true;
+            conservar[ultimo] = true;
+
+            int cima = 0;
+            pila[cima++] = 0;
+            pila[cima++] = ultimo;
+            while (cima > 0) {
+                int fin = pila[--cima];
+                int inicio = pila[--cima];
+                int masLejano = -1;
+                double distanciaMaxima = toleranciaCuadrado;
+                for (int i = inicio + 1; i < fin; i++) {
+                    double distancia = distanciaCuadrado(i, inicio, fin);
+                    if (distancia > distanciaMaxima) {
+                        distanciaMaxima = distancia;
+                        masLejano = i;
+                    }
+                }
+                if (masLejano >= 0) {
+                    conservar[masLejano] = true;
+                    pila[cima++] = inicio;
+                    pila[cima++] = masLejano;
+                    pila[cima++] = masLejano;
+                    pila[cima++] = fin;
+                }
+            }
+
+            for (int i = 1; i <= ultimo; i++) {
+                if (conservar[i]) {
+                    emitir(i);
+                }
+            }
+            x[0] = x[ultimo];
+            y[0] = y[ultimo];
+            latitudes[0] = latitudes[ultimo];
+            longitudes[0] = longitudes[ultimo];
+            indices[0] = indices[ultimo];
+            enVentana = 1;
+        }
+
+        /**
+         * Distancia al cuadrado del punto p al SEGMENTO a-b (no a la recta:
+         * una ruta que vuelve sobre sí misma no debe perder la vuelta).
+         */
+        private double distanciaCuadrado(int p, int a, int b) {
+            double dx = x[b] - x[a];
+            double dy = y[b] - y[a];
+            double px = x[p] - x[a];
+            double py = y[p] - y[a];
+            double longitud = dx * dx + dy * dy;
+            if (longitud > 0) {
+                double t = Math.max(0, Math.min(1, (px * dx + py * dy) / longitud));
+                px -= t * dx;
+                py -= t * dy;
+            }
+            return px * px + py * py;
+        }
+
+        private void emitir(int i) {
+            if (salida == latitudesSalida.length) {
+                int nueva = salida * 2;
+                latitudesSalida = Arrays.copyOf(latitudesSalida, nueva);
+                longitudesSalida = Arrays.copyOf(longitudesSalida, nueva);
+                indicesSalida = Arrays.copyOf(indicesSalida, nueva);
+            }
+            latitudesSalida[salida] = latitudes[i];
+            longitudesSalida[salida] = longitudes[i];
+            indicesSalida[salida] = indices[i];
+            salida++;
+            if (siguiente != null) {
+                siguiente.anadir(x[i], y[i], latitudes[i], longitudes[i], indices[i]);
+            }
+        }
+    }
+}
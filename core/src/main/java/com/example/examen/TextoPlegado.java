@@ -0,0 +1,102 @@
+/**
+ * CLASE: TextoPlegado.java
+ *
+ * PROPÓSITO:
+ * Normaliza texto para buscar sin que importen mayúsculas ni acentos.
+ * "Ñandú Ágil" y "nandu agil" deben encontrarse igual.
+ *
+ * PLEGADO:
+ * - Mayúsculas → minúsculas
+ * - Vocales acentuadas y con diéresis → vocal sin acento (á → a, ü → u)
+ * - ñ → n, ç → c (la búsqueda "nandu" encuentra "Ñandú")
+ *
+ * TOKENS:
+ * Un token es una secuencia de letras o dígitos; todo lo demás separa.
+ * "Yoga (30 min.)" → ["yoga", "30", "min"]
+ *
+ * RENDIMIENTO:
+ * Los caracteres latinos se pliegan con una tabla precalculada al cargar la clase,
+ * así que plegar un carácter es un acceso a array (Normalizer solo se usa una vez).
+ */
+package com.example.examen;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plegado de mayúsculas/acentos y separación en tokens para el índice de búsqueda.
+ */
+public final class TextoPlegado {
+
+    // ==================== TABLA DE PLEGADO ====================
+
+    /** Caracteres con plegado precalculado: ASCII, Latin-1 y Latin Extended-A/B */
+    private static final int LIMITE_TABLA = 0x250;
+
+    /** Carácter plegado de cada carácter menor que LIMITE_TABLA */
+    private static final char[] TABLA = new char[LIMITE_TABLA];
+
+    static {
+        for (int c = 0; c < LIMITE_TABLA; c++) {
+            // NFD separa la letra base de su acento: "á" → "a" + "´"
+            String descompuesto = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFD);
+            TABLA[c] = Character.toLowerCase(descompuesto.charAt(0));
+        }
+    }
+
+    private TextoPlegado() {
+        // Solo métodos estáticos
+    }
+
+    // ==================== PLEGADO ====================
+
+    /**
+     * @param c Carácter original
+     * @return Carácter en minúscula y sin acento
+     */
+    public static char plegar(char c) {
+        return c < LIMITE_TABLA ? TABLA[c] : Character.toLowerCase(c);
+    }
+
+    /**
+     * @param texto Texto original
+     * @return Texto en minúsculas y sin acentos (misma longitud)
+     */
+    public static String plegar(String texto) {
+        char[] resultado = new char[texto.length()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = plegar(texto.charAt(i));
+        }
+        return new String(resultado);
+    }
+
+    // ==================== TOKENS ====================
+
+    /**
+     * Separa un texto en tokens ya plegados.
+     *
+     * @param texto Texto a separar (puede ser null)
+     * @return Tokens en el orden en que aparecen (con repeticiones)
+     */
+    public static List<String> tokens(String texto) {
+        List<String> tokens = new ArrayList<>();
+        if (texto == null) {
+            return tokens;
+        }
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                actual.append(plegar(c));
+            } else if (actual.length() > 0) {
+                tokens.add(actual.toString());
+                actual.setLength(0);
+            }
+        }
+        if (actual.length() > 0) {
+            tokens.add(actual.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * CLASE: ValidadorEntrenamiento.java
+ *
+ * PROPÓSITO:
+ * Reglas de validación de los campos de un entrenamiento, en un solo sitio.
+ * Las usan el diálogo de nuevo entrenamiento (validarCampos) y la importación
+ * masiva (ImportadorEntrenamientos), así un fichero importado no puede meter
+ * datos que el formulario rechazaría.
+ *
+ * REGLAS:
+ * - Nombre, descripción y duración son obligatorios (sin contar espacios)
+ * - La duración tiene que entenderse como minutos (AnalizadorDuracion)
+ */
+package com.example.examen;
+
+/**
+ * Validación de los campos obligatorios de un entrenamiento.
+ */
+public final class ValidadorEntrenamiento {
+
+    private ValidadorEntrenamiento() {
+        // Solo métodos estáticos
+    }
+
+    /**
+     * Comprueba los campos de un entrenamiento.
+     *
+     * @param nombre Nombre escrito
+     * @param descripcion Descripción escrita
+     * @param duracion Duración escrita
+     * @return Mensaje del primer error encontrado, o null si todo es válido
+     */
+    public static String validar(String nombre, String descripcion, String duracion) {
+        if (estaVacio(nombre)) {
+            return "El nombre es obligatorio";
+        }
+
+        if (estaVacio(descripcion)) {
+            return "La descripción es obligatoria";
+        }
+
+        if (estaVacio(duracion)) {
+            return "La duración es obligatoria";
+        }
+
+        // La duración se filtra y ordena por minutos: tiene que poder analizarse
+        if (AnalizadorDuracion.minutos(duracion.trim()) == AnalizadorDuracion.SIN_DURACION) {
+            return "Duración no válida (ej: 45 minutos, 1h 30m)";
+        }
+
+        return null;
+    }
+
+    private static boolean estaVacio(String texto) {
+        return texto == null || texto.trim().isEmpty();
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * CLASE: Varint.java
+ *
+ * PROPÓSITO:
+ * Codificación de enteros de longitud variable (varint, como en Protocol Buffers).
+ * Los números pequeños ocupan menos bytes:
+ * - 0..127        → 1 byte
+ * - 128..16383    → 2 bytes
+ * - ...hasta 5 bytes para un int
+ *
+ * FORMATO:
+ * Cada byte guarda 7 bits del número; el bit más alto (0x80) indica
+ * "quedan más bytes". Los bytes van del menos al más significativo.
+ *
+ * NÚMEROS CON SIGNO (escribirConSigno/leerConSigno):
+ * Un -1 normal ocuparía 5 bytes. Con la codificación "zigzag" los números
+ * pequeños en valor absoluto ocupan poco: 0 → 0, -1 → 1, 1 → 2, -2 → 3...
+ * Se usa para diferencias (deltas) que pueden ser negativas.
+ *
+ * USO:
+ * CodecEntrenamiento y AlmacenEntrenamientos lo usan para IDs, longitudes
+ * de texto, minutos y códigos de diccionario; FicheroRecorrido, para las
+ * diferencias entre puntos GPS consecutivos.
+ */
+package com.example.examen;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Métodos estáticos para escribir y leer varints en un ByteBuffer.
+ */
+public final class Varint {
+
+    /** Máximo de bytes que ocupa un int codificado */
+    public static final int MAX_BYTES = 5;
+
+    private Varint() {
+    }
+
+    /**
+     * Escribe un int sin signo como varint.
+     *
+     * @param destino Buffer donde escribir (avanza su posición)
+     * @param valor Valor a escribir (los negativos ocupan 5 bytes)
+     */
+    public static void escribir(ByteBuffer destino, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    /**
+     * Lee un varint desde la posición actual del buffer.
+     *
+     * @param origen Buffer de lectura (avanza su posición)
+     * @return Valor leído
+     * @throws IllegalArgumentException Si el varint ocupa más de 5 bytes
+     */
+    public static int leer(ByteBuffer origen) {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            byte b = origen.get();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint mal formado");
+    }
+
+    /**
+     * Lee un varint en una posición absoluta sin mover el buffer.
+     * Útil para recorrer las cabeceras de registros en un MappedByteBuffer.
+     *
+     * @param origen Buffer de lectura
+     * @param posicion Posición del primer byte
+     * @param limite Posición a partir de la cual no hay datos válidos
+     * @return Valor en los 32 bits bajos y número de bytes leídos en los 32 altos,
+     *         o -1 si el varint está incompleto antes del límite
+     */
+    public static long leerEn(ByteBuffer origen, int posicion, int limite) {
+        int valor = 0;
+        for (int i = 0; i < MAX_BYTES; i++) {
+            if (posicion + i >= limite) {
+                return -1;
+            }
+            byte b = origen.get(posicion + i);
+            valor |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                return ((long) (i + 1) << 32) | (valor & 0xFFFFFFFFL);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Escribe un int con signo en zigzag (los valores cercanos a 0 ocupan 1 byte).
+     *
+     * @param destino Buffer donde escribir (avanza su posición)
+     * @param valor Valor a escribir
+     */
+    public static void escribirConSigno(ByteBuffer destino, int valor) {
+        escribir(destino, (valor << 1) ^ (valor >> 31));
+    }
+
+    /**
+     * Lee un int escrito con escribirConSigno().
+     *
+     * @param origen Buffer de lectura (avanza su posición)
+     * @return Valor leído
+     */
+    public static int leerConSigno(ByteBuffer origen) {
+        int zigzag = leer(origen);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * @param valor Valor a medir
+     * @return Bytes que ocupa el valor codificado como varint
+     */
+    public static int tamano(int valor) {
+        int bytes = 1;
+        while ((valor & ~0x7F) != 0) {
+            bytes++;
+            valor >>>= 7;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * CLASE: VectorPersistente.java
+ *
+ * PROPÓSITO:
+ * Lista de enteros INMUTABLE con "copia por ruta" (estructura persistente).
+ * Cambiar una posición o añadir al final NO modifica el vector: retorna uno nuevo
+ * que comparte con el anterior todos los nodos que no han cambiado.
+ *
+ * ESTRUCTURA (trie de 32 ramas):
+ *             raíz
+ *       ┌──────┼──────┐
+ *     rama   rama   rama        ← Object[32]
+ *    ┌──┴──┐
+ *   hoja  hoja ...              ← int[32] con los valores
+ * - La posición i se encuentra tomando 5 bits de i por nivel (de arriba abajo)
+ * - Con 100.000 elementos hay 4 niveles: leer es O(log32 n) ≈ O(1)
+ * - poner()/anadir() copian solo los ~4 nodos del camino hasta la hoja (~512 bytes)
+ *
+ * ¿PARA QUÉ?
+ * Para que VistaEntrenamientos sea una foto inmutable del catálogo: el hilo que
+ * escribe crea la versión nueva y la publica con una sola asignación; quien esté
+ * leyendo la versión anterior sigue leyéndola entera, sin candados ni copias.
+ *
+ * MapaPersistente usa el mismo trie (ponerEn / hojaEn) indexado por clave.
+ */
+package com.example.examen;
+
+/**
+ * Vector persistente de enteros (trie de 32 ramas con copia por ruta).
+ */
+public final class VectorPersistente {
+
+    // ==================== CONSTANTES ====================
+
+    /** Bits de la posición que consume cada nivel del trie */
+    static final int BITS = 5;
+
+    /** Ramas por nodo (y valores por hoja) */
+    static final int ANCHO = 1 << BITS;
+
+    static final int MASCARA = ANCHO - 1;
+
+    private static final VectorPersistente VACIO = new VectorPersistente(null, 0, 0);
+
+    // ==================== ATRIBUTOS ====================
+
+    /** int[] si desplazamiento == 0; Object[] (ramas) si no; null si el vector está vacío */
+    private final Object raiz;
+
+    /** Bits que consume el nivel de la raíz (0 = la raíz es una hoja) */
+    private final int desplazamiento;
+
+    private final int tamano;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    private VectorPersistente(Object raiz, int desplazamiento, int tamano) {
+        this.raiz = raiz;
+        this.desplazamiento = desplazamiento;
+        this.tamano = tamano;
+    }
+
+    /**
+     * @return Vector sin elementos (compartido)
+     */
+    public static VectorPersistente vacio() {
+        return VACIO;
+    }
+
+    /**
+     * Construye un vector con los n primeros valores del array en O(n).
+     *
+     * @param valores Valores en orden
+     * @param n Cuántos valores usar
+     * @return Vector nuevo
+     */
+    public static VectorPersistente de(int[] valores, int n) {
+        Construccion construccion = new Construccion();
+        for (int i = 0; i < n; i++) {
+            construccion.anadir(valores[i]);
+        }
+        return construccion.terminar();
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * @return Número de elementos
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @param indice Posición (0..tamano-1)
+     * @return Valor en esa posición
+     */
+    public int obtener(int indice) {
+        comprobarIndice(indice);
+        return hojaEn(raiz, desplazamiento, indice)[indice & MASCARA];
+    }
+
+    /**
+     * Busca un valor recorriendo las hojas en orden. O(n).
+     *
+     * @param valor Valor buscado
+     * @return Primera posición con ese valor, o -1
+     */
+    public int indiceDe(int valor) {
+        for (int inicio = 0; inicio < tamano; inicio += ANCHO) {
+            int[] hoja = hojaEn(raiz, desplazamiento, inicio);
+            int fin = Math.min(ANCHO, tamano - inicio);
+            for (int i = 0; i < fin; i++) {
+                if (hoja[i] == valor) {
+                    return inicio + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Copia de los valores en un array nuevo
+     */
+    public int[] aArray() {
+        int[] valores = new int[tamano];
+        for (int inicio = 0; inicio < tamano; inicio += ANCHO) {
+            int[] hoja = hojaEn(raiz, desplazamiento, inicio);
+            System.arraycopy(hoja, 0, valores, inicio, Math.min(ANCHO, tamano - inicio));
+        }
+        return valores;
+    }
+
+    // ==================== VERSIONES NUEVAS ====================
+
+    /**
+     * @return Vector nuevo con el valor cambiado (este no cambia). O(log32 n).
+     */
+    public VectorPersistente poner(int indice, int valor) {
+        comprobarIndice(indice);
+        return new VectorPersistente(ponerEn(raiz, desplazamiento, indice, valor, true), desplazamiento, tamano);
+    }
+
+    /**
+     * @return Vector nuevo con el valor añadido al final (este no cambia). O(log32 n).
+     */
+    public VectorPersistente anadir(int valor) {
+        Object nuevaRaiz = raiz;
+        int nuevoDesplazamiento = desplazamiento;
+        if (tamano == capacidad(desplazamiento)) {
+            // Raíz llena: sube un nivel, la raíz actual pasa a ser su primera rama
+            Object[] ramas = new Object[ANCHO];
+            ramas[0] = raiz;
+            nuevaRaiz = ramas;
+            nuevoDesplazamiento += BITS;
+        }
+        return new VectorPersistente(ponerEn(nuevaRaiz, nuevoDesplazamiento, tamano, valor, true),
+                nuevoDesplazamiento, tamano + 1);
+    }
+
+    /**
+     * Vector nuevo sin la posición indicada (los siguientes se desplazan una posición).
+     * Las hojas anteriores a la del índice se comparten; el resto se reconstruye: O(n - indice).
+     * (VistaEntrenamientos no lo usa para las bajas: marca la ranura como borrada.)
+     */
+    public VectorPersistente quitar(int indice) {
+        comprobarIndice(indice);
+        Construccion construccion = new Construccion();
+        int primeraHojaNueva = indice >>> BITS;
+        for (int h = 0; h < primeraHojaNueva; h++) {
+            construccion.anadirHoja(hojaEn(raiz, desplazamiento, h << BITS));
+        }
+        for (int i = primeraHojaNueva << BITS; i < tamano; i++) {
+            if (i != indice) {
+                construccion.anadir(obtener(i));
+            }
+        }
+        return construccion.terminar();
+    }
+
+    // ==================== TRIE (compartido con MapaPersistente) ====================
+
+    /** Elementos que caben con la raíz en ese nivel */
+    static long capacidad(int desplazamiento) {
+        return 1L << (desplazamiento + BITS);
+    }
+
+    /**
+     * @return Hoja que contiene la posición, o null si ese camino aún no existe
+     */
+    static int[] hojaEn(Object raiz, int desplazamiento, int indice) {
+        Object nodo = raiz;
+        for (int s = desplazamiento; s > 0 && nodo != null; s -= BITS) {
+            nodo = ((Object[]) nodo)[(indice >>> s) & MASCARA];
+        }
+        return (int[]) nodo;
+    }
+
+    /**
+     * Escribe un valor en la posición creando los nodos que falten.
+     *
+     * @param copiar true = copia cada nodo del camino (persistente);
+     *               false = modifica en el sitio (SOLO nodos recién creados y aún no publicados)
+     * @return Raíz resultante
+     */
+    static Object ponerEn(Object nodo, int desplazamiento, int indice, int valor, boolean copiar) {
+        if (desplazamiento == 0) {
+            int[] hoja = nodo == null ? new int[ANCHO] : copiar ? ((int[]) nodo).clone() : (int[]) nodo;
+            hoja[indice & MASCARA] = valor;
+            return hoja;
+        }
+        Object[] ramas = nodo == null ? new Object[ANCHO] : copiar ? ((Object[]) nodo).clone() : (Object[]) nodo;
+        int rama = (indice >>> desplazamiento) & MASCARA;
+        ramas[rama] = ponerEn(ramas[rama], desplazamiento - BITS, indice, valor, copiar);
+        return ramas;
+    }
+
+    private void comprobarIndice(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Índice " + indice + ", tamaño " + tamano);
+        }
+    }
+
+    /**
+     * Construye un vector nuevo añadiendo al final y modificando sus nodos en el sitio
+     * (nadie más los ve hasta terminar()). Las hojas de anadirHoja() se enlazan sin copiar.
+     */
+    private static final class Construccion {
+        private Object raiz;
+        private int desplazamiento;
+        private int tamano;
+
+        /** Hoja llena que se comparte tal cual (solo mientras tamano es múltiplo de ANCHO) */
+        void anadirHoja(int[] hoja) {
+            crecerSiLleno();
+            if (desplazamiento == 0) {
+                raiz = hoja;
+            } else {
+                Object nodo = raiz;
+                for (int s = desplazamiento; s > BITS; s -= BITS) {
+                    Object[] ramas = (Object[]) nodo;
+                    int rama = (tamano >>> s) & MASCARA;
+                    if (ramas[rama] == null) {
+                        ramas[rama] = new Object[ANCHO];
+                    }
+                    nodo = ramas[rama];
+                }
+                ((Object[]) nodo)[(tamano >>> BITS) & MASCARA] = hoja;
+            }
+            tamano += ANCHO;
+        }
+
+        void anadir(int valor) {
+            crecerSiLleno();
+            raiz = ponerEn(raiz, desplazamiento, tamano, valor, false);
+            tamano++;
+        }
+
+        private void crecerSiLleno() {
+            if (tamano > 0 && tamano == capacidad(desplazamiento)) {
+                Object[] ramas = new Object[ANCHO];
+                ramas[0] = raiz;
+                raiz = ramas;
+                desplazamiento += BITS;
+            }
+        }
+
+        VectorPersistente terminar() {
+            return tamano == 0 ? VACIO : new VectorPersistente(raiz, desplazamiento, tamano);
+        }
+    }
+}
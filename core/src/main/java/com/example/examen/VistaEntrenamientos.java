@@ -0,0 +1,250 @@
+/**
+ * CLASE: VistaEntrenamientos.java
+ *
+ * PROPÓSITO:
+ * Foto INMUTABLE del índice de AlmacenEntrenamientos en una versión concreta.
+ * Se puede leer desde cualquier hilo, sin candados, mientras otro hilo escribe.
+ *
+ * CÓMO SE CONSIGUE:
+ * - El orden de la lista (ranura → ID) es un VectorPersistente
+ * - La ranura y la posición del registro vigente de cada ID son dos MapaPersistente
+ * - Los registros del fichero nunca se modifican (append-only): una posición
+ *   apunta siempre a los mismos bytes
+ * - El almacén crea la vista nueva en cada escritura (copia por ruta, O(log n))
+ *   y la publica con UNA asignación a un campo volatile
+ * Quien tiene una vista ve siempre el mismo número de entrenamientos y los mismos
+ * datos: nunca media importación, ni una edición a medio aplicar.
+ *
+ * BAJAS (LÁPIDAS):
+ * Quitar la ranura del vector obligaría a desplazar todas las siguientes (O(n)).
+ * En su lugar la ranura se marca como borrada y se apunta en "borradas" (ordenado):
+ * la posición i de la lista es la ranura i + (borradas que quedan antes), que se
+ * calcula con una búsqueda binaria. Cuando hay más de ~√n borradas se compacta el
+ * vector de una vez (O(n)), así que una baja cuesta O(√n) amortizado.
+ *
+ * USO:
+ * VistaEntrenamientos vista = almacen.getVista();   // sin candado
+ * vista.contar(); vista.obtenerRango(0, 50);         // coherentes entre sí
+ */
+package com.example.examen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versión inmutable del catálogo del almacén, legible sin sincronización.
+ */
+public final class VistaEntrenamientos {
+
+    // ==================== CONSTANTES ====================
+
+    /** ID que ocupa una ranura borrada (los IDs son >= 0) */
+    private static final int RANURA_BORRADA = -1;
+
+    private static final int[] SIN_BORRADAS = new int[0];
+
+    // ==================== ATRIBUTOS ====================
+
+    /** Almacén del que se leen (y decodifican) los registros */
+    private final AlmacenEntrenamientos almacen;
+
+    /** Ranura → ID (RANURA_BORRADA si se eliminó) */
+    private final VectorPersistente ranuras;
+
+    /** ID → ranura */
+    private final MapaPersistente ranuraPorId;
+
+    /** ID → posición en el fichero de su registro ALTA vigente */
+    private final MapaPersistente posiciones;
+
+    /** Ranuras borradas, de menor a mayor (nunca se modifica: se copia en cada baja) */
+    private final int[] borradas;
+
+    /** Bytes del fichero escritos cuando se creó esta vista (todos sus registros están antes) */
+    private final long tamanoFichero;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    private VistaEntrenamientos(AlmacenEntrenamientos almacen, VectorPersistente ranuras,
+                                MapaPersistente ranuraPorId, MapaPersistente posiciones,
+                                int[] borradas, long tamanoFichero) {
+        this.almacen = almacen;
+        this.ranuras = ranuras;
+        this.ranuraPorId = ranuraPorId;
+        this.posiciones = posiciones;
+        this.borradas = borradas;
+        this.tamanoFichero = tamanoFichero;
+    }
+
+    /**
+     * Construye una vista sin bajas en O(n).
+     *
+     * @param ids ID de cada entrenamiento, en el orden de la lista
+     * @param posicionesPorRanura Posición en el fichero del registro de cada uno
+     * @param n Cuántos usar
+     */
+    static VistaEntrenamientos construir(AlmacenEntrenamientos almacen, int[] ids, int[] posicionesPorRanura,
+                                         int n, long tamanoFichero) {
+        return new VistaEntrenamientos(almacen, VectorPersistente.de(ids, n), MapaPersistente.de(ids, numeros(n), n),
+                MapaPersistente.de(ids, posicionesPorRanura, n), SIN_BORRADAS, tamanoFichero);
+    }
+
+    /**
+     * @return Vista nueva con el registro del ID en esa posición (al final si el ID es nuevo)
+     */
+    VistaEntrenamientos conAlta(int id, int posicion, long tamanoFichero) {
+        if (posiciones.contiene(id)) {
+            return new VistaEntrenamientos(almacen, ranuras, ranuraPorId, posiciones.poner(id, posicion),
+                    borradas, tamanoFichero);
+        }
+        return new VistaEntrenamientos(almacen, ranuras.anadir(id), ranuraPorId.poner(id, ranuras.tamano()),
+                posiciones.poner(id, posicion), borradas, tamanoFichero);
+    }
+
+    /**
+     * @return Vista nueva sin el ID (los siguientes suben una posición). O(√n) amortizado.
+     */
+    VistaEntrenamientos conBaja(int id, long tamanoFichero) {
+        int ranura = ranuraPorId.obtener(id);
+        if (ranura == MapaPersistente.VALOR_AUSENTE) {
+            return this;
+        }
+        VectorPersistente nuevasRanuras = ranuras.poner(ranura, RANURA_BORRADA);
+        int[] nuevasBorradas = insertarOrdenado(borradas, ranura);
+        if (nuevasBorradas.length > limiteBorradas(nuevasRanuras.tamano())) {
+            return compactar(nuevasRanuras, posiciones.eliminar(id), tamanoFichero);
+        }
+        return new VistaEntrenamientos(almacen, nuevasRanuras, ranuraPorId.eliminar(id),
+                posiciones.eliminar(id), nuevasBorradas, tamanoFichero);
+    }
+
+    /** Vista sin ranuras borradas: reconstruye el vector y las ranuras de cada ID en O(n) */
+    private VistaEntrenamientos compactar(VectorPersistente conBorradas, MapaPersistente posiciones,
+                                          long tamanoFichero) {
+        int[] ids = conBorradas.aArray();
+        int vivos = 0;
+        for (int id : ids) {
+            if (id != RANURA_BORRADA) {
+                ids[vivos++] = id;
+            }
+        }
+        return new VistaEntrenamientos(almacen, VectorPersistente.de(ids, vivos),
+                MapaPersistente.de(ids, numeros(vivos), vivos), posiciones, SIN_BORRADAS, tamanoFichero);
+    }
+
+    /** Borradas que se toleran antes de compactar: copiar "borradas" y compactar cuestan lo mismo */
+    private static int limiteBorradas(int ranuras) {
+        return Math.max(VectorPersistente.ANCHO, (int) Math.sqrt(ranuras));
+    }
+
+    private static int[] insertarOrdenado(int[] ordenado, int valor) {
+        int indice = -Arrays.binarySearch(ordenado, valor) - 1;
+        int[] nuevo = new int[ordenado.length + 1];
+        System.arraycopy(ordenado, 0, nuevo, 0, indice);
+        nuevo[indice] = valor;
+        System.arraycopy(ordenado, indice, nuevo, indice + 1, ordenado.length - indice);
+        return nuevo;
+    }
+
+    /** 0, 1, ..., n-1 */
+    private static int[] numeros(int n) {
+        int[] numeros = new int[n];
+        for (int i = 0; i < n; i++) {
+            numeros[i] = i;
+        }
+        return numeros;
+    }
+
+    /**
+     * Ranura de la posición i de la lista: i + las borradas que quedan antes.
+     * Como borradas[j] - j (vivas antes de la borrada j) no decrece, es una búsqueda binaria.
+     */
+    private int ranuraDe(int posicion) {
+        int bajo = 0;
+        int alto = borradas.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (borradas[medio] - medio <= posicion) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return posicion + bajo;
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * @return Número de entrenamientos en esta versión
+     */
+    public int contar() {
+        return ranuras.tamano() - borradas.length;
+    }
+
+    /**
+     * @return true si el ID existe en esta versión
+     */
+    public boolean contiene(int id) {
+        return posiciones.contiene(id);
+    }
+
+    /**
+     * @param id ID del entrenamiento
+     * @return Entrenamiento (tal como estaba en esta versión), o null si no existe
+     */
+    public Entrenamiento obtenerPorId(int id) {
+        int posicion = posiciones.obtener(id);
+        return posicion != MapaPersistente.VALOR_AUSENTE ? almacen.leerRegistro(posicion, tamanoFichero) : null;
+    }
+
+    /**
+     * @param desde Posición del primero
+     * @param cantidad Número máximo de entrenamientos
+     * @return Entrenamientos de [desde, desde + cantidad) en el orden de la lista
+     */
+    public List<Entrenamiento> obtenerRango(int desde, int cantidad) {
+        int inicio = Math.max(0, desde);
+        int total = Math.max(0, Math.min(contar(), desde + cantidad) - inicio);
+        List<Entrenamiento> resultado = new ArrayList<>(total);
+        for (int ranura = total > 0 ? ranuraDe(inicio) : 0; resultado.size() < total; ranura++) {
+            int id = ranuras.obtener(ranura);
+            if (id != RANURA_BORRADA) {
+                resultado.add(almacen.leerRegistro(posiciones.obtener(id), tamanoFichero));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Todos los entrenamientos de esta versión
+     */
+    public List<Entrenamiento> obtenerTodos() {
+        return obtenerRango(0, contar());
+    }
+
+    /**
+     * @return ID del entrenamiento en esa posición de la lista (sin leer su registro)
+     */
+    int idEn(int posicion) {
+        if (posicion < 0 || posicion >= contar()) {
+            throw new IndexOutOfBoundsException("Posición " + posicion + ", tamaño " + contar());
+        }
+        return ranuras.obtener(ranuraDe(posicion));
+    }
+
+    /**
+     * @return Posición en el fichero del registro del entrenamiento en esa posición de la lista
+     */
+    int posicionEn(int posicion) {
+        return posiciones.obtener(idEn(posicion));
+    }
+
+    /**
+     * @return Bytes del fichero que cubre esta vista
+     */
+    long getTamanoFichero() {
+        return tamanoFichero;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.example.examen.EntrenamientosPrueba.DIFICULTADES;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * AgregadosCatalogo mantenido en cada alta, edición y baja frente a recalcular
+ * desde cero: mismo resultado después de miles de cambios aleatorios, también
+ * sobre 100.000 entrenamientos (lo que cuesta cada cambio frente al recorrido
+ * completo se mide en :benchmarks, EstadisticasBenchmark).
+ */
+public class AgregadosCatalogoTest {
+
+    private static final String[] DURACIONES = {"20 minutos", "45 min", "1 hora", "1h 30m", "90", "media hora", ""};
+    /** Más iconos que EntrenamientosPrueba.ICONOS: el conteo por icono tiene más grupos */
+    private static final int[] ICONOS = {101, 102, 103, 104, 105};
+
+    private static final int CAMBIOS = 20_000;
+    private static final int IDS = 2_000;
+    private static final int N = 100_000;
+
+    @Test
+    public void valores_porDificultadIconoYExtremos() {
+        AgregadosCatalogo agregados = new AgregadosCatalogo();
+        Map<Integer, Entrenamiento> catalogo = new HashMap<>();
+        guardar(agregados, catalogo,
+                entrenamiento(1).setDuracion("30 minutos").setDificultad("Media").setIconoResId(101).construir());
+        guardar(agregados, catalogo,
+                entrenamiento(2).setDuracion("1 hora").setDificultad("Media").setIconoResId(102).construir());
+        guardar(agregados, catalogo,
+                entrenamiento(3).setDuracion("10 min").setDificultad("Alta").setIconoResId(101).construir());
+        guardar(agregados, catalogo,
+                entrenamiento(4).setDuracion("media hora").setDificultad("Baja").setIconoResId(103).construir());
+
+        EstadisticasCatalogo e = agregados.instantanea(catalogo::get);
+        assertEquals(4, e.getTotal());
+        assertEquals(1, e.getSinDuracion());
+        assertEquals(2, e.getPorDificultad().get("Media").getCantidad());
+        assertEquals(90, e.getPorDificultad().get("Media").getMinutos());
+        assertEquals(45.0, e.getPorDificultad().get("Media").getMedia(), 1e-9);
+        assertEquals(0.0, e.getPorDificultad().get("Baja").getMedia(), 1e-9);
+        assertEquals(Integer.valueOf(2), e.getPorIcono().get(101));
+        assertEquals(3, e.getMasCorto().getId());
+        assertEquals(2, e.getMasLargo().getId());
+
+        // Editar el más largo para que sea el más corto; borrar el único "Alta"
+        guardar(agregados, catalogo,
+                entrenamiento(2).setDuracion("5 minutos").setDificultad("Baja").setIconoResId(103).construir());
+        borrar(agregados, catalogo, 3);
+
+        e = agregados.instantanea(catalogo::get);
+        assertEquals(3, e.getTotal());
+        assertNull("Sin entrenamientos Alta no queda la entrada", e.getPorDificultad().get("Alta"));
+        assertNull(e.getPorIcono().get(102));
+        assertEquals(2, e.getMasCorto().getId());
+        assertEquals(1, e.getMasLargo().getId());
+        assertEquals(AgregadosCatalogo.calcular(catalogo.values()).instantanea(catalogo::get), e);
+    }
+
+    @Test
+    public void cambiosAleatorios_coincidenConRecalcularDesdeCero() {
+        Random aleatorio = new Random(2024);
+        AgregadosCatalogo agregados = new AgregadosCatalogo();
+        Map<Integer, Entrenamiento> catalogo = new HashMap<>();
+        int comprobaciones = 0;
+
+        for (int i = 1; i <= CAMBIOS; i++) {
+            int id = 1 + aleatorio.nextInt(IDS);
+            if (catalogo.containsKey(id) && aleatorio.nextInt(3) == 0) {
+                borrar(agregados, catalogo, id);
+            } else {
+                // Alta si el ID es nuevo, edición si ya existía
+                guardar(agregados, catalogo, aleatorio(id, aleatorio));
+            }
+            if (i % 500 == 0) {
+                EstadisticasCatalogo recalculadas = AgregadosCatalogo.calcular(catalogo.values()).instantanea(catalogo::get);
+                assertEquals("Después de " + i + " cambios", recalculadas, agregados.instantanea(catalogo::get));
+                comprobaciones++;
+            }
+        }
+
+        // Vaciar el catálogo deja todo a cero
+        for (Integer id : new ArrayList<>(catalogo.keySet())) {
+            borrar(agregados, catalogo, id);
+        }
+        EstadisticasCatalogo vacias = agregados.instantanea(catalogo::get);
+        assertEquals(0, vacias.getTotal());
+        assertTrue(vacias.getPorDificultad().isEmpty());
+        assertTrue(vacias.getPorIcono().isEmpty());
+        assertNull(vacias.getMasLargo());
+        assertEquals(CAMBIOS / 500, comprobaciones);
+    }
+
+    @Test
+    public void ediciones_100k_coincidenConRecorrer() {
+        Random aleatorio = new Random(1);
+        List<Entrenamiento> lista = new ArrayList<>(N);
+        Map<Integer, Entrenamiento> catalogo = new HashMap<>();
+        for (int id = 1; id <= N; id++) {
+            Entrenamiento e = aleatorio(id, aleatorio);
+            lista.add(e);
+            catalogo.put(id, e);
+        }
+        AgregadosCatalogo agregados = AgregadosCatalogo.calcular(lista);
+
+        for (int i = 0; i < 10_000; i++) {
+            int id = 1 + aleatorio.nextInt(N);
+            guardar(agregados, catalogo, aleatorio(id, aleatorio));
+        }
+
+        EstadisticasCatalogo incrementales = agregados.instantanea(catalogo::get);
+        assertEquals(N, incrementales.getTotal());
+        assertEquals(AgregadosCatalogo.calcular(catalogo.values()).instantanea(catalogo::get), incrementales);
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static void guardar(AgregadosCatalogo agregados, Map<Integer, Entrenamiento> catalogo, Entrenamiento e) {
+        agregados.reemplazar(catalogo.put(e.getId(), e), e);
+    }
+
+    private static void borrar(AgregadosCatalogo agregados, Map<Integer, Entrenamiento> catalogo, int id) {
+        agregados.eliminar(catalogo.remove(id));
+    }
+
+    private static Entrenamiento aleatorio(int id, Random aleatorio) {
+        return entrenamiento(id).setDuracion(DURACIONES[aleatorio.nextInt(DURACIONES.length)])
+                .setDificultad(DIFICULTADES[aleatorio.nextInt(DIFICULTADES.length)])
+                .setIconoResId(ICONOS[aleatorio.nextInt(ICONOS.length)]).construir();
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.example.examen;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Almacén append-only: reabrir conserva entrenamientos y orden, un registro a
+ * medio escribir al final se recorta al abrir, y las ediciones (ALTA con el
+ * mismo ID) y bajas se reproducen igual al reabrir que en memoria. Una escritura
+ * que falla al registrarse en el ".wal" no queda ni en el almacén ni en el ".wal".
+ */
+public class AlmacenEntrenamientosTest {
+
+    private File fichero;
+
+    @Before
+    public void crearFichero() throws IOException {
+        fichero = File.createTempFile("almacen", ".db");
+        assertTrue(fichero.delete());
+    }
+
+    @After
+    public void borrarFichero() {
+        fichero.delete();
+        new File(fichero.getPath() + ".seq").delete();
+        new File(fichero.getPath() + ".wal").delete();
+    }
+
+    @Test
+    public void reabrir_conservaEntrenamientosYOrden() throws IOException {
+        List<Entrenamiento> esperados;
+        int ultimoId;
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(0, almacen.contar());
+            for (int i = 0; i < 20; i++) {
+                almacen.guardar(variante(almacen.generarNuevoId(), i));
+            }
+            esperados = almacen.obtenerTodos();
+            ultimoId = esperados.get(esperados.size() - 1).getId();
+        }
+
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(esperados, almacen.obtenerTodos());
+            assertEquals(esperados.subList(5, 10), almacen.obtenerRango(5, 5));
+            assertEquals(esperados.get(3), almacen.obtenerPorId(esperados.get(3).getId()));
+            assertTrue("Los IDs no se repiten al reabrir", almacen.generarNuevoId() > ultimoId);
+        }
+    }
+
+    @Test
+    public void registroAMedias_seRecortaAlAbrir() throws IOException {
+        List<Entrenamiento> completos;
+        long tamanoCompleto;
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            for (int i = 0; i < 10; i++) {
+                almacen.guardar(variante(i + 1, i));
+            }
+            completos = almacen.obtenerTodos();
+        }
+        tamanoCompleto = fichero.length();
+
+        // Se cerró bien (".wal" vacío): el registro 11 solo existe en el almacén, y a medias
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            almacen.guardar(variante(11, 11));
+        }
+        try (RandomAccessFile datos = new RandomAccessFile(fichero, "rw")) {
+            datos.setLength(datos.length() - 3);
+        }
+
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(completos, almacen.obtenerTodos());
+            assertEquals("La cola rota se recorta", tamanoCompleto, fichero.length());
+            almacen.guardar(variante(12, 12)); // Se escribe justo detrás del último registro válido
+        }
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(11, almacen.contar());
+            assertEquals(variante(12, 12), almacen.obtenerPorId(12));
+            assertNull(almacen.obtenerPorId(11));
+        }
+    }
+
+    @Test
+    public void cabeceraDeRegistroAMedias_seRecortaAlAbrir() throws IOException {
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            almacen.guardar(variante(1, 1));
+        }
+        long tamano = fichero.length();
+        // Solo llegó al disco el primer byte de una longitud varint de dos bytes
+        try (RandomAccessFile datos = new RandomAccessFile(fichero, "rw")) {
+            datos.seek(tamano);
+            datos.write(0x80);
+        }
+
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(1, almacen.contar());
+            assertEquals(tamano, fichero.length());
+        }
+    }
+
+    @Test
+    public void altasEdicionesYBajas_seReproducenAlReabrir() throws IOException {
+        List<Entrenamiento> enMemoria;
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            for (int i = 1; i <= 5; i++) {
+                almacen.guardar(variante(i, i));
+            }
+            // Editar = ALTA con el mismo ID: conserva su lugar en la lista
+            almacen.guardar(variante(2, 2).editar().setNombre("Editado").setDificultad("Experta").construir());
+            assertTrue(almacen.eliminar(1));
+            assertTrue(almacen.eliminar(4));
+            assertFalse("Eliminar dos veces no escribe otra BAJA", almacen.eliminar(4));
+            // Un ID dado de baja puede volver: entra al final
+            almacen.guardar(variante(4, 40));
+            enMemoria = almacen.obtenerTodos();
+        }
+
+        assertEquals(ids(2, 3, 5, 4), idsDe(enMemoria));
+        assertEquals("Editado", enMemoria.get(0).getNombre());
+        assertEquals("Experta", enMemoria.get(0).getDificultad());
+
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(enMemoria, almacen.obtenerTodos());
+            assertNull(almacen.obtenerPorId(1));
+            assertEquals(variante(4, 40), almacen.obtenerPorId(4));
+        }
+    }
+
+    @Test
+    public void escrituraQueFallaEnElRegistro_noQuedaEnNingunFichero() throws IOException {
+        AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero);
+        almacen.guardar(variante(1, 1));
+        long tamano = fichero.length();
+
+        // Con el ".wal" cerrado, cada escritura se aplica al almacén y falla al registrarse
+        almacen.getRegistroEscrituras().close();
+        try {
+            almacen.guardar(variante(2, 1)); // misma dificultad e icono: sin registros de diccionario
+            fail("El registro de escrituras está cerrado");
+        } catch (IOException esperada) {
+            // La escritura se deshace
+        }
+        try {
+            almacen.guardarLote(Arrays.asList(variante(3, 1), variante(4, 1)));
+            fail("El registro de escrituras está cerrado");
+        } catch (IOException esperada) {
+            // El lote entero se deshace
+        }
+        try {
+            almacen.eliminar(1);
+            fail("El registro de escrituras está cerrado");
+        } catch (IOException esperada) {
+            // La baja se deshace
+        }
+        assertEquals("Lo aplicado al almacén se recorta", tamano, fichero.length());
+        assertEquals(ids(1), idsDe(almacen.obtenerTodos()));
+        try {
+            almacen.close();
+        } catch (IOException esperada) {
+            // El ".wal" ya estaba cerrado
+        }
+
+        // Nada de lo que falló aparece al reabrir (ni desde el almacén ni desde el ".wal")
+        try (AlmacenEntrenamientos reabierto = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(ids(1), idsDe(reabierto.obtenerTodos()));
+            reabierto.guardar(variante(5, 5));
+        }
+        try (AlmacenEntrenamientos reabierto = AlmacenEntrenamientos.abrir(fichero)) {
+            assertEquals(ids(1, 5), idsDe(reabierto.obtenerTodos()));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void ficheroAjeno_seRechaza() throws IOException {
+        try (RandomAccessFile datos = new RandomAccessFile(fichero, "rw")) {
+            datos.writeBytes("no es un almacén");
+        }
+        AlmacenEntrenamientos.abrir(fichero).close();
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /**
+     * Entrenamiento con ese ID cuyos datos dependen de 'variante' (otra variante = una edición).
+     */
+    private static Entrenamiento variante(int id, int variante) {
+        return EntrenamientosPrueba.entrenamiento(id)
+                .setNombre("Entrenamiento " + variante)
+                .setDescripcion("Descripción " + variante)
+                .setDuracion((10 + variante) + " minutos")
+                .setDificultad(variante % 2 == 0 ? "Media" : "Alta")
+                .setIconoResId(EntrenamientosPrueba.ICONOS[variante % EntrenamientosPrueba.ICONOS.length])
+                .construir();
+    }
+
+    private static List<Integer> ids(int... ids) {
+        List<Integer> lista = new ArrayList<>();
+        for (int id : ids) {
+            lista.add(id);
+        }
+        return lista;
+    }
+
+    private static List<Integer> idsDe(List<Entrenamiento> entrenamientos) {
+        List<Integer> lista = new ArrayList<>();
+        for (Entrenamiento entrenamiento : entrenamientos) {
+            lista.add(entrenamiento.getId());
+        }
+        return lista;
+    }
+}
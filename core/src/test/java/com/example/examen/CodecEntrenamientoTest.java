@@ -0,0 +1,103 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.example.examen.EntrenamientosPrueba.DIFICULTADES;
+import static com.example.examen.EntrenamientosPrueba.ICONOS;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Ida y vuelta del formato binario de CodecEntrenamiento y comparación de
+ * tamaño frente a una codificación JSON sencilla (la velocidad se mide en
+ * :benchmarks, SerializacionBenchmark).
+ */
+public class CodecEntrenamientoTest {
+
+    private static final int N = 100_000;
+
+    @Test
+    public void idaYVuelta_conservaTodosLosCampos() {
+        CodecEntrenamiento codec = nuevoCodec();
+        Entrenamiento[] casos = {
+                entrenamiento(1).setNombre("Cardio Intenso").setDescripcion("Ejercicios cardiovasculares")
+                        .setDuracion("45 minutos").setDificultad("Alta").construir(),
+                entrenamiento(300).setNombre("Ñandú Ágil").setDescripcion("Descripción con acentos y emoji 🏃")
+                        .setDuracion("1h 30m").setDificultad("Baja").setIconoResId(ICONOS[2]).construir(),
+                entrenamiento(Integer.MAX_VALUE).setNombre("").setDescripcion("")
+                        .setDuracion("045 minutos").setIconoResId(ICONOS[1]).construir(),
+        };
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (Entrenamiento original : casos) {
+            buffer.clear();
+            codec.codificar(original, buffer);
+            buffer.flip();
+            Entrenamiento leido = codec.decodificar(buffer);
+
+            assertFalse(buffer.hasRemaining());
+            assertEquals(original.getId(), leido.getId());
+            assertEquals(original.getNombre(), leido.getNombre());
+            assertEquals(original.getDescripcion(), leido.getDescripcion());
+            assertEquals(original.getDuracion(), leido.getDuracion());
+            assertEquals(original.getDificultad(), leido.getDificultad());
+            assertEquals(original.getIconoResId(), leido.getIconoResId());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codificar_dificultadSinRegistrar_falla() {
+        new CodecEntrenamiento().codificar(
+                entrenamiento(1).setDificultad("Alta").construir(), ByteBuffer.allocate(256));
+    }
+
+    @Test
+    public void tamano_menosDeLaMitadQueJson() {
+        CodecEntrenamiento codec = nuevoCodec();
+        ByteBuffer binario = ByteBuffer.allocate(N * 128);
+        long bytesJson = 0;
+        for (int i = 0; i < N; i++) {
+            Entrenamiento e = entrenamiento(i + 1)
+                    .setNombre("Entrenamiento " + i)
+                    .setDescripcion("Circuito de fuerza y resistencia número " + i)
+                    .setDuracion((15 + i % 90) + " minutos")
+                    .setDificultad(DIFICULTADES[i % 3])
+                    .setIconoResId(ICONOS[i % ICONOS.length])
+                    .construir();
+            codec.codificar(e, binario);
+            bytesJson += aJson(e).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        assertTrue("El binario debe ocupar menos de la mitad que el JSON", binario.position() * 2 < bytesJson);
+
+        binario.flip();
+        for (int i = 0; i < N; i++) {
+            assertEquals(i + 1, codec.decodificar(binario).getId());
+        }
+        assertFalse(binario.hasRemaining());
+    }
+
+    private static CodecEntrenamiento nuevoCodec() {
+        CodecEntrenamiento codec = new CodecEntrenamiento();
+        for (String dificultad : DIFICULTADES) {
+            codec.registrarDificultad(dificultad);
+        }
+        for (int icono : ICONOS) {
+            codec.registrarIcono(icono);
+        }
+        return codec;
+    }
+
+    /** Codificación JSON "ingenua": un objeto con los nombres de campo completos */
+    private static String aJson(Entrenamiento e) {
+        return "{\"id\":" + e.getId()
+                + ",\"nombre\":\"" + e.getNombre()
+                + "\",\"descripcion\":\"" + e.getDescripcion()
+                + "\",\"duracion\":\"" + e.getDuracion()
+                + "\",\"dificultad\":\"" + e.getDificultad()
+                + "\",\"iconoResId\":" + e.getIconoResId() + "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static com.example.examen.EntrenamientosPrueba.ICONOS;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Modelo inmutable de Entrenamiento: builder, igualdad y valores compartidos.
+ * La memoria por entrenamiento se mide en :benchmarks (MemoriaEntrenamientoBenchmark).
+ */
+public class EntrenamientoTest {
+
+    @Test
+    public void editar_creaOtroSinCambiarElOriginal() {
+        Entrenamiento original = entrenamiento(1).setNombre("Cardio").setDescripcion("Carrera suave")
+                .setDificultad("Baja").construir();
+        Entrenamiento editado = original.editar().setNombre("Cardio II").setDificultad("Alta").construir();
+
+        assertEquals("Cardio", original.getNombre());
+        assertEquals("Baja", original.getDificultad());
+        assertEquals("Cardio II", editado.getNombre());
+        assertEquals("Alta", editado.getDificultad());
+        assertEquals(30, editado.getMinutos());
+        assertNotEquals(original, editado);
+        assertEquals(original, original.editar().construir());
+        assertEquals(original.hashCode(), original.editar().construir().hashCode());
+
+        Entrenamiento vacio = new Entrenamiento.Builder().construir();
+        assertNull(vacio.getDuracion());
+        assertEquals(AnalizadorDuracion.SIN_DURACION, vacio.getMinutos());
+    }
+
+    @Test
+    public void duracionYDificultad_seComparten() {
+        Entrenamiento a = entrenamiento(1).setDuracion(copia("45 minutos")).setDificultad(copia("Media")).construir();
+        Entrenamiento b = entrenamiento(2).setDuracion(copia("45 minutos")).setDificultad(copia("Media"))
+                .setIconoResId(ICONOS[1]).construir();
+        assertSame(a.getDuracion(), b.getDuracion());
+        assertSame(a.getDificultad(), b.getDificultad());
+
+        // Al decodificar, "N minutos" sale de la tabla por minutos: misma instancia
+        CodecEntrenamiento codec = new CodecEntrenamiento();
+        codec.registrarDificultad("Media");
+        codec.registrarIcono(ICONOS[0]);
+        codec.registrarIcono(ICONOS[1]);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        codec.codificar(a, buffer);
+        codec.codificar(b, buffer);
+        buffer.flip();
+        assertSame(codec.decodificar(buffer).getDuracion(), codec.decodificar(buffer).getDuracion());
+        assertSame(AnalizadorDuracion.enMinutos(45).getTexto(), a.getDuracion());
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /** String igual pero con su propio array (como el que sale de leer un fichero) */
+    private static String copia(String texto) {
+        return new String(texto.toCharArray());
+    }
+}
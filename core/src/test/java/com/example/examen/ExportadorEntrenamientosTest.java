@@ -0,0 +1,205 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.examen.EntrenamientosPrueba.DIFICULTADES;
+import static com.example.examen.EntrenamientosPrueba.ICONOS;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Exportación en streaming: el formato nativo se reabre como almacén, CSV y JSON se
+ * reimportan con ImportadorEntrenamientos sin perder campos, el buffer directo se
+ * reutiliza entre exportaciones, y 100.000 entrenamientos se exportan enteros en
+ * los tres formatos (los tiempos se miden en :benchmarks, SerializacionBenchmark).
+ */
+public class ExportadorEntrenamientosTest {
+
+    private static final int N = 100_000;
+    /** Nombre exportado de cada uno de EntrenamientosPrueba.ICONOS */
+    private static final String[] NOMBRES_ICONOS = {"Cardio/Running", "Fuerza/Pesas", "Circuito/HIIT"};
+
+    @Test
+    public void nativo_seReabreComoAlmacenCompactado() throws IOException {
+        File origen = temporal();
+        File copia = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen)) {
+            rellenar(almacen, 2000);
+            // Ediciones y bajas: el fichero de origen tiene versiones viejas que no deben exportarse
+            almacen.guardar(entrenamiento(10).setNombre("Editado").setDescripcion("Otra \"descripción\"")
+                    .setDuracion("1h").setDificultad("Baja").setIconoResId(ICONOS[2]).construir());
+            almacen.eliminar(11);
+            almacen.eliminar(1500);
+
+            int exportados = exportar(almacen, ExportadorEntrenamientos.Formato.NATIVO, copia);
+            assertEquals(almacen.contar(), exportados);
+
+            try (AlmacenEntrenamientos reabierto = AlmacenEntrenamientos.abrir(copia)) {
+                assertIguales(almacen.obtenerTodos(), reabierto.obtenerTodos(), true);
+                assertTrue("La copia compactada ocupa menos que el original", copia.length() < origen.length());
+                assertTrue(reabierto.generarNuevoId() > 2000);
+            }
+        } finally {
+            borrar(origen);
+            borrar(copia);
+        }
+    }
+
+    @Test
+    public void csvYJson_seReimportanSinPerderCampos() throws IOException {
+        File origen = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen)) {
+            rellenar(almacen, 1200);
+            almacen.guardar(entrenamiento(5).setNombre(" Espacios, comas; y \"comillas\" ")
+                    .setDescripcion("Línea 1\nLínea 2\ttab 🏃").setDuracion("45 minutos")
+                    .setDificultad("Alta").setIconoResId(ICONOS[1]).construir());
+
+            for (ExportadorEntrenamientos.Formato formato : new ExportadorEntrenamientos.Formato[]{
+                    ExportadorEntrenamientos.Formato.CSV, ExportadorEntrenamientos.Formato.JSON}) {
+                File fichero = temporal();
+                try {
+                    assertEquals(almacen.contar(), exportar(almacen, formato, fichero));
+
+                    List<Entrenamiento> reimportados = new ArrayList<>();
+                    ImportadorEntrenamientos.Formato formatoImportacion = formato == ExportadorEntrenamientos.Formato.CSV
+                            ? ImportadorEntrenamientos.Formato.CSV : ImportadorEntrenamientos.Formato.JSON;
+                    try (InputStream entrada = new FileInputStream(fichero)) {
+                        ImportadorEntrenamientos.Resultado resultado = importador().importar(entrada,
+                                formatoImportacion, fichero.length(), reimportados::addAll, null);
+                        assertEquals(formato + ": " + resultado.getErrores(), 0, resultado.getRechazadas());
+                    }
+                    assertIguales(almacen.obtenerTodos(), reimportados, false);
+                } finally {
+                    borrar(fichero);
+                }
+            }
+        } finally {
+            borrar(origen);
+        }
+    }
+
+    @Test
+    public void pool_reutilizaElBufferDirecto() throws IOException {
+        PoolBuffers pool = new PoolBuffers(4096, 2);
+        File origen = temporal();
+        File destino = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen)) {
+            rellenar(almacen, 300);
+            ExportadorEntrenamientos exportador = new ExportadorEntrenamientos(nombresIconos(), pool);
+            for (ExportadorEntrenamientos.Formato formato : ExportadorEntrenamientos.Formato.values()) {
+                try (FileChannel canal = new RandomAccessFile(destino, "rw").getChannel()) {
+                    canal.truncate(0);
+                    exportador.exportar(almacen, formato, canal, null);
+                }
+            }
+            assertEquals(1, pool.getCreados());
+        } finally {
+            borrar(origen);
+            borrar(destino);
+        }
+    }
+
+    @Test
+    public void exportar_100k() throws IOException {
+        File origen = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen)) {
+            rellenar(almacen, N);
+            for (ExportadorEntrenamientos.Formato formato : ExportadorEntrenamientos.Formato.values()) {
+                File fichero = temporal();
+                try {
+                    assertEquals(N, exportar(almacen, formato, fichero));
+                    assertTrue(formato + " vacío", fichero.length() > N);
+                } finally {
+                    borrar(fichero);
+                }
+            }
+        } finally {
+            borrar(origen);
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static void rellenar(AlmacenEntrenamientos almacen, int cantidad) throws IOException {
+        List<Entrenamiento> lote = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            lote.add(entrenamiento(almacen.generarNuevoId())
+                    .setNombre("Entrenamiento " + i)
+                    .setDescripcion("Circuito de fuerza, resistencia y técnica número " + i)
+                    .setDuracion((15 + i % 90) + " minutos")
+                    .setDificultad(DIFICULTADES[i % 3])
+                    .setIconoResId(ICONOS[i % ICONOS.length])
+                    .construir());
+            if (lote.size() == 1000) {
+                almacen.guardarLote(lote);
+                lote.clear();
+            }
+        }
+        almacen.guardarLote(lote);
+    }
+
+    private static int exportar(AlmacenEntrenamientos almacen, ExportadorEntrenamientos.Formato formato,
+                                File fichero) throws IOException {
+        try (FileChannel canal = new RandomAccessFile(fichero, "rw").getChannel()) {
+            canal.truncate(0);
+            return new ExportadorEntrenamientos(nombresIconos(), PoolBuffers.compartido())
+                    .exportar(almacen, formato, canal, null);
+        }
+    }
+
+    private static void assertIguales(List<Entrenamiento> esperados, List<Entrenamiento> leidos, boolean mismosIds) {
+        assertEquals(esperados.size(), leidos.size());
+        for (int i = 0; i < esperados.size(); i++) {
+            Entrenamiento esperado = esperados.get(i);
+            Entrenamiento leido = leidos.get(i);
+            if (mismosIds) {
+                assertEquals(esperado.getId(), leido.getId());
+            }
+            // El importador quita los espacios de los extremos, igual que el diálogo
+            assertEquals(mismosIds ? esperado.getNombre() : esperado.getNombre().trim(), leido.getNombre());
+            assertEquals(esperado.getDescripcion(), leido.getDescripcion());
+            assertEquals(esperado.getDuracion(), leido.getDuracion());
+            assertEquals(esperado.getDificultad(), leido.getDificultad());
+            assertEquals(esperado.getIconoResId(), leido.getIconoResId());
+        }
+    }
+
+    private static ImportadorEntrenamientos importador() {
+        Map<String, Integer> iconos = new HashMap<>();
+        for (int i = 0; i < ICONOS.length; i++) {
+            iconos.put(NOMBRES_ICONOS[i], ICONOS[i]);
+        }
+        return new ImportadorEntrenamientos(iconos, ICONOS[0]);
+    }
+
+    private static Map<Integer, String> nombresIconos() {
+        Map<Integer, String> nombres = new HashMap<>();
+        for (int i = 0; i < ICONOS.length; i++) {
+            nombres.put(ICONOS[i], NOMBRES_ICONOS[i]);
+        }
+        return nombres;
+    }
+
+    private static File temporal() throws IOException {
+        File fichero = File.createTempFile("exportar", ".tmp");
+        fichero.delete();
+        return fichero;
+    }
+
+    private static void borrar(File fichero) {
+        fichero.delete();
+        new File(fichero.getPath() + ".seq").delete();
+        new File(fichero.getPath() + ".wal").delete();
+    }
+}
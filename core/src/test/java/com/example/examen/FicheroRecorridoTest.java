@@ -0,0 +1,209 @@
+package com.example.examen;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Grabación de recorridos GPS: BufferMuestras entre dos hilos sin perder ni
+ * desordenar muestras, tamaño de una carrera de 3 horas a 1 Hz, grabar sin
+ * reservar memoria por muestra y recuperación de un bloque a medio escribir.
+ */
+public class FicheroRecorridoTest {
+
+    /** 3 horas a 1 Hz */
+    private static final int MUESTRAS_3H = 3 * 60 * 60;
+
+    /** 1 de junio de 2024, 08:00 UTC */
+    private static final long INICIO = 1_717_228_800_000L;
+
+    private File fichero;
+
+    @Before
+    public void crearFichero() throws IOException {
+        fichero = File.createTempFile("recorrido", ".trk");
+        assertTrue(fichero.delete());
+    }
+
+    @After
+    public void borrarFichero() {
+        fichero.delete();
+    }
+
+    @Test
+    public void carrera3Horas_ocupaPocoYSeLeeIgual() throws IOException {
+        Ruta ruta = new Ruta(new Random(5));
+        BufferMuestras buffer = new BufferMuestras();
+        long[] tiempos = new long[MUESTRAS_3H];
+        int[] latitudes = new int[MUESTRAS_3H];
+        int[] longitudes = new int[MUESTRAS_3H];
+
+        try (FicheroRecorrido recorrido = FicheroRecorrido.abrir(fichero)) {
+            for (int i = 0; i < MUESTRAS_3H; i++) {
+                ruta.avanzar();
+                assertTrue(buffer.ofrecer(ruta.tiempo, ruta.latitud, ruta.longitud, ruta.altitud, ruta.precision));
+                tiempos[i] = ruta.tiempo;
+                latitudes[i] = (int) Math.round(ruta.latitud * 1e7);
+                longitudes[i] = (int) Math.round(ruta.longitud * 1e7);
+                if (i % 30 == 29) {
+                    recorrido.volcar(buffer); // Como GrabadorRecorrido: cada 30 segundos
+                }
+            }
+            recorrido.volcar(buffer);
+            assertEquals(MUESTRAS_3H, recorrido.getMuestras());
+        }
+
+        assertTrue("Unos cientos de KB como mucho", fichero.length() < 200 * 1024);
+
+        Recorrido leido = FicheroRecorrido.leer(fichero);
+        assertEquals(MUESTRAS_3H, leido.getMuestras());
+        for (int i = 0; i < MUESTRAS_3H; i++) {
+            assertEquals(tiempos[i], leido.getTiempo(i));
+            assertEquals(latitudes[i], leido.getLatitudE7(i));
+            assertEquals(longitudes[i], leido.getLongitudE7(i));
+        }
+        assertEquals((MUESTRAS_3H - 1) * 1000L, leido.getDuracion(), 60_000);
+    }
+
+    @Test
+    public void dosHilos_niSePierdenNiSeDesordenan() throws Exception {
+        int total = 2_000_000;
+        BufferMuestras buffer = new BufferMuestras(1024);
+        AtomicReference<String> error = new AtomicReference<>();
+        long[] recibidas = new long[1];
+
+        Thread productor = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                // El test no quiere descartes: reintenta mientras el consumidor libera sitio
+                while (!buffer.ofrecer(i, i % 900 / 10.0, -(i % 1800) / 10.0, i % 100, 5)) {
+                    Thread.yield();
+                }
+            }
+        });
+        BufferMuestras.Receptor comprobar = (tiempo, latitud, longitud, altitud, precision) -> {
+            long esperado = recibidas[0]++;
+            if (tiempo != esperado || latitud != (int) Math.round(esperado % 900 / 10.0 * 1e7)
+                    || altitud != esperado % 100 * 10) {
+                error.compareAndSet(null, "Muestra " + esperado + " recibida como " + tiempo);
+            }
+            return true;
+        };
+
+        productor.start();
+        while (recibidas[0] < total) {
+            if (buffer.drenar(comprobar, 256) == 0) {
+                Thread.yield();
+            }
+        }
+        productor.join();
+
+        assertNull(error.get());
+        assertEquals(total, recibidas[0]);
+        assertEquals(0, buffer.getPendientes());
+    }
+
+    @Test
+    public void grabar_noReservaMemoriaPorMuestra() throws IOException {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (!(hilos instanceof com.sun.management.ThreadMXBean)) {
+            return; // JVM sin medición de memoria reservada por hilo
+        }
+        com.sun.management.ThreadMXBean medidor = (com.sun.management.ThreadMXBean) hilos;
+        long hilo = Thread.currentThread().getId();
+
+        Ruta ruta = new Ruta(new Random(9));
+        BufferMuestras buffer = new BufferMuestras();
+        try (FicheroRecorrido recorrido = FicheroRecorrido.abrir(fichero)) {
+            grabar(ruta, buffer, recorrido, 20_000); // Calentamiento
+            int muestras = 200_000;
+            long antes = medidor.getThreadAllocatedBytes(hilo);
+            grabar(ruta, buffer, recorrido, muestras);
+            long reservados = medidor.getThreadAllocatedBytes(hilo) - antes;
+
+            assertTrue("Grabar no debe crear objetos por muestra: " + reservados + " bytes",
+                    reservados < muestras / 10);
+        }
+    }
+
+    @Test
+    public void bloqueAMedioEscribir_seDescartaAlAbrir() throws IOException {
+        Ruta ruta = new Ruta(new Random(2));
+        BufferMuestras buffer = new BufferMuestras();
+        long bloquesCompletos;
+        try (FicheroRecorrido recorrido = FicheroRecorrido.abrir(fichero)) {
+            grabar(ruta, buffer, recorrido, 1000);
+            bloquesCompletos = recorrido.getMuestras();
+            grabar(ruta, buffer, recorrido, 100);
+        }
+        Recorrido antes = FicheroRecorrido.leer(fichero);
+
+        // El último bloque (100 muestras) se queda a medias
+        try (RandomAccessFile datos = new RandomAccessFile(fichero, "rw")) {
+            datos.setLength(datos.length() - 7);
+        }
+        assertEquals(bloquesCompletos, FicheroRecorrido.leer(fichero).getMuestras());
+
+        try (FicheroRecorrido recorrido = FicheroRecorrido.abrir(fichero)) {
+            assertEquals(bloquesCompletos, recorrido.getMuestras());
+            grabar(ruta, buffer, recorrido, 50);
+            assertEquals(bloquesCompletos + 50, recorrido.getMuestras());
+        }
+        Recorrido despues = FicheroRecorrido.leer(fichero);
+        assertEquals(bloquesCompletos + 50, despues.getMuestras());
+        for (int i = 0; i < bloquesCompletos; i++) {
+            assertEquals(antes.getTiempo(i), despues.getTiempo(i));
+            assertEquals(antes.getLongitudE7(i), despues.getLongitudE7(i));
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static void grabar(Ruta ruta, BufferMuestras buffer, FicheroRecorrido recorrido, int muestras)
+            throws IOException {
+        for (int i = 0; i < muestras; i++) {
+            ruta.avanzar();
+            buffer.ofrecer(ruta.tiempo, ruta.latitud, ruta.longitud, ruta.altitud, ruta.precision);
+            if (buffer.getPendientes() >= 500) {
+                recorrido.volcar(buffer);
+            }
+        }
+        recorrido.volcar(buffer);
+    }
+
+    /**
+     * Corredor a ~3 m/s que cambia poco a poco de rumbo, con ruido de GPS.
+     */
+    private static final class Ruta {
+        private final Random aleatorio;
+        long tiempo = INICIO;
+        double latitud = 40.4168;
+        double longitud = -3.7038;
+        double altitud = 650;
+        float precision = 5;
+        private double rumbo;
+
+        Ruta(Random aleatorio) {
+            this.aleatorio = aleatorio;
+        }
+
+        void avanzar() {
+            tiempo += 1000 + aleatorio.nextInt(21) - 10;
+            rumbo += aleatorio.nextGaussian() * 0.1;
+            double metros = 3 + aleatorio.nextGaussian() * 0.3;
+            latitud += Math.cos(rumbo) * metros / 111_320 + aleatorio.nextGaussian() * 1e-6;
+            longitud += Math.sin(rumbo) * metros / (111_320 * Math.cos(Math.toRadians(latitud)));
+            altitud += aleatorio.nextGaussian() * 0.2;
+            precision = 3 + aleatorio.nextInt(6);
+        }
+    }
+}
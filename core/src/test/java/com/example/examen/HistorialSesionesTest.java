@@ -0,0 +1,181 @@
+package com.example.examen;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * HistorialSesiones con años de sesiones: abrir no lee particiones, "los últimos
+ * 90 días" abre como mucho 4 meses y devuelve lo mismo que filtrarlo todo, y una
+ * sesión a medio escribir o un .idx perdido se recuperan al abrir.
+ */
+public class HistorialSesionesTest {
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    /** 1 de enero de 2020, 00:00 UTC */
+    private static final long ENERO_2020 = 1_577_836_800_000L;
+
+    private static final int ANIOS = 5;
+    private static final int POR_DIA = 3;
+
+    private File carpeta;
+
+    @Before
+    public void crearCarpeta() throws IOException {
+        carpeta = File.createTempFile("historial", "");
+        assertTrue(carpeta.delete());
+    }
+
+    @After
+    public void borrarCarpeta() {
+        File[] ficheros = carpeta.listFiles();
+        if (ficheros != null) {
+            for (File fichero : ficheros) {
+                fichero.delete();
+            }
+        }
+        carpeta.delete();
+    }
+
+    @Test
+    public void ultimos90Dias_soloAbreLosMesesQueTocan() throws IOException {
+        List<Sesion> todas = generar(new Random(7));
+        long ahora = todas.get(todas.size() - 1).getInicio() + DIA;
+
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            for (Sesion sesion : todas) {
+                historial.anadir(sesion);
+            }
+        }
+
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            assertEquals("Abrir no lee ninguna partición", 0, historial.getAperturas());
+            assertEquals(ANIOS * 12, historial.getParticiones());
+
+            List<Sesion> ultimas = historial.ultimosDias(90, ahora);
+            assertTrue("90 días caen en 4 meses como mucho", historial.getAperturas() <= 4);
+            assertEquals(filtrar(todas, ahora - 90 * DIA, ahora + 1), ultimas);
+
+            // Un intervalo sin sesiones no abre nada
+            int aperturas = historial.getAperturas();
+            assertTrue(historial.consultar(ENERO_2020 - 400 * DIA, ENERO_2020).isEmpty());
+            assertEquals(aperturas, historial.getAperturas());
+        }
+    }
+
+    @Test
+    public void consultasAleatorias_coincidenConFiltrarTodo() throws IOException {
+        Random aleatorio = new Random(11);
+        List<Sesion> todas = generar(aleatorio);
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            for (Sesion sesion : todas) {
+                historial.anadir(sesion);
+            }
+            long fin = ENERO_2020 + ANIOS * 365 * DIA;
+            for (int i = 0; i < 50; i++) {
+                long desde = ENERO_2020 - 30 * DIA + (long) (aleatorio.nextDouble() * (fin - ENERO_2020));
+                long hasta = desde + (long) (aleatorio.nextDouble() * 200 * DIA);
+                assertEquals(filtrar(todas, desde, hasta), historial.consultar(desde, hasta));
+            }
+        }
+    }
+
+    @Test
+    public void sesionAMedioEscribir_seDescartaAlAbrir() throws IOException {
+        long inicio = ENERO_2020 + 3 * DIA;
+        List<Sesion> esperadas = new ArrayList<>();
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            for (int i = 0; i < 100; i++) {
+                Sesion sesion = new Sesion(i, "Entrenamiento " + i, inicio + i * 60_000L, 1800, "notas " + i);
+                historial.anadir(sesion);
+                esperadas.add(sesion);
+            }
+        }
+
+        // Cortar la última sesión por la mitad, como si se apagara el móvil al escribirla
+        File datos = new File(carpeta, "2020-01.ses");
+        try (RandomAccessFile fichero = new RandomAccessFile(datos, "rw")) {
+            fichero.setLength(fichero.length() - 5);
+        }
+        esperadas.remove(esperadas.size() - 1);
+
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            assertEquals(esperadas, historial.consultar(0, Long.MAX_VALUE));
+            Sesion nueva = new Sesion(500, "Después de recuperar", inicio + DIA, 600, null);
+            historial.anadir(nueva);
+            esperadas.add(nueva);
+        }
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            assertEquals(esperadas, historial.consultar(0, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void indicePerdido_seReconstruye() throws IOException {
+        List<Sesion> todas = generar(new Random(3));
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            for (Sesion sesion : todas) {
+                historial.anadir(sesion);
+            }
+        }
+        File[] indices = carpeta.listFiles((dir, nombre) -> nombre.endsWith(".idx"));
+        assertNotNull(indices);
+        for (File indice : indices) {
+            assertTrue(indice.delete());
+        }
+
+        long desde = ENERO_2020 + 400 * DIA;
+        long hasta = desde + 90 * DIA;
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            assertEquals(filtrar(todas, desde, hasta), historial.consultar(desde, hasta));
+        }
+        // La consulta ha vuelto a escribir el índice de los meses que ha abierto
+        assertTrue(new File(carpeta, "2021-03.idx").length() > 0);
+        try (HistorialSesiones historial = HistorialSesiones.abrir(carpeta)) {
+            assertEquals(filtrar(todas, desde, hasta), historial.consultar(desde, hasta));
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /**
+     * ANIOS años de sesiones; una de cada diez se apunta tarde (con inicio días atrás).
+     */
+    private static List<Sesion> generar(Random aleatorio) {
+        List<Sesion> sesiones = new ArrayList<>();
+        for (int dia = 0; dia < ANIOS * 365; dia++) {
+            for (int i = 0; i < POR_DIA; i++) {
+                long inicio = ENERO_2020 + dia * DIA + aleatorio.nextInt((int) DIA);
+                if (aleatorio.nextInt(10) == 0 && dia > 5) {
+                    inicio -= aleatorio.nextInt(5) * DIA;
+                }
+                int id = 1 + aleatorio.nextInt(200);
+                sesiones.add(new Sesion(id, "Entrenamiento " + id, inicio, 300 + aleatorio.nextInt(5400),
+                        aleatorio.nextInt(4) == 0 ? "Notas del día " + dia : null));
+            }
+        }
+        return sesiones;
+    }
+
+    private static List<Sesion> filtrar(List<Sesion> sesiones, long desde, long hasta) {
+        List<Sesion> resultado = new ArrayList<>();
+        for (Sesion sesion : sesiones) {
+            if (sesion.getInicio() >= desde && sesion.getInicio() < hasta) {
+                resultado.add(sesion);
+            }
+        }
+        resultado.sort(Comparator.comparingLong(Sesion::getInicio));
+        return resultado;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Importación en streaming: CSV con comillas y saltos de línea, JSON, filas rechazadas
+ * con las reglas del diálogo, un guardado por lote, cancelación y un fichero de
+ * 200.000 filas generado al vuelo (nunca está entero en memoria).
+ */
+public class ImportadorEntrenamientosTest {
+
+    private static final int ICONO_CARDIO = 17301575;
+    private static final int ICONO_YOGA = 17301567;
+    private static final int ICONO_POR_DEFECTO = 1;
+
+    @Test
+    public void csv_comillasSeparadoresYSaltosDeLinea() throws IOException {
+        String csv = "\uFEFFNombre;Descripción;Duración;DIFICULTAD;Icono\r\n"
+                + "Cardio;\"Correr; luego \"\"sprint\"\"\";45 minutos;alta;cardio\r\n"
+                + "\r\n"
+                + "\"Yoga\";\"Dos líneas\nde descripción\";1h 30m;Baja;Yoga/Estiramiento\n"
+                + "Otro;Sin icono;20;Media;desconocido";
+        List<Entrenamiento> guardados = new ArrayList<>();
+
+        ImportadorEntrenamientos.Resultado resultado = importador()
+                .importar(texto(csv), ImportadorEntrenamientos.Formato.CSV, -1, guardados::addAll, null);
+
+        assertEquals(3, resultado.getImportadas());
+        assertEquals(0, resultado.getRechazadas());
+        Entrenamiento cardio = guardados.get(0);
+        assertEquals("Correr; luego \"sprint\"", cardio.getDescripcion());
+        assertEquals("Alta", cardio.getDificultad());
+        assertEquals(ICONO_CARDIO, cardio.getIconoResId());
+        assertEquals("Dos líneas\nde descripción", guardados.get(1).getDescripcion());
+        assertEquals(90, guardados.get(1).getMinutos());
+        assertEquals(ICONO_YOGA, guardados.get(1).getIconoResId());
+        assertEquals(ICONO_POR_DEFECTO, guardados.get(2).getIconoResId());
+    }
+
+    @Test
+    public void json_objetosPlanos() throws IOException {
+        String json = " [ {\"nombre\": \"Cardio \\\"pro\\\"\", \"descripcion\": \"Intervalos\\n\\u00e1\","
+                + " \"duracion\": 30, \"dificultad\": \"Media\", \"icono\": null},"
+                + " {\"Nombre\": \"Yoga\", \"Descripción\": \"Suave\", \"duracion\": \"1 hora\", \"dificultad\": \"Baja\"} ]";
+        List<Entrenamiento> guardados = new ArrayList<>();
+
+        ImportadorEntrenamientos.Resultado resultado = importador()
+                .importar(texto(json), ImportadorEntrenamientos.Formato.JSON, -1, guardados::addAll, null);
+
+        assertEquals(2, resultado.getImportadas());
+        assertEquals("Cardio \"pro\"", guardados.get(0).getNombre());
+        assertEquals("Intervalos\ná", guardados.get(0).getDescripcion());
+        assertEquals(30, guardados.get(0).getMinutos());
+        assertEquals(60, guardados.get(1).getMinutos());
+    }
+
+    @Test(expected = IOException.class)
+    public void json_anidadoEsUnError() throws IOException {
+        String json = "[{\"nombre\": {\"es\": \"Cardio\"}}]";
+        importador().importar(texto(json), ImportadorEntrenamientos.Formato.JSON, -1, lote -> { }, null);
+    }
+
+    @Test
+    public void filasInvalidas_seRechazanConLasReglasDelDialogo() throws IOException {
+        String csv = "nombre,descripcion,duracion,dificultad\n"
+                + ",Sin nombre,30 minutos,Alta\n"
+                + "Sin descripción,  ,30 minutos,Alta\n"
+                + "Sin duración,Algo,,Alta\n"
+                + "Duración rara,Algo,media hora,Alta\n"
+                + "Dificultad rara,Algo,30 minutos,Extrema\n"
+                + "Válido,Algo,30 minutos,Alta\n";
+        List<Entrenamiento> guardados = new ArrayList<>();
+
+        ImportadorEntrenamientos.Resultado resultado = importador()
+                .importar(texto(csv), ImportadorEntrenamientos.Formato.CSV, -1, guardados::addAll, null);
+
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(5, resultado.getRechazadas());
+        assertEquals("Válido", guardados.get(0).getNombre());
+        assertEquals("Fila 1: El nombre es obligatorio", resultado.getErrores().get(0));
+        assertEquals("Fila 2: " + ValidadorEntrenamiento.validar("x", " ", "30"), resultado.getErrores().get(1));
+        assertTrue(resultado.getErrores().get(3).contains("Duración no válida"));
+        assertTrue(resultado.getErrores().get(4).contains("Dificultad no válida"));
+    }
+
+    @Test
+    public void lotes_unGuardadoYUnProgresoPorLote() throws IOException {
+        int filas = ImportadorEntrenamientos.TAMANO_LOTE * 3 + 7;
+        List<Integer> tamanosLote = new ArrayList<>();
+        List<ImportadorEntrenamientos.Progreso> progresos = new ArrayList<>();
+
+        ImportadorEntrenamientos.Resultado resultado = importador().importar(new CsvGenerado(filas),
+                ImportadorEntrenamientos.Formato.CSV, -1, lote -> tamanosLote.add(lote.size()), progresos::add);
+
+        assertEquals(filas, resultado.getImportadas());
+        assertEquals(4, tamanosLote.size());
+        assertEquals(ImportadorEntrenamientos.TAMANO_LOTE, (int) tamanosLote.get(0));
+        assertEquals(7, (int) tamanosLote.get(3));
+        assertEquals(4, progresos.size());
+        assertEquals(filas, progresos.get(3).getImportadas());
+    }
+
+    @Test
+    public void cancelar_noGuardaMasLotes() throws IOException {
+        ImportadorEntrenamientos importador = importador();
+        List<Integer> tamanosLote = new ArrayList<>();
+
+        ImportadorEntrenamientos.Resultado resultado = importador.importar(new CsvGenerado(100_000),
+                ImportadorEntrenamientos.Formato.CSV, -1, lote -> {
+                    tamanosLote.add(lote.size());
+                    if (tamanosLote.size() == 2) {
+                        importador.cancelar();
+                    }
+                }, null);
+
+        assertTrue(resultado.isCancelada());
+        assertEquals(2, tamanosLote.size());
+        assertEquals(2 * ImportadorEntrenamientos.TAMANO_LOTE, resultado.getImportadas());
+    }
+
+    @Test
+    public void streaming_200k_filasSinCargarElFichero() throws IOException {
+        int filas = 200_000;
+        CsvGenerado entrada = new CsvGenerado(filas);
+        int[] contados = new int[1];
+
+        ImportadorEntrenamientos.Resultado resultado = importador().importar(entrada,
+                ImportadorEntrenamientos.Formato.CSV, entrada.tamano, lote -> contados[0] += lote.size(), null);
+
+        assertEquals(filas, resultado.getImportadas());
+        assertEquals(filas, contados[0]);
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static ImportadorEntrenamientos importador() {
+        Map<String, Integer> iconos = new HashMap<>();
+        iconos.put("Cardio/Running", ICONO_CARDIO);
+        iconos.put("Yoga/Estiramiento", ICONO_YOGA);
+        return new ImportadorEntrenamientos(iconos, ICONO_POR_DEFECTO);
+    }
+
+    private static InputStream texto(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** CSV de N filas que se genera mientras se lee: el fichero completo nunca existe en memoria */
+    private static final class CsvGenerado extends InputStream {
+        private final int filas;
+        private final long tamano;
+        private int fila = -1;
+        private byte[] actual = new byte[0];
+        private int posicion;
+
+        CsvGenerado(int filas) {
+            this.filas = filas;
+            long total = 0;
+            for (int i = -1; i < filas; i++) {
+                total += linea(i).length;
+            }
+            this.tamano = total;
+        }
+
+        private static byte[] linea(int i) {
+            String texto = i < 0
+                    ? "nombre,descripcion,duracion,dificultad,icono\n"
+                    : "Entrenamiento " + i + ",\"Descripción, número " + i + "\"," + (10 + i % 90) + " minutos,"
+                        + (i % 3 == 0 ? "Alta" : "Media") + ",cardio\n";
+            return texto.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read() {
+            byte[] uno = new byte[1];
+            return read(uno, 0, 1) < 0 ? -1 : uno[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) {
+            if (posicion == actual.length) {
+                if (fila >= filas) {
+                    return -1;
+                }
+                actual = linea(fila++);
+                posicion = 0;
+            }
+            int n = Math.min(cantidad, actual.length - posicion);
+            System.arraycopy(actual, posicion, destino, desde, n);
+            posicion += n;
+            return n;
+        }
+    }
+}
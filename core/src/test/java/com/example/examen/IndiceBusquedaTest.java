@@ -0,0 +1,149 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Comportamiento de IndiceBusqueda (acentos, prefijos, orden, cambios incrementales)
+ * y búsqueda mientras se escribe con 100.000 entrenamientos (el tiempo por
+ * pulsación se mide en :benchmarks, FiltroBenchmark.buscarMientrasSeEscribe).
+ */
+public class IndiceBusquedaTest {
+
+    private static final int N = 100_000;
+    private static final String[] PALABRAS = {
+            "cardio", "fuerza", "yoga", "pilates", "carrera", "ciclismo", "natación", "resistencia",
+            "flexibilidad", "equilibrio", "potencia", "velocidad", "core", "espalda", "pierna", "brazos",
+    };
+
+    @Test
+    public void buscar_ignoraAcentosYMayusculas() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(entrenamiento(1).setNombre("Ñandú Ágil").setDescripcion("Sesión de NATACIÓN").construir());
+
+        assertArrayEquals(new int[]{1}, indice.buscar("nandu", 10));
+        assertArrayEquals(new int[]{1}, indice.buscar("AGIL", 10));
+        assertArrayEquals(new int[]{1}, indice.buscar("natación sesion", 10));
+        assertEquals(0, indice.buscar("yoga", 10).length);
+    }
+
+    @Test
+    public void buscar_porPrefijoYConTodosLosTokens() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(entrenamiento(1).setNombre("Cardio Intenso").setDescripcion("Resistencia").construir());
+        indice.anadir(entrenamiento(2).setNombre("Cardio Suave").setDescripcion("Paseo").construir());
+        indice.anadir(entrenamiento(3).setNombre("Fuerza").setDescripcion("Sin cardio").construir());
+
+        assertEquals(3, indice.buscar("car", 10).length);
+        assertArrayEquals(new int[]{1}, indice.buscar("card res", 10));
+        assertEquals(0, indice.buscar("cardio yoga", 10).length);
+        assertEquals(0, indice.buscar("   ", 10).length);
+    }
+
+    @Test
+    public void buscar_ordenaPorRelevancia() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(entrenamiento(1).setNombre("Fuerza").setDescripcion("Incluye algo de yoga").construir());
+        indice.anadir(entrenamiento(2).setNombre("Yogatón").setDescripcion("Maratón").construir());
+        indice.anadir(entrenamiento(3).setNombre("Yoga").setDescripcion("Yoga para principiantes").construir());
+        indice.anadir(entrenamiento(4).setNombre("Yoga").setDescripcion("Relajación").construir());
+
+        // Nombre + descripción > solo nombre > prefijo en el nombre > solo descripción
+        assertArrayEquals(new int[]{3, 4, 2, 1}, indice.buscar("yoga", 10));
+        assertArrayEquals(new int[]{3, 4}, indice.buscar("yoga", 2));
+    }
+
+    @Test
+    public void anadirYEliminar_actualizanSinReconstruir() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(entrenamiento(1).setNombre("Cardio").setDescripcion("Intenso").construir());
+        indice.anadir(entrenamiento(2).setNombre("Pilates").setDescripcion("Core").construir());
+
+        // Reemplazar el entrenamiento 1: el término viejo desaparece
+        indice.anadir(entrenamiento(1).setNombre("Ciclismo").setDescripcion("Intenso").construir());
+        assertEquals(0, indice.buscar("cardio", 10).length);
+        assertArrayEquals(new int[]{1}, indice.buscar("ciclismo", 10));
+        assertEquals(2, indice.tamano());
+
+        assertTrue(indice.eliminar(2));
+        assertFalse(indice.eliminar(2));
+        assertEquals(0, indice.buscar("core", 10).length);
+
+        // El número de documento liberado se reutiliza sin mezclar resultados
+        indice.anadir(entrenamiento(3).setNombre("Core total").setDescripcion("Abdominales").construir());
+        assertArrayEquals(new int[]{3}, indice.buscar("core", 10));
+        assertEquals(2, indice.tamano());
+    }
+
+    @Test
+    public void aIgualPuntuacion_ganaElIdMasBajo() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(entrenamiento(5).setNombre("Remo").construir());
+        indice.anadir(entrenamiento(9).setNombre("Remo").construir());
+        // 8 reutiliza el número de documento que deja 5: no por eso pasa delante de 9
+        indice.eliminar(5);
+        indice.anadir(entrenamiento(8).setNombre("Remo").construir());
+        indice.anadir(entrenamiento(2).setNombre("Remo").construir());
+
+        assertArrayEquals(new int[]{2, 8, 9}, indice.buscar("remo", 10));
+    }
+
+    @Test
+    public void eliminarYReemplazar_enListasLargas() {
+        // Todos comparten "sesion": quitar de la mitad mueve entradas dentro de esa lista
+        IndiceBusqueda indice = new IndiceBusqueda();
+        for (int id = 1; id <= 2_000; id++) {
+            indice.anadir(entrenamiento(id).setNombre(PALABRAS[id % PALABRAS.length])
+                    .setDescripcion("Sesión " + id).construir());
+        }
+        for (int id = 2; id <= 2_000; id += 2) {
+            assertTrue(indice.eliminar(id));
+        }
+        for (int id = 3; id <= 2_000; id += 4) {
+            indice.anadir(entrenamiento(id).setNombre("Remo").setDescripcion("Sesión " + id).construir());
+        }
+
+        assertEquals(1_000, indice.tamano());
+        assertEquals(1_000, indice.buscar("sesion", 2_000).length);
+        assertEquals(500, indice.buscar("remo", 2_000).length);
+        for (int id = 1; id <= 2_000; id++) {
+            // "12" también encuentra "120", "1200"...: la coincidencia entera va primero
+            int[] encontrados = indice.buscar(Integer.toString(id), 2_000);
+            boolean esta = encontrados.length > 0 && encontrados[0] == id;
+            assertEquals("ID " + id, id % 2 == 1, esta);
+        }
+        for (int id = 1; id <= 2_000; id += 2) {
+            assertTrue(indice.eliminar(id));
+        }
+        assertEquals(0, indice.numTerminos());
+    }
+
+    @Test
+    public void buscarMientrasSeEscribe_100k() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        for (int i = 0; i < N; i++) {
+            String a = PALABRAS[i % PALABRAS.length];
+            String b = PALABRAS[(i / PALABRAS.length) % PALABRAS.length];
+            indice.anadir(entrenamiento(i + 1).setNombre(a + " " + b + " " + i)
+                    .setDescripcion("Sesión de " + b + " con trabajo de " + PALABRAS[(i * 7) % PALABRAS.length])
+                    .construir());
+        }
+
+        // Cada prefijo de "cardio fuerza" es una pulsación de teclado: los resultados
+        // solo pueden reducirse a medida que se escribe la segunda palabra
+        String consulta = "cardio fuerza";
+        int[] anteriores = null;
+        for (int fin = "cardio f".length(); fin <= consulta.length(); fin++) {
+            int[] ids = indice.buscar(consulta.substring(0, fin), N);
+            assertTrue(consulta.substring(0, fin), ids.length > 0);
+            if (anteriores != null) {
+                assertTrue(ids.length <= anteriores.length);
+            }
+            anteriores = ids;
+        }
+        assertEquals(50, indice.buscar("c", 50).length);
+    }
+
+}
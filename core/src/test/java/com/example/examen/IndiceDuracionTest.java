@@ -0,0 +1,134 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Análisis de duraciones en texto y consultas por rango de minutos con IndiceDuracion,
+ * comparadas con recorrer 100.000 entrenamientos analizando el texto cada vez (los
+ * dos tiempos se miden en :benchmarks, FiltroBenchmark).
+ */
+public class IndiceDuracionTest {
+
+    private static final int N = 100_000;
+
+    @Test
+    public void analizar_formatosAceptados() {
+        assertEquals(45, AnalizadorDuracion.minutos("45 minutos"));
+        assertEquals(45, AnalizadorDuracion.minutos("45"));
+        assertEquals(45, AnalizadorDuracion.minutos("45 min"));
+        assertEquals(45, AnalizadorDuracion.minutos("45m"));
+        assertEquals(45, AnalizadorDuracion.minutos("45'"));
+        assertEquals(60, AnalizadorDuracion.minutos("1 hora"));
+        assertEquals(120, AnalizadorDuracion.minutos("2 HORAS"));
+        assertEquals(90, AnalizadorDuracion.minutos("1,5 horas"));
+        assertEquals(90, AnalizadorDuracion.minutos("1h 30m"));
+        assertEquals(90, AnalizadorDuracion.minutos("1h30"));
+        assertEquals(90, AnalizadorDuracion.minutos("1 hora y 30 minutos"));
+        assertEquals(90, AnalizadorDuracion.minutos("1:30"));
+        assertEquals(25, AnalizadorDuracion.minutos("25 Minutos"));
+    }
+
+    @Test
+    public void analizar_rechazaTextoNoReconocible() {
+        assertEquals(AnalizadorDuracion.SIN_DURACION, AnalizadorDuracion.minutos(null));
+        assertEquals(AnalizadorDuracion.SIN_DURACION, AnalizadorDuracion.minutos(""));
+        assertEquals(AnalizadorDuracion.SIN_DURACION, AnalizadorDuracion.minutos("media hora"));
+        assertEquals(AnalizadorDuracion.SIN_DURACION, AnalizadorDuracion.minutos("45 segundos"));
+        assertEquals(AnalizadorDuracion.SIN_DURACION, AnalizadorDuracion.minutos("1:5"));
+        assertEquals(AnalizadorDuracion.SIN_DURACION, AnalizadorDuracion.minutos("99999999999 minutos"));
+    }
+
+    @Test
+    public void entrenamiento_reanalizaAlCambiarLaDuracion() {
+        Entrenamiento e = entrenamiento(1).setDuracion("30 minutos").construir();
+        assertEquals(30, e.getMinutos());
+        Entrenamiento editado = e.editar().setDuracion("2h").construir();
+        assertEquals(120, editado.getMinutos());
+        assertEquals(30, e.getMinutos());
+    }
+
+    @Test
+    public void rango_incluyeLosExtremosYSeMantieneAlDia() {
+        IndiceDuracion indice = new IndiceDuracion();
+        indice.anadir(entrenamiento(1).setDuracion("45 minutos").construir());
+        indice.anadir(entrenamiento(2).setDuracion("20 minutos").construir());
+        indice.anadir(entrenamiento(3).setDuracion("1 hora").construir());
+        indice.anadir(entrenamiento(4).setDuracion("40 minutos").construir());
+        indice.anadir(entrenamiento(5).setDuracion("no sé").construir());
+
+        assertEquals(4, indice.tamano());
+        assertArrayEquals(new int[]{2, 4}, indice.rango(20, 40));
+        assertArrayEquals(new int[]{2, 4, 1, 3}, indice.ordenados());
+        assertEquals(0, indice.contarRango(61, 500));
+
+        // Editar la duración mueve la entrada; eliminar la quita
+        indice.anadir(entrenamiento(3).setDuracion("30 minutos").construir());
+        assertArrayEquals(new int[]{2, 3, 4}, indice.rango(20, 40));
+        assertTrue(indice.eliminar(2));
+        assertFalse(indice.eliminar(5));
+        assertArrayEquals(new int[]{3, 4}, indice.rango(20, 40));
+        assertEquals(AnalizadorDuracion.SIN_DURACION, indice.minutosDe(2));
+    }
+
+    @Test
+    public void anadirLote_equivaleAAnadirUnoAUno() {
+        IndiceDuracion unoAUno = new IndiceDuracion();
+        IndiceDuracion porLotes = new IndiceDuracion();
+        List<Entrenamiento> lote = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Entrenamiento e = entrenamiento(i % 2500 + 1).setDuracion((i * 37) % 200 + " minutos").construir();
+            unoAUno.anadir(e);
+            lote.add(e);
+            if (lote.size() == 1000) {
+                porLotes.anadirLote(lote);
+                lote.clear();
+            }
+        }
+        assertEquals(unoAUno.tamano(), porLotes.tamano());
+        assertArrayEquals(unoAUno.ordenados(), porLotes.ordenados());
+    }
+
+    @Test
+    public void rango_100k_igualQueRecorrer() {
+        Entrenamiento[] catalogo = new Entrenamiento[N];
+        for (int i = 0; i < N; i++) {
+            int minutos = 5 + (i * 7919) % 175;
+            catalogo[i] = entrenamiento(i + 1)
+                    .setDuracion(i % 4 == 0 ? (minutos / 60) + "h " + (minutos % 60) + "m" : minutos + " minutos")
+                    .construir();
+        }
+        IndiceDuracion indice = new IndiceDuracion();
+        for (int desde = 0; desde < N; desde += 1000) {
+            indice.anadirLote(Arrays.asList(catalogo).subList(desde, desde + 1000));
+        }
+
+        int[] ids = indice.rango(20, 40);
+
+        // Lo que había que hacer antes: analizar el texto de cada entrenamiento
+        List<Integer> esperados = new ArrayList<>();
+        for (Entrenamiento e : catalogo) {
+            int minutos = AnalizadorDuracion.analizar(e.getDuracion());
+            if (minutos >= 20 && minutos <= 40) {
+                esperados.add(e.getId());
+            }
+        }
+        int anterior = 0;
+        List<Integer> encontrados = new ArrayList<>();
+        for (int id : ids) {
+            int minutos = AnalizadorDuracion.analizar(catalogo[id - 1].getDuracion());
+            assertTrue("Ordenados por duración", minutos >= anterior);
+            anterior = minutos;
+            encontrados.add(id);
+        }
+        encontrados.sort(null);
+        assertEquals(esperados, encontrados);
+    }
+
+}
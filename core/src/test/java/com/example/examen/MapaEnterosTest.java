@@ -0,0 +1,53 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Índice ID → ranura (MapaEnteros): inserciones y búsquedas hasta 1M entradas
+ * (el mapa crece varias veces) y eliminaciones que no rompen las demás claves.
+ * El coste por operación se mide en :benchmarks (BusquedaPorIdBenchmark).
+ */
+public class MapaEnterosTest {
+
+    private static final int[] TAMANOS = {10, 1_000, 100_000, 1_000_000};
+    private static final int BUSQUEDAS = 100_000;
+
+    @Test
+    public void insercionYBusqueda_alCrecer() {
+        for (int n : TAMANOS) {
+            MapaEnteros mapa = new MapaEnteros();
+            for (int id = 1; id <= n; id++) {
+                mapa.poner(id, id * 3);
+            }
+            assertEquals(n, mapa.tamano());
+
+            Random random = new Random(42);
+            for (int i = 0; i < BUSQUEDAS; i++) {
+                int clave = 1 + random.nextInt(n);
+                assertEquals(clave * 3, mapa.obtener(clave));
+            }
+            assertEquals(MapaEnteros.VALOR_AUSENTE, mapa.obtener(n + 1));
+            assertEquals(MapaEnteros.VALOR_AUSENTE, mapa.obtener(0));
+        }
+    }
+
+    @Test
+    public void eliminar_conservaLasDemasClaves() {
+        MapaEnteros mapa = new MapaEnteros();
+        for (int id = 0; id < 10_000; id++) {
+            mapa.poner(id, id * 2);
+        }
+        for (int id = 0; id < 10_000; id += 3) {
+            assertEquals(id * 2, mapa.eliminar(id));
+        }
+        for (int id = 0; id < 10_000; id++) {
+            int esperado = id % 3 == 0 ? MapaEnteros.VALOR_AUSENTE : id * 2;
+            assertEquals(esperado, mapa.obtener(id));
+        }
+        assertEquals(10_000 - 3334, mapa.tamano());
+    }
+}
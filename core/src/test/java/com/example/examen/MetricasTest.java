@@ -0,0 +1,115 @@
+package com.example.examen;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Percentiles de HistogramaLatencias frente a los exactos (lista ordenada) y
+ * Metricas desactivadas: no miden nada (lo que cuestan se mide en :benchmarks,
+ * MetricasBenchmark).
+ */
+public class MetricasTest {
+
+    private static final int MEDIDAS = 200_000;
+    private static final int LLAMADAS = 1000;
+
+    @After
+    public void restaurar() {
+        Metricas.setActivas(false);
+        Metricas.setTrazador(null);
+        Metricas.reiniciar();
+    }
+
+    @Test
+    public void casillas_sonContinuasYContienenSuValor() {
+        long anterior = -1;
+        for (int casilla = 0; casilla < 200; casilla++) {
+            long limite = HistogramaLatencias.limiteSuperior(casilla);
+            assertTrue(limite > anterior);
+            assertEquals(casilla, HistogramaLatencias.casilla(limite));
+            assertEquals(casilla, HistogramaLatencias.casilla(anterior + 1));
+            anterior = limite;
+        }
+        assertEquals(Long.MAX_VALUE, HistogramaLatencias.limiteSuperior(HistogramaLatencias.casilla(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentiles_dentroDelErrorDeLasCasillas() {
+        HistogramaLatencias histograma = new HistogramaLatencias();
+        List<Long> medidas = new ArrayList<>(MEDIDAS);
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < MEDIDAS; i++) {
+            // Cola larga: la mayoría ~50 µs, algunas de varios ms
+            long nanos = (long) (50_000 * Math.exp(aleatorio.nextGaussian()));
+            medidas.add(nanos);
+            histograma.registrar(nanos);
+        }
+        medidas.sort(null);
+
+        assertEquals(MEDIDAS, histograma.getTotal());
+        assertEquals(medidas.get(MEDIDAS - 1).longValue(), histograma.getMaximo());
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exacto = medidas.get((int) Math.ceil(p / 100 * MEDIDAS) - 1);
+            long aproximado = histograma.percentil(p);
+            assertTrue("p" + p + " nunca por debajo del real", aproximado >= exacto);
+            assertTrue("p" + p + " con error ≤ 12,5 %", aproximado <= exacto * 1.125 + 1);
+        }
+
+        histograma.reiniciar();
+        assertEquals(0, histograma.getTotal());
+        assertEquals(0, histograma.percentil(99));
+    }
+
+    @Test
+    public void activas_midenYEmitenSeccionesEmparejadas() {
+        int[] abiertas = new int[1];
+        Metricas.setTrazador(new Metricas.Trazador() {
+            @Override
+            public void comenzar(String seccion) {
+                abiertas[0]++;
+            }
+
+            @Override
+            public void terminar() {
+                abiertas[0]--;
+            }
+        });
+        Metricas.setActivas(true);
+
+        for (int i = 0; i < 3; i++) {
+            long inicio = Metricas.iniciar("prueba.tiempo");
+            assertEquals(1, abiertas[0]);
+            Metricas.terminar("prueba.tiempo", inicio);
+            Metricas.contar("prueba.contador");
+        }
+
+        assertEquals(0, abiertas[0]);
+        assertEquals(3, Metricas.getTiempo("prueba.tiempo").getTotal());
+        assertEquals(3, Metricas.getContador("prueba.contador"));
+        String informe = Metricas.informe();
+        assertTrue(informe.contains("prueba.tiempo"));
+        assertTrue(informe.contains("prueba.contador"));
+    }
+
+    @Test
+    public void desactivadas_noMidenNada() {
+        Metricas.setActivas(false);
+        long suma = 0;
+        for (int i = 0; i < LLAMADAS; i++) {
+            long inicio = Metricas.iniciar("prueba.desactivada");
+            Metricas.terminar("prueba.desactivada", inicio);
+            Metricas.contar("prueba.desactivada");
+            suma += inicio;
+        }
+
+        assertEquals(0, suma);
+        assertNull(Metricas.getTiempo("prueba.desactivada"));
+        assertEquals(0, Metricas.getContador("prueba.desactivada"));
+    }
+}
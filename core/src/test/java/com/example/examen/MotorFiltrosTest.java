@@ -0,0 +1,118 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Random;
+
+import static com.example.examen.EntrenamientosPrueba.DIFICULTADES;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * BitsetComprimido frente a java.util.BitSet (mismos resultados con altas, bajas,
+ * AND y OR en contenedores de array y de mapa de bits) y filtros combinados de
+ * MotorFiltros con 100.000 entrenamientos frente a recorrer la lista.
+ */
+public class MotorFiltrosTest {
+
+    private static final int N = 100_000;
+    /** Más iconos que EntrenamientosPrueba.ICONOS: cada filtro de icono deja menos entrenamientos */
+    private static final int[] ICONOS = {17301575, 17301577, 17301585, 17301562, 17301567};
+
+    @Test
+    public void bitset_coincideConBitSet() {
+        Random random = new Random(42);
+        BitsetComprimido a = new BitsetComprimido();
+        BitsetComprimido b = new BitsetComprimido();
+        BitSet refA = new BitSet();
+        BitSet refB = new BitSet();
+
+        // Zona densa (mapas de bits) y zona dispersa (arrays), con bajas que
+        // devuelven contenedores de mapa a array
+        for (int i = 0; i < 60_000; i++) {
+            int denso = random.nextInt(20_000);
+            int disperso = 200_000 + random.nextInt(2_000_000);
+            assertEquals(!refA.get(denso), a.anadir(denso));
+            refA.set(denso);
+            a.anadir(disperso);
+            refA.set(disperso);
+            if (i % 2 == 0) {
+                int v = random.nextInt(30_000);
+                b.anadir(v);
+                refB.set(v);
+            }
+            if (i % 3 == 0) {
+                int v = random.nextInt(20_000);
+                assertEquals(refA.get(v), a.quitar(v));
+                refA.clear(v);
+            }
+        }
+
+        assertArrayEquals(refA.stream().toArray(), a.aArray());
+        assertEquals(refA.cardinality(), a.cardinalidad());
+
+        BitSet and = (BitSet) refA.clone();
+        and.and(refB);
+        assertArrayEquals(and.stream().toArray(), BitsetComprimido.and(a, b).aArray());
+
+        BitSet or = (BitSet) refA.clone();
+        or.or(refB);
+        assertArrayEquals(or.stream().toArray(), BitsetComprimido.or(a, b).aArray());
+
+        assertArrayEquals(Arrays.copyOf(refA.stream().toArray(), 10), a.aArray(10));
+        assertTrue(a.contiene(refA.nextSetBit(0)));
+        assertFalse(a.contiene(refA.nextClearBit(0)));
+    }
+
+    @Test
+    public void filtros_seMantienenAlDiaEnAltasBajasYEdiciones() {
+        MotorFiltros motor = new MotorFiltros();
+        motor.anadir(entrenamiento(1).setDificultad("Alta").setIconoResId(ICONOS[0]).construir());
+        motor.anadir(entrenamiento(2).setDificultad("Alta").setIconoResId(ICONOS[1]).construir());
+        motor.anadir(entrenamiento(3).setDificultad("Baja").setIconoResId(ICONOS[0]).construir());
+
+        assertArrayEquals(new int[]{1}, motor.filtrar(Collections.singletonList("Alta"), new int[]{ICONOS[0]}).aArray());
+        assertArrayEquals(new int[]{1, 2, 3}, motor.filtrar(Arrays.asList("Alta", "Baja"), null).aArray());
+        assertArrayEquals(new int[]{1, 3}, motor.filtrar(null, new int[]{ICONOS[0]}).aArray());
+        assertEquals(0, motor.filtrar(Collections.singletonList("Media"), null).cardinalidad());
+
+        // Editar: el 3 pasa a Alta; eliminar: el 1 desaparece de todos los conjuntos
+        motor.anadir(entrenamiento(3).setDificultad("Alta").setIconoResId(ICONOS[0]).construir());
+        assertEquals(0, motor.contarDificultad("Baja"));
+        assertTrue(motor.eliminar(1));
+        assertArrayEquals(new int[]{3}, motor.filtrar(Collections.singletonList("Alta"), new int[]{ICONOS[0]}).aArray());
+        assertEquals(2, motor.tamano());
+
+        // El resultado es una copia: modificarlo no afecta al motor
+        motor.filtrar(null, null).anadir(99);
+        assertEquals(2, motor.filtrar(null, null).cardinalidad());
+    }
+
+    @Test
+    public void filtroCombinado_100k_igualQueRecorrer() {
+        Entrenamiento[] catalogo = new Entrenamiento[N];
+        MotorFiltros motor = new MotorFiltros();
+        for (int i = 0; i < N; i++) {
+            catalogo[i] = entrenamiento(i + 1).setDificultad(DIFICULTADES[(i * 31) % 3])
+                    .setIconoResId(ICONOS[(i * 17) % ICONOS.length]).construir();
+            motor.anadir(catalogo[i]);
+        }
+
+        BitsetComprimido resultado = motor.filtrar(Collections.singletonList("Alta"), new int[]{ICONOS[0], ICONOS[2]});
+
+        int esperados = 0;
+        for (Entrenamiento e : catalogo) {
+            boolean pasa = e.getDificultad().equals("Alta")
+                    && (e.getIconoResId() == ICONOS[0] || e.getIconoResId() == ICONOS[2]);
+            if (pasa) {
+                esperados++;
+            }
+            assertEquals(pasa, resultado.contiene(e.getId()));
+        }
+        assertEquals(esperados, resultado.cardinalidad());
+    }
+
+}
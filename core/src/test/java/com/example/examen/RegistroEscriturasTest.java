@@ -0,0 +1,230 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.examen.EntrenamientosPrueba.DIFICULTADES;
+import static com.example.examen.EntrenamientosPrueba.ICONOS;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Registro de escritura anticipada: varios hilos comparten cada fsync (group commit),
+ * nada se ve antes de ser durable, un almacén "muerto" sin sincronizar se recupera
+ * entero desde el ".wal", una cola rota del ".wal" se descarta y tras un punto de
+ * control solo se reproduce lo posterior.
+ */
+public class RegistroEscriturasTest {
+
+    @Test
+    public void sincronizacionAgrupada_menosFsyncQueEscrituras() throws Exception {
+        int hilos = 8;
+        int porHilo = 200;
+        File fichero = temporal();
+        try (RegistroEscrituras registro = RegistroEscrituras.abrir(fichero, carga -> { })) {
+            CountDownLatch salida = new CountDownLatch(1);
+            AtomicReference<Throwable> fallo = new AtomicReference<>();
+            List<Thread> escritores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                Thread escritor = new Thread(() -> {
+                    try {
+                        salida.await();
+                        for (int i = 0; i < porHilo; i++) {
+                            // Cada escritor espera a que SU registro sea durable, como un commit
+                            registro.esperarDurable(registro.anadir(ByteBuffer.wrap(new byte[64])));
+                        }
+                    } catch (Throwable t) {
+                        fallo.set(t);
+                    }
+                });
+                escritor.start();
+                escritores.add(escritor);
+            }
+
+            salida.countDown();
+            for (Thread escritor : escritores) {
+                escritor.join();
+            }
+            assertNull(fallo.get());
+
+            int escrituras = hilos * porHilo;
+            long sincronizaciones = registro.getSincronizaciones();
+            assertTrue(sincronizaciones > 0);
+            assertTrue("Los hilos deben compartir fsync", sincronizaciones < escrituras);
+        } finally {
+            fichero.delete();
+        }
+    }
+
+    @Test
+    public void caida_elAlmacenSeRecuperaDesdeElRegistro() throws IOException {
+        File origen = temporal();
+        File copia = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen)) {
+            rellenar(almacen, 300);
+            almacen.guardar(entrenamiento(7).setNombre("Editado").setDescripcion("Nueva descripción 🏃")
+                    .setDuracion("1h").setDificultad("Alta").setIconoResId(ICONOS[2]).construir());
+            almacen.eliminar(8);
+            List<Entrenamiento> esperados = almacen.obtenerTodos();
+
+            // Caída: al almacén solo le dio tiempo a llegar al disco la cabecera y medio registro
+            copiar(origen, copia);
+            try (RandomAccessFile almacenCopia = new RandomAccessFile(copia, "rw")) {
+                almacenCopia.setLength(8 + 20);
+            }
+
+            try (AlmacenEntrenamientos recuperado = AlmacenEntrenamientos.abrir(copia)) {
+                assertEquals(300 + 2, recuperado.getRegistrosRecuperados());
+                assertIguales(esperados, recuperado.obtenerTodos());
+            }
+            // El punto de control tras recuperar deja el ".wal" vacío
+            try (AlmacenEntrenamientos reabierto = AlmacenEntrenamientos.abrir(copia)) {
+                assertEquals(0, reabierto.getRegistrosRecuperados());
+                assertIguales(esperados, reabierto.obtenerTodos());
+            }
+        } finally {
+            borrar(origen);
+            borrar(copia);
+        }
+    }
+
+    @Test
+    public void colaRota_seDescartaSinPerderLoAnterior() throws IOException {
+        File origen = temporal();
+        File copia = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen)) {
+            List<Entrenamiento> esperados = rellenar(almacen, 50);
+
+            copiar(origen, copia);
+            // Un registro a medio escribir: longitud plausible, CRC y datos basura
+            try (RandomAccessFile registroCopia = new RandomAccessFile(copia.getPath() + ".wal", "rw")) {
+                registroCopia.seek(registroCopia.length());
+                registroCopia.write(new byte[]{10, 1, 2, 3, 4, 5, 6, 7});
+            }
+
+            try (AlmacenEntrenamientos recuperado = AlmacenEntrenamientos.abrir(copia)) {
+                assertEquals(50, recuperado.getRegistrosRecuperados());
+                assertIguales(esperados, recuperado.obtenerTodos());
+            }
+        } finally {
+            borrar(origen);
+            borrar(copia);
+        }
+    }
+
+    @Test
+    public void puntoControl_soloSeReproduceLaCola() throws IOException {
+        File origen = temporal();
+        File copia = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(origen, 4096)) {
+            for (int i = 0; i < 20; i++) {
+                rellenar(almacen, 50);
+            }
+            List<Entrenamiento> esperados = almacen.obtenerTodos();
+
+            copiar(origen, copia);
+            assertTrue("El \".wal\" no crece más allá del límite",
+                    new File(copia.getPath() + ".wal").length() < 4096 + 50 * 200);
+
+            try (AlmacenEntrenamientos recuperado = AlmacenEntrenamientos.abrir(copia)) {
+                int recuperados = recuperado.getRegistrosRecuperados();
+                assertTrue(recuperados < 1000);
+                assertIguales(esperados, recuperado.obtenerTodos());
+            }
+        } finally {
+            borrar(origen);
+            borrar(copia);
+        }
+    }
+
+    @Test
+    public void guardar_esDurableAntesDeVerse() throws IOException {
+        int n = 2000;
+        File fichero = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            long marca = RepositorioEntrenamientos.SIN_CAMBIOS;
+            for (int i = 0; i < n; i++) {
+                marca = almacen.guardarSinConfirmar(entrenamiento(i + 1)
+                        .setDificultad(DIFICULTADES[i % 3]).setIconoResId(ICONOS[i % 3]).construir());
+                // Aunque el hilo del registro ya lo haya sincronizado, nadie lo ha confirmado
+                assertNull(almacen.obtenerPorId(i + 1));
+            }
+            assertEquals(0, almacen.contar());
+
+            almacen.confirmar(marca);
+            assertTrue(almacen.getLsnDurableRegistro() >= marca);
+            assertEquals(n, almacen.contar());
+            assertTrue("Una sola espera por todo el lote", almacen.getSincronizacionesRegistro() < n);
+
+            // guardar() = escribir + confirmar: al retornar ya es durable y visible
+            almacen.guardar(entrenamiento(n + 1).setNombre("Último").construir());
+            assertEquals(n + 1, almacen.contar());
+            assertTrue(almacen.eliminar(1));
+            assertNull(almacen.obtenerPorId(1));
+            assertEquals(RepositorioEntrenamientos.SIN_CAMBIOS, almacen.eliminarSinConfirmar(1));
+        } finally {
+            borrar(fichero);
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static List<Entrenamiento> rellenar(AlmacenEntrenamientos almacen, int cantidad) throws IOException {
+        List<Entrenamiento> lote = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int id = almacen.generarNuevoId();
+            lote.add(entrenamiento(id)
+                    .setDescripcion("Descripción número " + id)
+                    .setDuracion((15 + i % 90) + " minutos")
+                    .setDificultad(DIFICULTADES[i % 3])
+                    .setIconoResId(ICONOS[i % 3])
+                    .construir());
+        }
+        almacen.guardarLote(lote);
+        return almacen.obtenerTodos();
+    }
+
+    /** Copia el almacén y sus ficheros auxiliares tal como están ahora (como si el proceso muriera) */
+    private static void copiar(File origen, File destino) throws IOException {
+        for (String sufijo : new String[]{"", ".seq", ".wal"}) {
+            Files.copy(new File(origen.getPath() + sufijo).toPath(), new File(destino.getPath() + sufijo).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void assertIguales(List<Entrenamiento> esperados, List<Entrenamiento> leidos) {
+        assertEquals(esperados.size(), leidos.size());
+        for (int i = 0; i < esperados.size(); i++) {
+            Entrenamiento esperado = esperados.get(i);
+            Entrenamiento leido = leidos.get(i);
+            assertEquals(esperado.getId(), leido.getId());
+            assertEquals(esperado.getNombre(), leido.getNombre());
+            assertEquals(esperado.getDescripcion(), leido.getDescripcion());
+            assertEquals(esperado.getDuracion(), leido.getDuracion());
+            assertEquals(esperado.getDificultad(), leido.getDificultad());
+            assertEquals(esperado.getIconoResId(), leido.getIconoResId());
+        }
+    }
+
+    private static File temporal() throws IOException {
+        File fichero = File.createTempFile("registro", ".tmp");
+        fichero.delete();
+        return fichero;
+    }
+
+    private static void borrar(File fichero) {
+        fichero.delete();
+        new File(fichero.getPath() + ".seq").delete();
+        new File(fichero.getPath() + ".wal").delete();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fotogramas por pantalla en RegistroFotogramas: detección de tirones, atribución
+ * a la última operación y percentiles de un scroll largo (lo que cuesta registrar
+ * cada fotograma se mide en :benchmarks, FotogramasBenchmark).
+ */
+public class RegistroFotogramasTest {
+
+    private static final long MS = 1_000_000L;
+    private static final int FOTOGRAMAS = 1_000_000;
+
+    @Test
+    public void lentosYCongelados_porEncimaDelPresupuesto() {
+        RegistroFotogramas registro = new RegistroFotogramas();
+        registro.registrar("lista", 0, 10 * MS);
+        registro.registrar("lista", 0, RegistroFotogramas.PRESUPUESTO_60HZ);
+        registro.registrar("lista", 0, 20 * MS);
+        registro.registrar("lista", 0, 800 * MS);
+        registro.registrar("detalle", 0, 5 * MS);
+
+        RegistroFotogramas.Pantalla lista = registro.getPantalla("lista");
+        assertEquals(4, lista.getDuraciones().getTotal());
+        assertEquals(2, lista.getLentos());
+        assertEquals(1, lista.getCongelados());
+        assertEquals(50.0, lista.getPorcentajeLentos(), 1e-9);
+        assertEquals(0, registro.getPantalla("detalle").getLentos());
+        assertNull(registro.getPantalla("dialogo.nuevo"));
+
+        // A 120 Hz, 10 ms ya es un tirón
+        registro.setPresupuesto(1_000_000_000L / 120);
+        registro.registrar("detalle", 0, 10 * MS);
+        assertEquals(1, registro.getPantalla("detalle").getLentos());
+    }
+
+    @Test
+    public void lentos_seAtribuyenALaOperacionQueLosRetraso() {
+        RegistroFotogramas registro = new RegistroFotogramas();
+        long presupuesto = registro.getPresupuesto();
+
+        // Sin ninguna operación anotada todavía
+        registro.registrar("lista", 1_000 * MS, 30 * MS);
+
+        // Termina dentro del fotograma
+        registro.anotarOperacion("lista.bind", 2_010 * MS);
+        registro.registrar("lista", 2_000 * MS, 30 * MS);
+
+        // Termina justo antes de empezar el fotograma (menos de un presupuesto)
+        registro.anotarOperacion("dialogo.nuevo.inflar", 3_000 * MS - presupuesto / 2);
+        registro.registrar("dialogo.nuevo", 3_000 * MS, 40 * MS);
+
+        // Terminó mucho antes: no es la causa
+        registro.registrar("dialogo.nuevo", 4_000 * MS, 40 * MS);
+
+        // Los fotogramas a tiempo no se atribuyen a nadie
+        registro.anotarOperacion("lista.bind", 5_000 * MS);
+        registro.registrar("lista", 5_000 * MS, 5 * MS);
+
+        RegistroFotogramas.Pantalla lista = registro.getPantalla("lista");
+        assertEquals(1, lista.getLentosPor(RegistroFotogramas.SIN_CAUSA));
+        assertEquals(1, lista.getLentosPor("lista.bind"));
+        RegistroFotogramas.Pantalla dialogo = registro.getPantalla("dialogo.nuevo");
+        assertEquals(1, dialogo.getLentosPor("dialogo.nuevo.inflar"));
+        assertEquals(1, dialogo.getLentosPor(RegistroFotogramas.SIN_CAUSA));
+    }
+
+    @Test
+    public void scrollLargo_percentilesEInforme() throws Exception {
+        RegistroFotogramas registro = new RegistroFotogramas();
+        Random aleatorio = new Random(7);
+        int esperadosLentos = 0;
+
+        long vsync = 0;
+        for (int i = 0; i < FOTOGRAMAS; i++) {
+            // 98 % entre 4 y 12 ms; 2 % tirones de 20 a 60 ms tras un bind
+            boolean tiron = aleatorio.nextInt(100) < 2;
+            long duracion = tiron ? (20 + aleatorio.nextInt(40)) * MS : (4 + aleatorio.nextInt(8)) * MS;
+            if (tiron) {
+                esperadosLentos++;
+                registro.anotarOperacion("lista.bind", vsync + MS);
+            }
+            registro.registrar("lista", vsync, duracion);
+            vsync += RegistroFotogramas.PRESUPUESTO_60HZ;
+        }
+        RegistroFotogramas.Pantalla lista = registro.getPantalla("lista");
+        HistogramaLatencias duraciones = lista.getDuraciones();
+
+        assertEquals(FOTOGRAMAS, duraciones.getTotal());
+        assertEquals(esperadosLentos, lista.getLentos());
+        assertEquals(esperadosLentos, lista.getLentosPor("lista.bind"));
+        // Duraciones sintéticas (no el reloj): los percentiles son deterministas
+        assertTrue(duraciones.percentil(50) < 12 * MS);
+        assertTrue(duraciones.percentil(99) >= 20 * MS);
+
+        StringWriter informe = new StringWriter();
+        registro.volcar(informe);
+        assertTrue(informe.toString().contains("lista"));
+        assertTrue(informe.toString().contains("lento tras lista.bind"));
+
+        registro.reiniciar();
+        assertNull(registro.getPantalla("lista"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.examen;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * RegistroIconos: el catálogo se construye una vez (misma lista en cada consulta),
+ * la búsqueda por iconoResId es O(1) y los paquetes extra se añaden sin tocar las
+ * versiones que ya se repartieron.
+ */
+public class RegistroIconosTest {
+
+    /**
+     * El registro del módulo core empieza vacío (el paquete básico lo registra la
+     * app): se registra un paquete de 12 iconos equivalente.
+     */
+    @BeforeClass
+    public static void registrarPaqueteBasico() {
+        RegistroIconos.registrarPaquete(paquete("basico-prueba", iconosBasicos().toArray(new IconoEntrenamiento[0])));
+    }
+
+    @Test
+    public void consultas_noCreanNada() {
+        List<IconoEntrenamiento> iconos = IconoEntrenamiento.getIconosDisponibles();
+        assertSame(iconos, IconoEntrenamiento.getIconosDisponibles());
+        assertTrue(iconos.size() >= 12);
+        for (IconoEntrenamiento icono : iconos) {
+            assertSame(icono, IconoEntrenamiento.getIconoPorId(icono.getIconoResId()));
+        }
+        // Un ID desconocido da el icono por defecto (el primero)
+        assertSame(iconos.get(0), IconoEntrenamiento.getIconoPorId(-12345));
+        assertNull(RegistroIconos.getIcono(-12345));
+        try {
+            iconos.add(iconos.get(0));
+            fail("La lista del registro debe ser de solo lectura");
+        } catch (UnsupportedOperationException esperada) {
+            // ok
+        }
+    }
+
+    @Test
+    public void paqueteExtra_seAnadeSinCambiarLoAnterior() {
+        List<IconoEntrenamiento> antes = IconoEntrenamiento.getIconosDisponibles();
+        int tamanoAntes = antes.size();
+        IconoEntrenamiento repetido = antes.get(1);
+
+        PaqueteIconos extra = paquete("extra-prueba",
+                new IconoEntrenamiento(900_001, "Natación", "Piscina"),
+                new IconoEntrenamiento(repetido.getIconoResId(), "Duplicado", "Mismo ID que uno básico"),
+                new IconoEntrenamiento(900_002, "Escalada", "Rocódromo"));
+
+        assertEquals(2, RegistroIconos.registrarPaquete(extra));
+        assertEquals(0, RegistroIconos.registrarPaquete(extra));
+
+        List<IconoEntrenamiento> despues = IconoEntrenamiento.getIconosDisponibles();
+        assertEquals(tamanoAntes, antes.size());
+        assertEquals(tamanoAntes + 2, despues.size());
+        assertEquals("Natación", RegistroIconos.getIcono(900_001).getNombre());
+        assertEquals("Escalada", despues.get(despues.size() - 1).getNombre());
+        // Si el ID ya existía, gana el primero
+        assertSame(repetido, IconoEntrenamiento.getIconoPorId(repetido.getIconoResId()));
+    }
+
+    @Test
+    public void buscarPorId_igualQueRecorrerLaLista() {
+        for (IconoEntrenamiento esperado : iconosBasicos()) {
+            IconoEntrenamiento encontrado = IconoEntrenamiento.getIconoPorId(esperado.getIconoResId());
+            assertSame("Siempre el mismo objeto", encontrado, IconoEntrenamiento.getIconoPorId(esperado.getIconoResId()));
+            assertEquals(buscarEnListaNueva(esperado.getIconoResId()).getIconoResId(), encontrado.getIconoResId());
+            assertEquals(esperado.getNombre(), encontrado.getNombre());
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static IconoEntrenamiento buscarEnListaNueva(int iconoResId) {
+        for (IconoEntrenamiento icono : iconosBasicos()) {
+            if (icono.getIconoResId() == iconoResId) {
+                return icono;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 12 iconos nuevos en cada llamada, como la lista que se creaba antes en cada consulta.
+     */
+    private static List<IconoEntrenamiento> iconosBasicos() {
+        List<IconoEntrenamiento> iconos = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            iconos.add(new IconoEntrenamiento(17_301_560 + i, "Icono " + i, "Icono básico de prueba " + i));
+        }
+        return iconos;
+    }
+
+    private static PaqueteIconos paquete(String nombre, IconoEntrenamiento... iconos) {
+        return new PaqueteIconos() {
+            @Override
+            public String getNombre() {
+                return nombre;
+            }
+
+            @Override
+            public List<IconoEntrenamiento> getIconos() {
+                return Arrays.asList(iconos);
+            }
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Simplificación de rutas: cada nivel de una ruta sintética de 100.000 puntos
+ * tiene menos puntos que el anterior, error acotado en cada nivel, número de puntos acotado al elegir nivel
+ * y mismo resultado leyendo en streaming desde un FicheroRecorrido.
+ */
+public class SimplificadorRutaTest {
+
+    /** ~28 horas a 1 Hz */
+    private static final int PUNTOS = 100_000;
+
+    /** Lo que VistaRuta dibuja como mucho */
+    private static final int MAXIMO_PUNTOS = 1000;
+
+    @Test
+    public void ruta100k_cadaNivelConMenosPuntos() {
+        RutaSimplificada simplificada = simplificar(ruta(new Random(11), PUNTOS));
+
+        assertEquals(PUNTOS, simplificada.getOriginal());
+        assertTrue("El nivel 0 ya debe quitar puntos", simplificada.getPuntos(0) < PUNTOS / 2);
+        for (int nivel = 1; nivel < simplificada.getNiveles(); nivel++) {
+            assertTrue(simplificada.getPuntos(nivel) <= simplificada.getPuntos(nivel - 1));
+        }
+    }
+
+    @Test
+    public void cadaNivel_quedaDentroDeLaTolerancia() {
+        int[][] ruta = ruta(new Random(3), PUNTOS);
+        RutaSimplificada simplificada = simplificar(ruta);
+        double[] x = new double[PUNTOS];
+        double[] y = new double[PUNTOS];
+        proyectar(ruta, x, y);
+
+        for (int nivel = 0; nivel < simplificada.getNiveles(); nivel++) {
+            int puntos = simplificada.getPuntos(nivel);
+            assertEquals("Empieza en el primer punto", 0, simplificada.getIndice(nivel, 0));
+            assertEquals("Acaba en el último punto", PUNTOS - 1, simplificada.getIndice(nivel, puntos - 1));
+            double limite = 2 * simplificada.getTolerancia(nivel) + 1e-6;
+            double peor = 0;
+            for (int p = 1; p < puntos; p++) {
+                int a = simplificada.getIndice(nivel, p - 1);
+                int b = simplificada.getIndice(nivel, p);
+                assertTrue(a < b);
+                assertEquals(ruta[0][b], simplificada.getLatitudE7(nivel, p));
+                assertEquals(ruta[1][b], simplificada.getLongitudE7(nivel, p));
+                for (int i = a + 1; i < b; i++) {
+                    peor = Math.max(peor, distancia(x, y, i, a, b));
+                }
+            }
+            assertTrue("Nivel " + nivel + ": " + peor + " m > " + limite, peor <= limite);
+        }
+    }
+
+    @Test
+    public void nivelPara_nuncaPasaDelMaximo() {
+        RutaSimplificada simplificada = simplificar(ruta(new Random(7), PUNTOS));
+        for (double metrosPorPixel = 0.25; metrosPorPixel < 10_000; metrosPorPixel *= 2) {
+            int nivel = simplificada.nivelPara(metrosPorPixel, MAXIMO_PUNTOS);
+            assertTrue(metrosPorPixel + " m/px: " + simplificada.getPuntos(nivel) + " puntos",
+                    simplificada.getPuntos(nivel) <= MAXIMO_PUNTOS);
+            if (nivel > 0 && simplificada.getPuntos(nivel - 1) <= MAXIMO_PUNTOS) {
+                assertTrue("Solo pierde detalle que no se ve",
+                        2 * simplificada.getTolerancia(nivel) <= metrosPorPixel / 2);
+            }
+        }
+        assertEquals(0, simplificada.nivelParaZoom(20));
+        assertEquals(2, simplificada.nivelParaZoom(15));
+        assertEquals(SimplificadorRuta.NIVELES - 1, simplificada.nivelParaZoom(0));
+    }
+
+    @Test
+    public void rutasCortas() {
+        RutaSimplificada vacia = new SimplificadorRuta().terminar();
+        assertTrue(vacia.isVacia());
+        assertEquals(0, vacia.getPuntos(0));
+
+        SimplificadorRuta uno = new SimplificadorRuta();
+        uno.anadir(404_168_000, -37_038_000);
+        RutaSimplificada punto = uno.terminar();
+        for (int nivel = 0; nivel < punto.getNiveles(); nivel++) {
+            assertEquals(1, punto.getPuntos(nivel));
+        }
+
+        // Justo el tamaño de la ventana: ni se duplica ni se pierde el último punto
+        int[][] ruta = ruta(new Random(1), SimplificadorRuta.VENTANA);
+        RutaSimplificada justa = simplificar(ruta);
+        for (int nivel = 0; nivel < justa.getNiveles(); nivel++) {
+            assertEquals(SimplificadorRuta.VENTANA - 1, justa.getIndice(nivel, justa.getPuntos(nivel) - 1));
+        }
+    }
+
+    @Test
+    public void desdeFichero_igualQueEnMemoria() throws IOException {
+        File fichero = File.createTempFile("ruta", ".trk");
+        assertTrue(fichero.delete());
+        try {
+            int[][] ruta = ruta(new Random(5), 20_000);
+            BufferMuestras buffer = new BufferMuestras();
+            try (FicheroRecorrido recorrido = FicheroRecorrido.abrir(fichero)) {
+                for (int i = 0; i < ruta[0].length; i++) {
+                    buffer.ofrecer(i * 1000L, ruta[0][i] / 1e7, ruta[1][i] / 1e7, 650, 5);
+                    if (buffer.getPendientes() == 30) {
+                        recorrido.volcar(buffer);
+                    }
+                }
+                recorrido.volcar(buffer);
+            }
+
+            SimplificadorRuta simplificador = new SimplificadorRuta();
+            FicheroRecorrido.leer(fichero, simplificador);
+            RutaSimplificada leida = simplificador.terminar();
+            RutaSimplificada esperada = SimplificadorRuta.simplificar(FicheroRecorrido.leer(fichero));
+            assertEquals(esperada.getOriginal(), leida.getOriginal());
+            for (int nivel = 0; nivel < esperada.getNiveles(); nivel++) {
+                assertEquals(esperada.getPuntos(nivel), leida.getPuntos(nivel));
+                for (int p = 0; p < esperada.getPuntos(nivel); p++) {
+                    assertEquals(esperada.getIndice(nivel, p), leida.getIndice(nivel, p));
+                }
+            }
+        } finally {
+            fichero.delete();
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static RutaSimplificada simplificar(int[][] ruta) {
+        SimplificadorRuta simplificador = new SimplificadorRuta();
+        for (int i = 0; i < ruta[0].length; i++) {
+            simplificador.anadir(ruta[0][i], ruta[1][i]);
+        }
+        return simplificador.terminar();
+    }
+
+    /**
+     * Corredor a ~3 m/s que cambia poco a poco de rumbo, con ruido de GPS.
+     *
+     * @return {latitudes, longitudes} en grados × 10^7
+     */
+    private static int[][] ruta(Random aleatorio, int puntos) {
+        int[][] ruta = new int[2][puntos];
+        double latitud = 40.4168;
+        double longitud = -3.7038;
+        double rumbo = 0;
+        for (int i = 0; i < puntos; i++) {
+            rumbo += aleatorio.nextGaussian() * 0.1;
+            double metros = 3 + aleatorio.nextGaussian() * 0.3;
+            latitud += Math.cos(rumbo) * metros / 111_320 + aleatorio.nextGaussian() * 1e-6;
+            longitud += Math.sin(rumbo) * metros / (111_320 * Math.cos(Math.toRadians(latitud)));
+            ruta[0][i] = (int) Math.round(latitud * 1e7);
+            ruta[1][i] = (int) Math.round(longitud * 1e7);
+        }
+        return ruta;
+    }
+
+    /** Misma proyección que SimplificadorRuta: plano tangente en el primer punto */
+    private static void proyectar(int[][] ruta, double[] x, double[] y) {
+        double metrosPorE7 = 111_319.49 / 1e7;
+        double metrosPorE7Longitud = metrosPorE7 * Math.cos(Math.toRadians(ruta[0][0] / 1e7));
+        for (int i = 0; i < x.length; i++) {
+            x[i] = ((long) ruta[1][i] - ruta[1][0]) * metrosPorE7Longitud;
+            y[i] = ((long) ruta[0][i] - ruta[0][0]) * metrosPorE7;
+        }
+    }
+
+    /** Distancia del punto p al segmento a-b */
+    private static double distancia(double[] x, double[] y, int p, int a, int b) {
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double px = x[p] - x[a];
+        double py = y[p] - y[a];
+        double longitud = dx * dx + dy * dy;
+        if (longitud > 0) {
+            double t = Math.max(0, Math.min(1, (px * dx + py * dy) / longitud));
+            px -= t * dx;
+            py -= t * dy;
+        }
+        return Math.sqrt(px * px + py * py);
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.examen;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.examen.EntrenamientosPrueba.DIFICULTADES;
+import static com.example.examen.EntrenamientosPrueba.ICONOS;
+import static com.example.examen.EntrenamientosPrueba.entrenamiento;
+import static org.junit.Assert.*;
+
+/**
+ * Colecciones persistentes (las versiones viejas no cambian), bajas con lápidas en
+ * un catálogo de 100.000 entrenamientos y prueba de estrés de
+ * VistaEntrenamientos: varios lectores leen sin candados mientras un hilo reescribe
+ * el catálogo por lotes; nunca ven un lote a medias y siguen leyendo aunque el
+ * escritor tenga tomado el candado del almacén.
+ */
+public class VistaEntrenamientosTest {
+
+    @Test
+    public void vector_versionesAnterioresNoCambian() {
+        Random aleatorio = new Random(7);
+        List<Integer> referencia = new ArrayList<>();
+        VectorPersistente vector = VectorPersistente.vacio();
+        List<VectorPersistente> versiones = new ArrayList<>();
+        List<List<Integer>> copias = new ArrayList<>();
+
+        for (int paso = 0; paso < 5000; paso++) {
+            int operacion = aleatorio.nextInt(10);
+            if (operacion < 6 || referencia.isEmpty()) {
+                int valor = aleatorio.nextInt(1_000_000);
+                referencia.add(valor);
+                vector = vector.anadir(valor);
+            } else if (operacion < 9) {
+                int indice = aleatorio.nextInt(referencia.size());
+                int valor = aleatorio.nextInt(1_000_000);
+                referencia.set(indice, valor);
+                vector = vector.poner(indice, valor);
+            } else {
+                int indice = aleatorio.nextInt(referencia.size());
+                referencia.remove(indice);
+                vector = vector.quitar(indice);
+            }
+            if (paso % 250 == 0) {
+                versiones.add(vector);
+                copias.add(new ArrayList<>(referencia));
+            }
+        }
+
+        assertIguales(referencia, vector);
+        for (int i = 0; i < versiones.size(); i++) {
+            assertIguales(copias.get(i), versiones.get(i));
+        }
+        int[] valores = {5, 6, 7};
+        assertEquals(1, VectorPersistente.de(valores, 3).indiceDe(6));
+    }
+
+    @Test
+    public void mapa_versionesAnterioresNoCambian() {
+        Random aleatorio = new Random(11);
+        Map<Integer, Integer> referencia = new HashMap<>();
+        MapaPersistente mapa = MapaPersistente.vacio();
+        MapaPersistente anterior = null;
+        Map<Integer, Integer> copiaAnterior = null;
+
+        for (int paso = 0; paso < 20_000; paso++) {
+            // Claves densas (como los IDs) con alguna muy grande para que el trie crezca
+            int clave = aleatorio.nextInt(20) == 0 ? aleatorio.nextInt(Integer.MAX_VALUE) : aleatorio.nextInt(3000);
+            if (aleatorio.nextInt(4) == 0) {
+                referencia.remove(clave);
+                mapa = mapa.eliminar(clave);
+            } else {
+                int valor = aleatorio.nextInt(Integer.MAX_VALUE - 1);
+                referencia.put(clave, valor);
+                mapa = mapa.poner(clave, valor);
+            }
+            if (paso == 10_000) {
+                anterior = mapa;
+                copiaAnterior = new HashMap<>(referencia);
+            }
+        }
+
+        assertIguales(referencia, mapa);
+        assertIguales(copiaAnterior, anterior);
+        assertEquals(MapaPersistente.VALOR_AUSENTE, mapa.obtener(-5));
+
+        int[] claves = {3, 40, 3};
+        int[] valores = {1, 2, 9};
+        MapaPersistente construido = MapaPersistente.de(claves, valores, 3);
+        assertEquals(2, construido.tamano());
+        assertEquals(9, construido.obtener(3));
+    }
+
+    @Test
+    public void bajas_100k_dejanLapidasYSeCompactan() {
+        int n = 100_000;
+        int[] ids = new int[n];
+        int[] posiciones = new int[n];
+        List<Integer> referencia = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+            posiciones[i] = (i + 1) * 10;
+            referencia.add(i + 1);
+        }
+        // Sin almacén: solo se consultan IDs y posiciones, nunca se decodifica un registro
+        VistaEntrenamientos vista = VistaEntrenamientos.construir(null, ids, posiciones, n, 0);
+        Random aleatorio = new Random(13);
+        VistaEntrenamientos anterior = null;
+        List<Integer> copiaAnterior = null;
+
+        for (int paso = 1; paso <= 20_000; paso++) {
+            if (paso % 10 == 0) {
+                // Un ID dado de baja vuelve al final de la lista
+                int id = n + paso;
+                vista = vista.conAlta(id, id * 10, 0);
+                referencia.add(id);
+            } else {
+                int id = referencia.remove(aleatorio.nextInt(referencia.size()));
+                vista = vista.conBaja(id, 0);
+                assertFalse(vista.contiene(id));
+                assertSame("Borrar dos veces no cambia nada", vista, vista.conBaja(id, 0));
+            }
+            if (paso % 1000 == 0) {
+                assertIguales(referencia, vista);
+                if (anterior != null) {
+                    assertIguales(copiaAnterior, anterior);
+                }
+                anterior = vista;
+                copiaAnterior = new ArrayList<>(referencia);
+            }
+        }
+        assertEquals(referencia.size(), vista.contar());
+    }
+
+    @Test
+    public void bajas_paginasIgualesAntesYDespuesDeReabrir() throws IOException {
+        File fichero = temporal();
+        try {
+            List<Entrenamiento> esperados;
+            try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+                almacen.guardarLote(generacion(null, 500, 0));
+                // Más bajas que el límite de lápidas: hay compactaciones por el camino
+                for (int id = 3; id <= 500; id += 3) {
+                    assertTrue(almacen.eliminar(id));
+                }
+                esperados = almacen.obtenerTodos();
+                assertEquals(500 - 166, esperados.size());
+                for (int desde = 0; desde < esperados.size(); desde += 37) {
+                    assertEquals(esperados.subList(desde, Math.min(esperados.size(), desde + 37)),
+                            almacen.obtenerRango(desde, 37));
+                }
+            }
+            try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+                assertEquals(esperados, almacen.obtenerTodos());
+            }
+        } finally {
+            borrar(fichero);
+        }
+    }
+
+    @Test
+    public void lectores_nuncaVenUnLoteAMedias() throws Exception {
+        int n = 1000;
+        int generaciones = 40;
+        File fichero = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            almacen.guardarLote(generacion(null, n, 0));
+            List<Entrenamiento> base = almacen.obtenerTodos();
+
+            AtomicBoolean terminado = new AtomicBoolean();
+            AtomicReference<Throwable> fallo = new AtomicReference<>();
+            AtomicLong lecturas = new AtomicLong();
+            List<Thread> lectores = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                Thread lector = new Thread(() -> {
+                    try {
+                        while (!terminado.get()) {
+                            VistaEntrenamientos vista = almacen.getVista();
+                            List<Entrenamiento> todos = vista.obtenerTodos();
+                            assertEquals(vista.contar(), todos.size());
+                            // Todo el lote (n entrenamientos) es de la MISMA generación
+                            String generacion = generacionDe(todos.get(0));
+                            for (int i = 0; i < n; i++) {
+                                assertEquals(generacion, generacionDe(todos.get(i)));
+                            }
+                            lecturas.incrementAndGet();
+                        }
+                    } catch (Throwable t) {
+                        fallo.compareAndSet(null, t);
+                    }
+                });
+                lector.start();
+                lectores.add(lector);
+            }
+
+            // Escritor: reescribe el lote entero y mete y saca entrenamientos extra
+            for (int g = 1; g <= generaciones; g++) {
+                almacen.guardarLote(generacion(base, n, g));
+                int extra = almacen.generarNuevoId();
+                almacen.guardar(entrenamiento(extra).setNombre("Extra").setDescripcion("Temporal")
+                        .setDuracion("5 minutos").setDificultad("Baja").construir());
+                if (g % 2 == 0) {
+                    almacen.eliminar(extra);
+                }
+            }
+            terminado.set(true);
+            for (Thread lector : lectores) {
+                lector.join();
+            }
+
+            assertNull(String.valueOf(fallo.get()), fallo.get());
+            assertTrue(lecturas.get() > 0);
+            assertEquals(n + generaciones / 2, almacen.contar());
+        } finally {
+            borrar(fichero);
+        }
+    }
+
+    @Test
+    public void lectores_noEsperanAlCandadoDelEscritor() throws Exception {
+        File fichero = temporal();
+        try (AlmacenEntrenamientos almacen = AlmacenEntrenamientos.abrir(fichero)) {
+            almacen.guardarLote(generacion(null, 200, 0));
+
+            AtomicLong lecturas = new AtomicLong();
+            AtomicBoolean terminado = new AtomicBoolean();
+            CountDownLatch candadoTomado = new CountDownLatch(1);
+            Thread lector = new Thread(() -> {
+                try {
+                    candadoTomado.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!terminado.get()) {
+                    almacen.obtenerRango(50, 50);
+                    almacen.obtenerPorId(7);
+                    lecturas.incrementAndGet();
+                }
+            });
+            lector.start();
+
+            // Mientras el candado de las escrituras está tomado, el lector sigue leyendo
+            long duranteElCandado;
+            synchronized (almacen) {
+                candadoTomado.countDown();
+                Thread.sleep(300);
+                duranteElCandado = lecturas.get();
+            }
+            terminado.set(true);
+            lector.join();
+
+            assertTrue("Las lecturas no deben bloquearse", duranteElCandado > 0);
+        } finally {
+            borrar(fichero);
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /** n entrenamientos con la generación en el nombre; con base, reescribe los mismos IDs */
+    private static List<Entrenamiento> generacion(List<Entrenamiento> base, int n, int generacion) {
+        List<Entrenamiento> lote = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int id = base != null ? base.get(i).getId() : i + 1;
+            lote.add(entrenamiento(id)
+                    .setNombre("Entrenamiento " + id + " #" + generacion)
+                    .setDescripcion("Generación " + generacion)
+                    .setDuracion((10 + i % 50) + " minutos")
+                    .setDificultad(DIFICULTADES[i % 3])
+                    .setIconoResId(ICONOS[(i + generacion) % 3])
+                    .construir());
+        }
+        return lote;
+    }
+
+    private static String generacionDe(Entrenamiento entrenamiento) {
+        String nombre = entrenamiento.getNombre();
+        return nombre.substring(nombre.indexOf('#') + 1);
+    }
+
+    private static void assertIguales(List<Integer> esperados, VectorPersistente vector) {
+        assertEquals(esperados.size(), vector.tamano());
+        int[] valores = vector.aArray();
+        for (int i = 0; i < esperados.size(); i++) {
+            assertEquals((int) esperados.get(i), vector.obtener(i));
+            assertEquals((int) esperados.get(i), valores[i]);
+        }
+    }
+
+    private static void assertIguales(List<Integer> esperados, VistaEntrenamientos vista) {
+        assertEquals(esperados.size(), vista.contar());
+        for (int i = 0; i < esperados.size(); i++) {
+            assertEquals((int) esperados.get(i), vista.idEn(i));
+            assertEquals(esperados.get(i) * 10, vista.posicionEn(i));
+        }
+    }
+
+    private static void assertIguales(Map<Integer, Integer> esperados, MapaPersistente mapa) {
+        assertEquals(esperados.size(), mapa.tamano());
+        for (Map.Entry<Integer, Integer> entrada : esperados.entrySet()) {
+            assertEquals((int) entrada.getValue(), mapa.obtener(entrada.getKey()));
+        }
+    }
+
+    private static File temporal() throws IOException {
+        File fichero = File.createTempFile("vista", ".tmp");
+        fichero.delete();
+        return fichero;
+    }
+
+    private static void borrar(File fichero) {
+        fichero.delete();
+        new File(fichero.getPath() + ".seq").delete();
+        new File(fichero.getPath() + ".wal").delete();
+    }
+}
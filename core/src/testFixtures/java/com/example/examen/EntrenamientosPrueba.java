@@ -0,0 +1,35 @@
+package com.example.examen;
+
+/**
+ * Entrenamientos para las pruebas de core y de la app: un Entrenamiento.Builder ya
+ * relleno con datos válidos, para que cada test cambie solo lo que comprueba.
+ *
+ * EntrenamientosPrueba.entrenamiento(7).setDificultad("Alta").construir();
+ */
+final class EntrenamientosPrueba {
+
+    /** Las dificultades del catálogo de ejemplo */
+    static final String[] DIFICULTADES = {"Baja", "Media", "Alta"};
+
+    /** IDs de icono fijos: no hace falta ningún paquete registrado */
+    static final int[] ICONOS = {17301575, 17301577, 17301585};
+
+    private EntrenamientosPrueba() {
+        // Solo métodos estáticos
+    }
+
+    /**
+     * @param id ID del entrenamiento
+     * @return Builder con "Entrenamiento id", "Descripción id", 30 minutos,
+     *         dificultad Media y el primer icono
+     */
+    static Entrenamiento.Builder entrenamiento(int id) {
+        return new Entrenamiento.Builder()
+                .setId(id)
+                .setNombre("Entrenamiento " + id)
+                .setDescripcion("Descripción " + id)
+                .setDuracion("30 minutos")
+                .setDificultad("Media")
+                .setIconoResId(ICONOS[0]);
+    }
+}